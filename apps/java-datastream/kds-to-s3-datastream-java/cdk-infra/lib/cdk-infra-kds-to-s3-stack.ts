@@ -105,6 +105,16 @@ export class CdkInfraKdsToS3Stack extends cdk.Stack {
                     'kinesis:PutRecords',
                     'kinesis:ListShards']
         }),
+        // only used when RecordPublisherType is set to EFO
+        new iam.PolicyStatement({
+          resources: [kinesisStream.streamArn, `${kinesisStream.streamArn}/consumer/*`],
+          actions: ['kinesis:DescribeStreamSummary',
+                    'kinesis:RegisterStreamConsumer',
+                    'kinesis:DeregisterStreamConsumer',
+                    'kinesis:DescribeStreamConsumer',
+                    'kinesis:ListStreamConsumers',
+                    'kinesis:SubscribeToShard']
+        }),
       ],
     });
 
@@ -0,0 +1,140 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.benchmark;
+
+import com.amazonaws.services.kinesisanalytics.OutputFormatConfig;
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import org.apache.flink.api.common.serialization.BulkWriter;
+import org.apache.flink.core.fs.FSDataOutputStream;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes batches of {@link Stock} with each output format of the FileSink, through the same
+ * writer factories the sink uses (see {@link OutputFormatConfig}). The part file goes to a
+ * counting stream, so only encoding and compression are measured. {@code fileBytes} divided by
+ * {@code records} is the encoded size per record.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OutputFormatBenchmark {
+    private static final int BATCH_SIZE = 10_000;
+
+    // <OutputFormat>:<compression>
+    @Param({"PARQUET:UNCOMPRESSED", "PARQUET:ZSTD",
+            "ORC:ZLIB",
+            "JSON:NONE", "JSON:GZIP", "JSON:ZSTD"})
+    public String format;
+
+    private Stock[] stocks;
+    private BulkWriter.Factory<Stock> writerFactory;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class FileSize {
+        public long fileBytes;
+        public long records;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            fileBytes = 0;
+            records = 0;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        stocks = StockPayloads.generateStocks(BATCH_SIZE, 100);
+
+        String[] formatAndCompression = format.split(":");
+        Properties appProperties = new Properties();
+        appProperties.setProperty("OutputFormat", formatAndCompression[0]);
+        // ParquetCompression, OrcCompression or JsonCompression
+        String compressionKey = formatAndCompression[0].charAt(0)
+                + formatAndCompression[0].substring(1).toLowerCase() + "Compression";
+        appProperties.setProperty(compressionKey, formatAndCompression[1]);
+        writerFactory = OutputFormatConfig.fromProperties(appProperties).createStockWriterFactory();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long encodeBatch(FileSize fileSize) throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        BulkWriter<Stock> writer = writerFactory.create(out);
+        for (Stock stock : stocks) {
+            writer.addElement(stock);
+        }
+        writer.finish();
+
+        fileSize.fileBytes += out.bytes;
+        fileSize.records += stocks.length;
+        return out.bytes;
+    }
+
+    private static class CountingOutputStream extends FSDataOutputStream {
+        private long bytes;
+
+        @Override
+        public long getPos() {
+            return bytes;
+        }
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void sync() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.benchmark;
+
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import com.amazonaws.services.kinesisanalytics.stock.StockWriteSupport;
+import org.apache.avro.reflect.ReflectData;
+import org.apache.parquet.avro.AvroParquetWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes batches of {@link Stock} into a Parquet file, roughly what one subtask writes per bucket
+ * and checkpoint. Compares {@link StockWriteSupport} with the Avro reflect writer the sink used
+ * before. The file goes to a counting stream, so only encoding and compression are measured;
+ * {@code fileBytes} adds up the encoded size of all batches written in an iteration.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParquetEncodingBenchmark {
+    private static final int BATCH_SIZE = 10_000;
+
+    @Param({"writeSupport", "avroReflect"})
+    public String writer;
+
+    @Param({"UNCOMPRESSED", "SNAPPY", "ZSTD"})
+    public CompressionCodecName compression;
+
+    private Stock[] stocks;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class FileSize {
+        public long fileBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            fileBytes = 0;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        stocks = StockPayloads.generateStocks(BATCH_SIZE, 100);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long encodeBatch(FileSize fileSize) throws IOException {
+        CountingOutputFile file = new CountingOutputFile();
+        try (ParquetWriter<Stock> parquetWriter = createWriter(file)) {
+            for (Stock stock : stocks) {
+                parquetWriter.write(stock);
+            }
+        }
+
+        fileSize.fileBytes += file.bytes;
+        return file.bytes;
+    }
+
+    private ParquetWriter<Stock> createWriter(OutputFile file) throws IOException {
+        if (writer.equals("writeSupport")) {
+            return StockWriteSupport.builder(file)
+                    .withCompressionCodec(compression)
+                    .build();
+        }
+
+        return AvroParquetWriter.<Stock>builder(file)
+                .withSchema(ReflectData.get().getSchema(Stock.class))
+                .withDataModel(ReflectData.get())
+                .withCompressionCodec(compression)
+                .build();
+    }
+
+    private static class CountingOutputFile implements OutputFile {
+        private long bytes;
+
+        @Override
+        public PositionOutputStream create(long blockSizeHint) {
+            return new PositionOutputStream() {
+                @Override
+                public long getPos() {
+                    return bytes;
+                }
+
+                @Override
+                public void write(int b) {
+                    bytes++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    bytes += len;
+                }
+            };
+        }
+
+        @Override
+        public PositionOutputStream createOrOverwrite(long blockSizeHint) {
+            return create(blockSizeHint);
+        }
+
+        @Override
+        public boolean supportsBlockSize() {
+            return false;
+        }
+
+        @Override
+        public long defaultBlockSize() {
+            return 0;
+        }
+    }
+}
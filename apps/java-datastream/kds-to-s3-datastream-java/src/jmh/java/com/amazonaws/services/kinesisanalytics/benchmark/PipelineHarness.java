@@ -0,0 +1,308 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.benchmark;
+
+import com.amazonaws.services.kinesisanalytics.StreamingJob;
+import com.amazonaws.services.kinesisanalytics.metrics.KinesisAnalyticsMetrics;
+import com.amazonaws.services.kinesisanalytics.sink.ParquetInputFile;
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import com.amazonaws.services.kinesisanalytics.stock.StockWatermarks;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.luben.zstd.ZstdInputStream;
+import org.apache.flink.api.common.JobID;
+import org.apache.flink.api.common.restartstrategy.RestartStrategies;
+import org.apache.flink.api.java.utils.ParameterTool;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.TaskManagerOptions;
+import org.apache.flink.runtime.checkpoint.CheckpointStatsSnapshot;
+import org.apache.flink.runtime.checkpoint.StatsSummarySnapshot;
+import org.apache.flink.runtime.jobgraph.JobGraph;
+import org.apache.flink.runtime.jobmaster.JobResult;
+import org.apache.flink.runtime.minicluster.MiniCluster;
+import org.apache.flink.runtime.minicluster.MiniClusterConfiguration;
+import org.apache.flink.streaming.api.datastream.DataStream;
+import org.apache.flink.streaming.api.environment.ExecutionCheckpointingOptions;
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.apache.flink.util.TimeUtils;
+import org.apache.parquet.hadoop.ParquetFileReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Runs the topology of {@link StreamingJob} on a local MiniCluster, with the Kinesis source
+ * replaced by a rate-controlled {@link SyntheticStockSource} and the real FileSink writing to local
+ * disk, and reports sustained throughput, event-to-commit latency, checkpoint durations and the
+ * files written.
+ *
+ * <p>Harness options (all optional): {@code --parallelism 2 --rate 20000 --duration "60 s"
+ * --checkpoint-interval "10 s" --output /tmp/pipeline-harness --result-file pipeline-result.json}.
+ * A rate of 0 generates as fast as the pipeline accepts records. Every other {@code --Key value}
+ * is passed on as an application property, e.g. {@code --ParquetCompression SNAPPY}.
+ */
+public class PipelineHarness {
+    private static final String PARALLELISM = "parallelism";
+    private static final String RATE = "rate";
+    private static final String DURATION = "duration";
+    private static final String CHECKPOINT_INTERVAL = "checkpoint-interval";
+    private static final String OUTPUT = "output";
+    private static final String RESULT_FILE = "result-file";
+
+    private static final List<String> HARNESS_OPTIONS =
+            List.of(PARALLELISM, RATE, DURATION, CHECKPOINT_INTERVAL, OUTPUT, RESULT_FILE);
+
+    public static void main(String[] args) throws Exception {
+        ParameterTool params = ParameterTool.fromArgs(args);
+        int parallelism = params.getInt(PARALLELISM, 2);
+        long rate = params.getLong(RATE, 20_000);
+        Duration duration = TimeUtils.parseDuration(params.get(DURATION, "60 s"));
+        Duration checkpointInterval = TimeUtils.parseDuration(params.get(CHECKPOINT_INTERVAL, "10 s"));
+        File output = new File(params.get(OUTPUT, "/tmp/pipeline-harness"));
+        File resultFile = new File(params.get(RESULT_FILE, "target/pipeline-result.json"));
+
+        Properties appProperties = new Properties();
+        appProperties.setProperty("BucketName", output.toURI().toString());
+        appProperties.setProperty("PartitionFormat", "yyyy-MM-dd-HH");
+        params.toMap().forEach((key, value) -> {
+            if (!HARNESS_OPTIONS.contains(key)) {
+                appProperties.setProperty(key, value);
+            }
+        });
+
+        deleteRecursively(output.toPath());
+        SyntheticStockSource.resetStatistics();
+
+        Configuration configuration = KinesisAnalyticsMetrics.localReporterConfiguration();
+        configuration.set(ExecutionCheckpointingOptions.ENABLE_CHECKPOINTS_AFTER_TASKS_FINISH, true);
+        configuration.set(TaskManagerOptions.NUM_TASK_SLOTS, parallelism);
+
+        StreamExecutionEnvironment env = new StreamExecutionEnvironment(configuration);
+        env.setParallelism(parallelism);
+        env.enableCheckpointing(checkpointInterval.toMillis());
+        // Fail fast instead of measuring a restart loop
+        env.setRestartStrategy(RestartStrategies.noRestart());
+
+        SyntheticStockSource source = new SyntheticStockSource(
+                StreamingJob.getDeserializationSchema(appProperties, StreamingJob.getStockTypeInfo(appProperties)),
+                rate,
+                duration);
+        // The Kinesis consumer assigns timestamps per shard; the synthetic source needs a strategy instead
+        DataStream<Stock> stockStream = env.addSource(source, "Synthetic source")
+                .assignTimestampsAndWatermarks(StockWatermarks.strategy(
+                        StreamingJob.getWatermarkOutOfOrderness(appProperties), Duration.ofMinutes(1)));
+        StreamingJob.addProcessingAndSinks(stockStream, appProperties);
+
+        JobGraph jobGraph = env.getStreamGraph().getJobGraph();
+
+        MiniClusterConfiguration clusterConfiguration = new MiniClusterConfiguration.Builder()
+                .setConfiguration(configuration)
+                .setNumTaskManagers(1)
+                .setNumSlotsPerTaskManager(parallelism)
+                .build();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        try (MiniCluster cluster = new MiniCluster(clusterConfiguration)) {
+            cluster.start();
+
+            long start = System.nanoTime();
+            JobID jobId = cluster.submitJob(jobGraph).get().getJobID();
+            JobResult jobResult = cluster.requestJobResult(jobId).get();
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            if (!jobResult.isSuccess()) {
+                throw new IllegalStateException("Pipeline failed", jobResult.getSerializedThrowable()
+                        .map(t -> t.deserializeError(PipelineHarness.class.getClassLoader()))
+                        .orElse(null));
+            }
+
+            CheckpointStatsSnapshot checkpoints =
+                    cluster.getArchivedExecutionGraph(jobId).get().getCheckpointStatsSnapshot();
+
+            result.put("parallelism", parallelism);
+            result.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+            result.put("targetRecordsPerSecond", rate);
+            result.put("durationSeconds", duration.getSeconds());
+            result.put("checkpointIntervalMillis", checkpointInterval.toMillis());
+            result.put("jobSeconds", seconds);
+            result.put("throughput", throughput(duration, seconds, parallelism));
+            result.put("eventToCommitLatencyMillis", latency());
+            result.put("checkpoints", checkpoints(checkpoints));
+            result.put("output", outputFiles(output.toPath()));
+        }
+
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        String json = mapper.writeValueAsString(result);
+        System.out.println(json);
+
+        if (resultFile.getParentFile() != null) {
+            Files.createDirectories(resultFile.getParentFile().toPath());
+        }
+        Files.write(resultFile.toPath(), json.getBytes());
+    }
+
+    private static Map<String, Object> throughput(Duration duration, double jobSeconds, int parallelism) {
+        // The source runs for the configured duration; the remainder of the job is start-up and
+        // the final checkpoint
+        double sourceSeconds = duration.toMillis() / 1000.0;
+        long generated = SyntheticStockSource.GENERATED.sum();
+        long emitted = SyntheticStockSource.EMITTED.sum();
+
+        Map<String, Object> throughput = new LinkedHashMap<>();
+        throughput.put("generatedRecords", generated);
+        throughput.put("emittedRecords", emitted);
+        throughput.put("recordsPerSecond", generated / sourceSeconds);
+        throughput.put("recordsPerSecondPerSlot", generated / sourceSeconds / parallelism);
+        throughput.put("recordsPerSecondIncludingStartup", generated / jobSeconds);
+        return throughput;
+    }
+
+    private static Map<String, Object> latency() {
+        List<Long> samples;
+        synchronized (SyntheticStockSource.COMMIT_LATENCIES_MILLIS) {
+            samples = new ArrayList<>(SyntheticStockSource.COMMIT_LATENCIES_MILLIS);
+        }
+        Collections.sort(samples);
+
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("samples", samples.size());
+        if (!samples.isEmpty()) {
+            latency.put("p50", percentile(samples, 0.50));
+            latency.put("p99", percentile(samples, 0.99));
+            latency.put("max", samples.get(samples.size() - 1));
+        }
+        return latency;
+    }
+
+    private static long percentile(List<Long> sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index));
+    }
+
+    private static Map<String, Object> checkpoints(CheckpointStatsSnapshot snapshot) {
+        Map<String, Object> checkpoints = new LinkedHashMap<>();
+        checkpoints.put("completed", snapshot.getCounts().getNumberOfCompletedCheckpoints());
+        checkpoints.put("failed", snapshot.getCounts().getNumberOfFailedCheckpoints());
+
+        StatsSummarySnapshot durations = snapshot.getSummaryStats().getEndToEndDurationStats();
+        checkpoints.put("durationMillisAverage", durations.getAverage());
+        checkpoints.put("durationMillisP50", durations.getQuantile(0.50));
+        checkpoints.put("durationMillisP99", durations.getQuantile(0.99));
+        checkpoints.put("durationMillisMax", durations.getMaximum());
+        return checkpoints;
+    }
+
+    private static Map<String, Object> outputFiles(Path output) throws IOException {
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(output)) {
+            // In-progress and not yet compacted files are hidden
+            files = paths.filter(Files::isRegularFile)
+                    .filter(p -> !p.getFileName().toString().startsWith("."))
+                    .collect(Collectors.toList());
+        }
+
+        long totalBytes = 0;
+        long minBytes = Long.MAX_VALUE;
+        long maxBytes = 0;
+        long records = 0;
+        boolean counted = true;
+        for (Path file : files) {
+            long size = Files.size(file);
+            totalBytes += size;
+            minBytes = Math.min(minBytes, size);
+            maxBytes = Math.max(maxBytes, size);
+
+            long count = recordCount(file);
+            counted &= count >= 0;
+            records += count;
+        }
+
+        Map<String, Object> outputFiles = new LinkedHashMap<>();
+        outputFiles.put("files", files.size());
+        // Not counted for ORC
+        outputFiles.put("committedRecords", counted ? records : null);
+        outputFiles.put("totalBytes", totalBytes);
+        outputFiles.put("minFileBytes", files.isEmpty() ? 0 : minBytes);
+        outputFiles.put("averageFileBytes", files.isEmpty() ? 0 : totalBytes / files.size());
+        outputFiles.put("maxFileBytes", maxBytes);
+        return outputFiles;
+    }
+
+    /**
+     * @return -1 if the format cannot be read back here
+     */
+    private static long recordCount(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        if (name.endsWith(".orc")) {
+            return -1;
+        }
+        if (!name.contains(".jsonl")) {
+            try (ParquetFileReader reader = ParquetFileReader.open(
+                    new ParquetInputFile(new org.apache.flink.core.fs.Path(file.toUri())))) {
+                return reader.getRecordCount();
+            }
+        }
+
+        InputStream in = Files.newInputStream(file);
+        if (name.endsWith(".gz")) {
+            in = new GZIPInputStream(in);
+        } else if (name.endsWith(".zst")) {
+            in = new ZstdInputStream(in);
+        }
+
+        long lines = 0;
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream json = in) {
+            for (int read = json.read(buffer); read != -1; read = json.read(buffer)) {
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        lines++;
+                    }
+                }
+            }
+        }
+        return lines;
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path p : paths.sorted(Collections.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(p);
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.benchmark;
+
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import com.amazonaws.services.kinesisanalytics.stock.StockDateBucketAssigner;
+import com.amazonaws.services.kinesisanalytics.stock.StockJsonDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-record cost of {@link StockDateBucketAssigner#getBucketId} for the default yyyy-MM-dd-HH
+ * partition format, against the previous implementation that parsed and formatted every record.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StockDateBucketAssignerBenchmark {
+    private static final int RECORD_COUNT = 4096;
+    private static final String PARTITION_FORMAT = "yyyy-MM-dd-HH";
+    private static final String PREFIX = "app-msf-kafka-to-s3job_start=0/";
+
+    private Stock[] records;
+    private int next;
+
+    private StockDateBucketAssigner assigner;
+
+    @Setup
+    public void setup() {
+        byte[][] payloads = StockPayloads.generate(RECORD_COUNT, 100);
+        StockJsonDecoder decoder = new StockJsonDecoder();
+
+        records = new Stock[RECORD_COUNT];
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            records[i] = decoder.decode(payloads[i]);
+        }
+
+        assigner = new StockDateBucketAssigner(PARTITION_FORMAT, PREFIX);
+    }
+
+    private Stock nextRecord() {
+        Stock stock = records[next];
+        next = (next + 1) & (RECORD_COUNT - 1);
+        return stock;
+    }
+
+    @Benchmark
+    public String uncached() {
+        // What getBucketId used to do for every record
+        DateTimeFormatter dtFormatForWrite = DateTimeFormatter.ofPattern(PARTITION_FORMAT);
+        LocalDateTime eventTime = LocalDateTime.parse(nextRecord().getEvent_time().replace(" ", "T"));
+
+        return String.format("%sts=%s", PREFIX, eventTime.format(dtFormatForWrite));
+    }
+
+    @Benchmark
+    public String cached() {
+        return assigner.getBucketId(nextRecord(), null);
+    }
+}
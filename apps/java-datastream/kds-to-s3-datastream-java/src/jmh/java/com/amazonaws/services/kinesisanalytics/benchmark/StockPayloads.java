@@ -0,0 +1,74 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.benchmark;
+
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import com.amazonaws.services.kinesisanalytics.stock.StockJsonDecoder;
+
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Random;
+
+/**
+ * Generates payloads in the same shape MSKDataGen emits: Gson output of its Stock class, i.e.
+ * {"event_time":"yyyy-MM-dd HH:mm:ss","ticker":"AMZN","price":12.345678}.
+ */
+public class StockPayloads {
+    private static final String[] TICKERS = { "AAPL", "AMZN", "MSFT", "INTC", "TBV" };
+
+    private StockPayloads() {}
+
+    /**
+     * @param count number of payloads
+     * @param recordsPerSecond how many consecutive payloads share the same event_time second
+     */
+    public static byte[][] generate(int count, int recordsPerSecond) {
+        Random random = new Random(42);
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        long start = 1_700_000_000_000L;
+
+        byte[][] payloads = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            String eventTime = dateFormat.format(new Date(start + (i / recordsPerSecond) * 1000L));
+            String ticker = TICKERS[random.nextInt(TICKERS.length)];
+            float price = random.nextFloat() * 100;
+
+            String json = "{\"event_time\":\"" + eventTime + "\",\"ticker\":\"" + ticker + "\",\"price\":" + price + "}";
+            payloads[i] = json.getBytes(StandardCharsets.UTF_8);
+        }
+
+        return payloads;
+    }
+
+    /**
+     * The same records as {@link #generate(int, int)}, already deserialized.
+     */
+    public static Stock[] generateStocks(int count, int recordsPerSecond) {
+        StockJsonDecoder decoder = new StockJsonDecoder();
+        byte[][] payloads = generate(count, recordsPerSecond);
+
+        Stock[] stocks = new Stock[count];
+        for (int i = 0; i < count; i++) {
+            stocks[i] = decoder.decode(payloads[i]);
+        }
+
+        return stocks;
+    }
+}
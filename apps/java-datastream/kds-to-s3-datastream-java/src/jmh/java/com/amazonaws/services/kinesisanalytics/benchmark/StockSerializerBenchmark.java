@@ -0,0 +1,104 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.benchmark;
+
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import com.amazonaws.services.kinesisanalytics.stock.StockSerializer;
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.common.typeinfo.Types;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.typeutils.runtime.kryo.KryoSerializer;
+import org.apache.flink.core.memory.DataInputDeserializer;
+import org.apache.flink.core.memory.DataOutputSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trip (serialize + deserialize) of a {@link Stock} through Flink's {@link TypeSerializer},
+ * as happens on every network exchange and state access. Compares {@link StockSerializer} with
+ * the POJO serializer Flink would otherwise pick and with Kryo.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StockSerializerBenchmark {
+    private static final int STOCK_COUNT = 4096;
+
+    @Param({"stock", "pojo", "kryo"})
+    public String serializer;
+
+    private Stock[] stocks;
+    private int next;
+
+    private TypeSerializer<Stock> typeSerializer;
+    private DataOutputSerializer out;
+    private DataInputDeserializer in;
+
+    @Setup
+    public void setup() {
+        stocks = StockPayloads.generateStocks(STOCK_COUNT, 100);
+        out = new DataOutputSerializer(64);
+        in = new DataInputDeserializer();
+
+        switch (serializer) {
+            case "stock":
+                typeSerializer = new StockSerializer();
+                break;
+            case "pojo":
+                // Stock is annotated with its own TypeInfo, so build the POJO type explicitly
+                Map<String, TypeInformation<?>> fields = new LinkedHashMap<>();
+                fields.put("event_time", Types.STRING);
+                fields.put("ticker", Types.STRING);
+                fields.put("price", Types.FLOAT);
+                typeSerializer = Types.POJO(Stock.class, fields).createSerializer(new ExecutionConfig());
+                break;
+            default:
+                typeSerializer = new KryoSerializer<>(Stock.class, new ExecutionConfig());
+        }
+    }
+
+    @Benchmark
+    public Stock roundTrip() throws IOException {
+        Stock stock = stocks[next];
+        next = (next + 1) & (STOCK_COUNT - 1);
+
+        out.clear();
+        typeSerializer.serialize(stock, out);
+        in.setBuffer(out.getSharedBuffer(), 0, out.length());
+        return typeSerializer.deserialize(in);
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.benchmark;
+
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import org.apache.flink.api.common.serialization.DeserializationSchema;
+import org.apache.flink.api.common.serialization.RuntimeContextInitializationContextAdapters;
+import org.apache.flink.api.common.state.CheckpointListener;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.java.typeutils.ResultTypeQueryable;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.runtime.state.FunctionInitializationContext;
+import org.apache.flink.runtime.state.FunctionSnapshotContext;
+import org.apache.flink.streaming.api.checkpoint.CheckpointedFunction;
+import org.apache.flink.streaming.api.functions.source.RichParallelSourceFunction;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Stand-in for the Kinesis source: generates payloads in the shape MSKDataGen emits at a fixed
+ * rate for a fixed duration and runs them through the job's deserialization schema in the source
+ * thread, as the Kinesis consumer does.
+ *
+ * <p>Every {@value #LATENCY_SAMPLE_INTERVAL}th record is sampled for event-to-commit latency: its
+ * emit time is attached to the next checkpoint and the latency is taken when that checkpoint
+ * completes, which is when the FileSink commits the part files holding it. Results are collected
+ * in JVM-wide statics, so the source only works on a MiniCluster in the harness' JVM.
+ */
+public class SyntheticStockSource extends RichParallelSourceFunction<Stock>
+        implements CheckpointedFunction, CheckpointListener, ResultTypeQueryable<Stock> {
+    private static final long serialVersionUID = 1L;
+
+    static final int LATENCY_SAMPLE_INTERVAL = 64;
+
+    static final LongAdder GENERATED = new LongAdder();
+    static final LongAdder EMITTED = new LongAdder();
+    static final List<Long> COMMIT_LATENCIES_MILLIS = Collections.synchronizedList(new ArrayList<>());
+
+    private static final String[] TICKERS = { "AAPL", "AMZN", "MSFT", "INTC", "TBV" };
+    private static final DateTimeFormatter EVENT_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int MAX_BATCH = 1000;
+
+    private final DeserializationSchema<Stock> deserializationSchema;
+    private final long recordsPerSecond;
+    private final long durationNanos;
+
+    private volatile boolean running = true;
+
+    // Guarded by the checkpoint lock
+    private transient List<Long> pendingSamples;
+    private transient TreeMap<Long, List<Long>> samplesPerCheckpoint;
+
+    private transient String eventTime;
+    private transient long eventTimeSecond;
+
+    /**
+     * @param recordsPerSecond generated records per second across all subtasks; 0 for no limit
+     */
+    public SyntheticStockSource(DeserializationSchema<Stock> deserializationSchema,
+                                long recordsPerSecond,
+                                Duration duration) {
+        this.deserializationSchema = deserializationSchema;
+        this.recordsPerSecond = recordsPerSecond;
+        this.durationNanos = duration.toNanos();
+    }
+
+    static void resetStatistics() {
+        GENERATED.reset();
+        EMITTED.reset();
+        COMMIT_LATENCIES_MILLIS.clear();
+    }
+
+    @Override
+    public void open(Configuration parameters) throws Exception {
+        deserializationSchema.open(
+                RuntimeContextInitializationContextAdapters.deserializationAdapter(getRuntimeContext()));
+    }
+
+    @Override
+    public void initializeState(FunctionInitializationContext context) {
+        pendingSamples = new ArrayList<>();
+        samplesPerCheckpoint = new TreeMap<>();
+    }
+
+    @Override
+    public void run(SourceContext<Stock> ctx) throws Exception {
+        double ratePerNano = recordsPerSecond / (double) getRuntimeContext().getNumberOfParallelSubtasks() / 1e9;
+        SplittableRandom random = new SplittableRandom(getRuntimeContext().getIndexOfThisSubtask());
+
+        long start = System.nanoTime();
+        long generated = 0;
+        while (running) {
+            long elapsed = System.nanoTime() - start;
+            if (elapsed >= durationNanos) {
+                break;
+            }
+
+            long batch = MAX_BATCH;
+            if (ratePerNano > 0) {
+                batch = Math.min((long) (elapsed * ratePerNano) - generated, MAX_BATCH);
+                if (batch <= 0) {
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+                    continue;
+                }
+            }
+
+            synchronized (ctx.getCheckpointLock()) {
+                for (int i = 0; i < batch; i++) {
+                    long now = System.currentTimeMillis();
+                    Stock stock = deserializationSchema.deserialize(nextPayload(random, now));
+                    if (stock != null) {
+                        ctx.collect(stock);
+                        EMITTED.increment();
+                    }
+
+                    if (++generated % LATENCY_SAMPLE_INTERVAL == 0) {
+                        pendingSamples.add(now);
+                    }
+                }
+            }
+            GENERATED.add(batch);
+        }
+    }
+
+    @Override
+    public void snapshotState(FunctionSnapshotContext context) {
+        samplesPerCheckpoint.put(context.getCheckpointId(), pendingSamples);
+        pendingSamples = new ArrayList<>();
+    }
+
+    @Override
+    public void notifyCheckpointComplete(long checkpointId) {
+        long now = System.currentTimeMillis();
+
+        // A completed checkpoint also commits everything of the earlier, possibly aborted ones
+        Iterator<Map.Entry<Long, List<Long>>> it = samplesPerCheckpoint.headMap(checkpointId, true).entrySet().iterator();
+        while (it.hasNext()) {
+            for (long emitTime : it.next().getValue()) {
+                COMMIT_LATENCIES_MILLIS.add(now - emitTime);
+            }
+            it.remove();
+        }
+    }
+
+    @Override
+    public void cancel() {
+        running = false;
+    }
+
+    @Override
+    public TypeInformation<Stock> getProducedType() {
+        return deserializationSchema.getProducedType();
+    }
+
+    // Gson output of MSKDataGen's Stock class
+    private byte[] nextPayload(SplittableRandom random, long now) {
+        long second = now / 1000;
+        if (eventTime == null || second != eventTimeSecond) {
+            eventTime = LocalDateTime.ofEpochSecond(second, 0, ZoneOffset.UTC).format(EVENT_TIME_FORMAT);
+            eventTimeSecond = second;
+        }
+
+        String ticker = TICKERS[random.nextInt(TICKERS.length)];
+        float price = (float) random.nextDouble() * 100;
+
+        String json = "{\"event_time\":\"" + eventTime + "\",\"ticker\":\"" + ticker + "\",\"price\":" + price + "}";
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.benchmark;
+
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import com.amazonaws.services.kinesisanalytics.stock.StockSerializer;
+import com.amazonaws.services.kinesisanalytics.transform.StockTransform;
+import com.amazonaws.services.kinesisanalytics.transform.StockTransforms;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per record cost of the transform stages, run as they are with object reuse ({@code reuse}), and
+ * with the serializer copy Flink makes in front of every chained operator without object reuse
+ * ({@code copy}), as if each stage were an operator of its own. The difference is the saving per
+ * record and hop.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransformChainBenchmark {
+    private static final int STOCK_COUNT = 4096;
+
+    @Param({"reuse", "copy"})
+    public String mode;
+
+    // Idempotent stages, so every record can go through them again and again
+    @Param({"upper-ticker, round-price:2", "drop-invalid, upper-ticker, canonical-event-time, scale-price:1, round-price:2"})
+    public String transforms;
+
+    private Stock[] stocks;
+    private int next;
+
+    private StockTransform[] stages;
+    private StockSerializer serializer;
+
+    @Setup
+    public void setup() {
+        stocks = StockPayloads.generateStocks(STOCK_COUNT, 100);
+        List<StockTransform> parsed = StockTransforms.parse(transforms);
+        stages = parsed.toArray(new StockTransform[0]);
+        serializer = new StockSerializer();
+    }
+
+    @Benchmark
+    public Stock transform() throws Exception {
+        Stock stock = stocks[next];
+        next = (next + 1) & (STOCK_COUNT - 1);
+
+        boolean copy = mode.equals("copy");
+        for (StockTransform stage : stages) {
+            stock = stage.apply(copy ? serializer.copy(stock) : stock);
+            if (stock == null) {
+                return null;
+            }
+        }
+        return stock;
+    }
+}
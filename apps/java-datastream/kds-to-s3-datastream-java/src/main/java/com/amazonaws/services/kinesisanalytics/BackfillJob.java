@@ -0,0 +1,115 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics;
+
+import com.amazonaws.services.kinesisanalytics.metrics.KinesisAnalyticsMetrics;
+import com.amazonaws.services.kinesisanalytics.runtime.KinesisAnalyticsRuntime;
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import org.apache.flink.api.common.BatchShuffleMode;
+import org.apache.flink.api.common.RuntimeExecutionMode;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.ExecutionOptions;
+import org.apache.flink.configuration.NettyShuffleEnvironmentOptions;
+import org.apache.flink.streaming.api.datastream.DataStream;
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Rewrites archived stock records with the current settings of {@link StreamingJob}, e.g. after
+ * changing PartitionFormat or OutputFormat, instead of replaying them through Kinesis.
+ *
+ * <p>The files under BackfillInputPath are read by a bounded FileSource, one split per file, and
+ * go through the same processing and sinks as the streaming job. The job runs in BATCH mode:
+ * stages exchange data through blocking, sort-based shuffles instead of network buffers, keyed
+ * operators see their input sorted by key, and event time windows fire once their key is done.
+ * There are no checkpoints; part files are committed when the job finishes.
+ */
+public class BackfillJob {
+	private static final Logger LOG = LoggerFactory.getLogger(BackfillJob.class);
+
+	static final String BACKFILL_INPUT_PATH_KEY = "BackfillInputPath";
+	static final String BACKFILL_INPUT_FORMAT_KEY = "BackfillInputFormat";
+	static final String BACKFILL_SOURCE_PARALLELISM_KEY = "BackfillSourceParallelism";
+
+	private static Properties getAppProperties(Map<String, Properties> applicationProperties) {
+		Properties flinkProperties = applicationProperties.get(StreamingJob.FLINK_APPLICATION_PROPERTIES);
+
+		if(flinkProperties == null) {
+			LOG.error("Unable to retrieve " + StreamingJob.FLINK_APPLICATION_PROPERTIES + "; please ensure that you've " +
+					"supplied them via application properties.");
+			return null;
+		}
+
+		for(String key : Arrays.asList(BACKFILL_INPUT_PATH_KEY, StreamingJob.S3_DEST_KEY, StreamingJob.PARTITION_FORMAT_KEY)) {
+			if(!flinkProperties.containsKey(key)) {
+				LOG.error("Unable to retrieve property: " + key);
+				return null;
+			}
+		}
+
+		return flinkProperties;
+	}
+
+	private static Configuration batchConfiguration() {
+		Configuration configuration = new Configuration();
+		configuration.set(ExecutionOptions.RUNTIME_MODE, RuntimeExecutionMode.BATCH);
+		// Blocking exchanges use the sort-based shuffle, whose files are read sequentially
+		configuration.set(ExecutionOptions.BATCH_SHUFFLE_MODE, BatchShuffleMode.ALL_EXCHANGES_BLOCKING);
+		return configuration;
+	}
+
+	public static void main(String[] args) throws Exception {
+		StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+		if(StreamingJob.isLocal(env)) {
+			Configuration configuration = KinesisAnalyticsMetrics.localReporterConfiguration();
+			// The cluster-wide default, set here so local runs shuffle the same way
+			configuration.set(NettyShuffleEnvironmentOptions.NETWORK_SORT_SHUFFLE_MIN_PARALLELISM, 1);
+			env = StreamExecutionEnvironment.createLocalEnvironment(configuration);
+			env.setParallelism(2);
+
+			if(args.length == 0) {
+				LOG.error("Pass the application properties JSON file with " + BACKFILL_INPUT_PATH_KEY
+						+ " as first argument. Exiting...");
+				return;
+			}
+		}
+		env.configure(batchConfiguration());
+
+		Map<String, Properties> applicationProperties = StreamingJob.isLocal(env)
+				? KinesisAnalyticsRuntime.getApplicationProperties(args[0])
+				: KinesisAnalyticsRuntime.getApplicationProperties();
+
+		Properties appProperties = getAppProperties(applicationProperties);
+		if(appProperties == null) {
+			LOG.error("Incorrectly specified application properties. Exiting...");
+			return;
+		}
+
+		DataStream<Stock> stockStream = StreamingJob.addArchiveSource(env, appProperties, BACKFILL_INPUT_PATH_KEY,
+				BACKFILL_INPUT_FORMAT_KEY, BACKFILL_SOURCE_PARALLELISM_KEY, "backfill-archive-source");
+		StreamingJob.addProcessingAndSinks(stockStream, appProperties);
+
+		env.execute("Backfill of archived stock records to S3");
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics;
+
+import com.amazonaws.services.kinesisanalytics.sink.SizeTimeCheckpointRollingPolicy;
+import org.apache.flink.configuration.MemorySize;
+import org.apache.flink.connector.file.sink.FileSink;
+import org.apache.flink.connector.file.sink.compactor.FileCompactStrategy;
+import org.apache.flink.connector.file.sink.compactor.FileCompactor;
+import org.apache.flink.util.TimeUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * Rolling and compaction settings of the FileSink, read from the application properties.
+ *
+ * <p>Bulk formats must roll on every checkpoint, which leaves one small file per subtask, bucket
+ * and checkpoint. Compaction merges the committed small files of a bucket into files of roughly
+ * {@code CompactionTargetFileSize} on separate compactor threads, so checkpoints do not wait for
+ * it. Files only become visible once compacted, so compaction is off unless enabled.
+ */
+public class FileSinkConfig {
+    private static final Logger LOG = LoggerFactory.getLogger(FileSinkConfig.class);
+
+    static final String ROLL_MAX_PART_SIZE = "RollMaxPartSize";
+    static final String ROLL_ROLLOVER_INTERVAL = "RollRolloverInterval";
+    static final String ROLL_INACTIVITY_INTERVAL = "RollInactivityInterval";
+
+    static final String COMPACTION_ENABLED = "CompactionEnabled";
+    static final String COMPACTION_TARGET_FILE_SIZE = "CompactionTargetFileSize";
+    static final String COMPACTION_CHECKPOINT_INTERVAL = "CompactionCheckpointInterval";
+    static final String COMPACTION_THREADS = "CompactionThreads";
+
+    static final MemorySize DEFAULT_COMPACTION_TARGET_FILE_SIZE = MemorySize.parse("128mb");
+    static final int DEFAULT_COMPACTION_CHECKPOINT_INTERVAL = 5;
+
+    // FileSink default
+    private static final long DEFAULT_BUCKET_CHECK_INTERVAL_MILLIS = 60_000L;
+
+    private FileSinkConfig() {}
+
+    /**
+     * Applies rolling and compaction settings to a bulk format FileSink builder.
+     *
+     * @param compactor reads the part files back for compaction; null if the format cannot be compacted
+     * @param appProperties application properties; may be null when running locally
+     */
+    public static <IN, T extends FileSink.BulkFormatBuilder<IN, T>> T configure(T builder,
+                                                                                  FileCompactor compactor,
+                                                                                  Properties appProperties) {
+        Properties appProps = appProperties == null ? new Properties() : appProperties;
+
+        SizeTimeCheckpointRollingPolicy.Builder<IN, String> policy = SizeTimeCheckpointRollingPolicy.builder();
+        long bucketCheckInterval = DEFAULT_BUCKET_CHECK_INTERVAL_MILLIS;
+
+        if (appProps.containsKey(ROLL_MAX_PART_SIZE)) {
+            policy.withMaxPartSize(MemorySize.parse(appProps.getProperty(ROLL_MAX_PART_SIZE).trim()).getBytes());
+        }
+        if (appProps.containsKey(ROLL_ROLLOVER_INTERVAL)) {
+            Duration interval = TimeUtils.parseDuration(appProps.getProperty(ROLL_ROLLOVER_INTERVAL).trim());
+            policy.withRolloverInterval(interval);
+            bucketCheckInterval = Math.min(bucketCheckInterval, interval.toMillis());
+        }
+        if (appProps.containsKey(ROLL_INACTIVITY_INTERVAL)) {
+            Duration interval = TimeUtils.parseDuration(appProps.getProperty(ROLL_INACTIVITY_INTERVAL).trim());
+            policy.withInactivityInterval(interval);
+            bucketCheckInterval = Math.min(bucketCheckInterval, interval.toMillis());
+        }
+
+        builder.withRollingPolicy(policy.build())
+                .withBucketCheckInterval(bucketCheckInterval);
+
+        FileCompactStrategy compactStrategy = compactStrategy(appProps);
+        if (compactStrategy != null && compactor == null) {
+            LOG.warn("{} is ignored, the output format does not support compaction", COMPACTION_ENABLED);
+        } else if (compactStrategy != null) {
+            builder.enableCompact(compactStrategy, compactor);
+        }
+
+        return builder;
+    }
+
+    /**
+     * @return null if compaction is disabled
+     */
+    static FileCompactStrategy compactStrategy(Properties appProps) {
+        boolean enabled = Boolean.parseBoolean(
+                appProps.getProperty(COMPACTION_ENABLED, Boolean.FALSE.toString()).trim());
+        if (!enabled) {
+            return null;
+        }
+
+        MemorySize targetFileSize = appProps.containsKey(COMPACTION_TARGET_FILE_SIZE)
+                ? MemorySize.parse(appProps.getProperty(COMPACTION_TARGET_FILE_SIZE).trim())
+                : DEFAULT_COMPACTION_TARGET_FILE_SIZE;
+        int checkpointInterval = Integer.parseInt(appProps.getProperty(COMPACTION_CHECKPOINT_INTERVAL,
+                String.valueOf(DEFAULT_COMPACTION_CHECKPOINT_INTERVAL)).trim());
+        int threads = Integer.parseInt(appProps.getProperty(COMPACTION_THREADS, "1").trim());
+
+        // Compacts a bucket once its pending files reach the target size, and at the latest
+        // every checkpointInterval checkpoints so that data does not stay invisible for long.
+        return FileCompactStrategy.Builder.newBuilder()
+                .setSizeThreshold(targetFileSize.getBytes())
+                .enableCompactionOnCheckpoint(checkpointInterval)
+                .setNumCompactThreads(threads)
+                .build();
+    }
+}
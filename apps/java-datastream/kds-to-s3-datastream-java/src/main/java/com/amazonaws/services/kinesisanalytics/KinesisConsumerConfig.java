@@ -0,0 +1,216 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics;
+
+import org.apache.flink.streaming.connectors.kinesis.config.AWSConfigConstants;
+import org.apache.flink.streaming.connectors.kinesis.config.ConsumerConfigConstants;
+import org.apache.flink.streaming.connectors.kinesis.config.ConsumerConfigConstants.EFORegistrationType;
+import org.apache.flink.streaming.connectors.kinesis.config.ConsumerConfigConstants.RecordPublisherType;
+
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Translates the application properties into the configuration of the FlinkKinesisConsumer.
+ *
+ * <p>By default the consumer polls shards with GetRecords. Setting {@code RecordPublisherType} to
+ * {@code EFO} switches to Enhanced Fan-Out, where every consumer gets its own 2 MB/s per shard
+ * pushed over SubscribeToShard instead of sharing the 5 GetRecords calls per second of a shard.
+ *
+ * <p>Any property whose key starts with {@code aws.} or {@code flink.} is copied verbatim, which
+ * gives access to every connector setting not covered here. Together with {@code AWSEndpoint} this
+ * also allows pointing the consumer at a local Kinesis stand-in such as LocalStack or kinesalite.
+ *
+ * <p>Watermarks are generated per shard. A shard without records for {@code ShardIdleIntervalMillis}
+ * stops holding back the watermark of its subtask, and a subtask whose shards are all idle is
+ * marked idle. When the job enables watermark alignment, subtasks further than
+ * {@code WatermarkLookaheadMillis} ahead of the global watermark stop emitting until the others
+ * catch up, so a single hot shard cannot open buckets and windows far ahead of the rest.
+ */
+public class KinesisConsumerConfig {
+    static final String AWS_ENDPOINT = "AWSEndpoint";
+    static final String RECORD_PUBLISHER_TYPE = "RecordPublisherType";
+
+    // Enhanced Fan-Out
+    static final String EFO_CONSUMER_NAME = "EFOConsumerName";
+    static final String EFO_REGISTRATION_TYPE = "EFORegistrationType";
+    static final String EFO_CONSUMER_ARN = "EFOConsumerARN";
+    static final String SUBSCRIBE_TO_SHARD_RETRIES = "SubscribeToShardRetries";
+    static final String SUBSCRIBE_TO_SHARD_BACKOFF_BASE_MILLIS = "SubscribeToShardBackoffBaseMillis";
+    static final String SUBSCRIBE_TO_SHARD_BACKOFF_MAX_MILLIS = "SubscribeToShardBackoffMaxMillis";
+    static final String SUBSCRIBE_TO_SHARD_BACKOFF_EXPONENTIAL_CONSTANT = "SubscribeToShardBackoffExponentialConstant";
+
+    // Polling
+    static final String POLLING_PROFILE = "PollingProfile";
+    static final String SHARD_GETRECORDS_MAX = "ShardGetRecordsMax";
+    static final String SHARD_GETRECORDS_INTERVAL_MILLIS = "ShardGetRecordsIntervalMillis";
+    static final String SHARD_USE_ADAPTIVE_READS = "ShardUseAdaptiveReads";
+
+    // Watermarks
+    static final String SHARD_IDLE_INTERVAL_MILLIS = "ShardIdleIntervalMillis";
+    static final String WATERMARK_SYNC_INTERVAL_MILLIS = "WatermarkSyncIntervalMillis";
+    static final String WATERMARK_LOOKAHEAD_MILLIS = "WatermarkLookaheadMillis";
+
+    static final String DEFAULT_EFO_CONSUMER_NAME = "kds-to-s3-datastream-java";
+    static final long DEFAULT_SHARD_IDLE_INTERVAL_MILLIS = 60_000L;
+    // Must exceed the out-of-orderness bound, otherwise aligned subtasks keep waiting on each other
+    static final long DEFAULT_WATERMARK_LOOKAHEAD_MILLIS = 60_000L;
+
+    /**
+     * Presets for the polling record publisher. Explicit ShardGetRecords* properties win over the
+     * values of a profile.
+     */
+    enum PollingProfile {
+        /** Connector defaults. */
+        DEFAULT(null, null, null),
+        /** Poll at the per-shard limit of 5 calls/s; best latency, but starves any other consumer. */
+        LOW_LATENCY(10000, 200L, false),
+        /** Poll once per second and size reads to the 2 MB/s shard limit, leaving room for other consumers. */
+        SHARED(10000, 1000L, true);
+
+        private final Integer getRecordsMax;
+        private final Long getRecordsIntervalMillis;
+        private final Boolean useAdaptiveReads;
+
+        PollingProfile(Integer getRecordsMax, Long getRecordsIntervalMillis, Boolean useAdaptiveReads) {
+            this.getRecordsMax = getRecordsMax;
+            this.getRecordsIntervalMillis = getRecordsIntervalMillis;
+            this.useAdaptiveReads = useAdaptiveReads;
+        }
+    }
+
+    private KinesisConsumerConfig() {}
+
+    /**
+     * @param appProperties application properties; may be null when running locally
+     */
+    public static Properties build(String streamName,
+                                   String region,
+                                   String initialPosition,
+                                   Properties appProperties) {
+        Properties appProps = appProperties == null ? new Properties() : appProperties;
+        Properties consumerConfig = new Properties();
+
+        for (String key : appProps.stringPropertyNames()) {
+            if (key.startsWith("aws.") || key.startsWith("flink.")) {
+                consumerConfig.setProperty(key, appProps.getProperty(key));
+            }
+        }
+
+        consumerConfig.put(AWSConfigConstants.AWS_REGION, region);
+        consumerConfig.put(ConsumerConfigConstants.STREAM_INITIAL_POSITION, initialPosition);
+        copy(appProps, AWS_ENDPOINT, consumerConfig, AWSConfigConstants.AWS_ENDPOINT);
+
+        RecordPublisherType publisherType = RecordPublisherType.valueOf(
+                appProps.getProperty(RECORD_PUBLISHER_TYPE, RecordPublisherType.POLLING.name()).trim().toUpperCase());
+        consumerConfig.put(ConsumerConfigConstants.RECORD_PUBLISHER_TYPE, publisherType.name());
+
+        if (publisherType == RecordPublisherType.EFO) {
+            configureEfo(streamName, appProps, consumerConfig);
+        } else {
+            configurePolling(appProps, consumerConfig);
+        }
+
+        configureWatermarks(appProps, consumerConfig);
+
+        return consumerConfig;
+    }
+
+    /**
+     * Starts reading at the given arrival time instead of the configured initial position.
+     * Like any initial position, it only applies to shards without restored state.
+     */
+    public static void startAt(Properties consumerConfig, Instant timestamp) {
+        consumerConfig.put(ConsumerConfigConstants.STREAM_INITIAL_POSITION,
+                ConsumerConfigConstants.InitialPosition.AT_TIMESTAMP.name());
+        // Epoch seconds with fraction; the connector parses these without a date format
+        consumerConfig.put(ConsumerConfigConstants.STREAM_INITIAL_TIMESTAMP,
+                String.format(Locale.ROOT, "%d.%03d", timestamp.getEpochSecond(), timestamp.getNano() / 1_000_000));
+        consumerConfig.remove(ConsumerConfigConstants.STREAM_TIMESTAMP_DATE_FORMAT);
+    }
+
+    private static void configureEfo(String streamName, Properties appProps, Properties consumerConfig) {
+        EFORegistrationType registrationType = EFORegistrationType.valueOf(
+                appProps.getProperty(EFO_REGISTRATION_TYPE, EFORegistrationType.LAZY.name()).trim().toUpperCase());
+        consumerConfig.put(ConsumerConfigConstants.EFO_REGISTRATION_TYPE, registrationType.name());
+
+        if (registrationType == EFORegistrationType.NONE) {
+            // The consumer is registered outside of the app (e.g. in CloudFormation); we need its ARN.
+            String consumerArn = appProps.getProperty(EFO_CONSUMER_ARN);
+            if (consumerArn == null) {
+                throw new IllegalArgumentException(EFO_CONSUMER_ARN + " is required when "
+                        + EFO_REGISTRATION_TYPE + " is " + EFORegistrationType.NONE);
+            }
+            consumerConfig.put(ConsumerConfigConstants.EFO_CONSUMER_ARN_PREFIX + "." + streamName, consumerArn);
+        } else {
+            consumerConfig.put(ConsumerConfigConstants.EFO_CONSUMER_NAME,
+                    appProps.getProperty(EFO_CONSUMER_NAME, DEFAULT_EFO_CONSUMER_NAME));
+        }
+
+        copy(appProps, SUBSCRIBE_TO_SHARD_RETRIES, consumerConfig,
+                ConsumerConfigConstants.SUBSCRIBE_TO_SHARD_RETRIES);
+        copy(appProps, SUBSCRIBE_TO_SHARD_BACKOFF_BASE_MILLIS, consumerConfig,
+                ConsumerConfigConstants.SUBSCRIBE_TO_SHARD_BACKOFF_BASE);
+        copy(appProps, SUBSCRIBE_TO_SHARD_BACKOFF_MAX_MILLIS, consumerConfig,
+                ConsumerConfigConstants.SUBSCRIBE_TO_SHARD_BACKOFF_MAX);
+        copy(appProps, SUBSCRIBE_TO_SHARD_BACKOFF_EXPONENTIAL_CONSTANT, consumerConfig,
+                ConsumerConfigConstants.SUBSCRIBE_TO_SHARD_BACKOFF_EXPONENTIAL_CONSTANT);
+    }
+
+    private static void configurePolling(Properties appProps, Properties consumerConfig) {
+        PollingProfile profile = PollingProfile.valueOf(
+                appProps.getProperty(POLLING_PROFILE, PollingProfile.DEFAULT.name()).trim().toUpperCase());
+
+        if (profile.getRecordsMax != null) {
+            consumerConfig.put(ConsumerConfigConstants.SHARD_GETRECORDS_MAX, profile.getRecordsMax.toString());
+        }
+        if (profile.getRecordsIntervalMillis != null) {
+            consumerConfig.put(ConsumerConfigConstants.SHARD_GETRECORDS_INTERVAL_MILLIS,
+                    profile.getRecordsIntervalMillis.toString());
+        }
+        if (profile.useAdaptiveReads != null) {
+            consumerConfig.put(ConsumerConfigConstants.SHARD_USE_ADAPTIVE_READS, profile.useAdaptiveReads.toString());
+        }
+
+        copy(appProps, SHARD_GETRECORDS_MAX, consumerConfig, ConsumerConfigConstants.SHARD_GETRECORDS_MAX);
+        copy(appProps, SHARD_GETRECORDS_INTERVAL_MILLIS, consumerConfig,
+                ConsumerConfigConstants.SHARD_GETRECORDS_INTERVAL_MILLIS);
+        copy(appProps, SHARD_USE_ADAPTIVE_READS, consumerConfig, ConsumerConfigConstants.SHARD_USE_ADAPTIVE_READS);
+    }
+
+    private static void configureWatermarks(Properties appProps, Properties consumerConfig) {
+        // Defaults only; verbatim flink.* properties keep precedence
+        consumerConfig.putIfAbsent(ConsumerConfigConstants.SHARD_IDLE_INTERVAL_MILLIS,
+                Long.toString(DEFAULT_SHARD_IDLE_INTERVAL_MILLIS));
+        consumerConfig.putIfAbsent(ConsumerConfigConstants.WATERMARK_LOOKAHEAD_MILLIS,
+                Long.toString(DEFAULT_WATERMARK_LOOKAHEAD_MILLIS));
+
+        copy(appProps, SHARD_IDLE_INTERVAL_MILLIS, consumerConfig, ConsumerConfigConstants.SHARD_IDLE_INTERVAL_MILLIS);
+        copy(appProps, WATERMARK_SYNC_INTERVAL_MILLIS, consumerConfig, ConsumerConfigConstants.WATERMARK_SYNC_MILLIS);
+        copy(appProps, WATERMARK_LOOKAHEAD_MILLIS, consumerConfig, ConsumerConfigConstants.WATERMARK_LOOKAHEAD_MILLIS);
+    }
+
+    private static void copy(Properties from, String fromKey, Properties to, String toKey) {
+        String value = from.getProperty(fromKey);
+        if (value != null) {
+            to.put(toKey, value.trim());
+        }
+    }
+}
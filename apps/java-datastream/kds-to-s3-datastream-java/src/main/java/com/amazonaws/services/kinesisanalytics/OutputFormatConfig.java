@@ -0,0 +1,167 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics;
+
+import com.amazonaws.services.kinesisanalytics.sink.ConcatenatingFileCompactor;
+import com.amazonaws.services.kinesisanalytics.sink.StockParquetCompactor;
+import com.amazonaws.services.kinesisanalytics.sink.StreamCompression;
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import com.amazonaws.services.kinesisanalytics.stock.StockJsonLinesWriterFactory;
+import com.amazonaws.services.kinesisanalytics.stock.StockVectorizer;
+import org.apache.flink.api.common.serialization.BulkWriter;
+import org.apache.flink.connector.file.sink.compactor.FileCompactor;
+import org.apache.flink.orc.writer.OrcBulkWriterFactory;
+import org.apache.hadoop.conf.Configuration;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * File format of the stock records written by the FileSink, read from the application properties.
+ *
+ * <p>Every format is a bulk format, so the sink rolls, compacts and meters all of them the same
+ * way; only the writer, the compactor and the part file suffix differ:
+ * <ul>
+ *     <li>{@code PARQUET}, the default, is laid out by {@link ParquetWriterConfig}. Part files
+ *     keep having no suffix, as before this setting existed.</li>
+ *     <li>{@code ORC} is compressed with {@code OrcCompression}. ORC files cannot be merged
+ *     without an ORC reader, which the job does not have, so they are not compacted.</li>
+ *     <li>{@code JSON} writes JSON lines compressed with {@code JsonCompression}. Part files are
+ *     compacted by concatenation.</li>
+ * </ul>
+ */
+public class OutputFormatConfig {
+    static final String FORMAT = "OutputFormat";
+    static final String ORC_COMPRESSION = "OrcCompression";
+    static final String JSON_COMPRESSION = "JsonCompression";
+    static final String JSON_COMPRESSION_LEVEL = "JsonCompressionLevel";
+
+    // Pure Java codecs of the orc-core 1.5 that flink-orc uses, which has no ZSTD yet; LZO would
+    // need the native Hadoop codec
+    private static final List<String> SUPPORTED_ORC_CODECS = Arrays.asList("NONE", "ZLIB", "SNAPPY", "LZ4");
+
+    private static final String ORC_COMPRESS_PROPERTY = "orc.compress";
+
+    public enum Format {
+        PARQUET,
+        ORC,
+        JSON
+    }
+
+    private final Format format;
+    private final ParquetWriterConfig parquetConfig;
+    private final String orcCompression;
+    private final StreamCompression jsonCompression;
+    private final int jsonCompressionLevel;
+
+    OutputFormatConfig(Format format,
+                       ParquetWriterConfig parquetConfig,
+                       String orcCompression,
+                       StreamCompression jsonCompression,
+                       int jsonCompressionLevel) {
+        this.format = format;
+        this.parquetConfig = parquetConfig;
+        this.orcCompression = orcCompression;
+        this.jsonCompression = jsonCompression;
+        this.jsonCompressionLevel = jsonCompressionLevel;
+    }
+
+    /**
+     * @param appProperties application properties; may be null when running locally
+     */
+    public static OutputFormatConfig fromProperties(Properties appProperties) {
+        Properties appProps = appProperties == null ? new Properties() : appProperties;
+
+        Format format = Format.valueOf(
+                appProps.getProperty(FORMAT, Format.PARQUET.name()).trim().toUpperCase());
+
+        String orcCompression = appProps.getProperty(ORC_COMPRESSION, "ZLIB").trim().toUpperCase();
+        if (!SUPPORTED_ORC_CODECS.contains(orcCompression)) {
+            throw new IllegalArgumentException(ORC_COMPRESSION + " must be one of " + SUPPORTED_ORC_CODECS
+                    + " but was " + orcCompression);
+        }
+
+        StreamCompression jsonCompression = StreamCompression.valueOf(
+                appProps.getProperty(JSON_COMPRESSION, StreamCompression.ZSTD.name()).trim().toUpperCase());
+        int jsonCompressionLevel = Integer.parseInt(appProps.getProperty(JSON_COMPRESSION_LEVEL,
+                String.valueOf(StreamCompression.DEFAULT_LEVEL)).trim());
+
+        return new OutputFormatConfig(format, ParquetWriterConfig.fromProperties(appProps),
+                orcCompression, jsonCompression, jsonCompressionLevel);
+    }
+
+    public BulkWriter.Factory<Stock> createStockWriterFactory() {
+        switch (format) {
+            case ORC:
+                Properties writerProperties = new Properties();
+                writerProperties.setProperty(ORC_COMPRESS_PROPERTY, orcCompression);
+                return new OrcBulkWriterFactory<>(new StockVectorizer(), writerProperties, new Configuration());
+            case JSON:
+                return new StockJsonLinesWriterFactory(jsonCompression, jsonCompressionLevel);
+            default:
+                return parquetConfig.createStockWriterFactory();
+        }
+    }
+
+    /**
+     * @return null if files of this format cannot be compacted
+     */
+    public FileCompactor createStockCompactor() {
+        switch (format) {
+            case ORC:
+                return null;
+            case JSON:
+                return new ConcatenatingFileCompactor();
+            default:
+                return new StockParquetCompactor();
+        }
+    }
+
+    public String getPartSuffix() {
+        switch (format) {
+            case ORC:
+                return ".orc";
+            case JSON:
+                return ".jsonl" + jsonCompression.getExtension();
+            default:
+                return "";
+        }
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public ParquetWriterConfig getParquetConfig() {
+        return parquetConfig;
+    }
+
+    public String getOrcCompression() {
+        return orcCompression;
+    }
+
+    public StreamCompression getJsonCompression() {
+        return jsonCompression;
+    }
+
+    public int getJsonCompressionLevel() {
+        return jsonCompressionLevel;
+    }
+}
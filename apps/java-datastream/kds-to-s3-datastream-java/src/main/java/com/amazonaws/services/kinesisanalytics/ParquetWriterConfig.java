@@ -0,0 +1,178 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics;
+
+import com.amazonaws.services.kinesisanalytics.ohlcv.OhlcvBar;
+import com.amazonaws.services.kinesisanalytics.ohlcv.OhlcvBarWriteSupport;
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import com.amazonaws.services.kinesisanalytics.stock.StockWriteSupport;
+import org.apache.flink.configuration.MemorySize;
+import org.apache.flink.formats.parquet.ParquetWriterFactory;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Parquet layout of the files written by the FileSink, read from the application properties.
+ *
+ * <p>Sizes accept Flink memory size strings such as {@code 64mb} or plain byte counts. The
+ * defaults are the Parquet defaults and no compression, i.e. what the sink wrote before these
+ * settings existed.
+ */
+public class ParquetWriterConfig implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    static final String COMPRESSION = "ParquetCompression";
+    static final String ROW_GROUP_SIZE = "ParquetRowGroupSize";
+    static final String PAGE_SIZE = "ParquetPageSize";
+    static final String DICTIONARY_PAGE_SIZE = "ParquetDictionaryPageSize";
+    static final String DICTIONARY_ENABLED = "ParquetDictionaryEnabled";
+    static final String DICTIONARY_COLUMNS = "ParquetDictionaryColumns";
+
+    // Codecs that work with what's on the classpath; LZO, BROTLI and LZ4 need native Hadoop codecs
+    private static final List<CompressionCodecName> SUPPORTED_CODECS = Arrays.asList(
+            CompressionCodecName.UNCOMPRESSED,
+            CompressionCodecName.SNAPPY,
+            CompressionCodecName.GZIP,
+            CompressionCodecName.ZSTD);
+
+    private final CompressionCodecName compression;
+    private final long rowGroupSize;
+    private final int pageSize;
+    private final int dictionaryPageSize;
+    private final boolean dictionaryEnabled;
+    // null means all columns
+    private final ArrayList<String> dictionaryColumns;
+
+    ParquetWriterConfig(CompressionCodecName compression,
+                        long rowGroupSize,
+                        int pageSize,
+                        int dictionaryPageSize,
+                        boolean dictionaryEnabled,
+                        List<String> dictionaryColumns) {
+        this.compression = compression;
+        this.rowGroupSize = rowGroupSize;
+        this.pageSize = pageSize;
+        this.dictionaryPageSize = dictionaryPageSize;
+        this.dictionaryEnabled = dictionaryEnabled;
+        this.dictionaryColumns = dictionaryColumns == null ? null : new ArrayList<>(dictionaryColumns);
+    }
+
+    /**
+     * @param appProperties application properties; may be null when running locally
+     */
+    public static ParquetWriterConfig fromProperties(Properties appProperties) {
+        Properties appProps = appProperties == null ? new Properties() : appProperties;
+
+        CompressionCodecName compression = CompressionCodecName.valueOf(
+                appProps.getProperty(COMPRESSION, CompressionCodecName.UNCOMPRESSED.name()).trim().toUpperCase());
+        if (!SUPPORTED_CODECS.contains(compression)) {
+            throw new IllegalArgumentException(COMPRESSION + " must be one of " + SUPPORTED_CODECS
+                    + " but was " + compression);
+        }
+
+        long rowGroupSize = size(appProps, ROW_GROUP_SIZE, ParquetWriter.DEFAULT_BLOCK_SIZE);
+        int pageSize = (int) size(appProps, PAGE_SIZE, ParquetWriter.DEFAULT_PAGE_SIZE);
+        int dictionaryPageSize = (int) size(appProps, DICTIONARY_PAGE_SIZE, pageSize);
+        boolean dictionaryEnabled = Boolean.parseBoolean(
+                appProps.getProperty(DICTIONARY_ENABLED, Boolean.TRUE.toString()).trim());
+
+        List<String> dictionaryColumns = null;
+        if (appProps.containsKey(DICTIONARY_COLUMNS)) {
+            dictionaryColumns = Arrays.asList(appProps.getProperty(DICTIONARY_COLUMNS).trim().split("\\s*,\\s*"));
+        }
+
+        return new ParquetWriterConfig(
+                compression, rowGroupSize, pageSize, dictionaryPageSize, dictionaryEnabled, dictionaryColumns);
+    }
+
+    public ParquetWriterFactory<Stock> createStockWriterFactory() {
+        ParquetWriterConfig config = this;
+        return new ParquetWriterFactory<>(out -> config.configure(StockWriteSupport.builder(out)).build());
+    }
+
+    public ParquetWriterFactory<OhlcvBar> createOhlcvBarWriterFactory() {
+        ParquetWriterConfig config = this;
+        return new ParquetWriterFactory<>(out -> config.configure(OhlcvBarWriteSupport.builder(out)).build());
+    }
+
+    /**
+     * Applies this configuration to any Parquet writer builder.
+     */
+    public <T, B extends ParquetWriter.Builder<T, B>> B configure(B builder) {
+        builder.withCompressionCodec(compression)
+                .withRowGroupSize(rowGroupSize)
+                .withPageSize(pageSize)
+                .withDictionaryPageSize(dictionaryPageSize);
+
+        if (dictionaryEnabled && dictionaryColumns != null) {
+            // Column settings win over the global one
+            builder.withDictionaryEncoding(false);
+            for (String column : dictionaryColumns) {
+                builder.withDictionaryEncoding(column, true);
+            }
+        } else {
+            builder.withDictionaryEncoding(dictionaryEnabled);
+        }
+
+        return builder;
+    }
+
+    public CompressionCodecName getCompression() {
+        return compression;
+    }
+
+    public long getRowGroupSize() {
+        return rowGroupSize;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public int getDictionaryPageSize() {
+        return dictionaryPageSize;
+    }
+
+    public boolean isDictionaryEnabled() {
+        return dictionaryEnabled;
+    }
+
+    public List<String> getDictionaryColumns() {
+        return dictionaryColumns;
+    }
+
+    private static long size(Properties appProps, String key, long defaultValue) {
+        String value = appProps.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+
+        long bytes = MemorySize.parse(value.trim()).getBytes();
+        if (bytes <= 0 || bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(key + " must be between 1 byte and 2 gb but was " + value);
+        }
+        return bytes;
+    }
+}
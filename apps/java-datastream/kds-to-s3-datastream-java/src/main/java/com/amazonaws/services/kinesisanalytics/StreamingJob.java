@@ -18,30 +18,68 @@
 
  package com.amazonaws.services.kinesisanalytics;
 
+import com.amazonaws.services.kinesisanalytics.dedup.RotatingBloomFilterDeduplicator;
+import com.amazonaws.services.kinesisanalytics.dedup.StockFingerprint;
+import com.amazonaws.services.kinesisanalytics.dedup.TtlStateDeduplicator;
+import com.amazonaws.services.kinesisanalytics.deadletter.DeadLetter;
+import com.amazonaws.services.kinesisanalytics.deadletter.DeadLetterDeserializationSchema;
+import com.amazonaws.services.kinesisanalytics.deadletter.DeadLetterRouter;
+import com.amazonaws.services.kinesisanalytics.deadletter.DeadLetterWriterFactory;
+import com.amazonaws.services.kinesisanalytics.deadletter.DecodeResult;
+import com.amazonaws.services.kinesisanalytics.deadletter.ErrorBudget;
+import com.amazonaws.services.kinesisanalytics.enrichment.EnrichmentFunction;
+import com.amazonaws.services.kinesisanalytics.enrichment.FileReferenceDataClient;
+import com.amazonaws.services.kinesisanalytics.metrics.KinesisAnalyticsMetrics;
+import com.amazonaws.services.kinesisanalytics.ohlcv.OhlcvBar;
+import com.amazonaws.services.kinesisanalytics.ohlcv.OhlcvBarBucketAssigner;
+import com.amazonaws.services.kinesisanalytics.ohlcv.OhlcvPipeline;
+import com.amazonaws.services.kinesisanalytics.ohlcv.OhlcvWindowSpec;
 import com.amazonaws.services.kinesisanalytics.runtime.KinesisAnalyticsRuntime;
+import com.amazonaws.services.kinesisanalytics.sink.BucketAffinePartitioner;
+import com.amazonaws.services.kinesisanalytics.sink.MeteredBucketAssigner;
+import com.amazonaws.services.kinesisanalytics.sink.MeteredFileSink;
+import com.amazonaws.services.kinesisanalytics.source.ArchiveSource;
+import com.amazonaws.services.kinesisanalytics.source.Cutover;
+import com.amazonaws.services.kinesisanalytics.stock.ShardWatermarkAssigner;
 import com.amazonaws.services.kinesisanalytics.stock.Stock;
 import com.amazonaws.services.kinesisanalytics.stock.StockDateBucketAssigner;
 import com.amazonaws.services.kinesisanalytics.stock.StockDeserializationSchema;
+import com.amazonaws.services.kinesisanalytics.stock.StockFilterFunction;
+import com.amazonaws.services.kinesisanalytics.stock.StockFilterSpec;
+import com.amazonaws.services.kinesisanalytics.stock.StockTypeInfo;
+import com.amazonaws.services.kinesisanalytics.stock.StockWatermarks;
+import com.amazonaws.services.kinesisanalytics.transform.StockTransform;
+import com.amazonaws.services.kinesisanalytics.transform.StockTransformFunction;
+import com.amazonaws.services.kinesisanalytics.transform.StockTransforms;
 import org.apache.flink.api.common.RuntimeExecutionMode;
-import org.apache.flink.api.common.functions.FlatMapFunction;
+import org.apache.flink.api.common.eventtime.WatermarkStrategy;
 import org.apache.flink.api.common.serialization.DeserializationSchema;
 import org.apache.flink.connector.file.sink.FileSink;
 import org.apache.flink.core.fs.Path;
-import org.apache.flink.formats.parquet.avro.ParquetAvroWriters;
+import org.apache.flink.streaming.api.datastream.AsyncDataStream;
 import org.apache.flink.streaming.api.datastream.DataStream;
 import org.apache.flink.streaming.api.datastream.DataStreamSink;
+import org.apache.flink.streaming.api.datastream.SingleOutputStreamOperator;
 import org.apache.flink.streaming.api.environment.LocalStreamEnvironment;
 import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.apache.flink.streaming.api.functions.sink.filesystem.OutputFileConfig;
+import org.apache.flink.streaming.api.functions.sink.filesystem.bucketassigners.DateTimeBucketAssigner;
 import org.apache.flink.streaming.api.functions.sink.filesystem.rollingpolicies.OnCheckpointRollingPolicy;
 import org.apache.flink.streaming.connectors.kinesis.FlinkKinesisConsumer;
-import org.apache.flink.streaming.connectors.kinesis.config.AWSConfigConstants;
-import org.apache.flink.streaming.connectors.kinesis.config.ConsumerConfigConstants;
+import org.apache.flink.streaming.connectors.kinesis.util.JobManagerWatermarkTracker;
+import org.apache.flink.util.TimeUtils;
+import org.apache.flink.util.function.SerializableFunction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 public class StreamingJob {
 
@@ -50,14 +88,51 @@ public class StreamingJob {
 	private static final String KINESIS_STREAM_NAME = "StreamName";
 	private static final String AWS_REGION = "AWSRegion";
 	private static final String STREAM_INITIAL_POSITION = "StreamInitialPosition";
-	private static final String S3_DEST_KEY = "BucketName";
+	static final String S3_DEST_KEY = "BucketName";
 	private static final String SINK_PARALLELISM_KEY = "SinkParallelism";
-	private static final String PARTITION_FORMAT_KEY = "PartitionFormat";
-	private static final String FLINK_APPLICATION_PROPERTIES = "BlueprintMetadata";
-
-	private static Properties getAppProperties() throws IOException {
-		// note: this won't work when running locally
-		Map<String, Properties> applicationProperties = KinesisAnalyticsRuntime.getApplicationProperties();
+	private static final String SINK_PARTITIONING_KEY = "SinkPartitioning";
+	private static final String SINK_PARTITIONING_SALT_KEY = "SinkPartitioningSalt";
+	private static final String SINK_PARTITIONING_ACTIVE_BUCKETS_KEY = "SinkPartitioningActiveBuckets";
+	static final String PARTITION_FORMAT_KEY = "PartitionFormat";
+	private static final String TICKER_DICTIONARY_KEY = "TickerDictionary";
+	private static final String FILTER_ENABLED_KEY = "FilterEnabled";
+	private static final String FILTER_FIELD_KEY = "FilterField";
+	private static final String FILTER_OPERATOR_KEY = "FilterOperator";
+	private static final String FILTER_VALUE_KEY = "FilterValue";
+	private static final String OHLCV_ENABLED_KEY = "OhlcvEnabled";
+	private static final String OHLCV_TUMBLING_WINDOWS_KEY = "OhlcvTumblingWindows";
+	private static final String OHLCV_SLIDING_WINDOWS_KEY = "OhlcvSlidingWindows";
+	private static final String OHLCV_OUT_OF_ORDERNESS_KEY = "OhlcvOutOfOrderness";
+	private static final String OHLCV_SINK_PARALLELISM_KEY = "OhlcvSinkParallelism";
+	private static final String WATERMARK_OUT_OF_ORDERNESS_KEY = "WatermarkOutOfOrderness";
+	private static final String WATERMARK_ALIGNMENT_ENABLED_KEY = "WatermarkAlignmentEnabled";
+	private static final String DEDUP_ENABLED_KEY = "DedupEnabled";
+	private static final String DEDUP_MODE_KEY = "DedupMode";
+	private static final String DEDUP_FIELDS_KEY = "DedupFields";
+	private static final String DEDUP_TTL_KEY = "DedupTtl";
+	private static final String DEDUP_FALSE_POSITIVE_RATE_KEY = "DedupFalsePositiveRate";
+	private static final String DEDUP_EXPECTED_RECORDS_PER_SECOND_KEY = "DedupExpectedRecordsPerSecond";
+	private static final String DEDUP_SHARDS_KEY = "DedupShards";
+	private static final String TRANSFORMS_KEY = "Transforms";
+	private static final String OBJECT_REUSE_ENABLED_KEY = "ObjectReuseEnabled";
+	private static final String ENRICHMENT_ENABLED_KEY = "EnrichmentEnabled";
+	private static final String ENRICHMENT_REFERENCE_DATA_PATH_KEY = "EnrichmentReferenceDataPath";
+	private static final String ENRICHMENT_CACHE_SIZE_KEY = "EnrichmentCacheSize";
+	private static final String ENRICHMENT_CACHE_TTL_KEY = "EnrichmentCacheTtl";
+	private static final String ENRICHMENT_TIMEOUT_KEY = "EnrichmentTimeout";
+	private static final String ENRICHMENT_CAPACITY_KEY = "EnrichmentCapacity";
+	private static final String BOOTSTRAP_ENABLED_KEY = "BootstrapEnabled";
+	private static final String BOOTSTRAP_PATH_KEY = "BootstrapPath";
+	private static final String BOOTSTRAP_FORMAT_KEY = "BootstrapFormat";
+	private static final String BOOTSTRAP_SOURCE_PARALLELISM_KEY = "BootstrapSourceParallelism";
+	private static final String BOOTSTRAP_CUTOVER_KEY = "BootstrapCutover";
+	private static final String BOOTSTRAP_CUTOVER_MARGIN_KEY = "BootstrapCutoverMargin";
+	private static final String DEAD_LETTER_ENABLED_KEY = "DeadLetterEnabled";
+	private static final String DEAD_LETTER_BUDGET_KEY = "DeadLetterBudget";
+	private static final String DEAD_LETTER_BUDGET_INTERVAL_KEY = "DeadLetterBudgetInterval";
+	static final String FLINK_APPLICATION_PROPERTIES = "BlueprintMetadata";
+
+	private static Properties getAppProperties(Map<String, Properties> applicationProperties) {
 		Properties flinkProperties = applicationProperties.get(FLINK_APPLICATION_PROPERTIES);
 
 		if(flinkProperties == null) {
@@ -94,47 +169,108 @@ public class StreamingJob {
 		return flinkProperties;
 	}
 
-	private static boolean isLocal(StreamExecutionEnvironment env) {
+	static boolean isLocal(StreamExecutionEnvironment env) {
 		return env instanceof LocalStreamEnvironment;
 	}
 
-	private static FlinkKinesisConsumer<Stock> getKinesisSource(StreamExecutionEnvironment env,
-																Properties appProperties) {
+	/**
+	 * The type of every Stock stream in the job. Operators that emit Stock must pass the type of
+	 * their input to returns(...); an inferred type falls back to the default ticker dictionary.
+	 */
+	public static StockTypeInfo getStockTypeInfo(Properties appProperties) {
+		// Tickers listed here are shuffled and stored as small integer ids (comma separated).
+		// Only append to this list on a running application; see StockSerializerSnapshot.
+		if(appProperties == null || !appProperties.containsKey(TICKER_DICTIONARY_KEY)) {
+			return new StockTypeInfo();
+		}
+
+		String[] tickers = appProperties.get(TICKER_DICTIONARY_KEY).toString().trim().split("\\s*,\\s*");
+		return new StockTypeInfo(tickers);
+	}
+
+	static StockFilterSpec getStockFilter(Properties appProperties) {
+		Properties appProps = appProperties == null ? new Properties() : appProperties;
+
+		// Keeps stocks with a price of at least 1 unless configured otherwise
+		if(!Boolean.parseBoolean(appProps.getProperty(FILTER_ENABLED_KEY, "true").trim())) {
+			return null;
+		}
+
+		return StockFilterSpec.parse(appProps.getProperty(FILTER_FIELD_KEY, "price"),
+									 appProps.getProperty(FILTER_OPERATOR_KEY, ">="),
+									 appProps.getProperty(FILTER_VALUE_KEY, "1"));
+	}
+
+	private static <T> FlinkKinesisConsumer<T> getKinesisSource(StreamExecutionEnvironment env,
+																Properties appProperties,
+																DeserializationSchema<T> deserializationSchema,
+																SerializableFunction<T, String> eventTime) {
 
 		String streamName = "myKinesisStream";
 		String regionStr = "us-east-1";
 		String streamInitPos = "LATEST";
 
-		if(!isLocal(env)) {
+		if(appProperties != null) {
 			streamName = appProperties.get(KINESIS_STREAM_NAME).toString();
 			regionStr = appProperties.get(AWS_REGION).toString();
 			streamInitPos = appProperties.get(STREAM_INITIAL_POSITION).toString();
 		}
 
-		Properties consumerConfig = new Properties();
-		consumerConfig.put(AWSConfigConstants.AWS_REGION, regionStr);
-		consumerConfig.put(ConsumerConfigConstants.STREAM_INITIAL_POSITION, streamInitPos);
-		// Default is POLLING, but we're specifying it explicitly here.
-		consumerConfig.put(ConsumerConfigConstants.RECORD_PUBLISHER_TYPE,
-						   ConsumerConfigConstants.RecordPublisherType.POLLING.name());
+		// Polling by default; see KinesisConsumerConfig for Enhanced Fan-Out and polling profiles.
+		Properties consumerConfig = KinesisConsumerConfig.build(streamName, regionStr, streamInitPos, appProperties);
+		if(isBootstrapEnabled(appProperties)) {
+			// Older records come from the archive; see addBootstrap
+			KinesisConsumerConfig.startAt(consumerConfig, getBootstrapStart(appProperties));
+		}
 
-		DeserializationSchema<Stock> deserializationSchema = new StockDeserializationSchema();
+		FlinkKinesisConsumer<T> kinesisStockSource = new FlinkKinesisConsumer<>(streamName,
+																				deserializationSchema,
+																				consumerConfig);
 
-		FlinkKinesisConsumer<Stock> kinesisStockSource = new FlinkKinesisConsumer<>(streamName,
-																					deserializationSchema,
-																					consumerConfig);
+		// Event time is parsed once here, per shard; idle shards are configured in KinesisConsumerConfig
+		kinesisStockSource.setPeriodicWatermarkAssigner(
+				new ShardWatermarkAssigner<>(getWatermarkOutOfOrderness(appProperties), eventTime));
+		if(isWatermarkAlignmentEnabled(appProperties)) {
+			// Subtasks share their watermarks through the JobManager and hold back shards that run ahead
+			kinesisStockSource.setWatermarkTracker(new JobManagerWatermarkTracker(streamName + "-watermarks"));
+		}
 		return kinesisStockSource;
 	}
 
-	private static FileSink<Stock> getFileSink(StreamExecutionEnvironment env,
+	/**
+	 * How late records may arrive and still count towards their OHLCV window. Falls back to the
+	 * OhlcvOutOfOrderness property of earlier versions.
+	 */
+	public static Duration getWatermarkOutOfOrderness(Properties appProperties) {
+		Properties appProps = appProperties == null ? new Properties() : appProperties;
+		String outOfOrderness = appProps.getProperty(WATERMARK_OUT_OF_ORDERNESS_KEY,
+													 appProps.getProperty(OHLCV_OUT_OF_ORDERNESS_KEY, "5 s"));
+		return TimeUtils.parseDuration(outOfOrderness);
+	}
+
+	private static boolean isWatermarkAlignmentEnabled(Properties appProperties) {
+		return appProperties == null
+				|| Boolean.parseBoolean(appProperties.getProperty(WATERMARK_ALIGNMENT_ENABLED_KEY, "true").trim());
+	}
+
+	/**
+	 * Deserialization schema of the source; also used by the pipeline harness in src/jmh.
+	 */
+	public static DeserializationSchema<Stock> getDeserializationSchema(Properties appProperties,
+																		 StockTypeInfo stockTypeInfo) {
+		// The filter runs on the raw payload, so dropped records are never materialized
+		return new StockDeserializationSchema(stockTypeInfo, getStockFilter(appProperties));
+	}
+
+	private static MeteredFileSink<Stock> getFileSink(StreamExecutionEnvironment env,
 													   Properties appProperties) {
 		String outputPath = "/tmp/flinkout";
-		if(!isLocal(env)) {
+		if(appProperties != null) {
 			outputPath = appProperties.get(S3_DEST_KEY).toString();
 		}
 
 		String partitionFormat = "yyyy-MM-dd-HH";
-		if(!isLocal(env)) {
+		if(appProperties != null) {
 			partitionFormat = appProperties.get(PARTITION_FORMAT_KEY).toString();
 		}
 
@@ -142,38 +278,412 @@ public class StreamingJob {
 
 		String prefix = String.format("%sjob_start=%s/", "app-msf-kafka-to-s3", System.currentTimeMillis());
 
-		final FileSink<Stock> sink = FileSink
-				.forBulkFormat(path, ParquetAvroWriters.forReflectRecord(Stock.class))
-				.withBucketAssigner(new StockDateBucketAssigner(partitionFormat, prefix))
+		// Parquet, ORC or compressed JSON lines; see OutputFormatConfig
+		OutputFormatConfig outputFormat = OutputFormatConfig.fromProperties(appProperties);
+
+		// Counts records per bucket for the sink metrics
+		MeteredBucketAssigner<Stock, String> bucketAssigner =
+				new MeteredBucketAssigner<>(new StockDateBucketAssigner(partitionFormat, prefix));
+
+		FileSink.DefaultBulkFormatBuilder<Stock> builder = FileSink
+				.forBulkFormat(path, outputFormat.createStockWriterFactory())
+				.withBucketAssigner(bucketAssigner)
+				.withOutputFileConfig(OutputFileConfig.builder().withPartSuffix(outputFormat.getPartSuffix()).build());
+
+		// Rolls on checkpoint (plus optional size/time limits) and compacts the small files
+		// of each bucket; see FileSinkConfig
+		final FileSink<Stock> sink = FileSinkConfig.configure(builder, outputFormat.createStockCompactor(), appProperties)
+				.build();
+
+		return new MeteredFileSink<>(sink, bucketAssigner);
+	}
+
+	/**
+	 * With SinkPartitioning=BUCKET, records of a bucket only go to SinkPartitioningSalt sink
+	 * subtasks instead of all of them, which bounds the open part files per subtask.
+	 */
+	private static DataStream<Stock> partitionForSink(DataStream<Stock> stockStream, Properties appProperties) {
+		Properties appProps = appProperties == null ? new Properties() : appProperties;
+		String partitioning = appProps.getProperty(SINK_PARTITIONING_KEY, "FORWARD").trim().toUpperCase();
+		if("FORWARD".equals(partitioning)) {
+			return stockStream;
+		}
+		if(!"BUCKET".equals(partitioning)) {
+			throw new IllegalArgumentException("Unknown " + SINK_PARTITIONING_KEY + ": " + partitioning);
+		}
+
+		int sinkParallelism = appProps.containsKey(SINK_PARALLELISM_KEY)
+				? Integer.parseInt(appProps.getProperty(SINK_PARALLELISM_KEY).trim())
+				: stockStream.getExecutionEnvironment().getParallelism();
+		int salt = getSinkPartitioningSalt(appProps, sinkParallelism);
+		// Same time slots as the sink; the job_start prefix is identical for all buckets
+		StockDateBucketAssigner bucketAssigner = new StockDateBucketAssigner(getPartitionFormat(appProperties), "");
+
+		return BucketAffinePartitioner.partition(stockStream,
+												 stock -> bucketAssigner.getBucketId(stock.getEvent_time()),
+												 Stock::getTicker,
+												 salt);
+	}
+
+	/**
+	 * Sink subtasks per bucket. Unless SinkPartitioningSalt is set, the sink subtasks are spread
+	 * evenly over SinkPartitioningActiveBuckets buckets: live traffic only writes to the current
+	 * bucket, which then gets all subtasks, while a backfill writing to many buckets at once
+	 * should raise it.
+	 */
+	static int getSinkPartitioningSalt(Properties appProperties, int sinkParallelism) {
+		if(appProperties.containsKey(SINK_PARTITIONING_SALT_KEY)) {
+			return Integer.parseInt(appProperties.getProperty(SINK_PARTITIONING_SALT_KEY).trim());
+		}
+
+		int activeBuckets = Integer.parseInt(appProperties.getProperty(SINK_PARTITIONING_ACTIVE_BUCKETS_KEY, "1").trim());
+		if(activeBuckets < 1) {
+			throw new IllegalArgumentException(SINK_PARTITIONING_ACTIVE_BUCKETS_KEY + " must be at least 1, but was " + activeBuckets);
+		}
+		return Math.max(1, sinkParallelism / activeBuckets);
+	}
+
+	private static String getPartitionFormat(Properties appProperties) {
+		return appProperties == null ? "yyyy-MM-dd-HH" : appProperties.get(PARTITION_FORMAT_KEY).toString();
+	}
+
+	/**
+	 * Reads archived stock records at file speed, see {@link ArchiveSource}, and applies the
+	 * record filter, which Kinesis records get while they are deserialized.
+	 *
+	 * @param pathKey property with comma separated files or directories, e.g. one per day
+	 */
+	static DataStream<Stock> addArchiveSource(StreamExecutionEnvironment env,
+											  Properties appProperties,
+											  String pathKey,
+											  String formatKey,
+											  String parallelismKey,
+											  String uid) {
+		Path[] paths = Arrays.stream(appProperties.getProperty(pathKey).trim().split("\\s*,\\s*"))
+				.map(Path::new)
+				.toArray(Path[]::new);
+		ArchiveSource.Format format = ArchiveSource.Format.valueOf(
+				appProperties.getProperty(formatKey, ArchiveSource.Format.PARQUET.name()).trim().toUpperCase());
+
+		// Files are not read in event time order, so they only carry timestamps; the watermark
+		// stays back until all files are read
+		WatermarkStrategy<Stock> timestamps = WatermarkStrategy.<Stock>noWatermarks()
+				.withTimestampAssigner((stock, recordTimestamp) -> StockWatermarks.timestampOf(stock.getEvent_time()));
+
+		SingleOutputStreamOperator<Stock> source = env
+				.fromSource(ArchiveSource.create(format, getStockTypeInfo(appProperties), paths), timestamps, "Archive source")
+				.uid(uid);
+		if(appProperties.containsKey(parallelismKey)) {
+			source.setParallelism(Integer.parseInt(appProperties.getProperty(parallelismKey).trim()));
+		}
+
+		StockFilterSpec filter = getStockFilter(appProperties);
+		return filter == null ? source : source.filter(new StockFilterFunction(filter)).name("Filter").uid(uid + "-filter");
+	}
+
+	private static boolean isBootstrapEnabled(Properties appProperties) {
+		return appProperties != null
+				&& Boolean.parseBoolean(appProperties.getProperty(BOOTSTRAP_ENABLED_KEY, "false").trim());
+	}
+
+	private static long getBootstrapCutover(Properties appProperties) {
+		String cutover = appProperties.getProperty(BOOTSTRAP_CUTOVER_KEY);
+		if(cutover == null || !appProperties.containsKey(BOOTSTRAP_PATH_KEY)) {
+			throw new IllegalArgumentException(BOOTSTRAP_PATH_KEY + " and " + BOOTSTRAP_CUTOVER_KEY
+					+ " are required when " + BOOTSTRAP_ENABLED_KEY + " is true");
+		}
+		return Cutover.parse(cutover);
+	}
+
+	/**
+	 * Kinesis is read from this long before the cut-over, so that records which Kinesis
+	 * timestamped before their event time, e.g. because the producer clock runs ahead, are not
+	 * missed. Records that arrive late need no margin when their event time is from the cut-over
+	 * on, and no margin brings back those from before it: they must be in the archive.
+	 */
+	private static Instant getBootstrapStart(Properties appProperties) {
+		Duration margin = TimeUtils.parseDuration(appProperties.getProperty(BOOTSTRAP_CUTOVER_MARGIN_KEY, "5 min"));
+		return Instant.ofEpochMilli(getBootstrapCutover(appProperties)).minus(margin);
+	}
+
+	/**
+	 * Starts from the archive and catches up to live data: the archive is read at file speed,
+	 * next to Kinesis, which only starts shortly before BootstrapCutover and is therefore not
+	 * replayed within its read limits. Both sides are split at the cut-over by event time, so
+	 * no record is read twice, and none is lost as long as the archive already holds every record
+	 * with an event time before the cut-over, late ones included.
+	 *
+	 * <p>A HybridSource would read the two one after the other, but it only chains FLIP-27
+	 * sources, which FlinkKinesisConsumer is not. Reading both at once works the same way for
+	 * the sink; event time windows fire once the archive is read.
+	 */
+	private static DataStream<Stock> addBootstrap(StreamExecutionEnvironment env,
+												  DataStream<Stock> streamed,
+												  Properties appProperties) {
+		long cutover = getBootstrapCutover(appProperties);
+
+		DataStream<Stock> archived = addArchiveSource(env, appProperties, BOOTSTRAP_PATH_KEY, BOOTSTRAP_FORMAT_KEY,
+													  BOOTSTRAP_SOURCE_PARALLELISM_KEY, "bootstrap-archive-source")
+				.filter(Cutover.archived(cutover))
+				.name("Before cut-over")
+				.uid("bootstrap-archived");
+
+		return streamed
+				.filter(Cutover.streamed(cutover))
+				.name("From cut-over")
+				.uid("bootstrap-streamed")
+				.union(archived);
+	}
+
+	private static boolean isDeadLetterEnabled(Properties appProperties) {
+		return appProperties != null
+				&& Boolean.parseBoolean(appProperties.getProperty(DEAD_LETTER_ENABLED_KEY, "false").trim());
+	}
+
+	private static FileSink<DeadLetter> getDeadLetterSink(Properties appProperties) {
+		String outputPath = "/tmp/flinkout";
+		if(appProperties != null) {
+			outputPath = appProperties.get(S3_DEST_KEY).toString();
+		}
+
+		String prefix = String.format("%sjob_start=%s/", "app-msf-kafka-to-s3-dead-letter/", System.currentTimeMillis());
+
+		// Bucketed by processing time; dead letters may not have a usable event_time
+		return FileSink
+				.forBulkFormat(new Path(new Path(outputPath), prefix), new DeadLetterWriterFactory())
+				.withBucketAssigner(new DateTimeBucketAssigner<>(getPartitionFormat(appProperties)))
 				.withRollingPolicy(OnCheckpointRollingPolicy.build())
+				.withOutputFileConfig(OutputFileConfig.builder().withPartSuffix(".jsonl.gz").build())
 				.build();
+	}
 
-		return sink;
+	/**
+	 * Splits off the records the tolerant source could not decode and writes them to the
+	 * dead-letter sink. The job only fails once more of them arrive than the error budget allows.
+	 */
+	private static DataStream<Stock> addDeadLetterRouting(DataStream<DecodeResult> decoded, Properties appProperties) {
+		long budget = Long.parseLong(appProperties.getProperty(DEAD_LETTER_BUDGET_KEY, "1000").trim());
+		Duration interval = TimeUtils.parseDuration(appProperties.getProperty(DEAD_LETTER_BUDGET_INTERVAL_KEY, "1 min"));
+
+		SingleOutputStreamOperator<Stock> stocks = decoded
+				.process(new DeadLetterRouter(new ErrorBudget(budget, interval)))
+				.returns(getStockTypeInfo(appProperties))
+				.name("Dead letter router");
+
+		stocks.getSideOutput(DeadLetterRouter.DEAD_LETTERS)
+				.sinkTo(getDeadLetterSink(appProperties))
+				.name("S3 Dead Letter Sink")
+				.uid("s3-dead-letter-sink");
+
+		return stocks;
+	}
+
+	private static FileSink<OhlcvBar> getOhlcvSink(Properties appProperties) {
+		String outputPath = "/tmp/flinkout";
+		String partitionFormat = "yyyy-MM-dd-HH";
+		if(appProperties != null) {
+			outputPath = appProperties.get(S3_DEST_KEY).toString();
+			partitionFormat = appProperties.get(PARTITION_FORMAT_KEY).toString();
+		}
+
+		String prefix = String.format("%sjob_start=%s/", "app-msf-kafka-to-s3-ohlcv/", System.currentTimeMillis());
+
+		ParquetWriterConfig parquetConfig = ParquetWriterConfig.fromProperties(appProperties);
+
+		// A few bars per ticker and window; rolling on checkpoint is all they need
+		return FileSink
+				.forBulkFormat(new Path(outputPath), parquetConfig.createOhlcvBarWriterFactory())
+				.withBucketAssigner(new OhlcvBarBucketAssigner(partitionFormat, prefix))
+				.withRollingPolicy(OnCheckpointRollingPolicy.build())
+				.build();
+	}
+
+	private static void addOhlcvPipeline(DataStream<Stock> stockStream, Properties appProperties) {
+		Properties appProps = appProperties == null ? new Properties() : appProperties;
+		if(!Boolean.parseBoolean(appProps.getProperty(OHLCV_ENABLED_KEY, "false").trim())) {
+			return;
+		}
+
+		List<OhlcvWindowSpec> windows = new ArrayList<>(
+				OhlcvWindowSpec.parseTumbling(appProps.getProperty(OHLCV_TUMBLING_WINDOWS_KEY, "1 min")));
+		windows.addAll(OhlcvWindowSpec.parseSliding(appProps.getProperty(OHLCV_SLIDING_WINDOWS_KEY, "")));
+
+		// Timestamps and watermarks come from the source
+		DataStream<OhlcvBar> bars = OhlcvPipeline.bars(stockStream, windows);
+
+		int sinkParallelism = Integer.parseInt(appProps.getProperty(OHLCV_SINK_PARALLELISM_KEY, "1").trim());
+		bars.sinkTo(getOhlcvSink(appProperties))
+				.name("S3 OHLCV Sink")
+				.uid("s3-ohlcv-sink")
+				.setParallelism(sinkParallelism);
+	}
+
+	/**
+	 * Drops replayed and retried records. STATE remembers every record exactly for DedupTtl,
+	 * BLOOM uses rotating Bloom filters of fixed size per shard and may drop a small, configurable
+	 * share of unique records.
+	 */
+	private static DataStream<Stock> addDeduplication(DataStream<Stock> stockStream, Properties appProperties) {
+		Properties appProps = appProperties == null ? new Properties() : appProperties;
+		if(!Boolean.parseBoolean(appProps.getProperty(DEDUP_ENABLED_KEY, "false").trim())) {
+			return stockStream;
+		}
+
+		StockFingerprint fingerprint = StockFingerprint.parse(
+				appProps.getProperty(DEDUP_FIELDS_KEY, "ticker,event_time,price"));
+		Duration ttl = TimeUtils.parseDuration(appProps.getProperty(DEDUP_TTL_KEY, "10 min"));
+		String mode = appProps.getProperty(DEDUP_MODE_KEY, "BLOOM").trim().toUpperCase();
+
+		switch (mode) {
+			case "STATE":
+				return stockStream
+						.keyBy(fingerprint::hash)
+						.process(new TtlStateDeduplicator(ttl))
+						.returns(stockStream.getType())
+						.name("Deduplication")
+						.uid("deduplication");
+			case "BLOOM":
+				int shards = Integer.parseInt(appProps.getProperty(DEDUP_SHARDS_KEY, "128").trim());
+				double falsePositiveRate = Double.parseDouble(
+						appProps.getProperty(DEDUP_FALSE_POSITIVE_RATE_KEY, "0.001").trim());
+				long recordsPerSecond = Long.parseLong(
+						appProps.getProperty(DEDUP_EXPECTED_RECORDS_PER_SECOND_KEY, "10000").trim());
+				long recordsPerShard = recordsPerSecond * ttl.getSeconds() / shards;
+
+				return stockStream
+						.keyBy(stock -> RotatingBloomFilterDeduplicator.shardOf(fingerprint.hash(stock), shards))
+						.process(new RotatingBloomFilterDeduplicator(fingerprint, ttl, recordsPerShard, falsePositiveRate))
+						.returns(stockStream.getType())
+						.name("Deduplication")
+						.uid("deduplication");
+			default:
+				throw new IllegalArgumentException("Unknown " + DEDUP_MODE_KEY + ": " + mode);
+		}
+	}
+
+	/**
+	 * Runs the stages listed in Transforms, in order and in a single operator; see
+	 * {@link StockTransforms} for the stages and how to add your own.
+	 */
+	private static DataStream<Stock> addTransforms(DataStream<Stock> stockStream, Properties appProperties) {
+		String transforms = appProperties == null ? "" : appProperties.getProperty(TRANSFORMS_KEY, "");
+		List<StockTransform> stages = StockTransforms.parse(transforms);
+		if(stages.isEmpty()) {
+			return stockStream;
+		}
+
+		return stockStream
+				.flatMap(new StockTransformFunction(stages))
+				.returns(stockStream.getType())
+				.name("Transforms")
+				.uid("transforms");
+	}
+
+	/**
+	 * Hands records between chained operators as they are instead of copying them through the
+	 * serializer at every hop. Safe as long as no operator keeps a record after emitting it, or
+	 * changes a record it shares with another chained operator: the transforms change records
+	 * in place, but run before the stream fans out to the OHLCV pipeline and the sink, and the
+	 * async enrichment copies records it has to hold on to.
+	 */
+	private static void configureObjectReuse(StreamExecutionEnvironment env, Properties appProperties) {
+		if(appProperties == null
+				|| Boolean.parseBoolean(appProperties.getProperty(OBJECT_REUSE_ENABLED_KEY, "true").trim())) {
+			env.getConfig().enableObjectReuse();
+		} else {
+			env.getConfig().disableObjectReuse();
+		}
+	}
+
+	private static DataStream<Stock> addEnrichment(DataStream<Stock> stockStream, Properties appProperties) {
+		Properties appProps = appProperties == null ? new Properties() : appProperties;
+		if(!Boolean.parseBoolean(appProps.getProperty(ENRICHMENT_ENABLED_KEY, "false").trim())) {
+			return stockStream;
+		}
+
+		String referenceDataPath = appProps.getProperty(ENRICHMENT_REFERENCE_DATA_PATH_KEY);
+		if(referenceDataPath == null) {
+			throw new IllegalArgumentException(ENRICHMENT_REFERENCE_DATA_PATH_KEY + " is required when "
+					+ ENRICHMENT_ENABLED_KEY + " is true");
+		}
+		int cacheSize = Integer.parseInt(appProps.getProperty(ENRICHMENT_CACHE_SIZE_KEY, "10000").trim());
+		Duration cacheTtl = TimeUtils.parseDuration(appProps.getProperty(ENRICHMENT_CACHE_TTL_KEY, "10 min"));
+		Duration timeout = TimeUtils.parseDuration(appProps.getProperty(ENRICHMENT_TIMEOUT_KEY, "5 s"));
+		int capacity = Integer.parseInt(appProps.getProperty(ENRICHMENT_CAPACITY_KEY, "100").trim());
+
+		EnrichmentFunction enrichment =
+				new EnrichmentFunction(new FileReferenceDataClient(referenceDataPath.trim()), cacheSize, cacheTtl);
+
+		// Keyed by ticker, so every subtask only caches and looks up its share of the tickers
+		return AsyncDataStream.unorderedWait(
+						stockStream.keyBy(stock -> stock.getTicker() == null ? "" : stock.getTicker()),
+						enrichment, timeout.toMillis(), TimeUnit.MILLISECONDS, capacity)
+				.returns(stockStream.getType())
+				.name("Reference data enrichment")
+				.uid("reference-data-enrichment");
 	}
 
 	private static void runAppWithKinesisSource(StreamExecutionEnvironment env,
 												Properties appProperties) {
+		StockTypeInfo stockTypeInfo = getStockTypeInfo(appProperties);
+
 		// Source
-		FlinkKinesisConsumer<Stock> stockSource = getKinesisSource(env, appProperties);
-		DataStream<Stock> stockStream = env.addSource(stockSource, "Kinesis source");
+		DeserializationSchema<Stock> deserializationSchema = getDeserializationSchema(appProperties, stockTypeInfo);
+		DataStream<Stock> stockStream;
+		if(isDeadLetterEnabled(appProperties)) {
+			// Tolerant decode mode: undecodable records go to a dead-letter sink instead of failing the job
+			DeadLetterDeserializationSchema tolerantSchema =
+					new DeadLetterDeserializationSchema(deserializationSchema, getPartitionFormat(appProperties));
+			DataStream<DecodeResult> decoded = env.addSource(getKinesisSource(env, appProperties, tolerantSchema,
+																			  DecodeResult::eventTime),
+															 "Kinesis source");
+			stockStream = addDeadLetterRouting(decoded, appProperties);
+		} else {
+			stockStream = env.addSource(getKinesisSource(env, appProperties, deserializationSchema, Stock::getEvent_time),
+										"Kinesis source");
+		}
+
+		if(isBootstrapEnabled(appProperties)) {
+			stockStream = addBootstrap(env, stockStream, appProperties);
+		}
 
-		// Do your processing here.
-		// We've included a simple transform, but you can replace this with your own
-		// custom processing. Please see the official Apache Flink docs:
+		addProcessingAndSinks(stockStream, appProperties);
+	}
+
+	/**
+	 * Everything downstream of the source. The pipeline harness in src/jmh runs the same topology
+	 * on a MiniCluster with a synthetic source.
+	 *
+	 * <p>Records must carry event timestamps and watermarks, see {@link ShardWatermarkAssigner} and
+	 * {@link com.amazonaws.services.kinesisanalytics.stock.StockWatermarks}.
+	 */
+	public static void addProcessingAndSinks(DataStream<Stock> stockStream, Properties appProperties) {
+		configureObjectReuse(stockStream.getExecutionEnvironment(), appProperties);
+
+		// Records are already filtered in the deserialization schema (see getStockFilter).
+		// Add your own processing as a StockTransform stage, so that it runs chained with the
+		// other stages and without copies; see the official Apache Flink docs:
 		// https://nightlies.apache.org/flink/flink-docs-stable/
-		// for more ideas.
-		stockStream.flatMap((FlatMapFunction<Stock, Stock>) (stock, out) -> {
-			// Filter out stocks with price higher than 1
-			if(stock.getPrice() >= 1) {
-				out.collect(stock);
-			}
-		}).returns(Stock.class);
+		// for anything that needs state or a different partitioning.
+
+		// Optional deduplication of replayed or retried records, before anything counts them
+		DataStream<Stock> uniqueStream = addDeduplication(stockStream, appProperties);
+
+		// Optional transform stages, in place on every record, before the stream fans out
+		DataStream<Stock> transformedStream = addTransforms(uniqueStream, appProperties);
+
+		// Optional per-ticker OHLCV bars, written to a second sink
+		addOhlcvPipeline(transformedStream, appProperties);
+
+		// Optional instrument reference data (exchange, currency, sector), looked up asynchronously
+		DataStream<Stock> outputStream = addEnrichment(transformedStream, appProperties);
 
 		// Sink
-		FileSink<Stock> fSink = getFileSink(env, appProperties);
-		DataStreamSink<Stock> sink = stockStream.sinkTo(fSink).name("S3 File Sink");
+		MeteredFileSink<Stock> fSink = getFileSink(outputStream.getExecutionEnvironment(), appProperties);
+		// The compaction topology of the sink sets uids on its operators, so the sink needs one too
+		DataStreamSink<Stock> sink = partitionForSink(outputStream, appProperties).sinkTo(fSink).name("S3 File Sink").uid("s3-file-sink");
 
-		if(!isLocal(env) && appProperties.containsKey(SINK_PARALLELISM_KEY)) {
+		if(appProperties != null && appProperties.containsKey(SINK_PARALLELISM_KEY)) {
 			int sinkParallelism = Integer.parseInt(appProperties.get(SINK_PARALLELISM_KEY).toString());
 
 			sink.setParallelism(sinkParallelism);
@@ -182,7 +692,11 @@ public class StreamingJob {
 
 	public static void main(String[] args) throws Exception {
 		// Set up the streaming execution environment
-		final StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+		StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+		if(isLocal(env)) {
+			// MSF sends the kinesisanalytics metrics to CloudWatch; locally they go to Slf4j and JMX
+			env = StreamExecutionEnvironment.createLocalEnvironment(KinesisAnalyticsMetrics.localReporterConfiguration());
+		}
 		env.setRuntimeMode(RuntimeExecutionMode.STREAMING);
 
 		// Only for local
@@ -194,8 +708,14 @@ public class StreamingJob {
 		}
 
 		Properties appProperties = null;
-		if(!isLocal(env)) {
-			appProperties = getAppProperties();
+		if(!isLocal(env) || args.length > 0) {
+			// Local runs can point at an application properties JSON file (same layout as in MSF),
+			// e.g. to read from a Kinesis stand-in via AWSEndpoint.
+			Map<String, Properties> applicationProperties = isLocal(env)
+					? KinesisAnalyticsRuntime.getApplicationProperties(args[0])
+					: KinesisAnalyticsRuntime.getApplicationProperties();
+
+			appProperties = getAppProperties(applicationProperties);
 			if(appProperties == null) {
 				LOG.error("Incorrectly specified application properties. Exiting...");
 				return;
@@ -0,0 +1,104 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.deadletter;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A record that could not be turned into a {@link com.amazonaws.services.kinesisanalytics.stock.Stock}
+ * the sink can write, with the raw payload and why it was rejected.
+ */
+public class DeadLetter {
+    public static final String STAGE_DESERIALIZATION = "deserialization";
+    public static final String STAGE_BUCKET_ASSIGNMENT = "bucket_assignment";
+
+    // Processing time in epoch millis
+    private long received_at;
+    private String stage;
+    private String reason;
+    private byte[] payload;
+
+    public DeadLetter() {}
+
+    public DeadLetter(long received_at, String stage, String reason, byte[] payload) {
+        this.received_at = received_at;
+        this.stage = stage;
+        this.reason = reason;
+        this.payload = payload;
+    }
+
+    public long getReceived_at() {
+        return received_at;
+    }
+
+    public void setReceived_at(long received_at) {
+        this.received_at = received_at;
+    }
+
+    public String getStage() {
+        return stage;
+    }
+
+    public void setStage(String stage) {
+        this.stage = stage;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public void setPayload(byte[] payload) {
+        this.payload = payload;
+    }
+
+    @Override
+    public String toString() {
+        return "DeadLetter{" + "stage=" + stage + ", reason='" + reason + '\'' + ", bytes=" +
+                (payload == null ? 0 : payload.length) + ", received_at=" + received_at + '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        DeadLetter that = (DeadLetter) o;
+        return received_at == that.received_at &&
+                Objects.equals(stage, that.stage) &&
+                Objects.equals(reason, that.reason) &&
+                Arrays.equals(payload, that.payload);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hash(received_at, stage, reason) + Arrays.hashCode(payload);
+    }
+}
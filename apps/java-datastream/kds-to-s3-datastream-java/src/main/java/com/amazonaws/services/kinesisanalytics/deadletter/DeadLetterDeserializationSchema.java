@@ -0,0 +1,93 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.deadletter;
+
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import com.amazonaws.services.kinesisanalytics.stock.StockDateBucketAssigner;
+import org.apache.flink.api.common.serialization.DeserializationSchema;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+
+/**
+ * Tolerant decode mode: wraps the stock deserialization schema and turns payloads it cannot parse,
+ * or whose event_time the bucket assigner would choke on, into {@link DeadLetter}s instead of
+ * failing the source. Filtered records are still skipped.
+ */
+public class DeadLetterDeserializationSchema implements DeserializationSchema<DecodeResult> {
+    private static final long serialVersionUID = 1L;
+
+    private static final int MAX_REASON_LENGTH = 512;
+
+    private final DeserializationSchema<Stock> delegate;
+    private final StockDateBucketAssigner bucketAssigner;
+
+    /**
+     * @param partitionFormat partition format of the stock sink; event times it cannot format are
+     *                        rejected here, where the raw payload is still at hand
+     */
+    public DeadLetterDeserializationSchema(DeserializationSchema<Stock> delegate, String partitionFormat) {
+        this.delegate = delegate;
+        this.bucketAssigner = new StockDateBucketAssigner(partitionFormat, "");
+    }
+
+    @Override
+    public void open(InitializationContext context) throws Exception {
+        delegate.open(context);
+    }
+
+    @Override
+    public DecodeResult deserialize(byte[] bytes) {
+        Stock stock;
+        try {
+            stock = delegate.deserialize(bytes);
+        } catch (Exception e) {
+            return deadLetter(bytes, DeadLetter.STAGE_DESERIALIZATION, e);
+        }
+
+        if (stock == null) {
+            return null;
+        }
+
+        try {
+            bucketAssigner.getBucketId(stock.getEvent_time());
+        } catch (RuntimeException e) {
+            return deadLetter(bytes, DeadLetter.STAGE_BUCKET_ASSIGNMENT, e);
+        }
+
+        return DecodeResult.of(stock);
+    }
+
+    private static DecodeResult deadLetter(byte[] bytes, String stage, Exception e) {
+        String reason = e.getClass().getSimpleName() + ": " + e.getMessage();
+        if (reason.length() > MAX_REASON_LENGTH) {
+            reason = reason.substring(0, MAX_REASON_LENGTH);
+        }
+
+        return DecodeResult.failed(new DeadLetter(System.currentTimeMillis(), stage, reason, bytes));
+    }
+
+    @Override
+    public boolean isEndOfStream(DecodeResult nextElement) {
+        return false;
+    }
+
+    @Override
+    public TypeInformation<DecodeResult> getProducedType() {
+        return TypeInformation.of(DecodeResult.class);
+    }
+}
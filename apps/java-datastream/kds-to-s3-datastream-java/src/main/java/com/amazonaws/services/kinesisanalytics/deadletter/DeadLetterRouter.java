@@ -0,0 +1,85 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.deadletter;
+
+import com.amazonaws.services.kinesisanalytics.metrics.KinesisAnalyticsMetrics;
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.MeterView;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.streaming.api.functions.ProcessFunction;
+import org.apache.flink.util.Collector;
+import org.apache.flink.util.OutputTag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Forwards decoded stocks and sends dead letters to the {@link #DEAD_LETTERS} side output. Fails
+ * the job once the {@link ErrorBudget} is exhausted, so that a broken producer does not silently
+ * divert the whole stream.
+ */
+public class DeadLetterRouter extends ProcessFunction<DecodeResult, Stock> {
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOG = LoggerFactory.getLogger(DeadLetterRouter.class);
+
+    public static final OutputTag<DeadLetter> DEAD_LETTERS =
+            new OutputTag<>("dead-letters", TypeInformation.of(DeadLetter.class));
+
+    public static final String DEAD_LETTER_RECORDS = "deadLetterRecords";
+    public static final String DEAD_LETTER_RECORDS_PER_SECOND = "deadLetterRecordsPerSecond";
+
+    private final ErrorBudget errorBudget;
+
+    private transient Counter deadLetters;
+
+    public DeadLetterRouter(ErrorBudget errorBudget) {
+        this.errorBudget = errorBudget;
+    }
+
+    @Override
+    public void open(Configuration parameters) {
+        MetricGroup metricGroup = KinesisAnalyticsMetrics.group(getRuntimeContext().getMetricGroup());
+        deadLetters = metricGroup.counter(DEAD_LETTER_RECORDS);
+        metricGroup.meter(DEAD_LETTER_RECORDS_PER_SECOND, new MeterView(deadLetters));
+    }
+
+    @Override
+    public void processElement(DecodeResult result, Context ctx, Collector<Stock> out) {
+        if (!result.isFailed()) {
+            out.collect(result.getStock());
+            return;
+        }
+
+        DeadLetter deadLetter = result.getDeadLetter();
+        if (!errorBudget.tryConsume(deadLetter.getReceived_at())) {
+            throw new IllegalStateException(String.format(
+                    "More than %d dead letters within %s; last one: %s",
+                    errorBudget.getBudget(), errorBudget.getInterval(), deadLetter));
+        }
+
+        if (deadLetters.getCount() == 0) {
+            LOG.warn("Sending undecodable records to the dead-letter sink, first one: {}", deadLetter);
+        }
+        deadLetters.inc();
+        ctx.output(DEAD_LETTERS, deadLetter);
+    }
+}
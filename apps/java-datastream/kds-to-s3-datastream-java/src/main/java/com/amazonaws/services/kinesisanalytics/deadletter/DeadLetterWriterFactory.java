@@ -0,0 +1,73 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.deadletter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.apache.flink.api.common.serialization.BulkWriter;
+import org.apache.flink.core.fs.FSDataOutputStream;
+
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes dead letters as gzipped JSON lines, one gzip file per part file. The payload is base64
+ * encoded, so it round-trips whatever the producer sent.
+ */
+public class DeadLetterWriterFactory implements BulkWriter.Factory<DeadLetter> {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public BulkWriter<DeadLetter> create(FSDataOutputStream out) throws IOException {
+        return new JsonLinesWriter(out);
+    }
+
+    private static class JsonLinesWriter implements BulkWriter<DeadLetter> {
+        private static final ObjectWriter WRITER = JsonMapper.builder()
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .build()
+                .writerFor(DeadLetter.class);
+
+        private final GZIPOutputStream gzip;
+
+        JsonLinesWriter(FSDataOutputStream out) throws IOException {
+            this.gzip = new GZIPOutputStream(out);
+        }
+
+        @Override
+        public void addElement(DeadLetter deadLetter) throws IOException {
+            WRITER.writeValue(gzip, deadLetter);
+            gzip.write('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            gzip.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            // Completes the gzip stream; the sink closes the underlying stream
+            gzip.finish();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.deadletter;
+
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+
+/**
+ * Outcome of decoding one payload in tolerant mode: either a stock or a dead letter.
+ */
+public class DecodeResult {
+    private Stock stock;
+    private DeadLetter deadLetter;
+
+    public DecodeResult() {}
+
+    public static DecodeResult of(Stock stock) {
+        DecodeResult result = new DecodeResult();
+        result.stock = stock;
+        return result;
+    }
+
+    public static DecodeResult failed(DeadLetter deadLetter) {
+        DecodeResult result = new DecodeResult();
+        result.deadLetter = deadLetter;
+        return result;
+    }
+
+    public boolean isFailed() {
+        return deadLetter != null;
+    }
+
+    /**
+     * @return event_time of the decoded stock, or null for dead letters
+     */
+    public String eventTime() {
+        return stock == null ? null : stock.getEvent_time();
+    }
+
+    public Stock getStock() {
+        return stock;
+    }
+
+    public void setStock(Stock stock) {
+        this.stock = stock;
+    }
+
+    public DeadLetter getDeadLetter() {
+        return deadLetter;
+    }
+
+    public void setDeadLetter(DeadLetter deadLetter) {
+        this.deadLetter = deadLetter;
+    }
+}
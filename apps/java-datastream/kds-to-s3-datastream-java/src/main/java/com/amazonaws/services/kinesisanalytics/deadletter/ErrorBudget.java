@@ -0,0 +1,84 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.deadletter;
+
+import java.io.Serializable;
+import java.time.Duration;
+
+/**
+ * Token bucket of tolerated errors: up to {@code budget} errors at once, refilled at
+ * {@code budget} per {@code interval}. A steady trickle of bad records is absorbed, a sustained
+ * burst (e.g. a producer sending a new format) exhausts the budget.
+ */
+public class ErrorBudget implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final long budget;
+    private final long intervalMillis;
+
+    private transient double tokens;
+    private transient long lastRefill;
+    private transient boolean started;
+
+    /**
+     * @param budget errors tolerated per interval; negative for no limit
+     */
+    public ErrorBudget(long budget, Duration interval) {
+        if (budget >= 0 && interval.toMillis() <= 0) {
+            throw new IllegalArgumentException("Error budget interval must be positive: " + interval);
+        }
+        this.budget = budget;
+        this.intervalMillis = interval.toMillis();
+    }
+
+    /**
+     * Takes one error from the budget.
+     *
+     * @return false if the budget is exhausted
+     */
+    public boolean tryConsume(long nowMillis) {
+        if (budget < 0) {
+            return true;
+        }
+
+        if (!started) {
+            tokens = budget;
+            lastRefill = nowMillis;
+            started = true;
+        } else if (nowMillis > lastRefill) {
+            tokens = Math.min(budget, tokens + (nowMillis - lastRefill) * (double) budget / intervalMillis);
+            lastRefill = nowMillis;
+        }
+
+        if (tokens < 1) {
+            return false;
+        }
+
+        tokens--;
+        return true;
+    }
+
+    public long getBudget() {
+        return budget;
+    }
+
+    public Duration getInterval() {
+        return Duration.ofMillis(intervalMillis);
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.dedup;
+
+import com.amazonaws.services.kinesisanalytics.metrics.KinesisAnalyticsMetrics;
+import org.apache.flink.api.common.functions.RuntimeContext;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.MeterView;
+import org.apache.flink.metrics.MetricGroup;
+
+/**
+ * Metrics shared by the dedup operators.
+ */
+final class DedupMetrics {
+    static final String DUPLICATE_RECORDS = "dedupDuplicateRecords";
+    static final String DUPLICATE_RECORDS_PER_SECOND = "dedupDuplicateRecordsPerSecond";
+
+    private DedupMetrics() {}
+
+    static Counter duplicates(RuntimeContext runtimeContext) {
+        MetricGroup metricGroup = KinesisAnalyticsMetrics.group(runtimeContext.getMetricGroup());
+        Counter duplicates = metricGroup.counter(DUPLICATE_RECORDS);
+        metricGroup.meter(DUPLICATE_RECORDS_PER_SECOND, new MeterView(duplicates));
+        return duplicates;
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.dedup;
+
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import org.apache.flink.api.common.state.MapState;
+import org.apache.flink.api.common.state.MapStateDescriptor;
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.api.common.typeinfo.Types;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.streaming.api.functions.KeyedProcessFunction;
+import org.apache.flink.util.Collector;
+
+import java.time.Duration;
+
+/**
+ * Approximate deduplication with a fixed memory footprint, on a stream keyed by shard (see
+ * {@link #shardOf}). Every shard keeps two Bloom filters in keyed state: records are added to
+ * the current one and looked up in both. Once per TTL (processing time) the older filter is
+ * cleared and becomes the current one, so a record is remembered for between one and two TTLs.
+ *
+ * <p>The filters are sized for the expected records per shard and TTL, and each for half the
+ * configured false-positive rate, since a lookup checks both. A false positive drops a record
+ * that was not a duplicate. Bits are kept as 64-bit words in map state, so every record reads
+ * and writes only a few small entries, also with RocksDB.
+ */
+public class RotatingBloomFilterDeduplicator extends KeyedProcessFunction<Integer, Stock, Stock> {
+    private static final long serialVersionUID = 1L;
+
+    // Decorrelates the bit positions from the shard, which uses the low bits of the fingerprint
+    private static final long BLOOM_SEED = 0x2545F4914F6CDD1DL;
+
+    private final StockFingerprint fingerprint;
+    private final long rotationIntervalMillis;
+    private final long bits;
+    private final int hashes;
+
+    private transient ValueState<Long> currentGeneration;
+    private transient MapState<Integer, Long> evenFilter;
+    private transient MapState<Integer, Long> oddFilter;
+    private transient Counter duplicates;
+
+    /**
+     * @param expectedRecordsPerShard distinct records a shard receives within one TTL
+     * @param falsePositiveRate       share of unique records that may be mistaken for duplicates
+     */
+    public RotatingBloomFilterDeduplicator(StockFingerprint fingerprint,
+                                           Duration ttl,
+                                           long expectedRecordsPerShard,
+                                           double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False-positive rate must be in (0, 1), but was " + falsePositiveRate);
+        }
+
+        this.fingerprint = fingerprint;
+        this.rotationIntervalMillis = ttl.toMillis();
+        this.bits = optimalBits(Math.max(1, expectedRecordsPerShard), falsePositiveRate / 2);
+        this.hashes = optimalHashes(Math.max(1, expectedRecordsPerShard), bits);
+    }
+
+    public static int shardOf(long fingerprint, int shards) {
+        return (int) Math.floorMod(fingerprint, (long) shards);
+    }
+
+    /**
+     * @return bits of a filter for n entries at false-positive rate p, rounded up to whole words
+     */
+    static long optimalBits(long n, double p) {
+        long bits = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        return Math.max(Long.SIZE, (bits + Long.SIZE - 1) / Long.SIZE * Long.SIZE);
+    }
+
+    static int optimalHashes(long n, long bits) {
+        return Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+    }
+
+    long getBits() {
+        return bits;
+    }
+
+    int getHashes() {
+        return hashes;
+    }
+
+    @Override
+    public void open(Configuration parameters) {
+        currentGeneration = getRuntimeContext().getState(new ValueStateDescriptor<>("generation", Types.LONG));
+        evenFilter = getRuntimeContext().getMapState(new MapStateDescriptor<>("bloom-even", Types.INT, Types.LONG));
+        oddFilter = getRuntimeContext().getMapState(new MapStateDescriptor<>("bloom-odd", Types.INT, Types.LONG));
+        duplicates = DedupMetrics.duplicates(getRuntimeContext());
+    }
+
+    @Override
+    public void processElement(Stock stock, Context ctx, Collector<Stock> out) throws Exception {
+        long generation = rotate(ctx.timerService().currentProcessingTime() / rotationIntervalMillis);
+        MapState<Integer, Long> current = filter(generation);
+        MapState<Integer, Long> previous = filter(generation - 1);
+
+        // Kirsch-Mitzenmacher: k positions from two 32-bit hashes
+        long hash = StockFingerprint.mix(fingerprint.hash(stock) ^ BLOOM_SEED);
+        long h1 = (int) hash;
+        long h2 = (int) (hash >>> 32);
+
+        if (contains(current, h1, h2) || contains(previous, h1, h2)) {
+            duplicates.inc();
+            return;
+        }
+
+        add(current, h1, h2);
+        out.collect(stock);
+    }
+
+    // Clears the filters that fell out of the window and returns the generation to write to
+    private long rotate(long generation) throws Exception {
+        Long stored = currentGeneration.value();
+        if (stored != null && generation <= stored) {
+            return stored;
+        }
+
+        if (stored != null && generation - stored == 1) {
+            // Same parity as the new generation: the one before the previous
+            filter(generation).clear();
+        } else if (stored != null) {
+            evenFilter.clear();
+            oddFilter.clear();
+        }
+        currentGeneration.update(generation);
+        return generation;
+    }
+
+    private MapState<Integer, Long> filter(long generation) {
+        return (generation & 1) == 0 ? evenFilter : oddFilter;
+    }
+
+    private boolean contains(MapState<Integer, Long> filter, long h1, long h2) throws Exception {
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            Long word = filter.get((int) (bit >>> 6));
+            if (word == null || (word & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(MapState<Integer, Long> filter, long h1, long h2) throws Exception {
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            int index = (int) (bit >>> 6);
+            Long word = filter.get(index);
+            filter.put(index, (word == null ? 0L : word) | (1L << bit));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.dedup;
+
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import com.amazonaws.services.kinesisanalytics.stock.StockFilterSpec.Field;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 64-bit hash of the fields that identify a tick, by default ticker, event_time and price. Two
+ * records with the same fingerprint are considered duplicates.
+ */
+public class StockFingerprint implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+    private static final long NULL_HASH = 0x5BD1E9955BD1E995L;
+
+    private final Field[] fields;
+
+    public StockFingerprint(List<Field> fields) {
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("At least one dedup field is required");
+        }
+        this.fields = fields.toArray(new Field[0]);
+    }
+
+    /**
+     * @param fields comma separated field names, e.g. {@code ticker,event_time,price}
+     */
+    public static StockFingerprint parse(String fields) {
+        List<Field> parsed = new ArrayList<>();
+        for (String field : fields.split(",")) {
+            if (!field.isBlank()) {
+                parsed.add(Field.of(field));
+            }
+        }
+        return new StockFingerprint(parsed);
+    }
+
+    public long hash(Stock stock) {
+        long hash = SEED;
+        for (Field field : fields) {
+            long fieldHash;
+            switch (field) {
+                case EVENT_TIME:
+                    fieldHash = hash(stock.getEvent_time());
+                    break;
+                case TICKER:
+                    fieldHash = hash(stock.getTicker());
+                    break;
+                case PRICE:
+                    fieldHash = Float.floatToIntBits(stock.getPrice());
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected field " + field);
+            }
+            hash = mix(hash ^ mix(fieldHash));
+        }
+        return hash;
+    }
+
+    private static long hash(String str) {
+        if (str == null) {
+            return NULL_HASH;
+        }
+        // 64-bit FNV-1a over the chars; String.hashCode alone collides too easily at 32 bits
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < str.length(); i++) {
+            hash ^= str.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    // Finalizer of SplitMix64
+    static long mix(long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
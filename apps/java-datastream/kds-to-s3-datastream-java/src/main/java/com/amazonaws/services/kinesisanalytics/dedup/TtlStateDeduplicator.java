@@ -0,0 +1,78 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.dedup;
+
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import org.apache.flink.api.common.state.StateTtlConfig;
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.api.common.time.Time;
+import org.apache.flink.api.common.typeinfo.Types;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.streaming.api.functions.KeyedProcessFunction;
+import org.apache.flink.util.Collector;
+
+import java.time.Duration;
+
+/**
+ * Exact deduplication on a stream keyed by {@link StockFingerprint}: the first record of every
+ * fingerprint is forwarded, later ones within the TTL are dropped.
+ *
+ * <p>State holds one flag per distinct record seen within the TTL, i.e. it grows with rate x TTL;
+ * expired flags are cleaned up by the state backend. See {@link RotatingBloomFilterDeduplicator}
+ * for a fixed memory footprint.
+ */
+public class TtlStateDeduplicator extends KeyedProcessFunction<Long, Stock, Stock> {
+    private static final long serialVersionUID = 1L;
+
+    private final Duration ttl;
+
+    private transient ValueState<Boolean> seen;
+    private transient Counter duplicates;
+
+    public TtlStateDeduplicator(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    @Override
+    public void open(Configuration parameters) {
+        StateTtlConfig ttlConfig = StateTtlConfig.newBuilder(Time.milliseconds(ttl.toMillis()))
+                .setUpdateType(StateTtlConfig.UpdateType.OnCreateAndWrite)
+                .setStateVisibility(StateTtlConfig.StateVisibility.NeverReturnExpired)
+                .build();
+
+        ValueStateDescriptor<Boolean> descriptor = new ValueStateDescriptor<>("seen", Types.BOOLEAN);
+        descriptor.enableTimeToLive(ttlConfig);
+        seen = getRuntimeContext().getState(descriptor);
+
+        duplicates = DedupMetrics.duplicates(getRuntimeContext());
+    }
+
+    @Override
+    public void processElement(Stock stock, Context ctx, Collector<Stock> out) throws Exception {
+        if (seen.value() != null) {
+            duplicates.inc();
+            return;
+        }
+
+        seen.update(Boolean.TRUE);
+        out.collect(stock);
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.enrichment;
+
+import com.amazonaws.services.kinesisanalytics.metrics.KinesisAnalyticsMetrics;
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import com.amazonaws.services.kinesisanalytics.stock.StockSerializer;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.streaming.api.functions.async.ResultFuture;
+import org.apache.flink.streaming.api.functions.async.RichAsyncFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Adds instrument reference data to every stock, for use with
+ * {@code AsyncDataStream.unorderedWait} on a stream keyed by ticker, so that each subtask only
+ * caches its own share of the tickers.
+ *
+ * <p>Cached tickers complete right away. Concurrent misses on the same ticker share one lookup
+ * instead of each calling the client. Enrichment is best effort: when a lookup fails or times
+ * out, the stock is emitted without reference data and the failure is counted.
+ */
+public class EnrichmentFunction extends RichAsyncFunction<Stock, Stock> {
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOG = LoggerFactory.getLogger(EnrichmentFunction.class);
+
+    public static final String CACHE_HITS = "referenceDataCacheHits";
+    public static final String CACHE_MISSES = "referenceDataCacheMisses";
+    public static final String CACHE_HIT_RATE = "referenceDataCacheHitRate";
+    public static final String CACHE_SIZE = "referenceDataCacheSize";
+    public static final String IN_FLIGHT_REQUESTS = "referenceDataInFlightRequests";
+    public static final String COALESCED_REQUESTS = "referenceDataCoalescedRequests";
+    public static final String LOOKUP_FAILURES = "referenceDataLookupFailures";
+
+    private final ReferenceDataClient client;
+    private final int cacheSize;
+    private final Duration cacheTtl;
+
+    private transient ReferenceDataCache cache;
+    private transient Map<String, CompletableFuture<ReferenceData>> inFlight;
+    private transient TypeSerializer<Stock> copier;
+
+    private transient Counter hits;
+    private transient Counter misses;
+    private transient Counter coalesced;
+    private transient Counter failures;
+
+    public EnrichmentFunction(ReferenceDataClient client, int cacheSize, Duration cacheTtl) {
+        this.client = client;
+        this.cacheSize = cacheSize;
+        this.cacheTtl = cacheTtl;
+    }
+
+    @Override
+    public void open(Configuration parameters) throws Exception {
+        open(KinesisAnalyticsMetrics.group(getRuntimeContext().getMetricGroup()));
+    }
+
+    void open(MetricGroup metricGroup) throws Exception {
+        client.open();
+        cache = new ReferenceDataCache(cacheSize, cacheTtl);
+        copier = new StockSerializer();
+        inFlight = new ConcurrentHashMap<>();
+
+        hits = metricGroup.counter(CACHE_HITS);
+        misses = metricGroup.counter(CACHE_MISSES);
+        coalesced = metricGroup.counter(COALESCED_REQUESTS);
+        failures = metricGroup.counter(LOOKUP_FAILURES);
+        // Share of lookups served from the cache since the start, 1 without lookups
+        metricGroup.gauge(CACHE_HIT_RATE, (Gauge<Double>) () -> {
+            long cacheHits = hits.getCount();
+            long total = cacheHits + misses.getCount();
+            return total == 0 ? 1.0 : (double) cacheHits / total;
+        });
+        metricGroup.gauge(CACHE_SIZE, (Gauge<Integer>) () -> cache.size());
+        metricGroup.gauge(IN_FLIGHT_REQUESTS, (Gauge<Integer>) () -> inFlight.size());
+    }
+
+    @Override
+    public void close() throws Exception {
+        client.close();
+    }
+
+    @Override
+    public void asyncInvoke(Stock stock, ResultFuture<Stock> resultFuture) {
+        String ticker = stock.getTicker();
+        if (ticker == null) {
+            resultFuture.complete(Collections.singleton(stock));
+            return;
+        }
+
+        ReferenceData cached = cache.get(ticker, System.currentTimeMillis());
+        if (cached != null) {
+            hits.inc();
+            cached.applyTo(stock);
+            resultFuture.complete(Collections.singleton(stock));
+            return;
+        }
+
+        misses.inc();
+        // On timeout the stock is emitted as is and may be on its way downstream by the time the
+        // lookup completes, so the lookup only ever changes and emits its own copy
+        Stock enriched = copier.copy(stock);
+        lookup(ticker).whenComplete((referenceData, error) -> {
+            if (error != null) {
+                failures.inc();
+            } else {
+                referenceData.applyTo(enriched);
+            }
+            resultFuture.complete(Collections.singleton(enriched));
+        });
+    }
+
+    @Override
+    public void timeout(Stock stock, ResultFuture<Stock> resultFuture) {
+        failures.inc();
+        resultFuture.complete(Collections.singleton(stock));
+    }
+
+    // Only called from the task thread, so checking and registering cannot race with another miss
+    private CompletableFuture<ReferenceData> lookup(String ticker) {
+        CompletableFuture<ReferenceData> pending = inFlight.get(ticker);
+        if (pending != null) {
+            coalesced.inc();
+            return pending;
+        }
+
+        CompletableFuture<ReferenceData> lookup;
+        try {
+            lookup = client.lookup(ticker);
+        } catch (RuntimeException e) {
+            lookup = CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<ReferenceData> result = lookup.thenApply(referenceData -> {
+            ReferenceData value = referenceData == null ? ReferenceData.UNKNOWN : referenceData;
+            cache.put(ticker, value, System.currentTimeMillis());
+            return value;
+        });
+        if (!result.isDone()) {
+            inFlight.put(ticker, result);
+            result.whenComplete((referenceData, error) -> {
+                inFlight.remove(ticker, result);
+                if (error != null) {
+                    LOG.debug("Reference data lookup of {} failed", ticker, error);
+                }
+            });
+        }
+        return result;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.enrichment;
+
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.core.fs.Path;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Reference data from a CSV file of {@code ticker,exchange,currency,sector} lines, read once when
+ * the client is opened. The path may point to any Flink file system, e.g. {@code s3://}. Empty
+ * lines, lines starting with {@code #} and a {@code ticker,...} header line are skipped.
+ */
+public class FileReferenceDataClient implements ReferenceDataClient {
+    private static final long serialVersionUID = 1L;
+
+    private final String path;
+
+    private transient Map<String, ReferenceData> referenceData;
+
+    public FileReferenceDataClient(String path) {
+        this.path = path;
+    }
+
+    @Override
+    public void open() throws IOException {
+        Path file = new Path(path);
+        try (FSDataInputStream in = file.getFileSystem().open(file)) {
+            referenceData = parse(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        }
+    }
+
+    @Override
+    public CompletableFuture<ReferenceData> lookup(String ticker) {
+        return CompletableFuture.completedFuture(referenceData.get(ticker));
+    }
+
+    static Map<String, ReferenceData> parse(BufferedReader reader) throws IOException {
+        Map<String, ReferenceData> referenceData = new HashMap<>();
+
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#") || (lineNumber == 1 && line.startsWith("ticker,"))) {
+                continue;
+            }
+
+            String[] fields = line.split("\\s*,\\s*", -1);
+            if (fields.length != 4) {
+                throw new IOException(String.format(
+                        "Expected ticker,exchange,currency,sector in line %d, but got: %s", lineNumber, line));
+            }
+            referenceData.put(fields[0], new ReferenceData(emptyToNull(fields[1]),
+                                                           emptyToNull(fields[2]),
+                                                           emptyToNull(fields[3])));
+        }
+
+        return referenceData;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
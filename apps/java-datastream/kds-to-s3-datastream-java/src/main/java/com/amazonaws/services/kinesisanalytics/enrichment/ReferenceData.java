@@ -0,0 +1,83 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.enrichment;
+
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+
+import java.util.Objects;
+
+/**
+ * Instrument reference data of a ticker.
+ */
+public final class ReferenceData {
+    /** Cached for tickers the client does not know, so they are not looked up over and over. */
+    public static final ReferenceData UNKNOWN = new ReferenceData(null, null, null);
+
+    private final String exchange;
+    private final String currency;
+    private final String sector;
+
+    public ReferenceData(String exchange, String currency, String sector) {
+        this.exchange = exchange;
+        this.currency = currency;
+        this.sector = sector;
+    }
+
+    public String getExchange() {
+        return exchange;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public String getSector() {
+        return sector;
+    }
+
+    public void applyTo(Stock stock) {
+        stock.setExchange(exchange);
+        stock.setCurrency(currency);
+        stock.setSector(sector);
+    }
+
+    @Override
+    public String toString() {
+        return "ReferenceData{exchange=" + exchange + ", currency=" + currency + ", sector=" + sector + '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ReferenceData that = (ReferenceData) o;
+        return Objects.equals(exchange, that.exchange) &&
+                Objects.equals(currency, that.currency) &&
+                Objects.equals(sector, that.sector);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(exchange, currency, sector);
+    }
+}
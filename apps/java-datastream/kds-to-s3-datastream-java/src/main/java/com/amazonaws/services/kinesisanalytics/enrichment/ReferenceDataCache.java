@@ -0,0 +1,79 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.enrichment;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size and TTL bounded LRU cache of reference data by ticker. Lookups complete on client threads,
+ * so all methods are synchronized; the cache is small and the critical sections are short.
+ */
+public class ReferenceDataCache {
+    private final long ttlMillis;
+    private final LinkedHashMap<String, Entry> entries;
+
+    public ReferenceDataCache(int maxSize, Duration ttl) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1, but was " + maxSize);
+        }
+
+        this.ttlMillis = ttl.toMillis();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return the cached reference data, or null if the ticker is not cached or has expired
+     */
+    public synchronized ReferenceData get(String ticker, long nowMillis) {
+        Entry entry = entries.get(ticker);
+        if (entry == null) {
+            return null;
+        }
+        if (nowMillis >= entry.expiresAt) {
+            entries.remove(ticker);
+            return null;
+        }
+        return entry.referenceData;
+    }
+
+    public synchronized void put(String ticker, ReferenceData referenceData, long nowMillis) {
+        entries.put(ticker, new Entry(referenceData, nowMillis + ttlMillis));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+        private final ReferenceData referenceData;
+        private final long expiresAt;
+
+        private Entry(ReferenceData referenceData, long expiresAt) {
+            this.referenceData = referenceData;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.metrics;
+
+import org.apache.flink.metrics.Counter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counter that several threads may update, unlike {@link org.apache.flink.metrics.SimpleCounter}.
+ */
+public class ConcurrentCounter implements Counter {
+    private final LongAdder count = new LongAdder();
+
+    @Override
+    public void inc() {
+        count.increment();
+    }
+
+    @Override
+    public void inc(long n) {
+        count.add(n);
+    }
+
+    @Override
+    public void dec() {
+        count.decrement();
+    }
+
+    @Override
+    public void dec(long n) {
+        count.add(-n);
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.metrics;
+
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.MetricGroup;
+
+/**
+ * Custom metrics of the app. Managed Service for Apache Flink only forwards metrics registered
+ * below the {@code kinesisanalytics} group to CloudWatch.
+ */
+public final class KinesisAnalyticsMetrics {
+    public static final String GROUP = "kinesisanalytics";
+
+    private KinesisAnalyticsMetrics() {}
+
+    public static MetricGroup group(MetricGroup parent) {
+        return parent.addGroup(GROUP);
+    }
+
+    /**
+     * Reporters for local runs, where there is no CloudWatch: all metrics are logged every minute
+     * and exposed over JMX on the first free port in 8789-8799. Needs flink-metrics-slf4j and
+     * flink-metrics-jmx on the classpath; missing reporters are skipped with a warning.
+     */
+    public static Configuration localReporterConfiguration() {
+        Configuration configuration = new Configuration();
+        configuration.setString("metrics.reporter.slf4j.factory.class",
+                "org.apache.flink.metrics.slf4j.Slf4jReporterFactory");
+        configuration.setString("metrics.reporter.slf4j.interval", "60 SECONDS");
+        configuration.setString("metrics.reporter.jmx.factory.class",
+                "org.apache.flink.metrics.jmx.JMXReporterFactory");
+        configuration.setString("metrics.reporter.jmx.port", "8789-8799");
+        return configuration;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.metrics;
+
+import org.apache.flink.metrics.MetricGroup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+/**
+ * Metrics that several copies of a function register in the same metric group.
+ *
+ * <p>The Kinesis consumer gives every shard its own copy of the deserialization schema and opens
+ * each copy with the metric group of the subtask. A metric group only keeps the first metric
+ * registered under a name, so the counts of every other copy would be lost. Copies that get their
+ * metrics from here register them once and share them; the metrics must therefore be safe to
+ * update from several threads, see {@link ConcurrentCounter}.
+ */
+public final class SharedMetrics {
+    // Metric groups have no equals, so this is by identity; entries go away with the task
+    private static final Map<MetricGroup, Map<String, Object>> METRICS = new WeakHashMap<>();
+
+    private SharedMetrics() {}
+
+    /**
+     * @param key      names the metrics within the group, e.g. the class that registers them
+     * @param register registers the metrics in the group the first time; must not keep a reference
+     *                 to the group
+     */
+    @SuppressWarnings("unchecked")
+    public static synchronized <T> T get(MetricGroup group, String key, Function<MetricGroup, T> register) {
+        return (T) METRICS.computeIfAbsent(group, g -> new HashMap<>())
+                .computeIfAbsent(key, k -> register.apply(group));
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.ohlcv;
+
+import org.apache.flink.api.common.functions.AggregateFunction;
+
+/**
+ * Incrementally folds ticks into an {@link OhlcvAccumulator}. Open and close are the prices with
+ * the earliest and latest event time, so ticks may arrive out of order.
+ */
+public class OhlcvAggregateFunction implements AggregateFunction<Tick, OhlcvAccumulator, OhlcvAccumulator> {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public OhlcvAccumulator createAccumulator() {
+        return new OhlcvAccumulator();
+    }
+
+    @Override
+    public OhlcvAccumulator add(Tick tick, OhlcvAccumulator acc) {
+        if (tick.timestamp < acc.openTimestamp) {
+            acc.openTimestamp = tick.timestamp;
+            acc.open = tick.price;
+        }
+        if (tick.timestamp >= acc.closeTimestamp) {
+            acc.closeTimestamp = tick.timestamp;
+            acc.close = tick.price;
+        }
+        acc.high = Math.max(acc.high, tick.price);
+        acc.low = Math.min(acc.low, tick.price);
+        acc.volume++;
+
+        return acc;
+    }
+
+    @Override
+    public OhlcvAccumulator getResult(OhlcvAccumulator acc) {
+        return acc;
+    }
+
+    @Override
+    public OhlcvAccumulator merge(OhlcvAccumulator a, OhlcvAccumulator b) {
+        if (b.openTimestamp < a.openTimestamp) {
+            a.openTimestamp = b.openTimestamp;
+            a.open = b.open;
+        }
+        if (b.closeTimestamp >= a.closeTimestamp) {
+            a.closeTimestamp = b.closeTimestamp;
+            a.close = b.close;
+        }
+        a.high = Math.max(a.high, b.high);
+        a.low = Math.min(a.low, b.low);
+        a.volume += b.volume;
+
+        return a;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.ohlcv;
+
+import java.util.Objects;
+
+/**
+ * Open/high/low/close/volume bar of a ticker for one window. The stock payloads carry no traded
+ * quantity, so volume is the number of ticks in the window.
+ */
+public class OhlcvBar {
+    private String ticker;
+    // Window label, e.g. 1m for tumbling or 15m-1m for sliding windows (size-slide)
+    private String window;
+    private String window_start;
+    private String window_end;
+    private float open;
+    private float high;
+    private float low;
+    private float close;
+    private long volume;
+
+    public OhlcvBar() {}
+
+    public String getTicker() {
+        return ticker;
+    }
+
+    public void setTicker(String ticker) {
+        this.ticker = ticker;
+    }
+
+    public String getWindow() {
+        return window;
+    }
+
+    public void setWindow(String window) {
+        this.window = window;
+    }
+
+    public String getWindow_start() {
+        return window_start;
+    }
+
+    public void setWindow_start(String window_start) {
+        this.window_start = window_start;
+    }
+
+    public String getWindow_end() {
+        return window_end;
+    }
+
+    public void setWindow_end(String window_end) {
+        this.window_end = window_end;
+    }
+
+    public float getOpen() {
+        return open;
+    }
+
+    public void setOpen(float open) {
+        this.open = open;
+    }
+
+    public float getHigh() {
+        return high;
+    }
+
+    public void setHigh(float high) {
+        this.high = high;
+    }
+
+    public float getLow() {
+        return low;
+    }
+
+    public void setLow(float low) {
+        this.low = low;
+    }
+
+    public float getClose() {
+        return close;
+    }
+
+    public void setClose(float close) {
+        this.close = close;
+    }
+
+    public long getVolume() {
+        return volume;
+    }
+
+    public void setVolume(long volume) {
+        this.volume = volume;
+    }
+
+    @Override
+    public String toString() {
+        return "OhlcvBar{" + "ticker=" + ticker + ", window=" + window + ", start=" + window_start
+                + ", open=" + open + ", high=" + high + ", low=" + low + ", close=" + close
+                + ", volume=" + volume + '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        OhlcvBar bar = (OhlcvBar) o;
+        return open == bar.open &&
+                high == bar.high &&
+                low == bar.low &&
+                close == bar.close &&
+                volume == bar.volume &&
+                Objects.equals(ticker, bar.ticker) &&
+                Objects.equals(window, bar.window) &&
+                Objects.equals(window_start, bar.window_start) &&
+                Objects.equals(window_end, bar.window_end);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(ticker, window, window_start, window_end, open, high, low, close, volume);
+    }
+}
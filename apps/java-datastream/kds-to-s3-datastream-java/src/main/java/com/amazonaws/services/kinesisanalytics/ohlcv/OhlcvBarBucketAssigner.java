@@ -0,0 +1,50 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.ohlcv;
+
+import com.amazonaws.services.kinesisanalytics.stock.StockDateBucketAssigner;
+import org.apache.flink.core.io.SimpleVersionedSerializer;
+import org.apache.flink.streaming.api.functions.sink.filesystem.BucketAssigner;
+import org.apache.flink.streaming.api.functions.sink.filesystem.bucketassigners.SimpleVersionedStringSerializer;
+
+/**
+ * Partitions bars by window label and, like the raw stocks, by the formatted window start, e.g.
+ * {@code <prefix>window=1m/ts=2023-05-01-10}.
+ */
+public class OhlcvBarBucketAssigner implements BucketAssigner<OhlcvBar, String> {
+    private static final long serialVersionUID = 1L;
+
+    private final String prefix;
+    private final StockDateBucketAssigner dateBucketAssigner;
+
+    public OhlcvBarBucketAssigner(String partitionFormat, String prefix) {
+        this.prefix = prefix;
+        this.dateBucketAssigner = new StockDateBucketAssigner(partitionFormat, "");
+    }
+
+    @Override
+    public String getBucketId(OhlcvBar bar, Context context) {
+        return prefix + "window=" + bar.getWindow() + "/" + dateBucketAssigner.getBucketId(bar.getWindow_start());
+    }
+
+    @Override
+    public SimpleVersionedSerializer<String> getSerializer() {
+        return SimpleVersionedStringSerializer.INSTANCE;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.ohlcv;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Types;
+
+import java.util.Collections;
+
+/**
+ * Writes {@link OhlcvBar} records straight into Parquet columns.
+ */
+public class OhlcvBarWriteSupport extends WriteSupport<OhlcvBar> {
+    public static final MessageType SCHEMA = Types.buildMessage()
+            .required(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("ticker")
+            .required(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("window")
+            .required(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("window_start")
+            .required(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("window_end")
+            .required(PrimitiveTypeName.FLOAT).named("open")
+            .required(PrimitiveTypeName.FLOAT).named("high")
+            .required(PrimitiveTypeName.FLOAT).named("low")
+            .required(PrimitiveTypeName.FLOAT).named("close")
+            .required(PrimitiveTypeName.INT64).named("volume")
+            .named("OhlcvBar");
+
+    private RecordConsumer recordConsumer;
+
+    public static Builder builder(OutputFile file) {
+        return new Builder(file);
+    }
+
+    @Override
+    public WriteContext init(Configuration configuration) {
+        return new WriteContext(SCHEMA, Collections.emptyMap());
+    }
+
+    @Override
+    public void prepareForWrite(RecordConsumer recordConsumer) {
+        this.recordConsumer = recordConsumer;
+    }
+
+    @Override
+    public void write(OhlcvBar bar) {
+        recordConsumer.startMessage();
+        writeString(0, "ticker", bar.getTicker());
+        writeString(1, "window", bar.getWindow());
+        writeString(2, "window_start", bar.getWindow_start());
+        writeString(3, "window_end", bar.getWindow_end());
+        writeFloat(4, "open", bar.getOpen());
+        writeFloat(5, "high", bar.getHigh());
+        writeFloat(6, "low", bar.getLow());
+        writeFloat(7, "close", bar.getClose());
+
+        recordConsumer.startField("volume", 8);
+        recordConsumer.addLong(bar.getVolume());
+        recordConsumer.endField("volume", 8);
+
+        recordConsumer.endMessage();
+    }
+
+    private void writeString(int index, String field, String value) {
+        recordConsumer.startField(field, index);
+        recordConsumer.addBinary(Binary.fromString(value));
+        recordConsumer.endField(field, index);
+    }
+
+    private void writeFloat(int index, String field, float value) {
+        recordConsumer.startField(field, index);
+        recordConsumer.addFloat(value);
+        recordConsumer.endField(field, index);
+    }
+
+    /**
+     * Builder for a {@link ParquetWriter} of {@link OhlcvBar}.
+     */
+    public static class Builder extends ParquetWriter.Builder<OhlcvBar, Builder> {
+
+        private Builder(OutputFile file) {
+            super(file);
+        }
+
+        @Override
+        protected Builder self() {
+            return this;
+        }
+
+        @Override
+        protected WriteSupport<OhlcvBar> getWriteSupport(Configuration conf) {
+            return new OhlcvBarWriteSupport();
+        }
+    }
+}
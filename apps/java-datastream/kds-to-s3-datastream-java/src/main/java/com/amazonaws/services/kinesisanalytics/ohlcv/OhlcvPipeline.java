@@ -0,0 +1,89 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.ohlcv;
+
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import com.amazonaws.services.kinesisanalytics.stock.StockWatermarks;
+import org.apache.flink.streaming.api.datastream.DataStream;
+import org.apache.flink.streaming.api.datastream.KeyedStream;
+import org.apache.flink.streaming.api.functions.ProcessFunction;
+import org.apache.flink.util.Collector;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Per-ticker OHLCV bars over event time windows.
+ *
+ * <p>Every window is pre-aggregated with {@link OhlcvAggregateFunction}, so state is one fixed
+ * size accumulator per ticker and open window instead of the window contents.
+ */
+public final class OhlcvPipeline {
+
+    private OhlcvPipeline() {}
+
+    /**
+     * @param stocks records with event timestamps and watermarks assigned at the source, see
+     *               {@link StockWatermarks}; records without a timestamp are skipped
+     */
+    public static DataStream<OhlcvBar> bars(DataStream<Stock> stocks, List<OhlcvWindowSpec> windows) {
+        if (windows.isEmpty()) {
+            throw new IllegalArgumentException("At least one OHLCV window is required");
+        }
+
+        KeyedStream<Tick, String> ticks = stocks
+                .process(new ToTick())
+                .name("To ticks")
+                .uid("ohlcv-ticks")
+                .keyBy(tick -> tick.ticker);
+
+        DataStream<OhlcvBar> bars = null;
+        Set<String> labels = new HashSet<>();
+        for (OhlcvWindowSpec window : windows) {
+            // The label is part of the uid that maps the window state on restore
+            if (!labels.add(window.label())) {
+                throw new IllegalArgumentException("OHLCV window " + window.label() + " is listed twice");
+            }
+            DataStream<OhlcvBar> windowBars = ticks
+                    .window(window.assigner())
+                    .aggregate(new OhlcvAggregateFunction(), new OhlcvWindowFunction(window.label()))
+                    .name("OHLCV " + window.label())
+                    .uid("ohlcv-" + window.label());
+
+            bars = bars == null ? windowBars : bars.union(windowBars);
+        }
+
+        return bars;
+    }
+
+    // Bars need a ticker and an event time; the timestamp parsed at the source is reused as is
+    private static class ToTick extends ProcessFunction<Stock, Tick> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void processElement(Stock stock, Context ctx, Collector<Tick> out) {
+            Long timestamp = ctx.timestamp();
+            if (stock.getTicker() == null || timestamp == null || timestamp == StockWatermarks.NO_TIMESTAMP) {
+                return;
+            }
+            out.collect(new Tick(stock.getTicker(), timestamp, stock.getPrice()));
+        }
+    }
+}
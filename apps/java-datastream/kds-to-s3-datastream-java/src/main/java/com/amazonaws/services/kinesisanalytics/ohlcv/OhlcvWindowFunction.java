@@ -0,0 +1,60 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.ohlcv;
+
+import com.amazonaws.services.kinesisanalytics.stock.EventTimes;
+import org.apache.flink.streaming.api.functions.windowing.ProcessWindowFunction;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
+import org.apache.flink.util.Collector;
+
+/**
+ * Turns the accumulator of a window into an {@link OhlcvBar} with ticker and window bounds.
+ */
+public class OhlcvWindowFunction extends ProcessWindowFunction<OhlcvAccumulator, OhlcvBar, String, TimeWindow> {
+    private static final long serialVersionUID = 1L;
+
+    private final String label;
+
+    public OhlcvWindowFunction(String label) {
+        this.label = label;
+    }
+
+    @Override
+    public void process(String ticker,
+                        Context context,
+                        Iterable<OhlcvAccumulator> accumulators,
+                        Collector<OhlcvBar> out) {
+        // Holds exactly the one pre-aggregated accumulator
+        OhlcvAccumulator acc = accumulators.iterator().next();
+
+        OhlcvBar bar = new OhlcvBar();
+        bar.setTicker(ticker);
+        bar.setWindow(label);
+        // Same layout as the event_time of the stock payloads
+        bar.setWindow_start(EventTimes.format(context.window().getStart(), 0));
+        bar.setWindow_end(EventTimes.format(context.window().getEnd(), 0));
+        bar.setOpen(acc.open);
+        bar.setHigh(acc.high);
+        bar.setLow(acc.low);
+        bar.setClose(acc.close);
+        bar.setVolume(acc.volume);
+
+        out.collect(bar);
+    }
+}
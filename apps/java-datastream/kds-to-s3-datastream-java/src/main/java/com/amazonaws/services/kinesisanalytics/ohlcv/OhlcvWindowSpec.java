@@ -0,0 +1,139 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.ohlcv;
+
+import org.apache.flink.streaming.api.windowing.assigners.SlidingEventTimeWindows;
+import org.apache.flink.streaming.api.windowing.assigners.TumblingEventTimeWindows;
+import org.apache.flink.streaming.api.windowing.assigners.WindowAssigner;
+import org.apache.flink.streaming.api.windowing.time.Time;
+import org.apache.flink.streaming.api.windowing.windows.TimeWindow;
+import org.apache.flink.util.TimeUtils;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Size and slide of an OHLCV window; tumbling windows slide by their size.
+ */
+public class OhlcvWindowSpec implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final Duration size;
+    private final Duration slide;
+
+    public OhlcvWindowSpec(Duration size, Duration slide) {
+        if (size.isNegative() || size.isZero() || slide.isNegative() || slide.isZero()) {
+            throw new IllegalArgumentException("Window size and slide must be positive");
+        }
+        this.size = size;
+        this.slide = slide;
+    }
+
+    public static OhlcvWindowSpec tumbling(Duration size) {
+        return new OhlcvWindowSpec(size, size);
+    }
+
+    /**
+     * Parses a comma separated list of durations, e.g. {@code 1 min, 5 min}.
+     */
+    public static List<OhlcvWindowSpec> parseTumbling(String windows) {
+        List<OhlcvWindowSpec> specs = new ArrayList<>();
+        for (String window : split(windows)) {
+            specs.add(tumbling(TimeUtils.parseDuration(window)));
+        }
+        return specs;
+    }
+
+    /**
+     * Parses a comma separated list of size/slide pairs, e.g. {@code 15 min/1 min, 1 h/5 min}.
+     */
+    public static List<OhlcvWindowSpec> parseSliding(String windows) {
+        List<OhlcvWindowSpec> specs = new ArrayList<>();
+        for (String window : split(windows)) {
+            String[] sizeAndSlide = window.split("\\s*/\\s*");
+            if (sizeAndSlide.length != 2) {
+                throw new IllegalArgumentException("Sliding window must be given as size/slide: " + window);
+            }
+            specs.add(new OhlcvWindowSpec(
+                    TimeUtils.parseDuration(sizeAndSlide[0]), TimeUtils.parseDuration(sizeAndSlide[1])));
+        }
+        return specs;
+    }
+
+    public boolean isTumbling() {
+        return size.equals(slide);
+    }
+
+    public WindowAssigner<Object, TimeWindow> assigner() {
+        Time sizeTime = Time.milliseconds(size.toMillis());
+        return isTumbling()
+                ? TumblingEventTimeWindows.of(sizeTime)
+                : SlidingEventTimeWindows.of(sizeTime, Time.milliseconds(slide.toMillis()));
+    }
+
+    /**
+     * @return label stored with the bars and used in the output path, e.g. {@code 1m} or
+     *         {@code 15m-1m}
+     */
+    public String label() {
+        return isTumbling() ? label(size) : label(size) + "-" + label(slide);
+    }
+
+    public Duration getSize() {
+        return size;
+    }
+
+    public Duration getSlide() {
+        return slide;
+    }
+
+    @Override
+    public String toString() {
+        return label();
+    }
+
+    private static String label(Duration duration) {
+        long millis = duration.toMillis();
+        if (millis % 86_400_000L == 0) {
+            return millis / 86_400_000L + "d";
+        }
+        if (millis % 3_600_000L == 0) {
+            return millis / 3_600_000L + "h";
+        }
+        if (millis % 60_000L == 0) {
+            return millis / 60_000L + "m";
+        }
+        if (millis % 1_000L == 0) {
+            return millis / 1_000L + "s";
+        }
+        return millis + "ms";
+    }
+
+    private static List<String> split(String windows) {
+        List<String> parts = new ArrayList<>();
+        for (String part : windows.split(",")) {
+            if (!part.trim().isEmpty()) {
+                parts.add(part.trim());
+            }
+        }
+        return parts;
+    }
+}
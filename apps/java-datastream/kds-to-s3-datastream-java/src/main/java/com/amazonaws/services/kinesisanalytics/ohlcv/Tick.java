@@ -0,0 +1,42 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.ohlcv;
+
+/**
+ * Price of a ticker at an event time in epoch milliseconds; what the OHLCV windows keep of a
+ * {@link com.amazonaws.services.kinesisanalytics.stock.Stock}.
+ */
+public class Tick {
+    public String ticker;
+    public long timestamp;
+    public float price;
+
+    public Tick() {}
+
+    public Tick(String ticker, long timestamp, float price) {
+        this.ticker = ticker;
+        this.timestamp = timestamp;
+        this.price = price;
+    }
+
+    @Override
+    public String toString() {
+        return "Tick{" + "ticker=" + ticker + ", timestamp=" + timestamp + ", price=" + price + '}';
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.sink;
+
+import org.apache.flink.api.common.functions.Partitioner;
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.streaming.api.datastream.DataStream;
+import org.apache.flink.util.function.SerializableFunction;
+
+/**
+ * Sends all records of a bucket to the same few sink subtasks, so that each subtask only keeps
+ * part files (and their Parquet column buffers) open for a share of the active buckets.
+ *
+ * <p>Without it every sink subtask writes to every bucket, i.e. parallelism x buckets open
+ * writers and files per checkpoint. With a salt of n, a bucket is spread over n consecutive
+ * subtasks, chosen by the salt key of the record (e.g. the ticker), which bounds the writers per
+ * subtask to roughly buckets x n / parallelism while a single hot bucket can still use n writers.
+ * Unlike keyBy this does not go through key groups, so the n subtasks of a bucket are always
+ * distinct as long as n does not exceed the sink parallelism.
+ */
+public class BucketAffinePartitioner implements Partitioner<Long> {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public int partition(Long key, int numPartitions) {
+        return (int) Math.floorMod(key, (long) numPartitions);
+    }
+
+    /**
+     * @param bucketOf bucket id of a record; must not depend on anything but the record
+     * @param saltOf   spreads the records of a bucket over its subtasks; may return null
+     * @param salt     number of subtasks per bucket, at least 1
+     */
+    public static <IN> DataStream<IN> partition(DataStream<IN> stream,
+                                                SerializableFunction<IN, String> bucketOf,
+                                                SerializableFunction<IN, Object> saltOf,
+                                                int salt) {
+        if (salt < 1) {
+            throw new IllegalArgumentException("Salt must be at least 1, but was " + salt);
+        }
+
+        return stream.partitionCustom(new BucketAffinePartitioner(), new BucketKeySelector<>(bucketOf, saltOf, salt));
+    }
+
+    /**
+     * Key of a record: hash of its bucket id plus its salt index, so the salts of a bucket map to
+     * consecutive subtasks.
+     */
+    static class BucketKeySelector<IN> implements KeySelector<IN, Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final SerializableFunction<IN, String> bucketOf;
+        private final SerializableFunction<IN, Object> saltOf;
+        private final int salt;
+
+        // Bucket ids change once per partition interval; avoid rehashing the same string
+        private transient String lastBucketId;
+        private transient int lastBucketHash;
+
+        BucketKeySelector(SerializableFunction<IN, String> bucketOf, SerializableFunction<IN, Object> saltOf, int salt) {
+            this.bucketOf = bucketOf;
+            this.saltOf = saltOf;
+            this.salt = salt;
+        }
+
+        @Override
+        public Long getKey(IN value) {
+            String bucketId = bucketOf.apply(value);
+            if (!bucketId.equals(lastBucketId)) {
+                lastBucketId = bucketId;
+                lastBucketHash = spread(bucketId.hashCode());
+            }
+
+            int saltIndex = 0;
+            if (salt > 1) {
+                Object saltKey = saltOf.apply(value);
+                saltIndex = saltKey == null ? 0 : Math.floorMod(spread(saltKey.hashCode()), salt);
+            }
+
+            return (long) lastBucketHash + saltIndex;
+        }
+
+        // Bucket ids differ in a few trailing characters only; mix the bits before taking a modulo
+        private static int spread(int hash) {
+            int h = hash * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
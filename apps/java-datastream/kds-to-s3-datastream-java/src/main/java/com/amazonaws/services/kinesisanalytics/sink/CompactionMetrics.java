@@ -0,0 +1,97 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.sink;
+
+import com.amazonaws.services.kinesisanalytics.metrics.KinesisAnalyticsMetrics;
+import org.apache.flink.api.common.functions.RichMapFunction;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.connector.file.sink.FileSinkCommittable;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.MeterView;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.streaming.api.connector.sink2.CommittableMessage;
+import org.apache.flink.streaming.api.connector.sink2.CommittableWithLineage;
+
+/**
+ * Counts what the FileSink compaction produced, from the committables the compactor emits.
+ *
+ * <p>Compaction runs on the compactor's own threads, where user code has no metric group, so the
+ * numbers are taken downstream instead: every small file the compactor merged comes back as a
+ * file to clean up. The compactor emits the results of a request together: the committables it
+ * passed through untouched, then the file it wrote, then the merged files to clean up. Only the
+ * pending file right before the first of those is counted as compacted bytes; files passed
+ * through are not. {@link MeteredFileSink} chains this function to the compactor, so the metrics
+ * are per compactor subtask.
+ */
+public class CompactionMetrics extends RichMapFunction<CommittableMessage<FileSinkCommittable>,
+        CommittableMessage<FileSinkCommittable>> {
+    private static final long serialVersionUID = 1L;
+
+    public static final String COMPACTED_FILES = "compactedFiles";
+    public static final String COMPACTED_BYTES = "compactedBytes";
+    public static final String COMPACTED_BYTES_PER_SECOND = "compactedBytesPerSecond";
+
+    private transient Counter compactedFiles;
+    private transient Counter compactedBytes;
+
+    // The last pending file and its checkpoint, until a file to clean up shows it was compacted
+    private transient CommittableWithLineage<FileSinkCommittable> lastPendingFile;
+
+    @Override
+    public void open(Configuration parameters) {
+        open(KinesisAnalyticsMetrics.group(getRuntimeContext().getMetricGroup()));
+    }
+
+    void open(MetricGroup metricGroup) {
+        compactedFiles = metricGroup.counter(COMPACTED_FILES);
+        compactedBytes = metricGroup.counter(COMPACTED_BYTES);
+        metricGroup.meter(COMPACTED_BYTES_PER_SECOND, new MeterView(compactedBytes));
+    }
+
+    @Override
+    public CommittableMessage<FileSinkCommittable> map(CommittableMessage<FileSinkCommittable> message) {
+        if (message instanceof CommittableWithLineage) {
+            CommittableWithLineage<FileSinkCommittable> lineage = (CommittableWithLineage<FileSinkCommittable>) message;
+            FileSinkCommittable committable = lineage.getCommittable();
+            if (committable.hasPendingFile()) {
+                lastPendingFile = lineage;
+            }
+            if (committable.hasCompactedFileToCleanup()) {
+                compactedFiles.inc();
+                if (isOutputOf(lastPendingFile, lineage)) {
+                    long size = lastPendingFile.getCommittable().getPendingFile().getSize();
+                    // Unknown for files of older checkpoints
+                    if (size >= 0) {
+                        compactedBytes.inc(size);
+                    }
+                    // The other files merged into it follow
+                    lastPendingFile = null;
+                }
+            }
+        }
+        return message;
+    }
+
+    private static boolean isOutputOf(CommittableWithLineage<FileSinkCommittable> pendingFile,
+            CommittableWithLineage<FileSinkCommittable> cleanup) {
+        return pendingFile != null
+                && pendingFile.getCheckpointId().equals(cleanup.getCheckpointId())
+                && pendingFile.getCommittable().getBucketId().equals(cleanup.getCommittable().getBucketId());
+    }
+}
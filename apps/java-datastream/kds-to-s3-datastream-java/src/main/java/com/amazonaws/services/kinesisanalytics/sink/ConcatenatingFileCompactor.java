@@ -0,0 +1,61 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.sink;
+
+import org.apache.flink.connector.file.sink.compactor.OutputStreamBasedFileCompactor;
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.core.fs.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Merges small part files of a bucket by appending their bytes, without decoding them.
+ *
+ * <p>Only valid for formats whose files can be concatenated, such as JSON lines compressed with
+ * a {@link StreamCompression}.
+ */
+public class ConcatenatingFileCompactor extends OutputStreamBasedFileCompactor {
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConcatenatingFileCompactor.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Override
+    protected void doCompact(List<Path> inputFiles, OutputStream outputStream) throws Exception {
+        long start = System.nanoTime();
+        long bytes = 0;
+        byte[] buffer = new byte[BUFFER_SIZE];
+
+        for (Path path : inputFiles) {
+            try (FSDataInputStream in = path.getFileSystem().open(path)) {
+                for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                    outputStream.write(buffer, 0, read);
+                    bytes += read;
+                }
+            }
+        }
+
+        long nanos = System.nanoTime() - start;
+        LOG.debug("Compacted {} files ({} bytes) in {} ms", inputFiles.size(), bytes, nanos / 1_000_000);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.sink;
+
+import org.apache.flink.core.io.SimpleVersionedSerializer;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.Histogram;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.runtime.metrics.DescriptiveStatisticsHistogram;
+import org.apache.flink.streaming.api.functions.sink.filesystem.BucketAssigner;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link BucketAssigner} that counts the records of each bucket between checkpoints and samples
+ * how long the wrapped assigner takes.
+ *
+ * <p>Bucket ids change every partition interval, so rather than one metric per bucket the counts
+ * are reported as a distribution: {@code bucketRecords} is updated with the record count of every
+ * bucket written to in a checkpoint interval and {@code openBuckets} is the number of buckets
+ * written to since the last checkpoint, i.e. those with an in-progress part file. The metrics are
+ * registered by {@link MeteredFileSink} when its writer is created.
+ */
+public class MeteredBucketAssigner<IN, BucketID> implements BucketAssigner<IN, BucketID> {
+    private static final long serialVersionUID = 1L;
+
+    public static final String OPEN_BUCKETS = "openBuckets";
+    public static final String BUCKET_RECORDS = "bucketRecords";
+    public static final String BUCKET_ASSIGNMENT_LATENCY_NANOS = "bucketAssignmentLatencyNanos";
+
+    private static final int LATENCY_SAMPLE_INTERVAL = 32;
+    private static final int HISTOGRAM_SIZE = 1024;
+
+    private final BucketAssigner<IN, BucketID> delegate;
+
+    // Only touched by the writer thread, apart from the gauge
+    private transient Map<BucketID, long[]> recordsPerBucket;
+    private transient BucketID lastBucketId;
+    private transient long[] lastBucketRecords;
+    private transient volatile int openBuckets;
+
+    private transient Histogram bucketRecords;
+    private transient Histogram latency;
+    private transient int sampleCountdown;
+
+    public MeteredBucketAssigner(BucketAssigner<IN, BucketID> delegate) {
+        this.delegate = delegate;
+    }
+
+    void open(MetricGroup metricGroup) {
+        bucketRecords = metricGroup.histogram(BUCKET_RECORDS, new DescriptiveStatisticsHistogram(HISTOGRAM_SIZE));
+        latency = metricGroup.histogram(BUCKET_ASSIGNMENT_LATENCY_NANOS,
+                new DescriptiveStatisticsHistogram(HISTOGRAM_SIZE));
+        metricGroup.gauge(OPEN_BUCKETS, (Gauge<Integer>) () -> openBuckets);
+        sampleCountdown = LATENCY_SAMPLE_INTERVAL;
+    }
+
+    @Override
+    public BucketID getBucketId(IN element, Context context) {
+        BucketID bucketId;
+        if (latency != null && --sampleCountdown <= 0) {
+            sampleCountdown = LATENCY_SAMPLE_INTERVAL;
+            long start = System.nanoTime();
+            bucketId = delegate.getBucketId(element, context);
+            latency.update(System.nanoTime() - start);
+        } else {
+            bucketId = delegate.getBucketId(element, context);
+        }
+
+        count(bucketId);
+        return bucketId;
+    }
+
+    private void count(BucketID bucketId) {
+        // Assigners hand out the same bucket id instance for consecutive records of a bucket
+        if (bucketId != lastBucketId) {
+            if (recordsPerBucket == null) {
+                recordsPerBucket = new HashMap<>();
+            }
+            lastBucketRecords = recordsPerBucket.computeIfAbsent(bucketId, id -> new long[1]);
+            lastBucketId = bucketId;
+            openBuckets = recordsPerBucket.size();
+        }
+
+        lastBucketRecords[0]++;
+    }
+
+    /**
+     * Reports the records per bucket of the closing checkpoint interval and starts a new one.
+     */
+    void onCheckpoint() {
+        if (recordsPerBucket == null) {
+            return;
+        }
+
+        if (bucketRecords != null) {
+            for (long[] records : recordsPerBucket.values()) {
+                bucketRecords.update(records[0]);
+            }
+        }
+
+        recordsPerBucket.clear();
+        lastBucketId = null;
+        lastBucketRecords = null;
+        openBuckets = 0;
+    }
+
+    @Override
+    public SimpleVersionedSerializer<BucketID> getSerializer() {
+        return delegate.getSerializer();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.sink;
+
+import com.amazonaws.services.kinesisanalytics.metrics.KinesisAnalyticsMetrics;
+import org.apache.flink.api.connector.sink2.Committer;
+import org.apache.flink.api.connector.sink2.StatefulSink;
+import org.apache.flink.api.connector.sink2.TwoPhaseCommittingSink;
+import org.apache.flink.connector.file.sink.FileSink;
+import org.apache.flink.connector.file.sink.FileSinkCommittable;
+import org.apache.flink.connector.file.sink.writer.FileWriter;
+import org.apache.flink.connector.file.sink.writer.FileWriterBucketState;
+import org.apache.flink.core.io.SimpleVersionedSerializer;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.Histogram;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.runtime.metrics.DescriptiveStatisticsHistogram;
+import org.apache.flink.streaming.api.connector.sink2.CommittableMessage;
+import org.apache.flink.streaming.api.connector.sink2.WithPreCommitTopology;
+import org.apache.flink.streaming.api.datastream.DataStream;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link FileSink} that reports custom metrics under the {@code kinesisanalytics} group: the
+ * number and sizes of the part files each checkpoint produces, the bytes per bucket, what the
+ * compaction produced (see {@link CompactionMetrics}) and, when the sink was built with a
+ * {@link MeteredBucketAssigner}, records per bucket.
+ *
+ * <p>Everything else, including state and committables, is left to the wrapped sink, so the
+ * wrapper can be added to or removed from a running application.
+ */
+public class MeteredFileSink<IN> implements StatefulSink<IN, FileWriterBucketState>,
+        TwoPhaseCommittingSink<IN, FileSinkCommittable>,
+        StatefulSink.WithCompatibleState,
+        WithPreCommitTopology<IN, FileSinkCommittable> {
+    private static final long serialVersionUID = 1L;
+
+    public static final String PART_FILES = "partFiles";
+    public static final String PART_FILE_BYTES = "partFileBytes";
+    public static final String PART_FILES_PER_CHECKPOINT = "partFilesPerCheckpoint";
+    public static final String PART_FILE_SIZE_BYTES = "partFileSizeBytes";
+    public static final String BUCKET_BYTES = "bucketBytes";
+
+    private static final int HISTOGRAM_SIZE = 1024;
+
+    private final FileSink<IN> delegate;
+    private final MeteredBucketAssigner<IN, ?> bucketAssigner;
+
+    public MeteredFileSink(FileSink<IN> delegate) {
+        this(delegate, null);
+    }
+
+    /**
+     * @param bucketAssigner the assigner the wrapped sink was built with. Sink and assigner are
+     *                       serialized together, so each writer gets the instance its FileWriter
+     *                       uses and can register the assigner's metrics.
+     */
+    public MeteredFileSink(FileSink<IN> delegate, MeteredBucketAssigner<IN, ?> bucketAssigner) {
+        this.delegate = delegate;
+        this.bucketAssigner = bucketAssigner;
+    }
+
+    @Override
+    public MeteredWriter<IN> createWriter(InitContext context) throws IOException {
+        return new MeteredWriter<>(delegate.createWriter(context),
+                bucketAssigner,
+                KinesisAnalyticsMetrics.group(context.metricGroup()));
+    }
+
+    @Override
+    public MeteredWriter<IN> restoreWriter(InitContext context,
+                                           Collection<FileWriterBucketState> recoveredState) throws IOException {
+        return new MeteredWriter<>(delegate.restoreWriter(context, recoveredState),
+                bucketAssigner,
+                KinesisAnalyticsMetrics.group(context.metricGroup()));
+    }
+
+    @Override
+    public SimpleVersionedSerializer<FileWriterBucketState> getWriterStateSerializer() {
+        return delegate.getWriterStateSerializer();
+    }
+
+    @Override
+    public Committer<FileSinkCommittable> createCommitter() throws IOException {
+        return delegate.createCommitter();
+    }
+
+    @Override
+    public SimpleVersionedSerializer<FileSinkCommittable> getCommittableSerializer() {
+        return delegate.getCommittableSerializer();
+    }
+
+    @Override
+    public Collection<String> getCompatibleWriterStateNames() {
+        return delegate.getCompatibleWriterStateNames();
+    }
+
+    @Override
+    public DataStream<CommittableMessage<FileSinkCommittable>> addPreCommitTopology(
+            DataStream<CommittableMessage<FileSinkCommittable>> committables) {
+        DataStream<CommittableMessage<FileSinkCommittable>> compacted = delegate.addPreCommitTopology(committables);
+        if (compacted == committables) {
+            // Compaction is disabled
+            return compacted;
+        }
+
+        return compacted
+                .map(new CompactionMetrics())
+                .returns(compacted.getType())
+                .setParallelism(compacted.getParallelism())
+                .name("CompactionMetrics")
+                .uid("CompactionMetrics");
+    }
+
+    static class MeteredWriter<IN> implements StatefulSinkWriter<IN, FileWriterBucketState>,
+            PrecommittingSinkWriter<IN, FileSinkCommittable> {
+        private final FileWriter<IN> writer;
+        private final MeteredBucketAssigner<IN, ?> bucketAssigner;
+
+        private final Counter partFiles;
+        private final Counter partFileBytes;
+        private final Histogram partFileSizes;
+        private final Histogram bucketBytes;
+        private volatile int partFilesPerCheckpoint;
+
+        MeteredWriter(FileWriter<IN> writer, MeteredBucketAssigner<IN, ?> bucketAssigner, MetricGroup metricGroup) {
+            this.writer = writer;
+            this.bucketAssigner = bucketAssigner;
+
+            partFiles = metricGroup.counter(PART_FILES);
+            partFileBytes = metricGroup.counter(PART_FILE_BYTES);
+            partFileSizes = metricGroup.histogram(PART_FILE_SIZE_BYTES, new DescriptiveStatisticsHistogram(HISTOGRAM_SIZE));
+            bucketBytes = metricGroup.histogram(BUCKET_BYTES, new DescriptiveStatisticsHistogram(HISTOGRAM_SIZE));
+            metricGroup.gauge(PART_FILES_PER_CHECKPOINT, (Gauge<Integer>) () -> partFilesPerCheckpoint);
+
+            if (bucketAssigner != null) {
+                bucketAssigner.open(metricGroup);
+            }
+        }
+
+        @Override
+        public void write(IN element, Context context) throws IOException, InterruptedException {
+            writer.write(element, context);
+        }
+
+        @Override
+        public void flush(boolean endOfInput) throws IOException, InterruptedException {
+            writer.flush(endOfInput);
+        }
+
+        @Override
+        public Collection<FileSinkCommittable> prepareCommit() throws IOException {
+            Collection<FileSinkCommittable> committables = writer.prepareCommit();
+
+            // Called once per checkpoint; every pending file is a part file the checkpoint commits
+            int files = 0;
+            Map<String, Long> bytesPerBucket = new HashMap<>();
+            for (FileSinkCommittable committable : committables) {
+                if (!committable.hasPendingFile()) {
+                    continue;
+                }
+                files++;
+
+                // Unknown for files of older checkpoints
+                long size = committable.getPendingFile().getSize();
+                if (size >= 0) {
+                    partFileBytes.inc(size);
+                    partFileSizes.update(size);
+                    bytesPerBucket.merge(committable.getBucketId(), size, Long::sum);
+                }
+            }
+
+            partFiles.inc(files);
+            partFilesPerCheckpoint = files;
+            for (long bytes : bytesPerBucket.values()) {
+                bucketBytes.update(bytes);
+            }
+            if (bucketAssigner != null) {
+                bucketAssigner.onCheckpoint();
+            }
+
+            return committables;
+        }
+
+        @Override
+        public List<FileWriterBucketState> snapshotState(long checkpointId) throws IOException {
+            return writer.snapshotState(checkpointId);
+        }
+
+        @Override
+        public void close() throws Exception {
+            writer.close();
+        }
+    }
+}
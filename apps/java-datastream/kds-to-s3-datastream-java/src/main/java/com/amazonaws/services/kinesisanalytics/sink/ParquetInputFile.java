@@ -0,0 +1,93 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.sink;
+
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
+import org.apache.parquet.io.DelegatingSeekableInputStream;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+
+import java.io.IOException;
+
+/**
+ * Parquet {@link InputFile} on top of a Flink {@link FileSystem}, so that part files can be read
+ * back through the same file system plugins (e.g. s3://) the FileSink writes with.
+ */
+public class ParquetInputFile implements InputFile {
+    private final FileSystem fileSystem;
+    private final Path path;
+    private long length = -1;
+
+    public ParquetInputFile(Path path) throws IOException {
+        this.fileSystem = path.getFileSystem();
+        this.path = path;
+    }
+
+    @Override
+    public long getLength() throws IOException {
+        if (length < 0) {
+            length = fileSystem.getFileStatus(path).getLen();
+        }
+        return length;
+    }
+
+    /**
+     * Reads a stream that is already open, e.g. the one a FileSource hands to its format. Parquet
+     * only opens one stream per reader, which is then this one.
+     */
+    public static InputFile of(FSDataInputStream in, long length) {
+        return new InputFile() {
+            @Override
+            public long getLength() {
+                return length;
+            }
+
+            @Override
+            public SeekableInputStream newStream() {
+                return seekable(in);
+            }
+        };
+    }
+
+    @Override
+    public SeekableInputStream newStream() throws IOException {
+        return seekable(fileSystem.open(path));
+    }
+
+    private static SeekableInputStream seekable(FSDataInputStream in) {
+        return new DelegatingSeekableInputStream(in) {
+            @Override
+            public long getPos() throws IOException {
+                return in.getPos();
+            }
+
+            @Override
+            public void seek(long newPos) throws IOException {
+                in.seek(newPos);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return path.toString();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.sink;
+
+import org.apache.flink.streaming.api.functions.sink.filesystem.PartFileInfo;
+import org.apache.flink.streaming.api.functions.sink.filesystem.rollingpolicies.CheckpointRollingPolicy;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Rolls part files on every checkpoint, as bulk formats require, and additionally when they
+ * reach a maximum size, a maximum age or have not received records for a while.
+ *
+ * <p>The size of a Parquet part file only grows when a row group is flushed, so the maximum part
+ * size should be a multiple of the row group size.
+ */
+public class SizeTimeCheckpointRollingPolicy<IN, BucketID> extends CheckpointRollingPolicy<IN, BucketID> {
+    private static final long serialVersionUID = 1L;
+
+    private static final long DISABLED = Long.MAX_VALUE;
+
+    private final long maxPartSize;
+    private final long rolloverInterval;
+    private final long inactivityInterval;
+
+    private SizeTimeCheckpointRollingPolicy(long maxPartSize, long rolloverInterval, long inactivityInterval) {
+        this.maxPartSize = maxPartSize;
+        this.rolloverInterval = rolloverInterval;
+        this.inactivityInterval = inactivityInterval;
+    }
+
+    public static <IN, BucketID> Builder<IN, BucketID> builder() {
+        return new Builder<>();
+    }
+
+    @Override
+    public boolean shouldRollOnEvent(PartFileInfo<BucketID> partFileState, IN element) throws IOException {
+        return maxPartSize != DISABLED && partFileState.getSize() >= maxPartSize;
+    }
+
+    @Override
+    public boolean shouldRollOnProcessingTime(PartFileInfo<BucketID> partFileState, long currentTime) {
+        return currentTime - partFileState.getCreationTime() >= rolloverInterval
+                || currentTime - partFileState.getLastUpdateTime() >= inactivityInterval;
+    }
+
+    public long getMaxPartSize() {
+        return maxPartSize;
+    }
+
+    public long getRolloverInterval() {
+        return rolloverInterval;
+    }
+
+    public long getInactivityInterval() {
+        return inactivityInterval;
+    }
+
+    /**
+     * Every limit is disabled unless set, which makes the policy behave like
+     * {@link org.apache.flink.streaming.api.functions.sink.filesystem.rollingpolicies.OnCheckpointRollingPolicy}.
+     */
+    public static class Builder<IN, BucketID>
+            extends CheckpointRollingPolicy.PolicyBuilder<IN, BucketID, Builder<IN, BucketID>> {
+        private long maxPartSize = DISABLED;
+        private long rolloverInterval = DISABLED;
+        private long inactivityInterval = DISABLED;
+
+        private Builder() {}
+
+        public Builder<IN, BucketID> withMaxPartSize(long bytes) {
+            this.maxPartSize = bytes;
+            return self();
+        }
+
+        public Builder<IN, BucketID> withRolloverInterval(Duration interval) {
+            this.rolloverInterval = interval.toMillis();
+            return self();
+        }
+
+        public Builder<IN, BucketID> withInactivityInterval(Duration interval) {
+            this.inactivityInterval = interval.toMillis();
+            return self();
+        }
+
+        @Override
+        public SizeTimeCheckpointRollingPolicy<IN, BucketID> build() {
+            return new SizeTimeCheckpointRollingPolicy<>(maxPartSize, rolloverInterval, inactivityInterval);
+        }
+    }
+}
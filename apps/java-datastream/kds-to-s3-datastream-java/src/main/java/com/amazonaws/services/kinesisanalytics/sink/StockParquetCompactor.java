@@ -0,0 +1,89 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.sink;
+
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import com.amazonaws.services.kinesisanalytics.stock.StockReadSupport;
+import org.apache.flink.connector.file.sink.compactor.RecordWiseFileCompactor;
+import org.apache.flink.core.fs.Path;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Merges small Parquet part files of a bucket by reading their records back and writing them
+ * through the sink's own bulk writer, so the result has the configured Parquet layout.
+ */
+public class StockParquetCompactor extends RecordWiseFileCompactor<Stock> {
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOG = LoggerFactory.getLogger(StockParquetCompactor.class);
+
+    public StockParquetCompactor() {
+        super(StockParquetReader::new);
+    }
+
+    @Override
+    public void compact(List<Path> inputFiles, Writer<Stock> writer) throws Exception {
+        long start = System.nanoTime();
+        long records = 0;
+        long bytes = 0;
+
+        for (Path path : inputFiles) {
+            try (StockParquetReader reader = new StockParquetReader(path)) {
+                for (Stock stock = reader.read(); stock != null; stock = reader.read()) {
+                    writer.write(stock);
+                    records++;
+                }
+                bytes += reader.getLength();
+            }
+        }
+
+        long nanos = System.nanoTime() - start;
+        LOG.debug("Compacted {} files ({} records, {} bytes) in {} ms",
+                inputFiles.size(), records, bytes, nanos / 1_000_000);
+    }
+
+    static class StockParquetReader implements RecordWiseFileCompactor.Reader<Stock> {
+        private final ParquetInputFile file;
+        private final ParquetReader<Stock> reader;
+
+        StockParquetReader(Path path) throws IOException {
+            this.file = new ParquetInputFile(path);
+            this.reader = StockReadSupport.builder(file).build();
+        }
+
+        @Override
+        public Stock read() throws IOException {
+            return reader.read();
+        }
+
+        long getLength() throws IOException {
+            return file.getLength();
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.sink;
+
+import com.github.luben.zstd.ZstdOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streaming compression of row-oriented part files.
+ *
+ * <p>Every part file holds exactly one gzip member or zstd frame. Concatenating such files gives
+ * a valid multi-member gzip or multi-frame zstd file, which is what makes compaction by plain
+ * concatenation possible (see {@link ConcatenatingFileCompactor}).
+ */
+public enum StreamCompression {
+    NONE("") {
+        @Override
+        public OutputStream compress(OutputStream out, int level) {
+            return out;
+        }
+    },
+    GZIP(".gz") {
+        @Override
+        public OutputStream compress(OutputStream out, int level) throws IOException {
+            return new GZIPOutputStream(out, BUFFER_SIZE) {
+                {
+                    def.setLevel(level);
+                }
+            };
+        }
+    },
+    ZSTD(".zst") {
+        @Override
+        public OutputStream compress(OutputStream out, int level) throws IOException {
+            return new ZstdOutputStream(out, level == DEFAULT_LEVEL ? ZSTD_DEFAULT_LEVEL : level);
+        }
+    };
+
+    /** Leaves the level to the codec: 6 for gzip, 3 for zstd. */
+    public static final int DEFAULT_LEVEL = -1;
+
+    private static final int ZSTD_DEFAULT_LEVEL = 3;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String extension;
+
+    StreamCompression(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Wraps the stream so that everything written to it is compressed. Closing the returned
+     * stream completes the gzip member or zstd frame and closes {@code out}.
+     */
+    public abstract OutputStream compress(OutputStream out, int level) throws IOException;
+
+    /**
+     * @return file extension including the dot, empty for {@link #NONE}
+     */
+    public String getExtension() {
+        return extension;
+    }
+}
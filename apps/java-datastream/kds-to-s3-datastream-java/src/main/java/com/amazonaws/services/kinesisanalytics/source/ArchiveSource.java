@@ -0,0 +1,50 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.source;
+
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.connector.file.src.FileSource;
+import org.apache.flink.connector.file.src.reader.StreamFormat;
+import org.apache.flink.core.fs.Path;
+
+/**
+ * Bounded FileSource over archived stock records, i.e. files this job wrote before or files in
+ * the same formats.
+ *
+ * <p>Directories are read recursively. Hidden files, such as in-progress part files of a sink
+ * that is still writing, are skipped. Every file is one split, so many readers share the work.
+ */
+public final class ArchiveSource {
+
+    public enum Format {
+        PARQUET,
+        JSON
+    }
+
+    private ArchiveSource() {}
+
+    public static FileSource<Stock> create(Format format, TypeInformation<Stock> producedType, Path... paths) {
+        StreamFormat<Stock> streamFormat = format == Format.JSON
+                ? new StockJsonLinesFormat(producedType)
+                : new StockParquetFormat(producedType);
+
+        return FileSource.forRecordStreamFormat(streamFormat, paths).build();
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.source;
+
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import com.amazonaws.services.kinesisanalytics.stock.StockWatermarks;
+import org.apache.flink.api.common.functions.FilterFunction;
+
+/**
+ * Splits records at a cut-over event time between the archive and the stream, so that a job
+ * reading both sees every record exactly once.
+ *
+ * <p>The archive contributes the records before the cut-over, the stream the records from the
+ * cut-over on. Records without a usable event time only come from the stream, as the job that
+ * wrote the archive already dealt with them.
+ */
+public final class Cutover {
+
+    private Cutover() {}
+
+    public static FilterFunction<Stock> archived(long cutoverMillis) {
+        return stock -> {
+            long timestamp = StockWatermarks.timestampOf(stock.getEvent_time());
+            return timestamp != StockWatermarks.NO_TIMESTAMP && timestamp < cutoverMillis;
+        };
+    }
+
+    public static FilterFunction<Stock> streamed(long cutoverMillis) {
+        return stock -> {
+            long timestamp = StockWatermarks.timestampOf(stock.getEvent_time());
+            return timestamp == StockWatermarks.NO_TIMESTAMP || timestamp >= cutoverMillis;
+        };
+    }
+
+    /**
+     * @param cutover an event time such as {@code 2023-05-01 10:00:00}, interpreted as UTC
+     */
+    public static long parse(String cutover) {
+        long millis = StockWatermarks.timestampOf(cutover.trim());
+        if (millis == StockWatermarks.NO_TIMESTAMP) {
+            throw new IllegalArgumentException("Not an event time: " + cutover);
+        }
+        return millis;
+    }
+}
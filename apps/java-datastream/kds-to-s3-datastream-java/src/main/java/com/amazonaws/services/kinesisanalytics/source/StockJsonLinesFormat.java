@@ -0,0 +1,93 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.source;
+
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.github.luben.zstd.ZstdInputStream;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.connector.file.src.reader.SimpleStreamFormat;
+import org.apache.flink.connector.file.src.reader.StreamFormat;
+import org.apache.flink.core.fs.FSDataInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads JSON lines of stock records for a FileSource, such as the files of the sink with
+ * {@code OutputFormat=JSON} or archived producer payloads.
+ *
+ * <p>The FileSource already decompresses {@code .gz} files by their extension. It does not know
+ * zstd, so zstd frames are recognized by their magic number instead.
+ */
+public class StockJsonLinesFormat extends SimpleStreamFormat<Stock> {
+    private static final long serialVersionUID = 1L;
+
+    private static final ObjectReader READER = JsonMapper.builder().build().readerFor(Stock.class);
+
+    // 0xFD2FB528, little endian
+    private static final byte[] ZSTD_MAGIC = {(byte) 0x28, (byte) 0xB5, (byte) 0x2F, (byte) 0xFD};
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final TypeInformation<Stock> producedType;
+
+    public StockJsonLinesFormat(TypeInformation<Stock> producedType) {
+        this.producedType = producedType;
+    }
+
+    @Override
+    public StreamFormat.Reader<Stock> createReader(Configuration config, FSDataInputStream stream) throws IOException {
+        MappingIterator<Stock> records = READER.readValues(decompress(stream));
+        return new StreamFormat.Reader<Stock>() {
+            @Override
+            public Stock read() throws IOException {
+                return records.hasNextValue() ? records.nextValue() : null;
+            }
+
+            @Override
+            public void close() throws IOException {
+                records.close();
+            }
+        };
+    }
+
+    static InputStream decompress(InputStream stream) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(stream, BUFFER_SIZE);
+        in.mark(ZSTD_MAGIC.length);
+        byte[] head = in.readNBytes(ZSTD_MAGIC.length);
+        in.reset();
+
+        for (int i = 0; i < ZSTD_MAGIC.length; i++) {
+            if (head.length <= i || head[i] != ZSTD_MAGIC[i]) {
+                return in;
+            }
+        }
+        return new ZstdInputStream(in);
+    }
+
+    @Override
+    public TypeInformation<Stock> getProducedType() {
+        return producedType;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.source;
+
+import com.amazonaws.services.kinesisanalytics.sink.ParquetInputFile;
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import com.amazonaws.services.kinesisanalytics.stock.StockReadSupport;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.connector.file.src.reader.StreamFormat;
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.parquet.hadoop.ParquetReader;
+
+import java.io.IOException;
+
+/**
+ * Reads the Parquet files of the stock sink back into {@link Stock} records, for a FileSource.
+ *
+ * <p>Files are not split: part files are at most one compaction target in size, and there are
+ * many of them, so whole files already spread well over the readers.
+ */
+public class StockParquetFormat implements StreamFormat<Stock> {
+    private static final long serialVersionUID = 1L;
+
+    private final TypeInformation<Stock> producedType;
+
+    public StockParquetFormat(TypeInformation<Stock> producedType) {
+        this.producedType = producedType;
+    }
+
+    @Override
+    public Reader<Stock> createReader(Configuration config, FSDataInputStream stream, long fileLen, long splitEnd)
+            throws IOException {
+        ParquetReader<Stock> reader = StockReadSupport.builder(ParquetInputFile.of(stream, fileLen)).build();
+        return new Reader<Stock>() {
+            @Override
+            public Stock read() throws IOException {
+                return reader.read();
+            }
+
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
+    }
+
+    @Override
+    public Reader<Stock> restoreReader(Configuration config,
+                                       FSDataInputStream stream,
+                                       long restoredOffset,
+                                       long fileLen,
+                                       long splitEnd) throws IOException {
+        // No offsets are checkpointed, the FileSource skips the records read before instead
+        return createReader(config, stream, fileLen, splitEnd);
+    }
+
+    @Override
+    public boolean isSplittable() {
+        return false;
+    }
+
+    @Override
+    public TypeInformation<Stock> getProducedType() {
+        return producedType;
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.stock;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Helpers for the event_time strings carried by {@link Stock}.
+ *
+ * <p>The generators emit local date-times such as "2023-05-01 10:00:00" or
+ * "2023-05-01T10:00:00.123". Strings in that canonical shape (space or 'T' separator, up to
+ * millisecond precision) are converted to and from epoch milliseconds by hand, and a small layout
+ * code records how to print them back so that a round trip reproduces the exact original string.
+ * Event times are interpreted as UTC, consistent with how the bucket assigner treats them.
+ */
+public final class EventTimes {
+    /** Layout bit set when date and time are separated by 'T' rather than a space. */
+    public static final int LAYOUT_T_SEPARATOR = 0x1;
+
+    private static final int FRACTION_SHIFT = 1;
+    private static final int MAX_FRACTION_DIGITS = 3;
+
+    /** Number of distinct layout codes; codes are in [0, LAYOUT_COUNT). */
+    public static final int LAYOUT_COUNT = 2 << 2;
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private EventTimes() {}
+
+    /**
+     * @return the layout code of a canonical event time, or -1 if the string is not canonical and
+     *         therefore cannot be reproduced from its epoch value
+     */
+    public static int layoutOf(String eventTime) {
+        int length = eventTime.length();
+        if (length != 19 && (length < 21 || length > 23)) {
+            return -1;
+        }
+
+        char separator = eventTime.charAt(10);
+        if (separator != ' ' && separator != 'T') {
+            return -1;
+        }
+        if (eventTime.charAt(4) != '-' || eventTime.charAt(7) != '-'
+                || eventTime.charAt(13) != ':' || eventTime.charAt(16) != ':') {
+            return -1;
+        }
+        if (!digits(eventTime, 0, 4) || !digits(eventTime, 5, 7) || !digits(eventTime, 8, 10)
+                || !digits(eventTime, 11, 13) || !digits(eventTime, 14, 16) || !digits(eventTime, 17, 19)) {
+            return -1;
+        }
+
+        int fractionDigits = 0;
+        if (length > 19) {
+            if (eventTime.charAt(19) != '.' || !digits(eventTime, 20, length)) {
+                return -1;
+            }
+            fractionDigits = length - 20;
+        }
+
+        int year = number(eventTime, 0, 4);
+        int month = number(eventTime, 5, 7);
+        int day = number(eventTime, 8, 10);
+        if (month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)
+                || number(eventTime, 11, 13) > 23 || number(eventTime, 14, 16) > 59 || number(eventTime, 17, 19) > 59) {
+            return -1;
+        }
+
+        return (separator == 'T' ? LAYOUT_T_SEPARATOR : 0) | (fractionDigits << FRACTION_SHIFT);
+    }
+
+    /**
+     * Converts an event time to epoch milliseconds. Canonical strings take an allocation-free path,
+     * anything else goes through {@link LocalDateTime#parse} exactly like the bucket assigner does.
+     *
+     * @throws java.time.format.DateTimeParseException if the string is not a valid date-time
+     */
+    public static long toEpochMillis(String eventTime) {
+        if (layoutOf(eventTime) < 0) {
+            return LocalDateTime.parse(eventTime.replace(" ", "T")).toInstant(ZoneOffset.UTC).toEpochMilli();
+        }
+
+        return toEpochMillisCanonical(eventTime);
+    }
+
+    /**
+     * Converts a string for which {@link #layoutOf(String)} returned a valid layout.
+     */
+    public static long toEpochMillisCanonical(String eventTime) {
+        long days = daysFromCivil(number(eventTime, 0, 4), number(eventTime, 5, 7), number(eventTime, 8, 10));
+        long millis = days * MILLIS_PER_DAY
+                + number(eventTime, 11, 13) * 3_600_000L
+                + number(eventTime, 14, 16) * 60_000L
+                + number(eventTime, 17, 19) * 1_000L;
+
+        int fractionDigits = eventTime.length() - 20;
+        if (fractionDigits > 0) {
+            int fraction = number(eventTime, 20, eventTime.length());
+            for (int i = fractionDigits; i < MAX_FRACTION_DIGITS; i++) {
+                fraction *= 10;
+            }
+            millis += fraction;
+        }
+
+        return millis;
+    }
+
+    /**
+     * Prints epoch milliseconds in the given layout; the inverse of {@link #toEpochMillisCanonical}.
+     */
+    public static String format(long epochMillis, int layout) {
+        int fractionDigits = layout >>> FRACTION_SHIFT;
+        char[] chars = new char[fractionDigits == 0 ? 19 : 20 + fractionDigits];
+
+        long days = Math.floorDiv(epochMillis, MILLIS_PER_DAY);
+        int millisOfDay = (int) Math.floorMod(epochMillis, MILLIS_PER_DAY);
+
+        // civil_from_days, see http://howardhinnant.github.io/date_algorithms.html
+        long z = days + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+        putDigits(chars, 0, year, 4);
+        chars[4] = '-';
+        putDigits(chars, 5, month, 2);
+        chars[7] = '-';
+        putDigits(chars, 8, day, 2);
+        chars[10] = (layout & LAYOUT_T_SEPARATOR) != 0 ? 'T' : ' ';
+        putDigits(chars, 11, millisOfDay / 3_600_000, 2);
+        chars[13] = ':';
+        putDigits(chars, 14, millisOfDay / 60_000 % 60, 2);
+        chars[16] = ':';
+        putDigits(chars, 17, millisOfDay / 1_000 % 60, 2);
+
+        if (fractionDigits > 0) {
+            chars[19] = '.';
+            int fraction = millisOfDay % 1_000;
+            for (int i = fractionDigits; i < MAX_FRACTION_DIGITS; i++) {
+                fraction /= 10;
+            }
+            putDigits(chars, 20, fraction, fractionDigits);
+        }
+
+        return new String(chars);
+    }
+
+    // days_from_civil, see http://howardhinnant.github.io/date_algorithms.html
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097 + dayOfEra - 719_468;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static boolean digits(String str, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = str.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int number(String str, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            value = value * 10 + (str.charAt(i) - '0');
+        }
+        return value;
+    }
+
+    private static void putDigits(char[] chars, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
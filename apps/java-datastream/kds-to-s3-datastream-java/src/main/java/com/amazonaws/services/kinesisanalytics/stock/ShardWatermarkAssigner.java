@@ -0,0 +1,68 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.stock;
+
+import org.apache.flink.streaming.api.functions.AssignerWithPeriodicWatermarks;
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.util.function.SerializableFunction;
+
+import java.time.Duration;
+
+/**
+ * Bounded out-of-orderness watermarks for the FlinkKinesisConsumer, which runs one instance per
+ * shard and emits the minimum over the shards of a subtask. Shards that stay idle for the
+ * consumer's shard idle interval are left out of that minimum.
+ *
+ * <p>The consumer only accepts the legacy {@link AssignerWithPeriodicWatermarks} interface.
+ *
+ * @param <T> record type of the source, e.g. {@link Stock}
+ */
+public class ShardWatermarkAssigner<T> implements AssignerWithPeriodicWatermarks<T> {
+    private static final long serialVersionUID = 1L;
+
+    private final long outOfOrdernessMillis;
+    private final SerializableFunction<T, String> eventTime;
+
+    private long maxTimestamp = StockWatermarks.NO_TIMESTAMP;
+
+    /**
+     * @param eventTime event_time string of a record; may return null for records without one
+     */
+    public ShardWatermarkAssigner(Duration outOfOrderness, SerializableFunction<T, String> eventTime) {
+        this.outOfOrdernessMillis = outOfOrderness.toMillis();
+        this.eventTime = eventTime;
+    }
+
+    @Override
+    public long extractTimestamp(T element, long recordTimestamp) {
+        long timestamp = StockWatermarks.timestampOf(eventTime.apply(element));
+        if (timestamp > maxTimestamp) {
+            maxTimestamp = timestamp;
+        }
+        return timestamp;
+    }
+
+    @Override
+    public Watermark getCurrentWatermark() {
+        if (maxTimestamp == StockWatermarks.NO_TIMESTAMP) {
+            return new Watermark(Long.MIN_VALUE);
+        }
+        return new Watermark(maxTimestamp - outOfOrdernessMillis - 1);
+    }
+}
@@ -18,14 +18,27 @@
 
  package com.amazonaws.services.kinesisanalytics.stock;
 
+import org.apache.avro.reflect.Nullable;
+import org.apache.flink.api.common.typeinfo.TypeInfo;
+
 import java.util.Objects;
 
+@TypeInfo(StockTypeInfoFactory.class)
 public class Stock {
 
     private String event_time;
     private String ticker;
     private float price;
 
+    // Instrument reference data; only set when enrichment is enabled. Nullable keeps the
+    // Avro reflect schema of Stock usable for records without it.
+    @Nullable
+    private String exchange;
+    @Nullable
+    private String currency;
+    @Nullable
+    private String sector;
+
     public Stock() {}
 
     public void setEvent_time(String event_time) {
@@ -52,9 +65,37 @@ public class Stock {
         return this.price;
     }
 
+    public void setExchange(String exchange) {
+        this.exchange = exchange;
+    }
+
+    public String getExchange() {
+        return this.exchange;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public String getCurrency() {
+        return this.currency;
+    }
+
+    public void setSector(String sector) {
+        this.sector = sector;
+    }
+
+    public String getSector() {
+        return this.sector;
+    }
+
     @Override
     public String toString() {
-        return "Stock{" + "ticker=" + ticker + ", price='" + price + '\'' + ", time=" + event_time + '}';
+        String str = "Stock{" + "ticker=" + ticker + ", price='" + price + '\'' + ", time=" + event_time;
+        if (exchange != null || currency != null || sector != null) {
+            str += ", exchange=" + exchange + ", currency=" + currency + ", sector=" + sector;
+        }
+        return str + '}';
     }
 
     @Override
@@ -66,13 +107,16 @@ public class Stock {
             return false;
         }
         Stock stock = (Stock) o;
-        return ticker.equals(stock.ticker) &&
+        return Objects.equals(ticker, stock.ticker) &&
                 price == stock.price &&
-                event_time.equals(stock.event_time);
+                Objects.equals(event_time, stock.event_time) &&
+                Objects.equals(exchange, stock.exchange) &&
+                Objects.equals(currency, stock.currency) &&
+                Objects.equals(sector, stock.sector);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(ticker, price, event_time);
+        return Objects.hash(ticker, price, event_time, exchange, currency, sector);
     }
 }
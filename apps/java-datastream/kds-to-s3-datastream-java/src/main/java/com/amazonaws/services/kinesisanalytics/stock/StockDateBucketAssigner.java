@@ -24,12 +24,35 @@ import org.apache.flink.streaming.api.functions.sink.filesystem.bucketassigners.
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class StockDateBucketAssigner implements BucketAssigner<Stock, String> {
+    // Bucket ids are cached per time slot; only a handful of slots are live at any time
+    // (the current one plus late/replayed data), so a small LRU is plenty.
+    private static final int MAX_CACHED_BUCKETS = 64;
+
+    // Shape of the event times LocalDateTime.parse accepts once ' ' is replaced with 'T':
+    // d is a digit, the rest must match as is; ' ' also matches 'T'. Seconds and the fraction
+    // after them are optional, and the fraction may be a bare '.'.
+    private static final String EVENT_TIME_SHAPE = "dddd-dd-dd dd:dd:dd";
+    private static final int MIN_EVENT_TIME_LENGTH = 16;
+    private static final int MAX_FRACTION_DIGITS = 9;
+    // Leading characters the suffix check relies on; shorter slots leave the day to the suffix,
+    // whose range depends on the month, so those event times are always parsed in full
+    private static final int MIN_CHECKED_SLOT_LENGTH = 10;
+
     private final String prefix;
     private final String partitionFormat;
     private transient DateTimeFormatter dtFormatForWrite;
 
+    // Number of leading event_time characters that determine the bucket, e.g. 13 for yyyy-MM-dd-HH
+    private transient int slotLength;
+    private transient Map<String, String> bucketIdCache;
+    private transient String lastSlot;
+    private transient String lastBucketId;
+
     public StockDateBucketAssigner(String partitionFormat, String prefix) {
         this.prefix = prefix;
         this.partitionFormat = partitionFormat;
@@ -37,9 +60,94 @@ public class StockDateBucketAssigner implements BucketAssigner<Stock, String> {
 
     @Override
     public String getBucketId(Stock stock, Context context) {
-        this.dtFormatForWrite = DateTimeFormatter.ofPattern(partitionFormat);
+        return getBucketId(stock.getEvent_time());
+    }
+
+    public String getBucketId(String eventTimeStr) {
+        if (this.dtFormatForWrite == null) {
+            this.dtFormatForWrite = DateTimeFormatter.ofPattern(partitionFormat);
+            this.slotLength = slotLength(partitionFormat);
+            this.bucketIdCache = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                    return size() > MAX_CACHED_BUCKETS;
+                }
+            };
+        }
+
+        // Consecutive records almost always fall into the same slot; compare in place.
+        int length = Math.min(slotLength, eventTimeStr.length());
+        String last = this.lastSlot;
+        if (last != null && last.length() == length && eventTimeStr.regionMatches(0, last, 0, length)) {
+            checkSuffix(eventTimeStr, length);
+            return this.lastBucketId;
+        }
+
+        String slot = eventTimeStr.substring(0, length);
+        String bucketId = bucketIdCache.get(slot);
+        if (bucketId == null) {
+            bucketId = computeBucketId(eventTimeStr);
+            bucketIdCache.put(slot, bucketId);
+        } else {
+            checkSuffix(eventTimeStr, length);
+        }
+
+        this.lastSlot = slot;
+        this.lastBucketId = bucketId;
+
+        return bucketId;
+    }
+
+    /**
+     * A cached slot was parsed before, so its characters are valid; the rest of the event time
+     * still has to be, or the record would silently land in the bucket of its slot. Throws what
+     * {@link LocalDateTime#parse} would.
+     */
+    private static void checkSuffix(String eventTimeStr, int slotLength) {
+        int length = eventTimeStr.length();
+        // Cut off within the minutes, e.g. right at the end of the slot: a prefix of a valid time
+        // matches the cached slot but is not a valid time itself
+        if (length < MIN_EVENT_TIME_LENGTH) {
+            LocalDateTime.parse(eventTimeStr.replace(" ", "T"));
+            return;
+        }
+        if (slotLength >= length) {
+            return;
+        }
+        if (slotLength < MIN_CHECKED_SLOT_LENGTH) {
+            LocalDateTime.parse(eventTimeStr.replace(" ", "T"));
+            return;
+        }
 
-        String eventTimeStr = stock.getEvent_time();
+        boolean valid = length == MIN_EVENT_TIME_LENGTH
+                || length == EVENT_TIME_SHAPE.length()
+                || (length > EVENT_TIME_SHAPE.length()
+                        && length <= EVENT_TIME_SHAPE.length() + 1 + MAX_FRACTION_DIGITS
+                        && eventTimeStr.charAt(EVENT_TIME_SHAPE.length()) == '.');
+        for (int i = slotLength; valid && i < length; i++) {
+            char c = eventTimeStr.charAt(i);
+            char expected = i < EVENT_TIME_SHAPE.length() ? EVENT_TIME_SHAPE.charAt(i) : 'd';
+            if (i == EVENT_TIME_SHAPE.length()) {
+                continue;
+            }
+            valid = expected == 'd' ? c >= '0' && c <= '9' : c == expected || (expected == ' ' && c == 'T');
+        }
+        // Hours, minutes and seconds, where they are part of the suffix
+        valid = valid
+                && (slotLength > 11 || twoDigits(eventTimeStr, 11) < 24)
+                && (slotLength > 14 || twoDigits(eventTimeStr, 14) < 60)
+                && (slotLength > 17 || length < EVENT_TIME_SHAPE.length() || twoDigits(eventTimeStr, 17) < 60);
+
+        if (!valid) {
+            throw new DateTimeParseException("Text '" + eventTimeStr + "' could not be parsed", eventTimeStr, slotLength);
+        }
+    }
+
+    private static int twoDigits(String str, int index) {
+        return (str.charAt(index) - '0') * 10 + str.charAt(index + 1) - '0';
+    }
+
+    private String computeBucketId(String eventTimeStr) {
         LocalDateTime eventTime = LocalDateTime.parse(eventTimeStr.replace(" ", "T"));
 
         String formattedDate = eventTime.format(this.dtFormatForWrite);
@@ -50,6 +158,69 @@ public class StockDateBucketAssigner implements BucketAssigner<Stock, String> {
         );
     }
 
+    /**
+     * Works out how many leading characters of an ISO-like event time ("yyyy-MM-dd HH:mm:ss...")
+     * fully determine the output of the given pattern. Unknown pattern letters disable truncation.
+     */
+    static int slotLength(String pattern) {
+        int length = 0;
+        boolean quoted = false;
+
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+                continue;
+            }
+            if (quoted || !Character.isLetter(c)) {
+                continue;
+            }
+
+            switch (c) {
+                case 'G':
+                case 'u':
+                case 'y':
+                    length = Math.max(length, 4);
+                    break;
+                case 'M':
+                case 'L':
+                case 'Q':
+                case 'q':
+                    length = Math.max(length, 7);
+                    break;
+                case 'd':
+                case 'D':
+                case 'E':
+                case 'e':
+                case 'c':
+                case 'F':
+                case 'Y':
+                case 'w':
+                case 'W':
+                    length = Math.max(length, 10);
+                    break;
+                case 'H':
+                case 'k':
+                case 'K':
+                case 'h':
+                case 'a':
+                    length = Math.max(length, 13);
+                    break;
+                case 'm':
+                    length = Math.max(length, 16);
+                    break;
+                case 's':
+                    length = Math.max(length, 19);
+                    break;
+                default:
+                    // fractions, zones, epoch based fields...: key on the whole string
+                    return Integer.MAX_VALUE;
+            }
+        }
+
+        return length;
+    }
+
     @Override
     public SimpleVersionedSerializer<String> getSerializer() {
         return SimpleVersionedStringSerializer.INSTANCE;
@@ -18,25 +18,167 @@
 
  package com.amazonaws.services.kinesisanalytics.stock;
 
+import com.amazonaws.services.kinesisanalytics.metrics.ConcurrentCounter;
+import com.amazonaws.services.kinesisanalytics.metrics.KinesisAnalyticsMetrics;
+import com.amazonaws.services.kinesisanalytics.metrics.SharedMetrics;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.apache.flink.api.common.serialization.AbstractDeserializationSchema;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.Histogram;
+import org.apache.flink.metrics.Meter;
+import org.apache.flink.metrics.MeterView;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.runtime.metrics.DescriptiveStatisticsHistogram;
 
 import java.io.IOException;
 
 public class StockDeserializationSchema extends AbstractDeserializationSchema<Stock> {
     private static final long serialVersionUID = 1L;
 
+    public static final String FILTER_EVALUATED_RECORDS = "filterEvaluatedRecords";
+    public static final String FILTER_EVALUATED_PER_SECOND = "filterEvaluatedPerSecond";
+    public static final String FILTER_DROPPED_PER_SECOND = "filterDroppedPerSecond";
+    public static final String FILTER_DROPPED_RECORDS = "filterDroppedRecords";
+    public static final String FILTER_DROP_RATE = "filterDropRate";
+    public static final String DESERIALIZATION_LATENCY_NANOS = "deserializationLatencyNanos";
+    public static final String DESERIALIZATION_ERRORS = "deserializationErrors";
+    public static final String DESERIALIZATION_FALLBACKS = "deserializationFallbacks";
+
+    // Only every n-th record is timed, so that taking the time does not cost more than decoding
+    private static final int LATENCY_SAMPLE_INTERVAL = 32;
+    private static final int LATENCY_HISTOGRAM_SIZE = 1024;
+
+    private final StockFilterSpec filter;
+
     private transient ObjectMapper objectMapper;
+    private transient StockJsonDecoder decoder;
+    private transient StockPredicate predicate;
+    private transient Counter evaluated;
+    private transient Counter dropped;
+    private transient Histogram latency;
+    private transient Counter errors;
+    private transient Counter fallbacks;
+    private transient int sampleCountdown;
+
+    public StockDeserializationSchema() {
+        this.filter = null;
+    }
+
+    /**
+     * @param producedType type information to attach to the produced records, e.g. a
+     *                     {@link StockTypeInfo} with a custom ticker dictionary
+     */
+    public StockDeserializationSchema(TypeInformation<Stock> producedType) {
+        this(producedType, null);
+    }
+
+    /**
+     * @param filter records not matching the filter are dropped before they are materialized
+     *               (the Kinesis consumer skips null records); null to keep everything
+     */
+    public StockDeserializationSchema(TypeInformation<Stock> producedType, StockFilterSpec filter) {
+        super(producedType);
+        this.filter = filter;
+    }
 
     @Override
     public void open(InitializationContext context) {
         objectMapper = JsonMapper.builder().build().registerModule(new JavaTimeModule());
+        decoder = new StockJsonDecoder();
+        if (filter != null) {
+            predicate = filter.compile();
+        }
+
+        // The Kinesis consumer opens a copy of the schema per shard, all with the subtask's group
+        Metrics metrics = SharedMetrics.get(KinesisAnalyticsMetrics.group(context.getMetricGroup()),
+                StockDeserializationSchema.class.getName(), group -> new Metrics(group, filter != null));
+        latency = metrics.latency;
+        errors = metrics.errors;
+        fallbacks = metrics.fallbacks;
+        evaluated = metrics.evaluated;
+        dropped = metrics.dropped;
+        sampleCountdown = LATENCY_SAMPLE_INTERVAL;
     }
 
     @Override
     public Stock deserialize(byte[] bytes) throws IOException {
-        return objectMapper.readValue(bytes, Stock.class);
+        if (--sampleCountdown > 0) {
+            return decode(bytes);
+        }
+
+        sampleCountdown = LATENCY_SAMPLE_INTERVAL;
+        long start = System.nanoTime();
+        Stock stock = decode(bytes);
+        latency.update(System.nanoTime() - start);
+
+        return stock;
+    }
+
+    private Stock decode(byte[] bytes) throws IOException {
+        if (decoder.scan(bytes)) {
+            if (predicate != null && !accept(predicate.test(bytes, decoder))) {
+                return null;
+            }
+            return decoder.materialize(bytes);
+        }
+
+        // Not the flat payload we expect (unknown fields, escapes, nulls...); databind
+        // either copes with it or raises the same error it always has.
+        fallbacks.inc();
+        Stock stock;
+        try {
+            stock = objectMapper.readValue(bytes, Stock.class);
+        } catch (IOException e) {
+            errors.inc();
+            throw e;
+        }
+        if (stock != null && predicate != null && !accept(predicate.test(stock))) {
+            return null;
+        }
+
+        return stock;
+    }
+
+    private boolean accept(boolean matches) {
+        evaluated.inc();
+        if (!matches) {
+            dropped.inc();
+        }
+        return matches;
+    }
+
+    // Registered once per subtask and shared by the copies of the schema, from several threads
+    private static class Metrics {
+        private final Histogram latency;
+        private final Counter errors;
+        private final Counter fallbacks;
+        private final Counter evaluated;
+        private final Counter dropped;
+
+        Metrics(MetricGroup metricGroup, boolean filtered) {
+            latency = metricGroup.histogram(DESERIALIZATION_LATENCY_NANOS,
+                    new DescriptiveStatisticsHistogram(LATENCY_HISTOGRAM_SIZE));
+            errors = metricGroup.counter(DESERIALIZATION_ERRORS, new ConcurrentCounter());
+            fallbacks = metricGroup.counter(DESERIALIZATION_FALLBACKS, new ConcurrentCounter());
+            if (!filtered) {
+                evaluated = null;
+                dropped = null;
+                return;
+            }
+
+            evaluated = metricGroup.counter(FILTER_EVALUATED_RECORDS, new ConcurrentCounter());
+            dropped = metricGroup.counter(FILTER_DROPPED_RECORDS, new ConcurrentCounter());
+            Meter evaluatedRate = metricGroup.meter(FILTER_EVALUATED_PER_SECOND, new MeterView(evaluated));
+            Meter droppedRate = metricGroup.meter(FILTER_DROPPED_PER_SECOND, new MeterView(dropped));
+            // Share of dropped records over the last minute
+            metricGroup.gauge(FILTER_DROP_RATE, (Gauge<Double>) () -> {
+                double rate = evaluatedRate.getRate();
+                return rate == 0 ? 0d : droppedRate.getRate() / rate;
+            });
+        }
     }
-} // class
\ No newline at end of file
+} // class
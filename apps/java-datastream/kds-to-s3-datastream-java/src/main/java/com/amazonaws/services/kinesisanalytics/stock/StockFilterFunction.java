@@ -0,0 +1,48 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.stock;
+
+import org.apache.flink.api.common.functions.RichFilterFunction;
+import org.apache.flink.configuration.Configuration;
+
+/**
+ * Applies a {@link StockFilterSpec} to records that are already materialized, e.g. read back from
+ * files. Records from Kinesis are filtered in the deserialization schema instead.
+ */
+public class StockFilterFunction extends RichFilterFunction<Stock> {
+    private static final long serialVersionUID = 1L;
+
+    private final StockFilterSpec filter;
+
+    private transient StockPredicate predicate;
+
+    public StockFilterFunction(StockFilterSpec filter) {
+        this.filter = filter;
+    }
+
+    @Override
+    public void open(Configuration parameters) {
+        predicate = filter.compile();
+    }
+
+    @Override
+    public boolean filter(Stock stock) {
+        return predicate.test(stock);
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.stock;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Filter on a single {@link Stock} field, e.g. {@code price >= 1}, as given in the application
+ * properties. Call {@link #compile()} to get a {@link StockPredicate} that can evaluate it on raw
+ * payloads.
+ *
+ * <p>Strings are compared lexicographically, which for the canonical event_time format also
+ * orders them chronologically.
+ */
+public class StockFilterSpec implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public enum Field {
+        EVENT_TIME("event_time"),
+        TICKER("ticker"),
+        PRICE("price");
+
+        private final String jsonName;
+
+        Field(String jsonName) {
+            this.jsonName = jsonName;
+        }
+
+        public static Field of(String name) {
+            for (Field field : values()) {
+                if (field.jsonName.equals(name.trim())) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Unknown filter field " + name);
+        }
+
+        @Override
+        public String toString() {
+            return jsonName;
+        }
+    }
+
+    public enum Operator {
+        EQ("=="),
+        NE("!="),
+        LT("<"),
+        LE("<="),
+        GT(">"),
+        GE(">=");
+
+        private final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        /**
+         * Accepts symbols ({@code >=}, {@code =} for {@code ==}) as well as names ({@code GE}).
+         */
+        public static Operator of(String operator) {
+            String trimmed = operator.trim();
+            if (trimmed.equals("=")) {
+                return EQ;
+            }
+            for (Operator candidate : values()) {
+                if (candidate.symbol.equals(trimmed) || candidate.name().equals(trimmed.toUpperCase(Locale.ROOT))) {
+                    return candidate;
+                }
+            }
+            throw new IllegalArgumentException("Unknown filter operator " + operator);
+        }
+
+        /**
+         * @param comparison result of comparing the record value to the filter value
+         */
+        boolean matches(int comparison) {
+            switch (this) {
+                case EQ:
+                    return comparison == 0;
+                case NE:
+                    return comparison != 0;
+                case LT:
+                    return comparison < 0;
+                case LE:
+                    return comparison <= 0;
+                case GT:
+                    return comparison > 0;
+                default:
+                    return comparison >= 0;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return symbol;
+        }
+    }
+
+    private final Field field;
+    private final Operator operator;
+    private final String value;
+
+    public StockFilterSpec(Field field, Operator operator, String value) {
+        this.field = Objects.requireNonNull(field);
+        this.operator = Objects.requireNonNull(operator);
+        this.value = Objects.requireNonNull(value);
+    }
+
+    public static StockFilterSpec parse(String field, String operator, String value) {
+        return new StockFilterSpec(Field.of(field), Operator.of(operator), value.trim());
+    }
+
+    /**
+     * Validates the filter value and prepares it for evaluation.
+     */
+    public StockPredicate compile() {
+        if (field == Field.PRICE) {
+            float price;
+            try {
+                price = Float.parseFloat(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Filter value for price is not a number: " + value, e);
+            }
+            return new StockPredicate(field, operator, price, null);
+        }
+
+        return new StockPredicate(field, operator, 0f, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    public Operator getOperator() {
+        return operator;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return field + " " + operator + " " + value;
+    }
+}
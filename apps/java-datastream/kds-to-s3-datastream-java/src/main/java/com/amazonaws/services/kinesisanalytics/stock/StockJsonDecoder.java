@@ -0,0 +1,367 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.stock;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Single-pass decoder for the flat stock ticker payloads produced by the data generators, e.g.
+ * {"event_time": "2023-05-01 10:00:00", "ticker": "AMZN", "price": 42.17}.
+ *
+ * <p>The decoder works directly on the raw bytes: tickers are interned through a small cache,
+ * consecutive records from the same second share their event_time string and the price is parsed
+ * without building an intermediate String. Anything outside of that shape (unknown fields, escaped
+ * or non-ASCII strings, nulls, nested values) is rejected so that callers can fall back to Jackson
+ * databind, which keeps the error behaviour of the original schema.
+ *
+ * <p>Instances keep per-record scan state and are not thread safe.
+ */
+public class StockJsonDecoder {
+    private static final byte[] EVENT_TIME_FIELD = "event_time".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TICKER_FIELD = "ticker".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PRICE_FIELD = "price".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int TICKER_CACHE_SIZE = 1024; // must be a power of two
+
+    // Largest mantissa / power of ten for which mantissa * 10^exp is exact in a double
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final String[] tickerCache = new String[TICKER_CACHE_SIZE];
+    private String lastEventTime;
+
+    // Scan state of the last record
+    private int eventTimeOffset;
+    private int eventTimeLength;
+    private int tickerOffset;
+    private int tickerLength;
+    private float price;
+    private int pos;
+    private int stringLength;
+
+    /**
+     * Decodes the payload into a new {@link Stock}, or returns null if the payload is not in the
+     * expected shape.
+     */
+    public Stock decode(byte[] bytes) {
+        if (!scan(bytes)) {
+            return null;
+        }
+
+        return materialize(bytes);
+    }
+
+    /**
+     * Scans the payload and records where each field lives without allocating anything.
+     *
+     * @return false if the payload is not a flat object made of the known fields
+     */
+    public boolean scan(byte[] bytes) {
+        eventTimeLength = -1;
+        tickerLength = -1;
+        price = 0f;
+
+        int end = bytes.length;
+        pos = skipWhitespace(bytes, 0, end);
+        if (pos >= end || bytes[pos] != '{') {
+            return false;
+        }
+        pos = skipWhitespace(bytes, pos + 1, end);
+        if (pos < end && bytes[pos] == '}') {
+            return skipWhitespace(bytes, pos + 1, end) == end;
+        }
+
+        while (pos < end) {
+            if (bytes[pos] != '"') {
+                return false;
+            }
+            int keyStart = pos + 1;
+            int keyEnd = indexOfQuote(bytes, keyStart, end);
+            if (keyEnd < 0) {
+                return false;
+            }
+
+            pos = skipWhitespace(bytes, keyEnd + 1, end);
+            if (pos >= end || bytes[pos] != ':') {
+                return false;
+            }
+            pos = skipWhitespace(bytes, pos + 1, end);
+
+            if (regionEquals(bytes, keyStart, keyEnd, EVENT_TIME_FIELD)) {
+                if (!scanString(bytes, end)) {
+                    return false;
+                }
+                eventTimeOffset = pos - 1 - stringLength;
+                eventTimeLength = stringLength;
+            } else if (regionEquals(bytes, keyStart, keyEnd, TICKER_FIELD)) {
+                if (!scanString(bytes, end)) {
+                    return false;
+                }
+                tickerOffset = pos - 1 - stringLength;
+                tickerLength = stringLength;
+            } else if (regionEquals(bytes, keyStart, keyEnd, PRICE_FIELD)) {
+                if (!scanNumber(bytes, end)) {
+                    return false;
+                }
+            } else {
+                return false;
+            }
+
+            pos = skipWhitespace(bytes, pos, end);
+            if (pos >= end) {
+                return false;
+            }
+            if (bytes[pos] == '}') {
+                return skipWhitespace(bytes, pos + 1, end) == end;
+            }
+            if (bytes[pos] != ',') {
+                return false;
+            }
+            pos = skipWhitespace(bytes, pos + 1, end);
+        }
+
+        return false;
+    }
+
+    /**
+     * Builds a {@link Stock} from the state of the last successful {@link #scan(byte[])}.
+     */
+    public Stock materialize(byte[] bytes) {
+        Stock stock = new Stock();
+        if (eventTimeLength >= 0) {
+            stock.setEvent_time(eventTime(bytes));
+        }
+        if (tickerLength >= 0) {
+            stock.setTicker(ticker(bytes));
+        }
+        stock.setPrice(price);
+
+        return stock;
+    }
+
+    public float getPrice() {
+        return price;
+    }
+
+    public int getEventTimeOffset() {
+        return eventTimeOffset;
+    }
+
+    /**
+     * @return length of the event_time value in bytes, or -1 if the field was absent
+     */
+    public int getEventTimeLength() {
+        return eventTimeLength;
+    }
+
+    public int getTickerOffset() {
+        return tickerOffset;
+    }
+
+    /**
+     * @return length of the ticker value in bytes, or -1 if the field was absent
+     */
+    public int getTickerLength() {
+        return tickerLength;
+    }
+
+    private String eventTime(byte[] bytes) {
+        String last = lastEventTime;
+        if (last != null && asciiEquals(last, bytes, eventTimeOffset, eventTimeLength)) {
+            return last;
+        }
+
+        lastEventTime = new String(bytes, eventTimeOffset, eventTimeLength, StandardCharsets.US_ASCII);
+        return lastEventTime;
+    }
+
+    private String ticker(byte[] bytes) {
+        int hash = 1;
+        for (int i = tickerOffset; i < tickerOffset + tickerLength; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & (TICKER_CACHE_SIZE - 1);
+
+        String cached = tickerCache[slot];
+        if (cached != null && asciiEquals(cached, bytes, tickerOffset, tickerLength)) {
+            return cached;
+        }
+
+        String ticker = new String(bytes, tickerOffset, tickerLength, StandardCharsets.US_ASCII);
+        tickerCache[slot] = ticker;
+        return ticker;
+    }
+
+    // Expects pos at the opening quote; leaves pos after the closing quote.
+    private boolean scanString(byte[] bytes, int end) {
+        if (pos >= end || bytes[pos] != '"') {
+            return false;
+        }
+        int start = pos + 1;
+        for (int i = start; i < end; i++) {
+            byte b = bytes[i];
+            if (b == '"') {
+                stringLength = i - start;
+                pos = i + 1;
+                return true;
+            }
+            // Escapes, control characters and multi-byte UTF-8 are left to databind
+            if (b == '\\' || b < 0x20) {
+                return false;
+            }
+        }
+
+        return false;
+    }
+
+    // Parses a JSON number the same way Jackson does for a float property: to double, then narrowed.
+    private boolean scanNumber(byte[] bytes, int end) {
+        int start = pos;
+        int i = pos;
+        boolean negative = false;
+        if (i < end && bytes[i] == '-') {
+            negative = true;
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean exact = true;
+
+        int intStart = i;
+        while (i < end && isDigit(bytes[i])) {
+            if (mantissa < MAX_EXACT_MANTISSA / 10) {
+                mantissa = mantissa * 10 + (bytes[i] - '0');
+            } else {
+                exact = false;
+            }
+            i++;
+        }
+        digits = i - intStart;
+        if (digits == 0 || (digits > 1 && bytes[intStart] == '0')) {
+            return false;
+        }
+
+        if (i < end && bytes[i] == '.') {
+            i++;
+            int fracStart = i;
+            while (i < end && isDigit(bytes[i])) {
+                if (mantissa < MAX_EXACT_MANTISSA / 10) {
+                    mantissa = mantissa * 10 + (bytes[i] - '0');
+                    exponent--;
+                } else if (bytes[i] != '0') {
+                    exact = false;
+                }
+                i++;
+            }
+            if (i == fracStart) {
+                return false;
+            }
+        }
+
+        if (i < end && (bytes[i] == 'e' || bytes[i] == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (bytes[i] == '+' || bytes[i] == '-')) {
+                negativeExponent = bytes[i] == '-';
+                i++;
+            }
+            int expStart = i;
+            int explicitExponent = 0;
+            while (i < end && isDigit(bytes[i])) {
+                if (explicitExponent < 10_000) {
+                    explicitExponent = explicitExponent * 10 + (bytes[i] - '0');
+                }
+                i++;
+            }
+            if (i == expStart) {
+                return false;
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        pos = i;
+
+        double value;
+        if (exact && exponent >= -22 && exponent <= 22) {
+            value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+            if (negative) {
+                value = -value;
+            }
+        } else {
+            // Too many significant digits for the exact fast path; rare enough to afford a String
+            value = Double.parseDouble(new String(bytes, start, i - start, StandardCharsets.US_ASCII));
+        }
+
+        price = (float) value;
+        return true;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static int skipWhitespace(byte[] bytes, int from, int end) {
+        int i = from;
+        while (i < end && (bytes[i] == ' ' || bytes[i] == '\n' || bytes[i] == '\r' || bytes[i] == '\t')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int indexOfQuote(byte[] bytes, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (bytes[i] == '"') {
+                return i;
+            }
+            if (bytes[i] == '\\') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean regionEquals(byte[] bytes, int start, int end, byte[] expected) {
+        if (end - start != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (bytes[start + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean asciiEquals(String str, byte[] bytes, int offset, int length) {
+        if (str.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (str.charAt(i) != bytes[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.stock;
+
+import com.amazonaws.services.kinesisanalytics.sink.StreamCompression;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import org.apache.flink.api.common.serialization.BulkWriter;
+import org.apache.flink.core.fs.FSDataOutputStream;
+import org.apache.flink.util.CloseShieldOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes {@link Stock} records as JSON lines in the producer's field names, compressed while
+ * writing.
+ *
+ * <p>This is a bulk writer rather than a row format {@code Encoder} on purpose: an encoder gets
+ * no call when a part file is rolled, so it cannot complete the gzip member or zstd frame, and
+ * the part file would end with a truncated stream. {@link BulkWriter#finish()} is that call; in
+ * exchange, part files roll on every checkpoint like the other bulk formats.
+ *
+ * <p>Reference data fields are left out unless set, which readers treat as null.
+ */
+public class StockJsonLinesWriterFactory implements BulkWriter.Factory<Stock> {
+    private static final long serialVersionUID = 1L;
+
+    // Lines end with a newline of their own, so that concatenated part files stay valid
+    private static final JsonFactory JSON_FACTORY = new JsonFactoryBuilder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .rootValueSeparator((String) null)
+            .build();
+
+    private final StreamCompression compression;
+    private final int level;
+
+    /**
+     * @param level compression level, or {@link StreamCompression#DEFAULT_LEVEL}
+     */
+    public StockJsonLinesWriterFactory(StreamCompression compression, int level) {
+        this.compression = compression;
+        this.level = level;
+    }
+
+    @Override
+    public BulkWriter<Stock> create(FSDataOutputStream out) {
+        // The sink closes the part file itself, after finish()
+        return new JsonLinesWriter(new CloseShieldOutputStream(out), compression, level);
+    }
+
+    public StreamCompression getCompression() {
+        return compression;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Starts the compressed stream with the first record. Compaction by concatenation also
+     * opens a writer on the compacted file and finishes it, and that writer must not add an
+     * empty gzip member or zstd frame of its own.
+     */
+    private static class JsonLinesWriter implements BulkWriter<Stock> {
+        private final OutputStream out;
+        private final StreamCompression compression;
+        private final int level;
+
+        private OutputStream compressed;
+        private JsonGenerator generator;
+
+        JsonLinesWriter(OutputStream out, StreamCompression compression, int level) {
+            this.out = out;
+            this.compression = compression;
+            this.level = level;
+        }
+
+        @Override
+        public void addElement(Stock stock) throws IOException {
+            if (generator == null) {
+                compressed = compression.compress(out, level);
+                generator = JSON_FACTORY.createGenerator(compressed, JsonEncoding.UTF8);
+            }
+
+            generator.writeStartObject();
+            writeField(StockWriteSupport.EVENT_TIME_COLUMN, stock.getEvent_time());
+            writeField(StockWriteSupport.TICKER_COLUMN, stock.getTicker());
+            generator.writeNumberField(StockWriteSupport.PRICE_COLUMN, stock.getPrice());
+            writeField(StockWriteSupport.EXCHANGE_COLUMN, stock.getExchange());
+            writeField(StockWriteSupport.CURRENCY_COLUMN, stock.getCurrency());
+            writeField(StockWriteSupport.SECTOR_COLUMN, stock.getSector());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        private void writeField(String name, String value) throws IOException {
+            if (value != null) {
+                generator.writeStringField(name, value);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (generator != null) {
+                generator.flush();
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (generator != null) {
+                generator.close();
+                // Completes the gzip member or zstd frame; the close shield keeps the part file open
+                compressed.close();
+            }
+        }
+    }
+}
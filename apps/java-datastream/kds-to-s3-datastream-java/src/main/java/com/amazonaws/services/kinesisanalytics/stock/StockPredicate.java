@@ -0,0 +1,85 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.stock;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compiled form of a {@link StockFilterSpec}.
+ *
+ * <p>{@link #test(byte[], StockJsonDecoder)} evaluates the filter on the scan state of the
+ * decoder, before any String or {@link Stock} is created. Records without the ticker or event_time
+ * never match a filter on it. A record without a price compares as a price of 0, as databind and the
+ * decoder both default it to 0 and a {@link Stock} cannot tell a missing price from a zero one.
+ */
+public final class StockPredicate {
+    private final StockFilterSpec.Field field;
+    private final StockFilterSpec.Operator operator;
+    private final float price;
+    private final byte[] bytes;
+    private final String string;
+
+    StockPredicate(StockFilterSpec.Field field, StockFilterSpec.Operator operator, float price, byte[] bytes) {
+        this.field = field;
+        this.operator = operator;
+        this.price = price;
+        this.bytes = bytes;
+        this.string = bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Evaluates the filter on the payload last scanned by the decoder.
+     */
+    public boolean test(byte[] payload, StockJsonDecoder decoder) {
+        switch (field) {
+            case PRICE:
+                return operator.matches(Float.compare(decoder.getPrice(), price));
+            case TICKER:
+                return decoder.getTickerLength() >= 0
+                        && operator.matches(compare(payload, decoder.getTickerOffset(), decoder.getTickerLength()));
+            default:
+                return decoder.getEventTimeLength() >= 0
+                        && operator.matches(compare(payload, decoder.getEventTimeOffset(), decoder.getEventTimeLength()));
+        }
+    }
+
+    public boolean test(Stock stock) {
+        switch (field) {
+            case PRICE:
+                return operator.matches(Float.compare(stock.getPrice(), price));
+            case TICKER:
+                return stock.getTicker() != null && operator.matches(stock.getTicker().compareTo(string));
+            default:
+                return stock.getEvent_time() != null
+                        && operator.matches(stock.getEvent_time().compareTo(string));
+        }
+    }
+
+    // The decoder only accepts ASCII strings, for which byte order equals String order
+    private int compare(byte[] payload, int offset, int length) {
+        int common = Math.min(length, bytes.length);
+        for (int i = 0; i < common; i++) {
+            int diff = (payload[offset + i] & 0xff) - (bytes[i] & 0xff);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return length - bytes.length;
+    }
+}
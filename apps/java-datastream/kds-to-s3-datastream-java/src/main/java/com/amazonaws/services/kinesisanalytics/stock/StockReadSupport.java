@@ -0,0 +1,187 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.stock;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.api.InitContext;
+import org.apache.parquet.hadoop.api.ReadSupport;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.Converter;
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.io.api.PrimitiveConverter;
+import org.apache.parquet.io.api.RecordMaterializer;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
+
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Reads {@link Stock} records from Parquet files written by {@link StockWriteSupport} or by the
+ * former Avro reflect writer. Columns are matched by name, unknown columns are skipped.
+ *
+ * <p>String columns are decoded once per dictionary entry rather than once per value.
+ */
+public class StockReadSupport extends ReadSupport<Stock> {
+
+    public static ParquetReader.Builder<Stock> builder(InputFile file) {
+        return new Builder(file);
+    }
+
+    @Override
+    public ReadContext init(InitContext context) {
+        return new ReadContext(context.getFileSchema());
+    }
+
+    @Override
+    public RecordMaterializer<Stock> prepareForRead(Configuration configuration,
+                                                    Map<String, String> keyValueMetaData,
+                                                    MessageType fileSchema,
+                                                    ReadContext readContext) {
+        return new StockMaterializer(readContext.getRequestedSchema());
+    }
+
+    private static class StockMaterializer extends RecordMaterializer<Stock> {
+        private final StockConverter root;
+
+        StockMaterializer(MessageType schema) {
+            this.root = new StockConverter(schema);
+        }
+
+        @Override
+        public Stock getCurrentRecord() {
+            return root.current;
+        }
+
+        @Override
+        public GroupConverter getRootConverter() {
+            return root;
+        }
+    }
+
+    private static class StockConverter extends GroupConverter {
+        private final Converter[] converters;
+        private Stock current;
+
+        StockConverter(MessageType schema) {
+            converters = new Converter[schema.getFieldCount()];
+            for (int i = 0; i < converters.length; i++) {
+                Type field = schema.getType(i);
+                if (!field.isPrimitive()) {
+                    throw new IllegalArgumentException("Unexpected nested column " + field.getName());
+                }
+
+                switch (field.getName()) {
+                    case StockWriteSupport.EVENT_TIME_COLUMN:
+                        converters[i] = new StringConverter(Stock::setEvent_time);
+                        break;
+                    case StockWriteSupport.TICKER_COLUMN:
+                        converters[i] = new StringConverter(Stock::setTicker);
+                        break;
+                    case StockWriteSupport.PRICE_COLUMN:
+                        converters[i] = new PriceConverter();
+                        break;
+                    case StockWriteSupport.EXCHANGE_COLUMN:
+                        converters[i] = new StringConverter(Stock::setExchange);
+                        break;
+                    case StockWriteSupport.CURRENCY_COLUMN:
+                        converters[i] = new StringConverter(Stock::setCurrency);
+                        break;
+                    case StockWriteSupport.SECTOR_COLUMN:
+                        converters[i] = new StringConverter(Stock::setSector);
+                        break;
+                    default:
+                        converters[i] = new PrimitiveConverter() {};
+                }
+            }
+        }
+
+        @Override
+        public Converter getConverter(int fieldIndex) {
+            return converters[fieldIndex];
+        }
+
+        @Override
+        public void start() {
+            current = new Stock();
+        }
+
+        @Override
+        public void end() {}
+
+        private class StringConverter extends PrimitiveConverter {
+            private final BiConsumer<Stock, String> setter;
+            private String[] dictionary;
+
+            StringConverter(BiConsumer<Stock, String> setter) {
+                this.setter = setter;
+            }
+
+            @Override
+            public boolean hasDictionarySupport() {
+                return true;
+            }
+
+            @Override
+            public void setDictionary(Dictionary dictionary) {
+                this.dictionary = new String[dictionary.getMaxId() + 1];
+                for (int id = 0; id < this.dictionary.length; id++) {
+                    this.dictionary[id] = dictionary.decodeToBinary(id).toStringUsingUTF8();
+                }
+            }
+
+            @Override
+            public void addValueFromDictionary(int dictionaryId) {
+                setter.accept(current, dictionary[dictionaryId]);
+            }
+
+            @Override
+            public void addBinary(Binary value) {
+                setter.accept(current, value.toStringUsingUTF8());
+            }
+        }
+
+        private class PriceConverter extends PrimitiveConverter {
+            @Override
+            public void addFloat(float value) {
+                current.setPrice(value);
+            }
+
+            @Override
+            public void addDouble(double value) {
+                current.setPrice((float) value);
+            }
+        }
+    }
+
+    private static class Builder extends ParquetReader.Builder<Stock> {
+
+        private Builder(InputFile file) {
+            super(file);
+        }
+
+        @Override
+        protected ReadSupport<Stock> getReadSupport() {
+            return new StockReadSupport();
+        }
+    }
+}
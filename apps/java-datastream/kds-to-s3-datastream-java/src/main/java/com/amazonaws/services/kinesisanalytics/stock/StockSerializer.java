@@ -0,0 +1,384 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.stock;
+
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.TypeSerializerSnapshot;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compact serializer for {@link Stock}, used for network shuffles and state.
+ *
+ * <p>Every record starts with a header byte that describes how the fields are encoded:
+ * <ul>
+ *     <li>canonical event times are written as epoch seconds (varint) plus milliseconds when the
+ *     original string carried a fraction, together with the layout needed to print them back;
+ *     other event times are written as strings</li>
+ *     <li>tickers found in the dictionary are written as a varint id, others as strings</li>
+ *     <li>the price is written as a raw float</li>
+ *     <li>reference data (exchange, currency, sector), if any, follows as strings behind a bit
+ *     mask of the fields present; records written before enrichment existed never set it</li>
+ * </ul>
+ * A typical record takes 11 bytes, against 33 bytes with the generic POJO serializer.
+ *
+ * <p>The ticker dictionary is fixed for the lifetime of the serializer and part of its snapshot,
+ * so every encoded record is self-contained.
+ */
+public final class StockSerializer extends TypeSerializer<Stock> {
+    private static final long serialVersionUID = 1L;
+
+    /** The tickers MSKDataGen and the KDS data generator produce. */
+    static final String[] DEFAULT_TICKER_DICTIONARY = { "AAPL", "AMZN", "MSFT", "INTC", "TBV" };
+
+    private static final int EVENT_TIME_MASK = 0x03;
+    private static final int EVENT_TIME_NULL = 0x00;
+    private static final int EVENT_TIME_STRING = 0x01;
+    private static final int EVENT_TIME_EPOCH = 0x02;
+
+    private static final int TICKER_MASK = 0x0C;
+    private static final int TICKER_NULL = 0x00;
+    private static final int TICKER_STRING = 0x04;
+    private static final int TICKER_DICTIONARY = 0x08;
+
+    private static final int LAYOUT_SHIFT = 4;
+    private static final int LAYOUT_MASK = 0x07;
+
+    private static final int NULL_RECORD = 0x80;
+
+    // The only spare bit; a header of just this bit is a null record. Layout bits mean nothing
+    // without an epoch event time, so one of them disambiguates records without any other bit.
+    private static final int REFERENCE_DATA = 0x80;
+    private static final int NO_LAYOUT = 0x01 << LAYOUT_SHIFT;
+
+    private static final int EXCHANGE = 0x01;
+    private static final int CURRENCY = 0x02;
+    private static final int SECTOR = 0x04;
+
+    private final String[] tickerDictionary;
+
+    private transient Map<String, Integer> tickerIds;
+
+    // Last decoded event time; consecutive records usually share it
+    private transient long lastEpochMillis;
+    private transient int lastLayout = -1;
+    private transient String lastEventTime;
+
+    public StockSerializer() {
+        this(DEFAULT_TICKER_DICTIONARY);
+    }
+
+    public StockSerializer(String[] tickerDictionary) {
+        this.tickerDictionary = tickerDictionary.clone();
+    }
+
+    String[] getTickerDictionary() {
+        return tickerDictionary.clone();
+    }
+
+    @Override
+    public boolean isImmutableType() {
+        return false;
+    }
+
+    @Override
+    public TypeSerializer<Stock> duplicate() {
+        // The decode cache is not thread safe
+        return new StockSerializer(tickerDictionary);
+    }
+
+    @Override
+    public Stock createInstance() {
+        return new Stock();
+    }
+
+    @Override
+    public Stock copy(Stock from) {
+        return from == null ? null : copy(from, new Stock());
+    }
+
+    @Override
+    public Stock copy(Stock from, Stock reuse) {
+        if (from == null) {
+            return null;
+        }
+        if (reuse == null) {
+            reuse = new Stock();
+        }
+        reuse.setEvent_time(from.getEvent_time());
+        reuse.setTicker(from.getTicker());
+        reuse.setPrice(from.getPrice());
+        reuse.setExchange(from.getExchange());
+        reuse.setCurrency(from.getCurrency());
+        reuse.setSector(from.getSector());
+        return reuse;
+    }
+
+    @Override
+    public int getLength() {
+        return -1;
+    }
+
+    @Override
+    public void serialize(Stock stock, DataOutputView target) throws IOException {
+        if (stock == null) {
+            target.writeByte(NULL_RECORD);
+            return;
+        }
+
+        String eventTime = stock.getEvent_time();
+        int header;
+        int layout = -1;
+        if (eventTime == null) {
+            header = EVENT_TIME_NULL;
+        } else {
+            layout = EventTimes.layoutOf(eventTime);
+            header = layout < 0 ? EVENT_TIME_STRING : EVENT_TIME_EPOCH | (layout << LAYOUT_SHIFT);
+        }
+
+        String ticker = stock.getTicker();
+        Integer tickerId = null;
+        if (ticker == null) {
+            header |= TICKER_NULL;
+        } else {
+            tickerId = tickerIds().get(ticker);
+            header |= tickerId == null ? TICKER_STRING : TICKER_DICTIONARY;
+        }
+
+        int referenceData = (stock.getExchange() == null ? 0 : EXCHANGE)
+                | (stock.getCurrency() == null ? 0 : CURRENCY)
+                | (stock.getSector() == null ? 0 : SECTOR);
+        if (referenceData != 0) {
+            header |= layout < 0 ? REFERENCE_DATA | NO_LAYOUT : REFERENCE_DATA;
+        }
+
+        target.writeByte(header);
+
+        if (layout >= 0) {
+            long epochMillis = EventTimes.toEpochMillisCanonical(eventTime);
+            writeVarLong(Math.floorDiv(epochMillis, 1000L), target);
+            if (hasFraction(layout)) {
+                target.writeShort((int) Math.floorMod(epochMillis, 1000L));
+            }
+        } else if (eventTime != null) {
+            target.writeUTF(eventTime);
+        }
+
+        if (tickerId != null) {
+            writeVarInt(tickerId, target);
+        } else if (ticker != null) {
+            target.writeUTF(ticker);
+        }
+
+        target.writeFloat(stock.getPrice());
+
+        if (referenceData != 0) {
+            target.writeByte(referenceData);
+            if ((referenceData & EXCHANGE) != 0) {
+                target.writeUTF(stock.getExchange());
+            }
+            if ((referenceData & CURRENCY) != 0) {
+                target.writeUTF(stock.getCurrency());
+            }
+            if ((referenceData & SECTOR) != 0) {
+                target.writeUTF(stock.getSector());
+            }
+        }
+    }
+
+    @Override
+    public Stock deserialize(DataInputView source) throws IOException {
+        return deserialize(new Stock(), source);
+    }
+
+    @Override
+    public Stock deserialize(Stock reuse, DataInputView source) throws IOException {
+        int header = source.readUnsignedByte();
+        if (header == NULL_RECORD) {
+            return null;
+        }
+        if (reuse == null) {
+            reuse = new Stock();
+        }
+
+        switch (header & EVENT_TIME_MASK) {
+            case EVENT_TIME_EPOCH:
+                int layout = (header >>> LAYOUT_SHIFT) & LAYOUT_MASK;
+                long epochMillis = readVarLong(source) * 1000L;
+                if (hasFraction(layout)) {
+                    epochMillis += source.readShort();
+                }
+                reuse.setEvent_time(eventTime(epochMillis, layout));
+                break;
+            case EVENT_TIME_STRING:
+                reuse.setEvent_time(source.readUTF());
+                break;
+            default:
+                reuse.setEvent_time(null);
+        }
+
+        switch (header & TICKER_MASK) {
+            case TICKER_DICTIONARY:
+                reuse.setTicker(tickerDictionary[readVarInt(source)]);
+                break;
+            case TICKER_STRING:
+                reuse.setTicker(source.readUTF());
+                break;
+            default:
+                reuse.setTicker(null);
+        }
+
+        reuse.setPrice(source.readFloat());
+
+        int referenceData = (header & REFERENCE_DATA) == 0 ? 0 : source.readUnsignedByte();
+        reuse.setExchange((referenceData & EXCHANGE) == 0 ? null : source.readUTF());
+        reuse.setCurrency((referenceData & CURRENCY) == 0 ? null : source.readUTF());
+        reuse.setSector((referenceData & SECTOR) == 0 ? null : source.readUTF());
+        return reuse;
+    }
+
+    @Override
+    public void copy(DataInputView source, DataOutputView target) throws IOException {
+        int header = source.readUnsignedByte();
+        target.writeByte(header);
+        if (header == NULL_RECORD) {
+            return;
+        }
+
+        switch (header & EVENT_TIME_MASK) {
+            case EVENT_TIME_EPOCH:
+                writeVarLong(readVarLong(source), target);
+                if (hasFraction((header >>> LAYOUT_SHIFT) & LAYOUT_MASK)) {
+                    target.writeShort(source.readShort());
+                }
+                break;
+            case EVENT_TIME_STRING:
+                target.writeUTF(source.readUTF());
+                break;
+            default:
+        }
+
+        switch (header & TICKER_MASK) {
+            case TICKER_DICTIONARY:
+                writeVarInt(readVarInt(source), target);
+                break;
+            case TICKER_STRING:
+                target.writeUTF(source.readUTF());
+                break;
+            default:
+        }
+
+        target.writeFloat(source.readFloat());
+
+        if ((header & REFERENCE_DATA) != 0) {
+            int referenceData = source.readUnsignedByte();
+            target.writeByte(referenceData);
+            for (int field = EXCHANGE; field <= SECTOR; field <<= 1) {
+                if ((referenceData & field) != 0) {
+                    target.writeUTF(source.readUTF());
+                }
+            }
+        }
+    }
+
+    @Override
+    public TypeSerializerSnapshot<Stock> snapshotConfiguration() {
+        return new StockSerializerSnapshot(tickerDictionary);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof StockSerializer
+                && Arrays.equals(tickerDictionary, ((StockSerializer) obj).tickerDictionary);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(tickerDictionary);
+    }
+
+    private Map<String, Integer> tickerIds() {
+        if (tickerIds == null) {
+            Map<String, Integer> ids = new HashMap<>();
+            for (int i = 0; i < tickerDictionary.length; i++) {
+                ids.putIfAbsent(tickerDictionary[i], i);
+            }
+            tickerIds = ids;
+        }
+        return tickerIds;
+    }
+
+    private String eventTime(long epochMillis, int layout) {
+        if (layout != lastLayout || epochMillis != lastEpochMillis) {
+            lastEventTime = EventTimes.format(epochMillis, layout);
+            lastEpochMillis = epochMillis;
+            lastLayout = layout;
+        }
+        return lastEventTime;
+    }
+
+    private static boolean hasFraction(int layout) {
+        return (layout & ~EventTimes.LAYOUT_T_SEPARATOR) != 0;
+    }
+
+    private static void writeVarInt(int value, DataOutputView target) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            target.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        target.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputView source) throws IOException {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = source.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    // Zig-zag encoded so that pre-1970 timestamps stay short too
+    private static void writeVarLong(long value, DataOutputView target) throws IOException {
+        long zigZag = (value << 1) ^ (value >> 63);
+        while ((zigZag & ~0x7FL) != 0) {
+            target.writeByte((int) ((zigZag & 0x7F) | 0x80));
+            zigZag >>>= 7;
+        }
+        target.writeByte((int) zigZag);
+    }
+
+    private static long readVarLong(DataInputView source) throws IOException {
+        long zigZag = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = source.readUnsignedByte();
+            zigZag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigZag >>> 1) ^ -(zigZag & 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.stock;
+
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.TypeSerializerSchemaCompatibility;
+import org.apache.flink.api.common.typeutils.TypeSerializerSnapshot;
+import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputView;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Snapshot of a {@link StockSerializer}. The ticker dictionary is stored with the snapshot so that
+ * state written with one dictionary can be read back after the dictionary has been changed.
+ */
+public final class StockSerializerSnapshot implements TypeSerializerSnapshot<Stock> {
+    private static final int CURRENT_VERSION = 1;
+
+    private String[] tickerDictionary;
+
+    /** Used by Flink to instantiate the snapshot before reading it. */
+    public StockSerializerSnapshot() {}
+
+    StockSerializerSnapshot(String[] tickerDictionary) {
+        this.tickerDictionary = tickerDictionary.clone();
+    }
+
+    @Override
+    public int getCurrentVersion() {
+        return CURRENT_VERSION;
+    }
+
+    @Override
+    public void writeSnapshot(DataOutputView out) throws IOException {
+        out.writeInt(tickerDictionary.length);
+        for (String ticker : tickerDictionary) {
+            out.writeUTF(ticker);
+        }
+    }
+
+    @Override
+    public void readSnapshot(int readVersion, DataInputView in, ClassLoader userCodeClassLoader) throws IOException {
+        if (readVersion != CURRENT_VERSION) {
+            throw new IOException("Unsupported StockSerializer snapshot version " + readVersion);
+        }
+
+        String[] dictionary = new String[in.readInt()];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = in.readUTF();
+        }
+        this.tickerDictionary = dictionary;
+    }
+
+    @Override
+    public TypeSerializer<Stock> restoreSerializer() {
+        return new StockSerializer(tickerDictionary);
+    }
+
+    @Override
+    public TypeSerializerSchemaCompatibility<Stock> resolveSchemaCompatibility(TypeSerializer<Stock> newSerializer) {
+        if (!(newSerializer instanceof StockSerializer)) {
+            return TypeSerializerSchemaCompatibility.incompatible();
+        }
+
+        String[] newDictionary = ((StockSerializer) newSerializer).getTickerDictionary();
+
+        // Appending tickers keeps every existing id stable, so old bytes still decode as before
+        if (newDictionary.length >= tickerDictionary.length
+                && Arrays.equals(tickerDictionary, Arrays.copyOf(newDictionary, tickerDictionary.length))) {
+            return TypeSerializerSchemaCompatibility.compatibleAsIs();
+        }
+
+        return TypeSerializerSchemaCompatibility.compatibleAfterMigration();
+    }
+}
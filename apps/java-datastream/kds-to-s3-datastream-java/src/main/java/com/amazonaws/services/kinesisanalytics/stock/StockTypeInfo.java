@@ -0,0 +1,102 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.stock;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+
+import java.util.Arrays;
+
+/**
+ * Type information for {@link Stock}, backed by the compact {@link StockSerializer}.
+ *
+ * <p>{@link StockTypeInfoFactory} makes this the default for Stock; create an instance directly to
+ * use a ticker dictionary other than the default one.
+ */
+public class StockTypeInfo extends TypeInformation<Stock> {
+    private static final long serialVersionUID = 1L;
+
+    private final String[] tickerDictionary;
+
+    public StockTypeInfo() {
+        this(StockSerializer.DEFAULT_TICKER_DICTIONARY);
+    }
+
+    public StockTypeInfo(String[] tickerDictionary) {
+        this.tickerDictionary = tickerDictionary.clone();
+    }
+
+    @Override
+    public boolean isBasicType() {
+        return false;
+    }
+
+    @Override
+    public boolean isTupleType() {
+        return false;
+    }
+
+    @Override
+    public int getArity() {
+        return 1;
+    }
+
+    @Override
+    public int getTotalFields() {
+        return 1;
+    }
+
+    @Override
+    public Class<Stock> getTypeClass() {
+        return Stock.class;
+    }
+
+    @Override
+    public boolean isKeyType() {
+        return false;
+    }
+
+    @Override
+    public TypeSerializer<Stock> createSerializer(ExecutionConfig config) {
+        return new StockSerializer(tickerDictionary);
+    }
+
+    @Override
+    public String toString() {
+        return "StockTypeInfo{tickerDictionary=" + Arrays.toString(tickerDictionary) + '}';
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof StockTypeInfo
+                && ((StockTypeInfo) obj).canEqual(this)
+                && Arrays.equals(tickerDictionary, ((StockTypeInfo) obj).tickerDictionary);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(tickerDictionary);
+    }
+
+    @Override
+    public boolean canEqual(Object obj) {
+        return obj instanceof StockTypeInfo;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.stock;
+
+import org.apache.flink.orc.vector.Vectorizer;
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DoubleColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes {@link Stock} records into the column vectors of an ORC row batch.
+ *
+ * <p>Column names match the Parquet files written through {@link StockWriteSupport}, so the same
+ * table definition works for both formats apart from the SerDe. As there, the UTF-8 encoding of
+ * tickers and reference data is cached; the cached arrays are never modified, so the vectors
+ * can reference them instead of copying.
+ */
+public class StockVectorizer extends Vectorizer<Stock> {
+    private static final long serialVersionUID = 1L;
+
+    public static final String SCHEMA = "struct<"
+            + StockWriteSupport.EVENT_TIME_COLUMN + ":string,"
+            + StockWriteSupport.TICKER_COLUMN + ":string,"
+            + StockWriteSupport.PRICE_COLUMN + ":float,"
+            + StockWriteSupport.EXCHANGE_COLUMN + ":string,"
+            + StockWriteSupport.CURRENCY_COLUMN + ":string,"
+            + StockWriteSupport.SECTOR_COLUMN + ":string>";
+
+    private static final int MAX_CACHED_VALUES = 4096;
+
+    // Created per writer, the vectorizer itself is shipped with the sink
+    private transient Map<String, byte[]> cache;
+
+    public StockVectorizer() {
+        super(SCHEMA);
+    }
+
+    @Override
+    public void vectorize(Stock stock, VectorizedRowBatch batch) {
+        int row = batch.size++;
+
+        setString(batch, 0, row, stock.getEvent_time(), false);
+        setString(batch, 1, row, stock.getTicker(), true);
+        ((DoubleColumnVector) batch.cols[2]).vector[row] = stock.getPrice();
+        setString(batch, 3, row, stock.getExchange(), true);
+        setString(batch, 4, row, stock.getCurrency(), true);
+        setString(batch, 5, row, stock.getSector(), true);
+    }
+
+    private void setString(VectorizedRowBatch batch, int column, int row, String value, boolean cached) {
+        BytesColumnVector vector = (BytesColumnVector) batch.cols[column];
+        if (value == null) {
+            vector.noNulls = false;
+            vector.isNull[row] = true;
+            return;
+        }
+
+        byte[] bytes = cached ? encodeCached(value) : value.getBytes(StandardCharsets.UTF_8);
+        vector.setRef(row, bytes, 0, bytes.length);
+    }
+
+    private byte[] encodeCached(String value) {
+        if (cache == null) {
+            cache = new HashMap<>();
+        }
+
+        byte[] bytes = cache.get(value);
+        if (bytes == null) {
+            bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (cache.size() < MAX_CACHED_VALUES) {
+                cache.put(value, bytes);
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.stock;
+
+import org.apache.flink.api.common.eventtime.WatermarkStrategy;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+
+/**
+ * Event time of stocks. The event_time string is parsed once, where records enter the job, and
+ * carried on as the record timestamp; downstream operators read {@code ctx.timestamp()} instead
+ * of parsing it again.
+ */
+public final class StockWatermarks {
+    /** Timestamp of records without a usable event_time; never advances the watermark. */
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private StockWatermarks() {}
+
+    /**
+     * @return epoch millis of the event time, or {@link #NO_TIMESTAMP} if it is missing or invalid
+     */
+    public static long timestampOf(String eventTime) {
+        if (eventTime == null) {
+            return NO_TIMESTAMP;
+        }
+
+        try {
+            return EventTimes.toEpochMillis(eventTime);
+        } catch (DateTimeException e) {
+            return NO_TIMESTAMP;
+        }
+    }
+
+    /**
+     * Watermarks for sources other than the Kinesis consumer, which generates them per shard with
+     * {@link ShardWatermarkAssigner}.
+     *
+     * @param idleness after how long without records a source subtask stops holding back the watermark
+     */
+    public static WatermarkStrategy<Stock> strategy(Duration outOfOrderness, Duration idleness) {
+        return WatermarkStrategy
+                .<Stock>forBoundedOutOfOrderness(outOfOrderness)
+                .withTimestampAssigner((stock, recordTimestamp) -> timestampOf(stock.getEvent_time()))
+                .withIdleness(idleness);
+    }
+}
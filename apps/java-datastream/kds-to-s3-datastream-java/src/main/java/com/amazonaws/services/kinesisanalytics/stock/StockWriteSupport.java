@@ -0,0 +1,166 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.stock;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Types;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes {@link Stock} records straight into Parquet columns.
+ *
+ * <p>The schema is fixed, so there is no reflection and no intermediate Avro record per element.
+ * Column names and types match the files previously written through
+ * {@code ParquetAvroWriters.forReflectRecord(Stock.class)}; the string columns are optional so
+ * that records without a ticker or event time can still be written. The reference data columns
+ * stay empty unless enrichment is enabled, which costs next to nothing in Parquet.
+ *
+ * <p>Tickers and event times repeat a lot, so their UTF-8 encoding is cached.
+ */
+public class StockWriteSupport extends WriteSupport<Stock> {
+    public static final String EVENT_TIME_COLUMN = "event_time";
+    public static final String TICKER_COLUMN = "ticker";
+    public static final String PRICE_COLUMN = "price";
+    public static final String EXCHANGE_COLUMN = "exchange";
+    public static final String CURRENCY_COLUMN = "currency";
+    public static final String SECTOR_COLUMN = "sector";
+
+    public static final MessageType SCHEMA = Types.buildMessage()
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named(EVENT_TIME_COLUMN)
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named(TICKER_COLUMN)
+            .required(PrimitiveTypeName.FLOAT).named(PRICE_COLUMN)
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named(EXCHANGE_COLUMN)
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named(CURRENCY_COLUMN)
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named(SECTOR_COLUMN)
+            .named("Stock");
+
+    private static final int MAX_CACHED_TICKERS = 1024;
+
+    private final Map<String, Binary> tickers = new HashMap<>();
+    private String lastEventTime;
+    private Binary lastEventTimeBinary;
+
+    private RecordConsumer recordConsumer;
+
+    public static Builder builder(OutputFile file) {
+        return new Builder(file);
+    }
+
+    @Override
+    public WriteContext init(Configuration configuration) {
+        return new WriteContext(SCHEMA, Collections.emptyMap());
+    }
+
+    @Override
+    public void prepareForWrite(RecordConsumer recordConsumer) {
+        this.recordConsumer = recordConsumer;
+    }
+
+    @Override
+    public void write(Stock stock) {
+        recordConsumer.startMessage();
+
+        String eventTime = stock.getEvent_time();
+        if (eventTime != null) {
+            recordConsumer.startField(EVENT_TIME_COLUMN, 0);
+            recordConsumer.addBinary(eventTime(eventTime));
+            recordConsumer.endField(EVENT_TIME_COLUMN, 0);
+        }
+
+        String ticker = stock.getTicker();
+        if (ticker != null) {
+            recordConsumer.startField(TICKER_COLUMN, 1);
+            recordConsumer.addBinary(ticker(ticker));
+            recordConsumer.endField(TICKER_COLUMN, 1);
+        }
+
+        recordConsumer.startField(PRICE_COLUMN, 2);
+        recordConsumer.addFloat(stock.getPrice());
+        recordConsumer.endField(PRICE_COLUMN, 2);
+
+        writeReferenceData(EXCHANGE_COLUMN, 3, stock.getExchange());
+        writeReferenceData(CURRENCY_COLUMN, 4, stock.getCurrency());
+        writeReferenceData(SECTOR_COLUMN, 5, stock.getSector());
+
+        recordConsumer.endMessage();
+    }
+
+    // Few distinct values, shared with the ticker cache
+    private void writeReferenceData(String column, int index, String value) {
+        if (value != null) {
+            recordConsumer.startField(column, index);
+            recordConsumer.addBinary(ticker(value));
+            recordConsumer.endField(column, index);
+        }
+    }
+
+    // Dictionary pages keep references to the values, so cached binaries must never be mutated.
+    private Binary eventTime(String eventTime) {
+        // Records of the same second usually share the very same String instance
+        if (eventTime != lastEventTime && !eventTime.equals(lastEventTime)) {
+            lastEventTime = eventTime;
+            lastEventTimeBinary = Binary.fromString(eventTime);
+        }
+        return lastEventTimeBinary;
+    }
+
+    private Binary ticker(String ticker) {
+        Binary binary = tickers.get(ticker);
+        if (binary == null) {
+            if (tickers.size() >= MAX_CACHED_TICKERS) {
+                tickers.clear();
+            }
+            binary = Binary.fromString(ticker);
+            tickers.put(ticker, binary);
+        }
+        return binary;
+    }
+
+    /**
+     * Builder for a {@link ParquetWriter} of {@link Stock}, exposing all the usual Parquet
+     * settings (codec, row group and page sizes, dictionary encoding, ...).
+     */
+    public static class Builder extends ParquetWriter.Builder<Stock, Builder> {
+
+        private Builder(OutputFile file) {
+            super(file);
+        }
+
+        @Override
+        protected Builder self() {
+            return this;
+        }
+
+        @Override
+        protected WriteSupport<Stock> getWriteSupport(Configuration conf) {
+            return new StockWriteSupport();
+        }
+    }
+}
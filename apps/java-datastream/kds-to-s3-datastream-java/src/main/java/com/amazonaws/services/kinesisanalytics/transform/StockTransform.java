@@ -0,0 +1,39 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.transform;
+
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+
+import java.io.Serializable;
+
+/**
+ * One stage of the transform chain, see {@link StockTransforms}.
+ *
+ * <p>Stages run chained in a single operator with object reuse enabled, so a stage changes the
+ * record it is given in place and returns it. It must not keep a reference to the record after
+ * returning, as the next record may arrive in the same instance.
+ */
+@FunctionalInterface
+public interface StockTransform extends Serializable {
+
+    /**
+     * @return the given record, or null to drop it
+     */
+    Stock apply(Stock stock) throws Exception;
+}
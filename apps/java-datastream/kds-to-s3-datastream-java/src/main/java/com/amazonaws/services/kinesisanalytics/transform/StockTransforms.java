@@ -0,0 +1,138 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.transform;
+
+import com.amazonaws.services.kinesisanalytics.stock.EventTimes;
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import com.amazonaws.services.kinesisanalytics.stock.StockWatermarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The built-in stages of the transform chain, declared in the application properties as a comma
+ * separated list of stage names, each optionally followed by {@code :argument}, e.g.
+ * {@code drop-invalid, upper-ticker, scale-price:0.01, round-price:2}. Stages run in the given order.
+ *
+ * <p>To add a stage, implement {@link StockTransform} and give it a name in the switch below.
+ */
+public final class StockTransforms {
+    // Event times are written with a space separator and milliseconds
+    private static final int CANONICAL_LAYOUT = 3 << 1;
+
+    private StockTransforms() {}
+
+    public static List<StockTransform> parse(String transforms) {
+        List<StockTransform> stages = new ArrayList<>();
+        for (String stage : transforms.split(",")) {
+            if (!stage.trim().isEmpty()) {
+                stages.add(stage(stage.trim()));
+            }
+        }
+        return stages;
+    }
+
+    private static StockTransform stage(String stage) {
+        int colon = stage.indexOf(':');
+        String name = (colon < 0 ? stage : stage.substring(0, colon)).trim().toLowerCase(Locale.ROOT);
+        String argument = colon < 0 ? null : stage.substring(colon + 1).trim();
+
+        switch (name) {
+            case "drop-invalid":
+                return dropInvalid();
+            case "upper-ticker":
+                return upperCaseTicker();
+            case "canonical-event-time":
+                return canonicalEventTime();
+            case "scale-price":
+                return scalePrice(Float.parseFloat(required(stage, argument)));
+            case "round-price":
+                return roundPrice(Integer.parseInt(required(stage, argument)));
+            default:
+                throw new IllegalArgumentException("Unknown transform " + stage);
+        }
+    }
+
+    private static String required(String stage, String argument) {
+        if (argument == null || argument.isEmpty()) {
+            throw new IllegalArgumentException("Transform " + stage + " needs an argument, e.g. " + stage + ":2");
+        }
+        return argument;
+    }
+
+    /**
+     * Drops records without a ticker, with a price that is negative or not a number, or with an
+     * event_time that cannot be parsed.
+     */
+    public static StockTransform dropInvalid() {
+        return stock -> stock.getTicker() == null
+                || !(stock.getPrice() >= 0f) || Float.isInfinite(stock.getPrice())
+                || StockWatermarks.timestampOf(stock.getEvent_time()) == StockWatermarks.NO_TIMESTAMP
+                ? null : stock;
+    }
+
+    public static StockTransform upperCaseTicker() {
+        return stock -> {
+            if (stock.getTicker() != null) {
+                // Returns the same string, so dictionary tickers stay interned, if already upper case
+                stock.setTicker(stock.getTicker().toUpperCase(Locale.ROOT));
+            }
+            return stock;
+        };
+    }
+
+    /**
+     * Rewrites event times such as {@code 2023-05-01T10:00:00.1} to {@code 2023-05-01 10:00:00.100}.
+     * Event times that cannot be parsed are left as they are.
+     */
+    public static StockTransform canonicalEventTime() {
+        return stock -> {
+            long timestamp = StockWatermarks.timestampOf(stock.getEvent_time());
+            if (timestamp != StockWatermarks.NO_TIMESTAMP) {
+                stock.setEvent_time(EventTimes.format(timestamp, CANONICAL_LAYOUT));
+            }
+            return stock;
+        };
+    }
+
+    public static StockTransform scalePrice(float factor) {
+        return stock -> {
+            stock.setPrice(stock.getPrice() * factor);
+            return stock;
+        };
+    }
+
+    /**
+     * Rounds half up to the given number of decimals.
+     */
+    public static StockTransform roundPrice(int decimals) {
+        if (decimals < 0 || decimals > 6) {
+            throw new IllegalArgumentException("round-price takes 0 to 6 decimals but was " + decimals);
+        }
+        double scale = Math.pow(10, decimals);
+        return stock -> {
+            float price = stock.getPrice();
+            // A float such as 123.45f is slightly below the decimal it prints as; the ulp rounds it
+            // like its decimal instead of down
+            stock.setPrice((float) (Math.floor(price * scale + 0.5 + Math.ulp(price) * scale) / scale));
+            return stock;
+        };
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics;
+
+import org.apache.flink.connector.file.sink.compactor.FileCompactStrategy;
+import org.junit.Test;
+
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class FileSinkConfigTest {
+
+    @Test
+    public void doesNotCompactByDefault() {
+        assertNull(FileSinkConfig.compactStrategy(new Properties()));
+    }
+
+    @Test
+    public void appliesCompactionDefaults() {
+        Properties appProperties = new Properties();
+        appProperties.setProperty(FileSinkConfig.COMPACTION_ENABLED, "true");
+
+        FileCompactStrategy strategy = FileSinkConfig.compactStrategy(appProperties);
+
+        assertEquals(FileSinkConfig.DEFAULT_COMPACTION_TARGET_FILE_SIZE.getBytes(), strategy.getSizeThreshold());
+        assertEquals(FileSinkConfig.DEFAULT_COMPACTION_CHECKPOINT_INTERVAL, strategy.getNumCheckpointsBeforeCompaction());
+        assertEquals(1, strategy.getNumCompactThreads());
+    }
+
+    @Test
+    public void readsCompactionProperties() {
+        Properties appProperties = new Properties();
+        appProperties.setProperty(FileSinkConfig.COMPACTION_ENABLED, "true");
+        appProperties.setProperty(FileSinkConfig.COMPACTION_TARGET_FILE_SIZE, "256mb");
+        appProperties.setProperty(FileSinkConfig.COMPACTION_CHECKPOINT_INTERVAL, "10");
+        appProperties.setProperty(FileSinkConfig.COMPACTION_THREADS, "4");
+
+        FileCompactStrategy strategy = FileSinkConfig.compactStrategy(appProperties);
+
+        assertEquals(256L * 1024 * 1024, strategy.getSizeThreshold());
+        assertEquals(10, strategy.getNumCheckpointsBeforeCompaction());
+        assertEquals(4, strategy.getNumCompactThreads());
+    }
+
+    @Test
+    public void compactionCanBeDisabled() {
+        Properties appProperties = new Properties();
+        appProperties.setProperty(FileSinkConfig.COMPACTION_ENABLED, "false");
+
+        assertNull(FileSinkConfig.compactStrategy(appProperties));
+    }
+}
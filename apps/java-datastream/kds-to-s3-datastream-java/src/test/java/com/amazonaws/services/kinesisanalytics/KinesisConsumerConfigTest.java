@@ -0,0 +1,140 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics;
+
+import org.apache.flink.streaming.connectors.kinesis.config.AWSConfigConstants;
+import org.apache.flink.streaming.connectors.kinesis.config.ConsumerConfigConstants;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class KinesisConsumerConfigTest {
+
+    @Test
+    public void pollsByDefault() {
+        Properties config = KinesisConsumerConfig.build("stream", "us-east-1", "LATEST", null);
+
+        assertEquals("POLLING", config.getProperty(ConsumerConfigConstants.RECORD_PUBLISHER_TYPE));
+        assertEquals("us-east-1", config.getProperty(AWSConfigConstants.AWS_REGION));
+        assertEquals("LATEST", config.getProperty(ConsumerConfigConstants.STREAM_INITIAL_POSITION));
+        assertFalse(config.containsKey(ConsumerConfigConstants.SHARD_GETRECORDS_INTERVAL_MILLIS));
+    }
+
+    @Test
+    public void explicitPollingSettingsOverrideProfile() {
+        Properties appProperties = new Properties();
+        appProperties.setProperty(KinesisConsumerConfig.POLLING_PROFILE, "shared");
+        appProperties.setProperty(KinesisConsumerConfig.SHARD_GETRECORDS_MAX, "5000");
+
+        Properties config = KinesisConsumerConfig.build("stream", "us-east-1", "LATEST", appProperties);
+
+        assertEquals("5000", config.getProperty(ConsumerConfigConstants.SHARD_GETRECORDS_MAX));
+        assertEquals("1000", config.getProperty(ConsumerConfigConstants.SHARD_GETRECORDS_INTERVAL_MILLIS));
+        assertEquals("true", config.getProperty(ConsumerConfigConstants.SHARD_USE_ADAPTIVE_READS));
+    }
+
+    @Test
+    public void configuresEnhancedFanOut() {
+        Properties appProperties = new Properties();
+        appProperties.setProperty(KinesisConsumerConfig.RECORD_PUBLISHER_TYPE, "EFO");
+        appProperties.setProperty(KinesisConsumerConfig.EFO_CONSUMER_NAME, "my-app");
+        appProperties.setProperty(KinesisConsumerConfig.EFO_REGISTRATION_TYPE, "EAGER");
+        appProperties.setProperty(KinesisConsumerConfig.SUBSCRIBE_TO_SHARD_RETRIES, "20");
+
+        Properties config = KinesisConsumerConfig.build("stream", "us-east-1", "LATEST", appProperties);
+
+        assertEquals("EFO", config.getProperty(ConsumerConfigConstants.RECORD_PUBLISHER_TYPE));
+        assertEquals("my-app", config.getProperty(ConsumerConfigConstants.EFO_CONSUMER_NAME));
+        assertEquals("EAGER", config.getProperty(ConsumerConfigConstants.EFO_REGISTRATION_TYPE));
+        assertEquals("20", config.getProperty(ConsumerConfigConstants.SUBSCRIBE_TO_SHARD_RETRIES));
+    }
+
+    @Test
+    public void preRegisteredConsumerUsesArn() {
+        Properties appProperties = new Properties();
+        appProperties.setProperty(KinesisConsumerConfig.RECORD_PUBLISHER_TYPE, "EFO");
+        appProperties.setProperty(KinesisConsumerConfig.EFO_REGISTRATION_TYPE, "NONE");
+        appProperties.setProperty(KinesisConsumerConfig.EFO_CONSUMER_ARN, "arn:aws:kinesis:consumer");
+
+        Properties config = KinesisConsumerConfig.build("stream", "us-east-1", "LATEST", appProperties);
+
+        assertEquals("arn:aws:kinesis:consumer",
+                config.getProperty(ConsumerConfigConstants.EFO_CONSUMER_ARN_PREFIX + ".stream"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void preRegisteredConsumerRequiresArn() {
+        Properties appProperties = new Properties();
+        appProperties.setProperty(KinesisConsumerConfig.RECORD_PUBLISHER_TYPE, "EFO");
+        appProperties.setProperty(KinesisConsumerConfig.EFO_REGISTRATION_TYPE, "NONE");
+
+        KinesisConsumerConfig.build("stream", "us-east-1", "LATEST", appProperties);
+    }
+
+    @Test
+    public void pointsAtLocalStandIn() {
+        Properties appProperties = new Properties();
+        appProperties.setProperty(KinesisConsumerConfig.AWS_ENDPOINT, "http://localhost:4566");
+        appProperties.setProperty(AWSConfigConstants.AWS_CREDENTIALS_PROVIDER, "BASIC");
+        appProperties.setProperty("aws.credentials.provider.basic.accesskeyid", "test");
+
+        Properties config = KinesisConsumerConfig.build("stream", "us-east-1", "LATEST", appProperties);
+
+        assertEquals("http://localhost:4566", config.getProperty(AWSConfigConstants.AWS_ENDPOINT));
+        assertEquals("BASIC", config.getProperty(AWSConfigConstants.AWS_CREDENTIALS_PROVIDER));
+        assertEquals("test", config.getProperty("aws.credentials.provider.basic.accesskeyid"));
+    }
+
+    @Test
+    public void detectsIdleShardsByDefault() {
+        Properties config = KinesisConsumerConfig.build("stream", "us-east-1", "LATEST", null);
+
+        assertEquals("60000", config.getProperty(ConsumerConfigConstants.SHARD_IDLE_INTERVAL_MILLIS));
+        assertEquals("60000", config.getProperty(ConsumerConfigConstants.WATERMARK_LOOKAHEAD_MILLIS));
+        assertFalse(config.containsKey(ConsumerConfigConstants.WATERMARK_SYNC_MILLIS));
+    }
+
+    @Test
+    public void configuresWatermarkAlignment() {
+        Properties appProperties = new Properties();
+        appProperties.setProperty(KinesisConsumerConfig.SHARD_IDLE_INTERVAL_MILLIS, "10000");
+        appProperties.setProperty(KinesisConsumerConfig.WATERMARK_SYNC_INTERVAL_MILLIS, "5000");
+        appProperties.setProperty(KinesisConsumerConfig.WATERMARK_LOOKAHEAD_MILLIS, "30000");
+
+        Properties config = KinesisConsumerConfig.build("stream", "us-east-1", "LATEST", appProperties);
+
+        assertEquals("10000", config.getProperty(ConsumerConfigConstants.SHARD_IDLE_INTERVAL_MILLIS));
+        assertEquals("5000", config.getProperty(ConsumerConfigConstants.WATERMARK_SYNC_MILLIS));
+        assertEquals("30000", config.getProperty(ConsumerConfigConstants.WATERMARK_LOOKAHEAD_MILLIS));
+    }
+
+    @Test
+    public void startsAtTimestamp() {
+        Properties config = KinesisConsumerConfig.build("stream", "us-east-1", "LATEST", null);
+
+        KinesisConsumerConfig.startAt(config, Instant.ofEpochMilli(1682935200123L));
+
+        assertEquals("AT_TIMESTAMP", config.getProperty(ConsumerConfigConstants.STREAM_INITIAL_POSITION));
+        assertEquals("1682935200.123", config.getProperty(ConsumerConfigConstants.STREAM_INITIAL_TIMESTAMP));
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics;
+
+import com.amazonaws.services.kinesisanalytics.sink.ConcatenatingFileCompactor;
+import com.amazonaws.services.kinesisanalytics.sink.StockParquetCompactor;
+import com.amazonaws.services.kinesisanalytics.sink.StreamCompression;
+import com.amazonaws.services.kinesisanalytics.stock.StockJsonLinesWriterFactory;
+import org.apache.flink.formats.parquet.ParquetWriterFactory;
+import org.junit.Test;
+
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OutputFormatConfigTest {
+
+    @Test
+    public void writesParquetByDefault() {
+        OutputFormatConfig config = OutputFormatConfig.fromProperties(null);
+
+        assertEquals(OutputFormatConfig.Format.PARQUET, config.getFormat());
+        assertTrue(config.createStockWriterFactory() instanceof ParquetWriterFactory);
+        assertTrue(config.createStockCompactor() instanceof StockParquetCompactor);
+        // Same part file names as before the format was configurable
+        assertEquals("", config.getPartSuffix());
+    }
+
+    @Test
+    public void writesZstdJsonLines() {
+        Properties appProperties = new Properties();
+        appProperties.setProperty(OutputFormatConfig.FORMAT, "json");
+
+        OutputFormatConfig config = OutputFormatConfig.fromProperties(appProperties);
+
+        StockJsonLinesWriterFactory factory = (StockJsonLinesWriterFactory) config.createStockWriterFactory();
+        assertEquals(StreamCompression.ZSTD, factory.getCompression());
+        assertEquals(StreamCompression.DEFAULT_LEVEL, factory.getLevel());
+        assertTrue(config.createStockCompactor() instanceof ConcatenatingFileCompactor);
+        assertEquals(".jsonl.zst", config.getPartSuffix());
+    }
+
+    @Test
+    public void readsJsonCompression() {
+        Properties appProperties = new Properties();
+        appProperties.setProperty(OutputFormatConfig.FORMAT, "JSON");
+        appProperties.setProperty(OutputFormatConfig.JSON_COMPRESSION, "gzip");
+        appProperties.setProperty(OutputFormatConfig.JSON_COMPRESSION_LEVEL, "9");
+
+        OutputFormatConfig config = OutputFormatConfig.fromProperties(appProperties);
+
+        assertEquals(StreamCompression.GZIP, config.getJsonCompression());
+        assertEquals(9, config.getJsonCompressionLevel());
+        assertEquals(".jsonl.gz", config.getPartSuffix());
+    }
+
+    @Test
+    public void doesNotCompactOrc() {
+        Properties appProperties = new Properties();
+        appProperties.setProperty(OutputFormatConfig.FORMAT, "ORC");
+        appProperties.setProperty(OutputFormatConfig.ORC_COMPRESSION, "snappy");
+
+        OutputFormatConfig config = OutputFormatConfig.fromProperties(appProperties);
+
+        assertEquals("SNAPPY", config.getOrcCompression());
+        assertNull(config.createStockCompactor());
+        assertEquals(".orc", config.getPartSuffix());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsZstdForOrc() {
+        Properties appProperties = new Properties();
+        appProperties.setProperty(OutputFormatConfig.FORMAT, "ORC");
+        appProperties.setProperty(OutputFormatConfig.ORC_COMPRESSION, "ZSTD");
+
+        OutputFormatConfig.fromProperties(appProperties);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsOrcCodecsThatNeedNativeLibraries() {
+        Properties appProperties = new Properties();
+        appProperties.setProperty(OutputFormatConfig.FORMAT, "ORC");
+        appProperties.setProperty(OutputFormatConfig.ORC_COMPRESSION, "LZO");
+
+        OutputFormatConfig.fromProperties(appProperties);
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics;
+
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import com.amazonaws.services.kinesisanalytics.stock.StockWriteSupport;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.Encoding;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.hadoop.util.HadoopOutputFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ParquetWriterConfigTest {
+
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void defaultsToParquetDefaults() {
+        ParquetWriterConfig config = ParquetWriterConfig.fromProperties(null);
+
+        assertEquals(CompressionCodecName.UNCOMPRESSED, config.getCompression());
+        assertEquals(ParquetWriter.DEFAULT_BLOCK_SIZE, config.getRowGroupSize());
+        assertEquals(ParquetWriter.DEFAULT_PAGE_SIZE, config.getPageSize());
+        assertEquals(ParquetWriter.DEFAULT_PAGE_SIZE, config.getDictionaryPageSize());
+        assertTrue(config.isDictionaryEnabled());
+        assertNull(config.getDictionaryColumns());
+    }
+
+    @Test
+    public void parsesProperties() {
+        Properties appProperties = new Properties();
+        appProperties.setProperty(ParquetWriterConfig.COMPRESSION, "zstd");
+        appProperties.setProperty(ParquetWriterConfig.ROW_GROUP_SIZE, "64mb");
+        appProperties.setProperty(ParquetWriterConfig.PAGE_SIZE, "65536");
+        appProperties.setProperty(ParquetWriterConfig.DICTIONARY_COLUMNS, "ticker, event_time");
+
+        ParquetWriterConfig config = ParquetWriterConfig.fromProperties(appProperties);
+
+        assertEquals(CompressionCodecName.ZSTD, config.getCompression());
+        assertEquals(64 * 1024 * 1024, config.getRowGroupSize());
+        assertEquals(65536, config.getPageSize());
+        assertEquals(65536, config.getDictionaryPageSize());
+        assertEquals(List.of("ticker", "event_time"), config.getDictionaryColumns());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsCodecWithoutImplementation() {
+        Properties appProperties = new Properties();
+        appProperties.setProperty(ParquetWriterConfig.COMPRESSION, "LZO");
+
+        ParquetWriterConfig.fromProperties(appProperties);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsOversizedPages() {
+        Properties appProperties = new Properties();
+        appProperties.setProperty(ParquetWriterConfig.PAGE_SIZE, "4gb");
+
+        ParquetWriterConfig.fromProperties(appProperties);
+    }
+
+    @Test
+    public void appliesCodecAndDictionaryColumns() throws Exception {
+        Properties appProperties = new Properties();
+        appProperties.setProperty(ParquetWriterConfig.COMPRESSION, "GZIP");
+        appProperties.setProperty(ParquetWriterConfig.DICTIONARY_COLUMNS, "ticker");
+
+        List<ColumnChunkMetaData> columns = writeAndInspect(ParquetWriterConfig.fromProperties(appProperties));
+
+        for (ColumnChunkMetaData column : columns) {
+            assertEquals(CompressionCodecName.GZIP, column.getCodec());
+
+            boolean dictionaryEncoded = column.getEncodings().contains(Encoding.PLAIN_DICTIONARY)
+                    || column.getEncodings().contains(Encoding.RLE_DICTIONARY);
+            assertEquals(column.getPath().toDotString(),
+                    column.getPath().toDotString().equals(StockWriteSupport.TICKER_COLUMN), dictionaryEncoded);
+        }
+    }
+
+    @Test
+    public void disablesDictionary() throws Exception {
+        Properties appProperties = new Properties();
+        appProperties.setProperty(ParquetWriterConfig.DICTIONARY_ENABLED, "false");
+
+        for (ColumnChunkMetaData column : writeAndInspect(ParquetWriterConfig.fromProperties(appProperties))) {
+            assertFalse(column.getEncodings().contains(Encoding.PLAIN_DICTIONARY));
+            assertFalse(column.getEncodings().contains(Encoding.RLE_DICTIONARY));
+        }
+    }
+
+    private List<ColumnChunkMetaData> writeAndInspect(ParquetWriterConfig config) throws Exception {
+        Path path = new Path(new File(tmp.getRoot(), "stocks.parquet").toURI());
+        HadoopOutputFile file = HadoopOutputFile.fromPath(path, new Configuration());
+
+        try (ParquetWriter<Stock> writer = config.configure(StockWriteSupport.builder(file)).build()) {
+            for (int i = 0; i < 100; i++) {
+                Stock stock = new Stock();
+                stock.setEvent_time("2023-05-01 10:00:00");
+                stock.setTicker(i % 2 == 0 ? "AMZN" : "AAPL");
+                stock.setPrice(i);
+                writer.write(stock);
+            }
+        }
+
+        try (ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromPath(path, new Configuration()))) {
+            return reader.getFooter().getBlocks().get(0).getColumns();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics;
+
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import com.amazonaws.services.kinesisanalytics.stock.StockTypeInfo;
+import org.apache.flink.api.dag.Transformation;
+import org.apache.flink.streaming.api.datastream.DataStream;
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.apache.flink.streaming.api.graph.StreamNode;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StreamingJobTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readsTheTickerDictionary() {
+        Properties appProperties = new Properties();
+        appProperties.setProperty("TickerDictionary", " AAPL, AMZN ,MSFT ");
+
+        assertEquals(new StockTypeInfo(new String[]{"AAPL", "AMZN", "MSFT"}),
+                StreamingJob.getStockTypeInfo(appProperties));
+        assertEquals(new StockTypeInfo(), StreamingJob.getStockTypeInfo(new Properties()));
+    }
+
+    @Test
+    public void spreadsTheActiveBucketsOverAllSinkSubtasks() {
+        Properties appProperties = new Properties();
+        assertEquals(8, StreamingJob.getSinkPartitioningSalt(appProperties, 8));
+
+        appProperties.setProperty("SinkPartitioningActiveBuckets", "3");
+        assertEquals(2, StreamingJob.getSinkPartitioningSalt(appProperties, 8));
+
+        appProperties.setProperty("SinkPartitioningActiveBuckets", "24");
+        assertEquals(1, StreamingJob.getSinkPartitioningSalt(appProperties, 8));
+
+        appProperties.setProperty("SinkPartitioningSalt", "4");
+        assertEquals(4, StreamingJob.getSinkPartitioningSalt(appProperties, 8));
+    }
+
+    @Test
+    public void usesTheTickerDictionaryOnEveryStockStreamWithStateDeduplication() throws Exception {
+        assertEveryStockStreamUsesTheTickerDictionary("STATE");
+    }
+
+    @Test
+    public void usesTheTickerDictionaryOnEveryStockStreamWithBloomDeduplication() throws Exception {
+        assertEveryStockStreamUsesTheTickerDictionary("BLOOM");
+    }
+
+    @Test
+    public void countsCompactionBehindTheCompactor() throws Exception {
+        Properties appProperties = new Properties();
+        appProperties.setProperty(StreamingJob.S3_DEST_KEY, folder.newFolder().toURI().toString());
+        appProperties.setProperty(StreamingJob.PARTITION_FORMAT_KEY, "yyyy-MM-dd-HH");
+        appProperties.setProperty("CompactionEnabled", "true");
+
+        StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+        StreamingJob.addProcessingAndSinks(
+                env.fromCollection(Collections.singletonList(new Stock()), new StockTypeInfo()), appProperties);
+
+        List<String> operators = env.getStreamGraph().getStreamNodes().stream()
+                .map(StreamNode::getOperatorName)
+                .collect(Collectors.toList());
+        assertTrue(operators.toString(), operators.contains("S3 File Sink: CompactionMetrics"));
+    }
+
+    private void assertEveryStockStreamUsesTheTickerDictionary(String dedupMode) throws Exception {
+        Properties appProperties = new Properties();
+        appProperties.setProperty(StreamingJob.S3_DEST_KEY, folder.newFolder().toURI().toString());
+        appProperties.setProperty(StreamingJob.PARTITION_FORMAT_KEY, "yyyy-MM-dd-HH");
+        appProperties.setProperty("TickerDictionary", "AAPL,AMZN,MSFT");
+        appProperties.setProperty("DedupEnabled", "true");
+        appProperties.setProperty("DedupMode", dedupMode);
+        appProperties.setProperty("Transforms", "upper-ticker");
+        appProperties.setProperty("OhlcvEnabled", "true");
+        appProperties.setProperty("EnrichmentEnabled", "true");
+        appProperties.setProperty("EnrichmentReferenceDataPath", folder.newFile().toURI().toString());
+        StockTypeInfo stockTypeInfo = StreamingJob.getStockTypeInfo(appProperties);
+
+        StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+        DataStream<Stock> stockStream = env.fromCollection(Collections.singletonList(new Stock()), stockTypeInfo);
+        StreamingJob.addProcessingAndSinks(stockStream, appProperties);
+
+        int stockStreams = 0;
+        for (Transformation<?> sink : env.getTransformations()) {
+            for (Transformation<?> transformation : sink.getTransitivePredecessors()) {
+                if (Stock.class.equals(transformation.getOutputType().getTypeClass())) {
+                    assertEquals(transformation.getName(), stockTypeInfo, transformation.getOutputType());
+                    stockStreams++;
+                }
+            }
+        }
+        assertTrue(stockStreams > 0);
+    }
+}
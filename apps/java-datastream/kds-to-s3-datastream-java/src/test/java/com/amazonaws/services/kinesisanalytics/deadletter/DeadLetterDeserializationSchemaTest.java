@@ -0,0 +1,141 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.deadletter;
+
+import com.amazonaws.services.kinesisanalytics.stock.StockDeserializationSchema;
+import com.amazonaws.services.kinesisanalytics.stock.StockFilterSpec;
+import com.amazonaws.services.kinesisanalytics.stock.StockTypeInfo;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.flink.api.common.serialization.BulkWriter;
+import org.apache.flink.api.common.serialization.DeserializationSchema;
+import org.apache.flink.core.fs.FSDataOutputStream;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+import org.apache.flink.util.UserCodeClassLoader;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DeadLetterDeserializationSchemaTest {
+
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    private DeadLetterDeserializationSchema schema;
+
+    @Before
+    public void setUp() throws Exception {
+        schema = new DeadLetterDeserializationSchema(
+                new StockDeserializationSchema(new StockTypeInfo(), StockFilterSpec.parse("price", ">=", "1")),
+                "yyyy-MM-dd-HH");
+        schema.open(new DeserializationSchema.InitializationContext() {
+            @Override
+            public MetricGroup getMetricGroup() {
+                return new UnregisteredMetricsGroup();
+            }
+
+            @Override
+            public UserCodeClassLoader getUserCodeClassLoader() {
+                return null;
+            }
+        });
+    }
+
+    @Test
+    public void passesValidRecords() {
+        DecodeResult result = schema.deserialize(bytes("{\"event_time\":\"2023-05-01 10:00:00\",\"ticker\":\"AMZN\",\"price\":42.5}"));
+
+        assertFalse(result.isFailed());
+        assertEquals("AMZN", result.getStock().getTicker());
+    }
+
+    @Test
+    public void skipsFilteredRecords() {
+        assertNull(schema.deserialize(bytes("{\"event_time\":\"2023-05-01 10:00:00\",\"ticker\":\"AMZN\",\"price\":0.5}")));
+    }
+
+    @Test
+    public void turnsUnparseablePayloadsIntoDeadLetters() {
+        byte[] payload = bytes("{\"ticker\": ");
+        DecodeResult result = schema.deserialize(payload);
+
+        assertTrue(result.isFailed());
+        assertEquals(DeadLetter.STAGE_DESERIALIZATION, result.getDeadLetter().getStage());
+        assertArrayEquals(payload, result.getDeadLetter().getPayload());
+    }
+
+    @Test
+    public void turnsBadEventTimesIntoDeadLetters() {
+        DecodeResult badTime = schema.deserialize(bytes("{\"event_time\":\"yesterday\",\"ticker\":\"AMZN\",\"price\":42.5}"));
+        DecodeResult noTime = schema.deserialize(bytes("{\"ticker\":\"AMZN\",\"price\":42.5}"));
+
+        assertEquals(DeadLetter.STAGE_BUCKET_ASSIGNMENT, badTime.getDeadLetter().getStage());
+        assertTrue(badTime.getDeadLetter().getReason().startsWith("DateTimeParseException"));
+        assertEquals(DeadLetter.STAGE_BUCKET_ASSIGNMENT, noTime.getDeadLetter().getStage());
+    }
+
+    @Test
+    public void writesGzippedJsonLines() throws Exception {
+        byte[] payload = {(byte) 0xff, 0, '{'};
+        File file = new File(tmp.getRoot(), "dead-letters.jsonl.gz");
+
+        try (FSDataOutputStream out = FileSystem.getLocalFileSystem()
+                .create(new Path(file.toURI()), FileSystem.WriteMode.OVERWRITE)) {
+            BulkWriter<DeadLetter> writer = new DeadLetterWriterFactory().create(out);
+            writer.addElement(new DeadLetter(1L, DeadLetter.STAGE_DESERIALIZATION, "first", payload));
+            writer.addElement(new DeadLetter(2L, DeadLetter.STAGE_BUCKET_ASSIGNMENT, "second", payload));
+            writer.finish();
+        }
+
+        ObjectMapper mapper = new ObjectMapper();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8))) {
+            JsonNode first = mapper.readTree(reader.readLine());
+            JsonNode second = mapper.readTree(reader.readLine());
+
+            assertEquals(1L, first.get("received_at").asLong());
+            assertEquals("first", first.get("reason").asText());
+            assertArrayEquals(payload, Base64.getDecoder().decode(first.get("payload").asText()));
+            assertEquals("bucket_assignment", second.get("stage").asText());
+            assertNull(reader.readLine());
+        }
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.deadletter;
+
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ErrorBudgetTest {
+
+    @Test
+    public void toleratesBudgetThenFails() {
+        ErrorBudget budget = new ErrorBudget(3, Duration.ofSeconds(60));
+
+        assertTrue(budget.tryConsume(1_000));
+        assertTrue(budget.tryConsume(1_000));
+        assertTrue(budget.tryConsume(1_000));
+        assertFalse(budget.tryConsume(1_000));
+    }
+
+    @Test
+    public void refillsOverTheInterval() {
+        ErrorBudget budget = new ErrorBudget(3, Duration.ofSeconds(60));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(budget.tryConsume(0));
+        }
+
+        // One token every 20 seconds
+        assertFalse(budget.tryConsume(19_000));
+        assertTrue(budget.tryConsume(20_000));
+        assertFalse(budget.tryConsume(20_000));
+    }
+
+    @Test
+    public void zeroBudgetFailsOnFirstError() {
+        assertFalse(new ErrorBudget(0, Duration.ofSeconds(60)).tryConsume(0));
+    }
+
+    @Test
+    public void negativeBudgetNeverFails() {
+        ErrorBudget budget = new ErrorBudget(-1, Duration.ZERO);
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(budget.tryConsume(0));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.dedup;
+
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import com.amazonaws.services.kinesisanalytics.stock.StockTypeInfo;
+import org.apache.flink.streaming.api.datastream.DataStream;
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.apache.flink.util.CloseableIterator;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DeduplicatorTest {
+    private static final int SHARDS = 4;
+
+    @Test
+    public void fingerprintCoversConfiguredFields() {
+        StockFingerprint all = StockFingerprint.parse("ticker,event_time,price");
+        StockFingerprint tickerAndTime = StockFingerprint.parse("ticker, event_time");
+
+        assertEquals(all.hash(stock("2023-05-01 10:00:00", "AMZN", 1f)),
+                     all.hash(stock("2023-05-01 10:00:00", "AMZN", 1f)));
+        assertNotEquals(all.hash(stock("2023-05-01 10:00:00", "AMZN", 1f)),
+                        all.hash(stock("2023-05-01 10:00:00", "AMZN", 2f)));
+        assertEquals(tickerAndTime.hash(stock("2023-05-01 10:00:00", "AMZN", 1f)),
+                     tickerAndTime.hash(stock("2023-05-01 10:00:00", "AMZN", 2f)));
+        assertNotEquals(all.hash(stock(null, "AMZN", 1f)), all.hash(stock("2023-05-01 10:00:00", "AMZN", 1f)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownFields() {
+        StockFingerprint.parse("ticker,volume");
+    }
+
+    @Test
+    public void sizesFiltersForFalsePositiveRate() {
+        // 1M entries at 1%: ~9.6 bits per entry and 7 hash functions
+        long bits = RotatingBloomFilterDeduplicator.optimalBits(1_000_000, 0.01);
+        assertEquals(9_585_088, bits);
+        assertEquals(7, RotatingBloomFilterDeduplicator.optimalHashes(1_000_000, bits));
+
+        // Each of the two filters gets half the configured rate
+        RotatingBloomFilterDeduplicator deduplicator = new RotatingBloomFilterDeduplicator(
+                StockFingerprint.parse("ticker"), Duration.ofMinutes(10), 1_000_000, 0.02);
+        assertEquals(bits, deduplicator.getBits());
+        assertEquals(7, deduplicator.getHashes());
+    }
+
+    @Test
+    public void bloomFilterDropsDuplicates() throws Exception {
+        StockFingerprint fingerprint = StockFingerprint.parse("ticker,event_time,price");
+        List<Stock> input = withDuplicates();
+
+        DataStream<Stock> stocks = source(input)
+                .keyBy(stock -> RotatingBloomFilterDeduplicator.shardOf(fingerprint.hash(stock), SHARDS))
+                .process(new RotatingBloomFilterDeduplicator(fingerprint, Duration.ofMinutes(10), 1000, 0.0001));
+
+        assertEquals(sorted(new ArrayList<>(new HashSet<>(input))), sorted(collect(stocks)));
+    }
+
+    @Test
+    public void ttlStateDropsDuplicates() throws Exception {
+        StockFingerprint fingerprint = StockFingerprint.parse("ticker,event_time,price");
+        List<Stock> input = withDuplicates();
+
+        DataStream<Stock> stocks = source(input)
+                .keyBy(fingerprint::hash)
+                .process(new TtlStateDeduplicator(Duration.ofMinutes(10)));
+
+        List<Stock> unique = collect(stocks);
+        assertEquals(sorted(new ArrayList<>(new HashSet<>(input))), sorted(unique));
+        assertTrue(unique.size() < input.size());
+    }
+
+    // 500 distinct ticks, each sent once to three times
+    private static List<Stock> withDuplicates() {
+        List<Stock> stocks = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Stock stock = stock(String.format("2023-05-01 10:%02d:%02d", i / 60 % 60, i % 60),
+                                i % 2 == 0 ? "AMZN" : "AAPL", i / 10f);
+            for (int copy = 0; copy <= i % 3; copy++) {
+                stocks.add(stock(stock.getEvent_time(), stock.getTicker(), stock.getPrice()));
+            }
+        }
+        return stocks;
+    }
+
+    private static DataStream<Stock> source(List<Stock> stocks) {
+        StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+        env.setParallelism(2);
+        return env.fromCollection(stocks, new StockTypeInfo());
+    }
+
+    private static List<Stock> collect(DataStream<Stock> stocks) throws Exception {
+        List<Stock> result = new ArrayList<>();
+        try (CloseableIterator<Stock> it = stocks.executeAndCollect()) {
+            it.forEachRemaining(result::add);
+        }
+        return result;
+    }
+
+    private static List<Stock> sorted(List<Stock> stocks) {
+        stocks.sort(Comparator.comparing(Stock::getEvent_time).thenComparing(Stock::getTicker));
+        return stocks;
+    }
+
+    private static Stock stock(String eventTime, String ticker, float price) {
+        Stock stock = new Stock();
+        stock.setEvent_time(eventTime);
+        stock.setTicker(ticker);
+        stock.setPrice(price);
+        return stock;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.dedup;
+
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import org.apache.flink.api.common.typeinfo.Types;
+import org.apache.flink.streaming.api.operators.KeyedProcessOperator;
+import org.apache.flink.streaming.util.KeyedOneInputStreamOperatorTestHarness;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class RotatingBloomFilterDeduplicatorTest {
+    private static final Duration TTL = Duration.ofMinutes(10);
+    private static final long INTERVAL = TTL.toMillis();
+    private static final StockFingerprint FINGERPRINT = StockFingerprint.parse("ticker,event_time,price");
+
+    private KeyedOneInputStreamOperatorTestHarness<Integer, Stock, Stock> harness;
+
+    @Before
+    public void setUp() throws Exception {
+        harness = new KeyedOneInputStreamOperatorTestHarness<>(
+                new KeyedProcessOperator<>(new RotatingBloomFilterDeduplicator(FINGERPRINT, TTL, 1000, 0.0001)),
+                stock -> RotatingBloomFilterDeduplicator.shardOf(FINGERPRINT.hash(stock), 1),
+                Types.INT);
+        harness.open();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        harness.close();
+    }
+
+    @Test
+    public void dropsDuplicatesOfThePreviousGeneration() throws Exception {
+        harness.setProcessingTime(0);
+        process("AMZN");
+        process("AMZN");
+
+        harness.setProcessingTime(INTERVAL);
+        process("AMZN");
+        process("AAPL");
+
+        assertEquals(List.of("AMZN", "AAPL"), emitted());
+    }
+
+    @Test
+    public void clearsTheOldestGenerationOnRotation() throws Exception {
+        harness.setProcessingTime(0);
+        process("AMZN");
+
+        harness.setProcessingTime(INTERVAL);
+        process("AAPL");
+
+        // AMZN was only added in generation 0, which is cleared; AAPL is still in the previous one
+        harness.setProcessingTime(2 * INTERVAL);
+        process("AMZN");
+        process("AAPL");
+
+        assertEquals(List.of("AMZN", "AAPL", "AMZN"), emitted());
+    }
+
+    @Test
+    public void clearsBothGenerationsAfterTwoIntervals() throws Exception {
+        harness.setProcessingTime(0);
+        process("AMZN");
+
+        harness.setProcessingTime(INTERVAL + 1);
+        process("AAPL");
+
+        harness.setProcessingTime(3 * INTERVAL);
+        process("AMZN");
+        process("AAPL");
+
+        assertEquals(List.of("AMZN", "AAPL", "AMZN", "AAPL"), emitted());
+    }
+
+    private void process(String ticker) throws Exception {
+        Stock stock = new Stock();
+        stock.setEvent_time("2023-05-01 10:00:00");
+        stock.setTicker(ticker);
+        stock.setPrice(42.17f);
+        harness.processElement(stock, 0L);
+    }
+
+    private List<String> emitted() {
+        return harness.extractOutputValues().stream().map(Stock::getTicker).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.enrichment;
+
+import com.amazonaws.services.kinesisanalytics.metrics.TestMetricGroup;
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import org.apache.flink.streaming.api.functions.async.ResultFuture;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class EnrichmentFunctionTest {
+    private static final ReferenceData AMZN = new ReferenceData("XNAS", "USD", "Consumer Discretionary");
+
+    private final StubClient client = new StubClient();
+    private final TestMetricGroup metrics = new TestMetricGroup();
+    private EnrichmentFunction function;
+
+    @Before
+    public void setUp() throws Exception {
+        function = new EnrichmentFunction(client, 100, Duration.ofMinutes(10));
+        function.open(metrics);
+    }
+
+    @Test
+    public void concurrentMissesShareOneLookup() {
+        CollectingResult first = invoke("AMZN");
+        CollectingResult second = invoke("AMZN");
+
+        assertEquals(1, client.lookups);
+        assertEquals(1L, metrics.getCounter(EnrichmentFunction.COALESCED_REQUESTS).getCount());
+        assertEquals(1, metrics.getGaugeValue(EnrichmentFunction.IN_FLIGHT_REQUESTS));
+        assertNull(first.result);
+
+        client.pending.get("AMZN").complete(AMZN);
+
+        assertEquals("XNAS", first.result.getExchange());
+        assertEquals("Consumer Discretionary", second.result.getSector());
+        assertEquals(0, metrics.getGaugeValue(EnrichmentFunction.IN_FLIGHT_REQUESTS));
+    }
+
+    @Test
+    public void cachedTickersCompleteRightAway() {
+        invoke("AMZN");
+        client.pending.get("AMZN").complete(AMZN);
+
+        CollectingResult cached = invoke("AMZN");
+
+        assertEquals("USD", cached.result.getCurrency());
+        assertEquals(1, client.lookups);
+        assertEquals(1L, metrics.getCounter(EnrichmentFunction.CACHE_HITS).getCount());
+        assertEquals(1L, metrics.getCounter(EnrichmentFunction.CACHE_MISSES).getCount());
+        assertEquals(0.5, (Double) metrics.getGaugeValue(EnrichmentFunction.CACHE_HIT_RATE), 0.0);
+        // Reading the gauge does not reset it
+        assertEquals(0.5, (Double) metrics.getGaugeValue(EnrichmentFunction.CACHE_HIT_RATE), 0.0);
+    }
+
+    @Test
+    public void lookupsCompletingAfterTheTimeoutLeaveTheEmittedStockAlone() {
+        CollectingResult result = invoke("AMZN");
+        function.timeout(result.input, result);
+        Stock emitted = result.result;
+
+        client.pending.get("AMZN").complete(AMZN);
+
+        assertEquals("AMZN", emitted.getTicker());
+        assertNull(emitted.getExchange());
+        assertEquals(1L, metrics.getCounter(EnrichmentFunction.LOOKUP_FAILURES).getCount());
+        // Later stocks still get the reference data
+        assertEquals("XNAS", invoke("AMZN").result.getExchange());
+    }
+
+    @Test
+    public void unknownTickersAreCachedToo() {
+        invoke("NOPE");
+        client.pending.get("NOPE").complete(null);
+
+        CollectingResult cached = invoke("NOPE");
+
+        assertNull(cached.result.getExchange());
+        assertEquals(1, client.lookups);
+    }
+
+    @Test
+    public void failedLookupsEmitTheStockAsIs() {
+        CollectingResult failed = invoke("AMZN");
+        client.pending.get("AMZN").completeExceptionally(new RuntimeException("service unavailable"));
+
+        assertEquals("AMZN", failed.result.getTicker());
+        assertNull(failed.result.getExchange());
+        assertEquals(1L, metrics.getCounter(EnrichmentFunction.LOOKUP_FAILURES).getCount());
+
+        // Failures are not cached
+        invoke("AMZN");
+        assertEquals(2, client.lookups);
+    }
+
+    @Test
+    public void stocksWithoutTickerPassThrough() {
+        CollectingResult result = invoke(null);
+
+        assertTrue(result.result != null && result.result.getExchange() == null);
+        assertEquals(0, client.lookups);
+    }
+
+    private CollectingResult invoke(String ticker) {
+        Stock stock = new Stock();
+        stock.setEvent_time("2023-05-01 10:00:00");
+        stock.setTicker(ticker);
+        stock.setPrice(42.17f);
+
+        CollectingResult result = new CollectingResult(stock);
+        function.asyncInvoke(stock, result);
+        return result;
+    }
+
+    private static class StubClient implements ReferenceDataClient {
+        private final Map<String, CompletableFuture<ReferenceData>> pending = new HashMap<>();
+        private int lookups;
+
+        @Override
+        public CompletableFuture<ReferenceData> lookup(String ticker) {
+            lookups++;
+            CompletableFuture<ReferenceData> future = new CompletableFuture<>();
+            pending.put(ticker, future);
+            return future;
+        }
+    }
+
+    // Like the async operator, keeps the first completion and ignores later ones
+    private static class CollectingResult implements ResultFuture<Stock> {
+        private final Stock input;
+        private Stock result;
+
+        private CollectingResult(Stock input) {
+            this.input = input;
+        }
+
+        @Override
+        public void complete(Collection<Stock> results) {
+            List<Stock> stocks = new ArrayList<>(results);
+            assertEquals(1, stocks.size());
+            if (result == null) {
+                result = stocks.get(0);
+            }
+        }
+
+        @Override
+        public void completeExceptionally(Throwable error) {
+            throw new AssertionError(error);
+        }
+    }
+}
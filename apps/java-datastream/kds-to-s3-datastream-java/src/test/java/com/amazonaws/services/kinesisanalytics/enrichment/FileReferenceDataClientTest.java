@@ -0,0 +1,51 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.enrichment;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class FileReferenceDataClientTest {
+    private static final ReferenceData AMZN = new ReferenceData("XNAS", "USD", "Consumer Discretionary");
+
+    @Test
+    public void parsesReferenceDataFile() throws IOException {
+        Map<String, ReferenceData> referenceData = FileReferenceDataClient.parse(new BufferedReader(new StringReader(
+                "ticker,exchange,currency,sector\n"
+                        + "# comment\n"
+                        + "AMZN, XNAS, USD, Consumer Discretionary\n"
+                        + "\n"
+                        + "SAP,XETR,EUR,\n")));
+
+        assertEquals(2, referenceData.size());
+        assertEquals(AMZN, referenceData.get("AMZN"));
+        assertEquals(new ReferenceData("XETR", "EUR", null), referenceData.get("SAP"));
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsMalformedLines() throws IOException {
+        FileReferenceDataClient.parse(new BufferedReader(new StringReader("AMZN,XNAS\n")));
+    }
+}
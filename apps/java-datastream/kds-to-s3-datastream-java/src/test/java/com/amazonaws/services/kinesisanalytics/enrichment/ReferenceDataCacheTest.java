@@ -0,0 +1,55 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.enrichment;
+
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ReferenceDataCacheTest {
+    private static final ReferenceData AMZN = new ReferenceData("XNAS", "USD", "Consumer Discretionary");
+    private static final ReferenceData SAP = new ReferenceData("XETR", "EUR", "Technology");
+
+    @Test
+    public void entriesExpireAfterTtl() {
+        ReferenceDataCache cache = new ReferenceDataCache(10, Duration.ofMinutes(1));
+        cache.put("AMZN", AMZN, 0L);
+
+        assertEquals(AMZN, cache.get("AMZN", 59_999L));
+        assertNull(cache.get("AMZN", 60_000L));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        ReferenceDataCache cache = new ReferenceDataCache(2, Duration.ofMinutes(1));
+        cache.put("AMZN", AMZN, 0L);
+        cache.put("SAP", SAP, 0L);
+        cache.get("AMZN", 1L);
+
+        cache.put("MSFT", ReferenceData.UNKNOWN, 2L);
+
+        assertEquals(AMZN, cache.get("AMZN", 3L));
+        assertNull(cache.get("SAP", 3L));
+        assertEquals(ReferenceData.UNKNOWN, cache.get("MSFT", 3L));
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.ohlcv;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class OhlcvAggregateFunctionTest {
+    private final OhlcvAggregateFunction function = new OhlcvAggregateFunction();
+
+    @Test
+    public void aggregatesOutOfOrderTicks() {
+        OhlcvAccumulator acc = function.createAccumulator();
+        function.add(new Tick("AMZN", 2_000, 11f), acc);
+        function.add(new Tick("AMZN", 1_000, 10f), acc);
+        function.add(new Tick("AMZN", 4_000, 9f), acc);
+        function.add(new Tick("AMZN", 3_000, 15f), acc);
+
+        assertBar(acc, 10f, 15f, 9f, 9f, 4);
+    }
+
+    @Test
+    public void keepsFirstOpenAndLastCloseOnEqualTimestamps() {
+        OhlcvAccumulator acc = function.createAccumulator();
+        function.add(new Tick("AMZN", 1_000, 1f), acc);
+        function.add(new Tick("AMZN", 1_000, 2f), acc);
+
+        assertBar(acc, 1f, 2f, 1f, 2f, 2);
+    }
+
+    @Test
+    public void mergesAccumulators() {
+        OhlcvAccumulator a = function.createAccumulator();
+        function.add(new Tick("AMZN", 2_000, 5f), a);
+        function.add(new Tick("AMZN", 5_000, 6f), a);
+        OhlcvAccumulator b = function.createAccumulator();
+        function.add(new Tick("AMZN", 1_000, 4f), b);
+        function.add(new Tick("AMZN", 3_000, 8f), b);
+
+        assertBar(function.merge(function.createAccumulator(), a), 5f, 6f, 5f, 6f, 2);
+        assertBar(function.merge(a, b), 4f, 8f, 4f, 6f, 4);
+    }
+
+    private static void assertBar(OhlcvAccumulator acc, float open, float high, float low, float close, long volume) {
+        assertEquals(open, acc.open, 0f);
+        assertEquals(high, acc.high, 0f);
+        assertEquals(low, acc.low, 0f);
+        assertEquals(close, acc.close, 0f);
+        assertEquals(volume, acc.volume);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.ohlcv;
+
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import com.amazonaws.services.kinesisanalytics.stock.StockTypeInfo;
+import com.amazonaws.services.kinesisanalytics.stock.StockWatermarks;
+import org.apache.flink.api.dag.Transformation;
+import org.apache.flink.streaming.api.datastream.DataStream;
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.apache.flink.util.CloseableIterator;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OhlcvPipelineTest {
+
+    @Test
+    public void computesTumblingAndSlidingBars() throws Exception {
+        StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+        env.setParallelism(2);
+
+        DataStream<Stock> stocks = env.fromCollection(List.of(
+                stock("2023-05-01 10:00:05", "AMZN", 10f),
+                stock("2023-05-01 10:00:30", "AMZN", 12f),
+                stock("2023-05-01 10:00:10", "AMZN", 8f),
+                stock("2023-05-01 10:01:15", "AMZN", 11f),
+                stock("2023-05-01 10:00:20", "AAPL", 5f),
+                stock("not a timestamp", "AAPL", 99f)), new StockTypeInfo())
+                .assignTimestampsAndWatermarks(StockWatermarks.strategy(Duration.ofSeconds(30), Duration.ofMinutes(1)));
+
+        List<OhlcvWindowSpec> windows = List.of(
+                OhlcvWindowSpec.tumbling(Duration.ofMinutes(1)),
+                new OhlcvWindowSpec(Duration.ofMinutes(2), Duration.ofMinutes(1)));
+
+        List<OhlcvBar> bars = new ArrayList<>();
+        try (CloseableIterator<OhlcvBar> it = OhlcvPipeline
+                .bars(stocks, windows)
+                .executeAndCollect()) {
+            it.forEachRemaining(bars::add);
+        }
+        bars.sort(Comparator.comparing(OhlcvBar::getWindow)
+                .thenComparing(OhlcvBar::getTicker)
+                .thenComparing(OhlcvBar::getWindow_start));
+
+        assertEquals(List.of(
+                bar("AAPL", "1m", "2023-05-01 10:00:00", "2023-05-01 10:01:00", 5f, 5f, 5f, 5f, 1),
+                bar("AMZN", "1m", "2023-05-01 10:00:00", "2023-05-01 10:01:00", 10f, 12f, 8f, 12f, 3),
+                bar("AMZN", "1m", "2023-05-01 10:01:00", "2023-05-01 10:02:00", 11f, 11f, 11f, 11f, 1),
+                bar("AAPL", "2m-1m", "2023-05-01 09:59:00", "2023-05-01 10:01:00", 5f, 5f, 5f, 5f, 1),
+                bar("AAPL", "2m-1m", "2023-05-01 10:00:00", "2023-05-01 10:02:00", 5f, 5f, 5f, 5f, 1),
+                bar("AMZN", "2m-1m", "2023-05-01 09:59:00", "2023-05-01 10:01:00", 10f, 12f, 8f, 12f, 3),
+                bar("AMZN", "2m-1m", "2023-05-01 10:00:00", "2023-05-01 10:02:00", 10f, 12f, 8f, 11f, 4),
+                bar("AMZN", "2m-1m", "2023-05-01 10:01:00", "2023-05-01 10:03:00", 11f, 11f, 11f, 11f, 1)),
+                bars);
+    }
+
+    @Test
+    public void setsStableUids() {
+        StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+        DataStream<Stock> stocks = env.fromCollection(List.of(new Stock()), new StockTypeInfo());
+
+        OhlcvPipeline.bars(stocks, List.of(
+                OhlcvWindowSpec.tumbling(Duration.ofMinutes(1)),
+                new OhlcvWindowSpec(Duration.ofMinutes(2), Duration.ofMinutes(1))))
+                .print();
+
+        Set<String> uids = new HashSet<>();
+        for (Transformation<?> sink : env.getTransformations()) {
+            for (Transformation<?> transformation : sink.getTransitivePredecessors()) {
+                uids.add(transformation.getUid());
+            }
+        }
+        assertTrue(uids.toString(), uids.containsAll(List.of("ohlcv-ticks", "ohlcv-1m", "ohlcv-2m-1m")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsDuplicateWindows() {
+        StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+        DataStream<Stock> stocks = env.fromCollection(List.of(new Stock()), new StockTypeInfo());
+
+        OhlcvPipeline.bars(stocks, List.of(
+                OhlcvWindowSpec.tumbling(Duration.ofMinutes(1)),
+                OhlcvWindowSpec.tumbling(Duration.ofSeconds(60))));
+    }
+
+    private static Stock stock(String eventTime, String ticker, float price) {
+        Stock stock = new Stock();
+        stock.setEvent_time(eventTime);
+        stock.setTicker(ticker);
+        stock.setPrice(price);
+        return stock;
+    }
+
+    private static OhlcvBar bar(String ticker, String window, String start, String end,
+                                float open, float high, float low, float close, long volume) {
+        OhlcvBar bar = new OhlcvBar();
+        bar.setTicker(ticker);
+        bar.setWindow(window);
+        bar.setWindow_start(start);
+        bar.setWindow_end(end);
+        bar.setOpen(open);
+        bar.setHigh(high);
+        bar.setLow(low);
+        bar.setClose(close);
+        bar.setVolume(volume);
+        return bar;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.ohlcv;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OhlcvWindowSpecTest {
+
+    @Test
+    public void parsesTumblingWindows() {
+        List<OhlcvWindowSpec> windows = OhlcvWindowSpec.parseTumbling("1 min, 5 min,1 h");
+
+        assertEquals(3, windows.size());
+        assertTrue(windows.get(0).isTumbling());
+        assertEquals(Duration.ofMinutes(5), windows.get(1).getSize());
+        assertEquals("1m", windows.get(0).label());
+        assertEquals("1h", windows.get(2).label());
+    }
+
+    @Test
+    public void parsesSlidingWindows() {
+        List<OhlcvWindowSpec> windows = OhlcvWindowSpec.parseSliding("15 min/1 min, 90 s / 500 ms");
+
+        assertEquals(2, windows.size());
+        assertFalse(windows.get(0).isTumbling());
+        assertEquals("15m-1m", windows.get(0).label());
+        assertEquals("90s-500ms", windows.get(1).label());
+    }
+
+    @Test
+    public void emptyListHasNoWindows() {
+        assertTrue(OhlcvWindowSpec.parseSliding("").isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void slidingWindowNeedsSlide() {
+        OhlcvWindowSpec.parseSliding("15 min");
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.sink;
+
+import org.apache.flink.util.function.SerializableFunction;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BucketAffinePartitionerTest {
+    private static final int PARALLELISM = 8;
+
+    private final BucketAffinePartitioner partitioner = new BucketAffinePartitioner();
+
+    @Test
+    public void bucketGoesToSingleSubtaskWithoutSalt() {
+        Map<String, Set<Integer>> subtasks = route(1);
+
+        for (Set<Integer> bucketSubtasks : subtasks.values()) {
+            assertEquals(1, bucketSubtasks.size());
+        }
+    }
+
+    @Test
+    public void saltSpreadsBucketOverConsecutiveSubtasks() {
+        Map<String, Set<Integer>> subtasks = route(3);
+
+        for (Set<Integer> bucketSubtasks : subtasks.values()) {
+            assertEquals(3, bucketSubtasks.size());
+            int first = bucketSubtasks.stream()
+                    .filter(subtask -> !bucketSubtasks.contains(Math.floorMod(subtask - 1, PARALLELISM)))
+                    .findFirst()
+                    .orElseThrow();
+            assertTrue(bucketSubtasks.contains((first + 1) % PARALLELISM));
+            assertTrue(bucketSubtasks.contains((first + 2) % PARALLELISM));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsZeroSalt() {
+        BucketAffinePartitioner.<String[]>partition(null, record -> record[0], record -> record[1], 0);
+    }
+
+    // Records are {bucket, ticker}; returns the subtasks each bucket was sent to
+    private Map<String, Set<Integer>> route(int salt) {
+        SerializableFunction<String[], String> bucketOf = record -> record[0];
+        SerializableFunction<String[], Object> saltOf = record -> record[1];
+        BucketAffinePartitioner.BucketKeySelector<String[]> keySelector =
+                new BucketAffinePartitioner.BucketKeySelector<>(bucketOf, saltOf, salt);
+
+        Map<String, Set<Integer>> subtasks = new HashMap<>();
+        for (int hour = 0; hour < 24; hour++) {
+            String bucket = String.format("ts=2023-05-01-%02d", hour);
+            for (int ticker = 0; ticker < 100; ticker++) {
+                long key = keySelector.getKey(new String[] {bucket, "T" + ticker});
+                subtasks.computeIfAbsent(bucket, b -> new HashSet<>()).add(partitioner.partition(key, PARALLELISM));
+            }
+        }
+        return subtasks;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.sink;
+
+import com.amazonaws.services.kinesisanalytics.metrics.TestMetricGroup;
+import org.apache.flink.connector.file.sink.FileSinkCommittable;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.streaming.api.connector.sink2.CommittableMessage;
+import org.apache.flink.streaming.api.connector.sink2.CommittableSummary;
+import org.apache.flink.streaming.api.connector.sink2.CommittableWithLineage;
+import org.apache.flink.streaming.api.functions.sink.filesystem.InProgressFileWriter;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class CompactionMetricsTest {
+    private CompactionMetrics compactionMetrics;
+    private TestMetricGroup metricGroup;
+
+    @Before
+    public void setUp() {
+        compactionMetrics = new CompactionMetrics();
+        metricGroup = new TestMetricGroup();
+        compactionMetrics.open(metricGroup);
+    }
+
+    @Test
+    public void countsMergedFilesAndWrittenBytes() {
+        // As the compactor emits its requests: passed through, written, then merged files
+        map(new CommittableSummary<>(0, 1, 1L, 6, 6, 0));
+        map(lineage(new FileSinkCommittable("bucket", pendingFile("bucket/part-0-2", 700))));
+        map(lineage(new FileSinkCommittable("bucket", pendingFile("bucket/compacted-part-0-0", 1000))));
+        map(lineage(new FileSinkCommittable("bucket", new Path("bucket/.part-0-0.inprogress"))));
+        map(lineage(new FileSinkCommittable("bucket", new Path("bucket/.part-0-1.inprogress"))));
+        map(lineage(new FileSinkCommittable("other", pendingFile("other/compacted-part-0-3", 500))));
+        map(lineage(new FileSinkCommittable("other", new Path("other/.part-0-3.inprogress"))));
+
+        assertEquals(3, metricGroup.getCounter(CompactionMetrics.COMPACTED_FILES).getCount());
+        assertEquals(1500, metricGroup.getCounter(CompactionMetrics.COMPACTED_BYTES).getCount());
+    }
+
+    @Test
+    public void skipsFilesPassedThrough() {
+        map(lineage(new FileSinkCommittable("bucket", pendingFile("bucket/part-0-0", 1000))));
+        // Another bucket or checkpoint than the last pending file
+        map(lineage(new FileSinkCommittable("other", new Path("other/.part-0-2.inprogress"))));
+        map(lineage(new FileSinkCommittable("bucket", new Path("bucket/.part-0-3.inprogress")), 2L));
+
+        assertEquals(2, metricGroup.getCounter(CompactionMetrics.COMPACTED_FILES).getCount());
+        assertEquals(0, metricGroup.getCounter(CompactionMetrics.COMPACTED_BYTES).getCount());
+    }
+
+    @Test
+    public void skipsFilesOfUnknownSize() {
+        map(lineage(new FileSinkCommittable("bucket", pendingFile("bucket/compacted-part-0-0", -1))));
+        map(lineage(new FileSinkCommittable("bucket", new Path("bucket/.part-0-0.inprogress"))));
+
+        assertEquals(0, metricGroup.getCounter(CompactionMetrics.COMPACTED_BYTES).getCount());
+    }
+
+    private void map(CommittableMessage<FileSinkCommittable> message) {
+        assertSame(message, compactionMetrics.map(message));
+    }
+
+    private static CommittableMessage<FileSinkCommittable> lineage(FileSinkCommittable committable) {
+        return lineage(committable, 1L);
+    }
+
+    private static CommittableMessage<FileSinkCommittable> lineage(FileSinkCommittable committable, long checkpointId) {
+        return new CommittableWithLineage<>(committable, checkpointId, 0);
+    }
+
+    private static InProgressFileWriter.PendingFileRecoverable pendingFile(String path, long size) {
+        return new InProgressFileWriter.PendingFileRecoverable() {
+            @Override
+            public Path getPath() {
+                return new Path(path);
+            }
+
+            @Override
+            public long getSize() {
+                return size;
+            }
+        };
+    }
+}
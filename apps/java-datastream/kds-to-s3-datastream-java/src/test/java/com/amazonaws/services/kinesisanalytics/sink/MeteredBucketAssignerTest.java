@@ -0,0 +1,80 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.sink;
+
+import com.amazonaws.services.kinesisanalytics.metrics.TestMetricGroup;
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import com.amazonaws.services.kinesisanalytics.stock.StockDateBucketAssigner;
+import org.apache.flink.metrics.HistogramStatistics;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class MeteredBucketAssignerTest {
+    private MeteredBucketAssigner<Stock, String> assigner;
+    private TestMetricGroup metricGroup;
+
+    @Before
+    public void setUp() {
+        assigner = new MeteredBucketAssigner<>(new StockDateBucketAssigner("yyyy-MM-dd-HH", "prefix/"));
+        metricGroup = new TestMetricGroup();
+        assigner.open(metricGroup);
+    }
+
+    @Test
+    public void delegatesBucketIds() {
+        assertEquals("prefix/ts=2023-05-01-10", assigner.getBucketId(stock("2023-05-01 10:15:00"), null));
+    }
+
+    @Test
+    public void countsRecordsPerBucketUntilCheckpoint() {
+        for (int i = 0; i < 3; i++) {
+            assigner.getBucketId(stock("2023-05-01 10:15:00"), null);
+        }
+        assigner.getBucketId(stock("2023-05-01 11:00:00"), null);
+        assigner.getBucketId(stock("2023-05-01 10:59:59"), null);
+
+        assertEquals(2, metricGroup.getGaugeValue(MeteredBucketAssigner.OPEN_BUCKETS));
+
+        assigner.onCheckpoint();
+
+        assertEquals(0, metricGroup.getGaugeValue(MeteredBucketAssigner.OPEN_BUCKETS));
+        HistogramStatistics records = metricGroup.getHistogram(MeteredBucketAssigner.BUCKET_RECORDS).getStatistics();
+        assertEquals(2, records.size());
+        assertEquals(1, records.getMin());
+        assertEquals(4, records.getMax());
+    }
+
+    @Test
+    public void samplesAssignmentLatency() {
+        for (int i = 0; i < 64; i++) {
+            assigner.getBucketId(stock("2023-05-01 10:15:00"), null);
+        }
+
+        assertEquals(2, metricGroup.getHistogram(MeteredBucketAssigner.BUCKET_ASSIGNMENT_LATENCY_NANOS).getCount());
+    }
+
+    private static Stock stock(String eventTime) {
+        Stock stock = new Stock();
+        stock.setEvent_time(eventTime);
+        stock.setTicker("AMZN");
+        return stock;
+    }
+}
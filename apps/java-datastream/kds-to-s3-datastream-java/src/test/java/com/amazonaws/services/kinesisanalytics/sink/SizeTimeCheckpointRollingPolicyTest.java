@@ -0,0 +1,87 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.sink;
+
+import org.apache.flink.streaming.api.functions.sink.filesystem.PartFileInfo;
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SizeTimeCheckpointRollingPolicyTest {
+
+    @Test
+    public void onlyRollsOnCheckpointByDefault() throws Exception {
+        SizeTimeCheckpointRollingPolicy<String, String> policy = SizeTimeCheckpointRollingPolicy.<String, String>builder()
+                .build();
+        PartFileInfo<String> partFile = partFile(Long.MAX_VALUE / 2, 0L, 0L);
+
+        assertTrue(policy.shouldRollOnCheckpoint(partFile));
+        assertFalse(policy.shouldRollOnEvent(partFile, "element"));
+        assertFalse(policy.shouldRollOnProcessingTime(partFile, Long.MAX_VALUE / 2));
+    }
+
+    @Test
+    public void rollsOnSize() throws Exception {
+        SizeTimeCheckpointRollingPolicy<String, String> policy = SizeTimeCheckpointRollingPolicy.<String, String>builder()
+                .withMaxPartSize(1024)
+                .build();
+
+        assertFalse(policy.shouldRollOnEvent(partFile(1023, 0L, 0L), "element"));
+        assertTrue(policy.shouldRollOnEvent(partFile(1024, 0L, 0L), "element"));
+    }
+
+    @Test
+    public void rollsOnAgeAndInactivity() {
+        SizeTimeCheckpointRollingPolicy<String, String> policy = SizeTimeCheckpointRollingPolicy.<String, String>builder()
+                .withRolloverInterval(Duration.ofMinutes(5))
+                .withInactivityInterval(Duration.ofMinutes(1))
+                .build();
+
+        assertFalse(policy.shouldRollOnProcessingTime(partFile(0, 0L, 240_000L), 250_000L));
+        assertTrue(policy.shouldRollOnProcessingTime(partFile(0, 0L, 290_000L), 300_000L));
+        assertTrue(policy.shouldRollOnProcessingTime(partFile(0, 100_000L, 100_000L), 160_000L));
+    }
+
+    private static PartFileInfo<String> partFile(long size, long creationTime, long lastUpdateTime) {
+        return new PartFileInfo<String>() {
+            @Override
+            public String getBucketId() {
+                return "bucket";
+            }
+
+            @Override
+            public long getCreationTime() {
+                return creationTime;
+            }
+
+            @Override
+            public long getSize() {
+                return size;
+            }
+
+            @Override
+            public long getLastUpdateTime() {
+                return lastUpdateTime;
+            }
+        };
+    }
+}
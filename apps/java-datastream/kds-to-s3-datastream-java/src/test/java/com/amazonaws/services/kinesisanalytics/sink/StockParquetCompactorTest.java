@@ -0,0 +1,102 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.sink;
+
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import com.amazonaws.services.kinesisanalytics.stock.StockWriteSupport;
+import org.apache.avro.reflect.ReflectData;
+import org.apache.flink.core.fs.Path;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.avro.AvroParquetWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.util.HadoopOutputFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class StockParquetCompactorTest {
+
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void mergesPartFiles() throws Exception {
+        List<Stock> first = stocks("AMZN", 100);
+        List<Stock> second = stocks("AAPL", 50);
+        List<Path> partFiles = List.of(write("part-0", first), write("part-1", second));
+
+        List<Stock> compacted = new ArrayList<>();
+        new StockParquetCompactor().compact(partFiles, compacted::add);
+
+        List<Stock> expected = new ArrayList<>(first);
+        expected.addAll(second);
+        assertEquals(expected, compacted);
+    }
+
+    @Test
+    public void readsFilesOfTheReflectWriter() throws Exception {
+        List<Stock> stocks = stocks("MSFT", 10);
+        File file = new File(tmp.getRoot(), "reflect-part");
+        try (ParquetWriter<Stock> writer = AvroParquetWriter.<Stock>builder(
+                        HadoopOutputFile.fromPath(new org.apache.hadoop.fs.Path(file.toURI()), new Configuration()))
+                .withSchema(ReflectData.get().getSchema(Stock.class))
+                .withDataModel(ReflectData.get())
+                .build()) {
+            for (Stock stock : stocks) {
+                writer.write(stock);
+            }
+        }
+
+        List<Stock> compacted = new ArrayList<>();
+        new StockParquetCompactor().compact(List.of(new Path(file.toURI())), compacted::add);
+
+        assertEquals(stocks, compacted);
+    }
+
+    private Path write(String name, List<Stock> stocks) throws Exception {
+        File file = new File(tmp.getRoot(), name);
+        HadoopOutputFile outputFile = HadoopOutputFile.fromPath(
+                new org.apache.hadoop.fs.Path(file.toURI()), new Configuration());
+
+        try (ParquetWriter<Stock> writer = StockWriteSupport.builder(outputFile).build()) {
+            for (Stock stock : stocks) {
+                writer.write(stock);
+            }
+        }
+        return new Path(file.toURI());
+    }
+
+    private static List<Stock> stocks(String ticker, int count) {
+        List<Stock> stocks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Stock stock = new Stock();
+            stock.setEvent_time("2023-05-01 10:00:" + (10 + i % 50));
+            stock.setTicker(ticker);
+            stock.setPrice(i * 1.5f);
+            stocks.add(stock);
+        }
+        return stocks;
+    }
+}
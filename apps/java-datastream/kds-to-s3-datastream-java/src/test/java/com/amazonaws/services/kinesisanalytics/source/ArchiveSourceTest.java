@@ -0,0 +1,135 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.source;
+
+import com.amazonaws.services.kinesisanalytics.sink.StreamCompression;
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import com.amazonaws.services.kinesisanalytics.stock.StockJsonLinesWriterFactory;
+import com.amazonaws.services.kinesisanalytics.stock.StockTypeInfo;
+import com.amazonaws.services.kinesisanalytics.stock.StockWriteSupport;
+import org.apache.flink.api.common.RuntimeExecutionMode;
+import org.apache.flink.api.common.eventtime.WatermarkStrategy;
+import org.apache.flink.api.common.serialization.BulkWriter;
+import org.apache.flink.core.fs.FSDataOutputStream;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.apache.flink.util.CloseableIterator;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.util.HadoopOutputFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ArchiveSourceTest {
+
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void readsParquetPartFilesRecursively() throws Exception {
+        List<Stock> first = stocks("AMZN", 100);
+        List<Stock> second = stocks("AAPL", 50);
+        second.get(0).setExchange("XNAS");
+        writeParquet(new File(tmp.newFolder("ts=2023-05-01-10"), "part-0"), first);
+        writeParquet(new File(tmp.newFolder("ts=2023-05-01-11"), "part-0"), second);
+        // In-progress part files are hidden and must not be read
+        writeParquet(new File(tmp.getRoot(), ".part-1.inprogress"), stocks("MSFT", 10));
+
+        List<Stock> expected = new ArrayList<>(first);
+        expected.addAll(second);
+        assertEquals(sorted(expected), read(ArchiveSource.Format.PARQUET));
+    }
+
+    @Test
+    public void readsCompressedJsonLines() throws Exception {
+        List<Stock> expected = new ArrayList<>();
+        for (StreamCompression compression : StreamCompression.values()) {
+            List<Stock> stocks = stocks(compression.name(), 20);
+            writeJson(new File(tmp.getRoot(), "part-" + compression + ".jsonl" + compression.getExtension()),
+                    compression, stocks);
+            expected.addAll(stocks);
+        }
+
+        assertEquals(sorted(expected), read(ArchiveSource.Format.JSON));
+    }
+
+    private List<Stock> read(ArchiveSource.Format format) throws Exception {
+        StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+        env.setRuntimeMode(RuntimeExecutionMode.BATCH);
+        env.setParallelism(2);
+
+        List<Stock> stocks = new ArrayList<>();
+        try (CloseableIterator<Stock> it = env
+                .fromSource(ArchiveSource.create(format, new StockTypeInfo(), new Path(tmp.getRoot().toURI())),
+                        WatermarkStrategy.noWatermarks(), "Archive source")
+                .executeAndCollect()) {
+            it.forEachRemaining(stocks::add);
+        }
+        return sorted(stocks);
+    }
+
+    private static void writeParquet(File file, List<Stock> stocks) throws Exception {
+        HadoopOutputFile outputFile = HadoopOutputFile.fromPath(
+                new org.apache.hadoop.fs.Path(file.toURI()), new Configuration());
+        try (ParquetWriter<Stock> writer = StockWriteSupport.builder(outputFile).build()) {
+            for (Stock stock : stocks) {
+                writer.write(stock);
+            }
+        }
+    }
+
+    private static void writeJson(File file, StreamCompression compression, List<Stock> stocks) throws Exception {
+        Path path = new Path(file.toURI());
+        try (FSDataOutputStream out = FileSystem.getLocalFileSystem().create(path, FileSystem.WriteMode.NO_OVERWRITE)) {
+            BulkWriter<Stock> writer = new StockJsonLinesWriterFactory(compression, StreamCompression.DEFAULT_LEVEL)
+                    .create(out);
+            for (Stock stock : stocks) {
+                writer.addElement(stock);
+            }
+            writer.finish();
+        }
+    }
+
+    private static List<Stock> sorted(List<Stock> stocks) {
+        List<Stock> sorted = new ArrayList<>(stocks);
+        sorted.sort(Comparator.comparing(Stock::getTicker).thenComparing(Stock::getPrice));
+        return sorted;
+    }
+
+    private static List<Stock> stocks(String ticker, int count) {
+        List<Stock> stocks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Stock stock = new Stock();
+            stock.setEvent_time("2023-05-01 10:00:" + (10 + i % 50));
+            stock.setTicker(ticker);
+            stock.setPrice(i * 1.5f);
+            stocks.add(stock);
+        }
+        return stocks;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.source;
+
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import org.apache.flink.api.common.functions.FilterFunction;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CutoverTest {
+    private static final long CUTOVER = Cutover.parse("2023-05-01 10:00:00");
+
+    @Test
+    public void splitsAtCutover() throws Exception {
+        FilterFunction<Stock> archived = Cutover.archived(CUTOVER);
+        FilterFunction<Stock> streamed = Cutover.streamed(CUTOVER);
+
+        for (String eventTime : new String[] {"2023-05-01 09:59:59.999", "2023-05-01 10:00:00", "2023-05-01 10:00:01"}) {
+            Stock stock = stock(eventTime);
+            assertTrue(eventTime, archived.filter(stock) ^ streamed.filter(stock));
+        }
+        assertTrue(archived.filter(stock("2023-05-01 09:59:59.999")));
+        assertTrue(streamed.filter(stock("2023-05-01 10:00:00")));
+    }
+
+    @Test
+    public void recordsWithoutEventTimeAreStreamed() throws Exception {
+        assertFalse(Cutover.archived(CUTOVER).filter(stock("yesterday")));
+        assertTrue(Cutover.streamed(CUTOVER).filter(stock("yesterday")));
+        assertTrue(Cutover.streamed(CUTOVER).filter(stock(null)));
+    }
+
+    @Test
+    public void parsesUtc() {
+        assertEquals(1682935200000L, CUTOVER);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidCutover() {
+        Cutover.parse("tomorrow");
+    }
+
+    private static Stock stock(String eventTime) {
+        Stock stock = new Stock();
+        stock.setEvent_time(eventTime);
+        return stock;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.stock;
+
+import org.junit.Test;
+
+import java.time.format.DateTimeParseException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class StockDateBucketAssignerTest {
+    private static final String HOURLY = "yyyy-MM-dd-HH";
+
+    @Test
+    public void computesSlotLengths() {
+        assertEquals(4, StockDateBucketAssigner.slotLength("yyyy"));
+        assertEquals(10, StockDateBucketAssigner.slotLength("yyyy-MM-dd"));
+        assertEquals(13, StockDateBucketAssigner.slotLength(HOURLY));
+        assertEquals(13, StockDateBucketAssigner.slotLength("'hour='HH/yyyyMMdd"));
+        assertEquals(19, StockDateBucketAssigner.slotLength("yyyy-MM-dd-HH-mm-ss"));
+        assertEquals(Integer.MAX_VALUE, StockDateBucketAssigner.slotLength("yyyy-MM-dd-HH-mm-ss.SSS"));
+    }
+
+    @Test
+    public void reusesBucketIdsWithinASlot() {
+        StockDateBucketAssigner assigner = new StockDateBucketAssigner(HOURLY, "stocks/");
+
+        String first = assigner.getBucketId("2023-05-01 10:00:00");
+        assertEquals("stocks/ts=2023-05-01-10", first);
+        assertSame(first, assigner.getBucketId("2023-05-01 10:59:59"));
+        assertSame(first, assigner.getBucketId("2023-05-01 10:30"));
+        assertSame(first, assigner.getBucketId("2023-05-01 10:30:00.123"));
+        assertEquals(first, assigner.getBucketId("2023-05-01T10:30:00"));
+    }
+
+    @Test
+    public void rollsOverToNewSlotsAndBack() {
+        StockDateBucketAssigner assigner = new StockDateBucketAssigner(HOURLY, "");
+
+        assertEquals("ts=2023-05-01-10", assigner.getBucketId("2023-05-01 10:59:59"));
+        assertEquals("ts=2023-05-01-11", assigner.getBucketId("2023-05-01 11:00:00"));
+        // A late record of the previous slot comes from the LRU, not from the last slot
+        assertEquals("ts=2023-05-01-10", assigner.getBucketId("2023-05-01 10:00:01"));
+        assertEquals("ts=2023-05-02-00", assigner.getBucketId("2023-05-02 00:00:00"));
+
+        // More slots than the cache holds are still assigned correctly
+        for (int day = 1; day <= 28; day++) {
+            for (int hour = 0; hour < 24; hour += 6) {
+                String eventTime = String.format("2023-02-%02d %02d:15:00", day, hour);
+                assertEquals(String.format("ts=2023-02-%02d-%02d", day, hour), assigner.getBucketId(eventTime));
+            }
+        }
+        assertEquals("ts=2023-05-01-10", assigner.getBucketId("2023-05-01 10:00:02"));
+    }
+
+    @Test
+    public void rejectsMalformedTimesInCachedSlots() {
+        String[] malformed = {
+                "2023-05-01 10:60:00",
+                "2023-05-01 10:00:60",
+                "2023-05-01 10:0x:00",
+                "2023-05-01 10:00:00Z",
+                "2023-05-01 10:00:00.1234567890",
+                "2023-05-01 10:00:0",
+                "2023-05-01 10-00-00",
+                // Cut off at the end of the hourly, daily and monthly slot
+                "2023-05-01 10",
+                "2023-05-01",
+                "2023-05",
+        };
+        for (String pattern : new String[] { HOURLY, "yyyy-MM-dd", "yyyy-MM" }) {
+            StockDateBucketAssigner assigner = new StockDateBucketAssigner(pattern, "");
+            assigner.getBucketId("2023-05-01 10:00:00");
+
+            for (String eventTime : malformed) {
+                assertRejected(assigner, eventTime);
+                // Also when the slot comes from the LRU rather than from the last record
+                assigner.getBucketId("2022-01-01 00:00:00");
+                assertRejected(assigner, eventTime);
+            }
+        }
+
+        // The day is only checked against the month when it is part of the suffix
+        StockDateBucketAssigner monthly = new StockDateBucketAssigner("yyyy-MM", "");
+        monthly.getBucketId("2023-02-01 10:00:00");
+        assertRejected(monthly, "2023-02-30 10:00:00");
+    }
+
+    private static void assertRejected(StockDateBucketAssigner assigner, String eventTime) {
+        try {
+            String bucketId = assigner.getBucketId(eventTime);
+            fail(eventTime + " was assigned to " + bucketId);
+        } catch (DateTimeParseException expected) {
+            // as LocalDateTime.parse
+        }
+    }
+}
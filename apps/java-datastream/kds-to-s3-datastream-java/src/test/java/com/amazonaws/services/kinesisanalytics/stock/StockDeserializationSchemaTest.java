@@ -0,0 +1,119 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.stock;
+
+import com.amazonaws.services.kinesisanalytics.metrics.TestMetricGroup;
+import org.apache.flink.api.common.serialization.DeserializationSchema;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.util.InstantiationUtil;
+import org.apache.flink.util.UserCodeClassLoader;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class StockDeserializationSchemaTest {
+    private static final byte[] PAYLOAD =
+            "{\"event_time\":\"2023-05-01 10:00:00\",\"ticker\":\"AMZN\",\"price\":42.17}".getBytes(StandardCharsets.UTF_8);
+    // Escaped string, only databind handles it
+    private static final byte[] ESCAPED_PAYLOAD =
+            "{\"event_time\":\"2023-05-01 10:00:00\",\"ticker\":\"AM\\u005aN\",\"price\":42.17}".getBytes(StandardCharsets.UTF_8);
+
+    private StockDeserializationSchema schema;
+    private TestMetricGroup metricGroup;
+
+    @Before
+    public void setUp() {
+        schema = new StockDeserializationSchema();
+        metricGroup = new TestMetricGroup();
+        schema.open(context(metricGroup));
+    }
+
+    @Test
+    public void samplesLatency() throws IOException {
+        for (int i = 0; i < 96; i++) {
+            assertNotNull(schema.deserialize(PAYLOAD));
+        }
+
+        assertEquals(3, metricGroup.getHistogram(StockDeserializationSchema.DESERIALIZATION_LATENCY_NANOS).getCount());
+        assertEquals(0, metricGroup.getCounter(StockDeserializationSchema.DESERIALIZATION_FALLBACKS).getCount());
+    }
+
+    @Test
+    public void countsFallbacksAndErrors() throws IOException {
+        assertEquals("AMZN", schema.deserialize(ESCAPED_PAYLOAD).getTicker());
+
+        try {
+            schema.deserialize("{\"price\":".getBytes(StandardCharsets.UTF_8));
+            fail("Expected a parse error");
+        } catch (IOException expected) {
+            // rethrown after counting
+        }
+
+        assertEquals(2, metricGroup.getCounter(StockDeserializationSchema.DESERIALIZATION_FALLBACKS).getCount());
+        assertEquals(1, metricGroup.getCounter(StockDeserializationSchema.DESERIALIZATION_ERRORS).getCount());
+    }
+
+    @Test
+    public void sharesMetricsBetweenCopiesOfTheSchema() throws Exception {
+        // The Kinesis consumer deserializes every shard with its own copy, opened with the same group
+        StockDeserializationSchema filtering = new StockDeserializationSchema(new StockTypeInfo(),
+                StockFilterSpec.parse("ticker", "=", "AMZN"));
+        TestMetricGroup shardMetricGroup = new TestMetricGroup();
+        List<StockDeserializationSchema> copies = new ArrayList<>();
+        for (int shard = 0; shard < 2; shard++) {
+            StockDeserializationSchema copy = InstantiationUtil.clone(filtering);
+            copy.open(context(shardMetricGroup));
+            copies.add(copy);
+        }
+
+        assertNotNull(copies.get(0).deserialize(PAYLOAD));
+        assertNotNull(copies.get(1).deserialize(PAYLOAD));
+        assertNull(copies.get(1).deserialize(
+                "{\"event_time\":\"2023-05-01 10:00:00\",\"ticker\":\"AAPL\",\"price\":1.0}"
+                        .getBytes(StandardCharsets.UTF_8)));
+        assertEquals("AMZN", copies.get(0).deserialize(ESCAPED_PAYLOAD).getTicker());
+
+        assertEquals(4, shardMetricGroup.getCounter(StockDeserializationSchema.FILTER_EVALUATED_RECORDS).getCount());
+        assertEquals(1, shardMetricGroup.getCounter(StockDeserializationSchema.FILTER_DROPPED_RECORDS).getCount());
+        assertEquals(1, shardMetricGroup.getCounter(StockDeserializationSchema.DESERIALIZATION_FALLBACKS).getCount());
+    }
+
+    private static DeserializationSchema.InitializationContext context(MetricGroup metricGroup) {
+        return new DeserializationSchema.InitializationContext() {
+            @Override
+            public MetricGroup getMetricGroup() {
+                return metricGroup;
+            }
+
+            @Override
+            public UserCodeClassLoader getUserCodeClassLoader() {
+                return null;
+            }
+        };
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.stock;
+
+import org.apache.flink.api.common.serialization.DeserializationSchema;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+import org.apache.flink.util.UserCodeClassLoader;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class StockFilterSpecTest {
+    private static final String[] PAYLOADS = {
+            "{\"event_time\": \"2023-05-01 10:00:00\", \"ticker\": \"AMZN\", \"price\": 42.17}",
+            "{\"event_time\": \"2023-05-01 09:59:59\", \"ticker\": \"AAPL\", \"price\": 0.5}",
+            "{\"event_time\": \"2023-05-01 10:00:01\", \"ticker\": \"AMZ\", \"price\": 1}",
+            "{\"event_time\": \"2023-05-01 10:00:00\", \"ticker\": \"AMZNX\", \"price\": -3e2}",
+            "{\"ticker\": \"MSFT\", \"price\": 1.0}",
+            "{\"event_time\": \"2023-05-01 10:00:00\", \"price\": 7}",
+            "{\"event_time\": \"2023-05-01 10:00:00\", \"ticker\": \"IBM\"}",
+            // Falls back to databind because of the escape
+            "{\"event_time\": \"2023-05-01 10:00:00\", \"ticker\": \"AM\\u005aN\", \"price\": 2}"
+    };
+
+    @Test
+    public void parsesOperators() {
+        assertEquals(StockFilterSpec.Operator.GE, StockFilterSpec.Operator.of(">="));
+        assertEquals(StockFilterSpec.Operator.GE, StockFilterSpec.Operator.of("ge"));
+        assertEquals(StockFilterSpec.Operator.EQ, StockFilterSpec.Operator.of("="));
+        assertEquals(StockFilterSpec.Operator.NE, StockFilterSpec.Operator.of(" != "));
+        assertEquals(StockFilterSpec.Field.EVENT_TIME, StockFilterSpec.Field.of("event_time"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownField() {
+        StockFilterSpec.parse("volume", ">", "1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonNumericPrice() {
+        StockFilterSpec.parse("price", ">", "one").compile();
+    }
+
+    @Test
+    public void rawAndMaterializedEvaluationAgree() {
+        String[][] filters = {
+                {"price", "1"}, {"price", "42.17"}, {"price", "-300"},
+                {"ticker", "AMZN"}, {"ticker", "AMZ"}, {"ticker", ""},
+                {"event_time", "2023-05-01 10:00:00"}, {"event_time", "2023-05-01 10"}
+        };
+
+        StockJsonDecoder decoder = new StockJsonDecoder();
+        for (String[] filter : filters) {
+            for (StockFilterSpec.Operator operator : StockFilterSpec.Operator.values()) {
+                StockPredicate predicate = new StockFilterSpec(
+                        StockFilterSpec.Field.of(filter[0]), operator, filter[1]).compile();
+
+                for (String payload : PAYLOADS) {
+                    byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+                    if (!decoder.scan(bytes)) {
+                        continue;
+                    }
+                    assertEquals(filter[0] + " " + operator + " " + filter[1] + " on " + payload,
+                            predicate.test(decoder.materialize(bytes)), predicate.test(bytes, decoder));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void missingFieldNeverMatches() {
+        StockPredicate predicate = StockFilterSpec.parse("ticker", "!=", "AMZN").compile();
+
+        assertFalse(predicate.test(new Stock()));
+    }
+
+    @Test
+    public void missingPriceComparesAsZero() {
+        byte[] bytes = "{\"ticker\": \"IBM\"}".getBytes(StandardCharsets.UTF_8);
+        StockJsonDecoder decoder = new StockJsonDecoder();
+        assertTrue(decoder.scan(bytes));
+
+        StockPredicate below = StockFilterSpec.parse("price", "<", "1").compile();
+        assertTrue(below.test(bytes, decoder));
+        assertTrue(below.test(decoder.materialize(bytes)));
+
+        StockPredicate above = StockFilterSpec.parse("price", ">", "0").compile();
+        assertFalse(above.test(bytes, decoder));
+        assertFalse(above.test(decoder.materialize(bytes)));
+    }
+
+    @Test
+    public void schemaDropsFilteredRecords() throws Exception {
+        StockDeserializationSchema schema = new StockDeserializationSchema(
+                new StockTypeInfo(), StockFilterSpec.parse("ticker", "==", "AMZN"));
+        schema.open(new TestInitializationContext());
+
+        assertNotNull(schema.deserialize(PAYLOADS[0].getBytes(StandardCharsets.UTF_8)));
+        assertNull(schema.deserialize(PAYLOADS[1].getBytes(StandardCharsets.UTF_8)));
+        // databind path
+        assertNotNull(schema.deserialize(PAYLOADS[7].getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static class TestInitializationContext implements DeserializationSchema.InitializationContext {
+        @Override
+        public MetricGroup getMetricGroup() {
+            return new UnregisteredMetricsGroup();
+        }
+
+        @Override
+        public UserCodeClassLoader getUserCodeClassLoader() {
+            return null;
+        }
+    }
+}
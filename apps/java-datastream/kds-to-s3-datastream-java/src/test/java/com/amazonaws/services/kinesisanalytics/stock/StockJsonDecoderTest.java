@@ -0,0 +1,120 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.stock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class StockJsonDecoderTest {
+    private static final ObjectMapper DATABIND = JsonMapper.builder().build();
+
+    private final StockJsonDecoder decoder = new StockJsonDecoder();
+
+    @Test
+    public void decodesFlatPayloads() throws IOException {
+        assertDecodesLikeDatabind("{\"event_time\":\"2023-05-01 10:00:00\",\"ticker\":\"AMZN\",\"price\":42.17}");
+        assertDecodesLikeDatabind(" {\n\t\"price\" : 42.17 ,\r\n \"ticker\" : \"AMZN\", \"event_time\" : \"2023-05-01 10:00:00\" } ");
+        assertDecodesLikeDatabind("{}");
+    }
+
+    @Test
+    public void leavesMissingFieldsUnset() {
+        Stock stock = decode("{\"ticker\":\"AMZN\"}");
+
+        assertEquals("AMZN", stock.getTicker());
+        assertNull(stock.getEvent_time());
+        assertEquals(0f, stock.getPrice(), 0f);
+
+        stock = decode("{\"event_time\":\"2023-05-01 10:00:00\",\"price\":1}");
+        assertNull(stock.getTicker());
+        assertEquals("2023-05-01 10:00:00", stock.getEvent_time());
+        assertEquals(-1, decoder.getTickerLength());
+    }
+
+    @Test
+    public void parsesNumbersLikeDatabind() throws IOException {
+        String[] prices = {
+                "0", "-0.5", "42", "42.17", "1e3", "1.5E-2", "-2.5e+1", "99.999999999999999999",
+                "123456789012345678901234567890", "3.4028235e38", "1e-50"
+        };
+        for (String price : prices) {
+            assertDecodesLikeDatabind("{\"ticker\":\"AMZN\",\"price\":" + price + "}");
+        }
+    }
+
+    @Test
+    public void rejectsWhatOnlyDatabindHandles() throws IOException {
+        String[] payloads = {
+                // Escapes and non-ASCII strings
+                "{\"ticker\":\"AM\\u005aN\",\"price\":1}",
+                "{\"ticker\":\"AM\\\"ZN\",\"price\":1}",
+                "{\"ticker\":\"MÜNCHEN\",\"price\":1}",
+                // Nulls, unknown fields and nested values
+                "{\"ticker\":null,\"price\":1}",
+                "{\"ticker\":\"AMZN\",\"exchange\":\"XNAS\"}",
+                "{\"ticker\":\"AMZN\",\"price\":\"1.5\"}",
+        };
+        for (String payload : payloads) {
+            assertNull(payload, decode(payload));
+            // Databind, which the schema falls back to, still reads these
+            assertNotNull(payload, DATABIND.readValue(payload.getBytes(StandardCharsets.UTF_8), Stock.class));
+        }
+    }
+
+    @Test
+    public void rejectsMalformedPayloads() {
+        String[] payloads = {
+                "", "[]", "{", "{\"ticker\":\"AMZN\"", "{\"ticker\":\"AMZN\"} x", "{\"ticker\" \"AMZN\"}",
+                "{\"price\":01}", "{\"price\":1.}", "{\"price\":1e}", "{\"price\":-}", "{\"ticker\":\"AMZN\",}"
+        };
+        for (String payload : payloads) {
+            assertNull(payload, decode(payload));
+        }
+    }
+
+    @Test
+    public void sharesStringsBetweenRecords() {
+        Stock first = decode("{\"event_time\":\"2023-05-01 10:00:00\",\"ticker\":\"AMZN\",\"price\":1}");
+        Stock second = decode("{\"event_time\":\"2023-05-01 10:00:00\",\"ticker\":\"AMZN\",\"price\":2}");
+        Stock third = decode("{\"event_time\":\"2023-05-01 10:00:01\",\"ticker\":\"AMZN\",\"price\":3}");
+
+        assertSame(first.getTicker(), second.getTicker());
+        assertSame(first.getEvent_time(), second.getEvent_time());
+        assertEquals("2023-05-01 10:00:01", third.getEvent_time());
+        assertSame(first.getTicker(), third.getTicker());
+    }
+
+    private Stock decode(String payload) {
+        return decoder.decode(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void assertDecodesLikeDatabind(String payload) throws IOException {
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        assertEquals(payload, DATABIND.readValue(bytes, Stock.class), decoder.decode(bytes));
+    }
+}
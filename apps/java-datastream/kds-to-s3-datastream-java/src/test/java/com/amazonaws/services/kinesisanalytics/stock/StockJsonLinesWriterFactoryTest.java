@@ -0,0 +1,160 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.stock;
+
+import com.amazonaws.services.kinesisanalytics.sink.ConcatenatingFileCompactor;
+import com.amazonaws.services.kinesisanalytics.sink.StreamCompression;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.github.luben.zstd.ZstdInputStream;
+import org.apache.flink.api.common.serialization.BulkWriter;
+import org.apache.flink.core.fs.FSDataOutputStream;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StockJsonLinesWriterFactoryTest {
+    private static final JsonMapper MAPPER = new JsonMapper();
+
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void roundTripsEveryCompression() throws Exception {
+        for (StreamCompression compression : StreamCompression.values()) {
+            List<Stock> stocks = stocks("AMZN", 100);
+
+            List<Stock> read = read(compression, Files.readAllBytes(
+                    new File(write(compression, stocks).getPath()).toPath()));
+
+            assertEquals(compression.name(), stocks, read);
+        }
+    }
+
+    @Test
+    public void concatenatedPartFilesStayReadable() throws Exception {
+        for (StreamCompression compression : StreamCompression.values()) {
+            List<Stock> first = stocks("AMZN", 100);
+            List<Stock> second = stocks("AAPL", 50);
+
+            ByteArrayOutputStream compacted = new ByteArrayOutputStream();
+            new ConcatenatingFileCompactor().compact(
+                    List.of(write(compression, first), write(compression, second)), compacted);
+
+            List<Stock> expected = new ArrayList<>(first);
+            expected.addAll(second);
+            assertEquals(compression.name(), expected, read(compression, compacted.toByteArray()));
+        }
+    }
+
+    @Test
+    public void writesReferenceDataOnlyWhenSet() throws Exception {
+        Stock enriched = stocks("AMZN", 1).get(0);
+        enriched.setExchange("XNAS");
+        enriched.setCurrency("USD");
+        enriched.setSector("Consumer Discretionary");
+        Stock plain = stocks("TBV", 1).get(0);
+
+        Path path = write(StreamCompression.NONE, List.of(enriched, plain));
+        List<String> lines = Files.readAllLines(new File(path.getPath()).toPath(), StandardCharsets.UTF_8);
+
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("\"sector\":\"Consumer Discretionary\""));
+        assertFalse(lines.get(1).contains("exchange"));
+        assertFalse(lines.get(1).startsWith(" "));
+    }
+
+    @Test
+    public void writesNothingWithoutRecords() throws Exception {
+        // What the sink does with the writer of a file compacted by concatenation
+        for (StreamCompression compression : StreamCompression.values()) {
+            Path path = write(compression, List.of());
+
+            assertEquals(compression.name(), 0, new File(path.getPath()).length());
+        }
+    }
+
+    private Path write(StreamCompression compression, List<Stock> stocks) throws Exception {
+        Path path = new Path(new File(tmp.getRoot(), "part-" + tmp.getRoot().list().length).toURI());
+        try (FSDataOutputStream out = FileSystem.getLocalFileSystem().create(path, FileSystem.WriteMode.NO_OVERWRITE)) {
+            BulkWriter<Stock> writer = new StockJsonLinesWriterFactory(compression, StreamCompression.DEFAULT_LEVEL)
+                    .create(out);
+            for (Stock stock : stocks) {
+                writer.addElement(stock);
+            }
+            writer.finish();
+        }
+        return path;
+    }
+
+    private static List<Stock> read(StreamCompression compression, byte[] bytes) throws Exception {
+        InputStream in = new ByteArrayInputStream(bytes);
+        if (compression == StreamCompression.GZIP) {
+            in = new GZIPInputStream(in);
+        } else if (compression == StreamCompression.ZSTD) {
+            in = new ZstdInputStream(in);
+        }
+
+        List<Stock> stocks = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                JsonNode node = MAPPER.readTree(line);
+                Stock stock = new Stock();
+                stock.setEvent_time(node.path("event_time").asText(null));
+                stock.setTicker(node.path("ticker").asText(null));
+                stock.setPrice(node.path("price").floatValue());
+                stock.setExchange(node.path("exchange").asText(null));
+                stock.setCurrency(node.path("currency").asText(null));
+                stock.setSector(node.path("sector").asText(null));
+                stocks.add(stock);
+            }
+        }
+        return stocks;
+    }
+
+    private static List<Stock> stocks(String ticker, int count) {
+        List<Stock> stocks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Stock stock = new Stock();
+            stock.setEvent_time("2023-05-01 10:00:" + (10 + i % 50));
+            stock.setTicker(ticker);
+            stock.setPrice(i * 1.5f);
+            stocks.add(stock);
+        }
+        return stocks;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.stock;
+
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.TypeSerializerSchemaCompatibility;
+import org.apache.flink.api.common.typeutils.TypeSerializerSnapshot;
+import org.apache.flink.core.memory.DataInputDeserializer;
+import org.apache.flink.core.memory.DataOutputSerializer;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compatibility of {@link StockSerializer} across ticker dictionary changes.
+ */
+public class StockSerializerSnapshotTest {
+    private static final String[] DICTIONARY = { "AAPL", "AMZN" };
+
+    @Test
+    public void sameDictionaryIsCompatibleAsIs() throws IOException {
+        TypeSerializerSchemaCompatibility<Stock> compatibility =
+                restoreSnapshot(new StockSerializer(DICTIONARY)).resolveSchemaCompatibility(new StockSerializer(DICTIONARY));
+
+        assertTrue(compatibility.isCompatibleAsIs());
+    }
+
+    @Test
+    public void appendedDictionaryIsCompatibleAsIs() throws IOException {
+        StockSerializer oldSerializer = new StockSerializer(DICTIONARY);
+        StockSerializer newSerializer = new StockSerializer(new String[] { "AAPL", "AMZN", "MSFT" });
+
+        assertTrue(restoreSnapshot(oldSerializer).resolveSchemaCompatibility(newSerializer).isCompatibleAsIs());
+
+        // Bytes written with the old dictionary read back unchanged with the new one
+        Stock stock = stock("2023-05-01 10:00:00", "AMZN", 42.17f);
+        assertEquals(stock, newSerializer.deserialize(new DataInputDeserializer(serialize(oldSerializer, stock))));
+    }
+
+    @Test
+    public void reorderedDictionaryRequiresMigration() throws IOException {
+        StockSerializer oldSerializer = new StockSerializer(DICTIONARY);
+        StockSerializer newSerializer = new StockSerializer(new String[] { "AMZN", "AAPL" });
+
+        TypeSerializerSnapshot<Stock> snapshot = restoreSnapshot(oldSerializer);
+        assertTrue(snapshot.resolveSchemaCompatibility(newSerializer).isCompatibleAfterMigration());
+
+        // The restored serializer still understands the old ids
+        Stock stock = stock("2023-05-01 10:00:00", "AMZN", 42.17f);
+        TypeSerializer<Stock> restored = snapshot.restoreSerializer();
+        Stock migrated = restored.deserialize(new DataInputDeserializer(serialize(oldSerializer, stock)));
+        assertEquals(stock, newSerializer.deserialize(new DataInputDeserializer(serialize(newSerializer, migrated))));
+    }
+
+    @Test
+    public void dictionaryTickersAndCanonicalTimesAreCompact() throws IOException {
+        StockSerializer serializer = new StockSerializer();
+
+        // header + epoch seconds + ticker id + price
+        assertEquals(11, serialize(serializer, stock("2023-05-01 10:00:00", "AMZN", 42.17f)).length);
+        // + milliseconds
+        assertEquals(13, serialize(serializer, stock("2023-05-01T10:00:00.123", "AMZN", 42.17f)).length);
+    }
+
+    private static TypeSerializerSnapshot<Stock> restoreSnapshot(TypeSerializer<Stock> serializer) throws IOException {
+        DataOutputSerializer out = new DataOutputSerializer(64);
+        TypeSerializerSnapshot.writeVersionedSnapshot(out, serializer.snapshotConfiguration());
+
+        return TypeSerializerSnapshot.readVersionedSnapshot(
+                new DataInputDeserializer(out.getCopyOfBuffer()),
+                StockSerializerSnapshotTest.class.getClassLoader());
+    }
+
+    private static byte[] serialize(TypeSerializer<Stock> serializer, Stock stock) throws IOException {
+        DataOutputSerializer out = new DataOutputSerializer(64);
+        serializer.serialize(stock, out);
+        return out.getCopyOfBuffer();
+    }
+
+    private static Stock stock(String eventTime, String ticker, float price) {
+        Stock stock = new Stock();
+        stock.setEvent_time(eventTime);
+        stock.setTicker(ticker);
+        stock.setPrice(price);
+        return stock;
+    }
+}
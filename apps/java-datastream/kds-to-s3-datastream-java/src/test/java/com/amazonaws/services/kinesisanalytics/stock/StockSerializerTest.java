@@ -0,0 +1,80 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.stock;
+
+import org.apache.flink.api.common.typeutils.SerializerTestBase;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+
+/**
+ * Round-trip tests for {@link StockSerializer}, covering every event time and ticker encoding and
+ * records with reference data.
+ */
+public class StockSerializerTest extends SerializerTestBase<Stock> {
+
+    @Override
+    protected TypeSerializer<Stock> createSerializer() {
+        return new StockSerializer();
+    }
+
+    @Override
+    protected int getLength() {
+        return -1;
+    }
+
+    @Override
+    protected Class<Stock> getTypeClass() {
+        return Stock.class;
+    }
+
+    @Override
+    protected Stock[] getTestData() {
+        return new Stock[] {
+                stock("2023-05-01 10:00:00", "AMZN", 42.17f),
+                stock("2023-05-01 10:00:00", "TBV", 0f),
+                stock("2023-05-01T10:00:00.123", "AAPL", 99.99f),
+                stock("2024-02-29T23:59:59.5", "MSFT", -1.5f),
+                stock("1969-12-31 23:59:59.07", "INTC", Float.MAX_VALUE),
+                stock("2023-05-01T10:00:00.123456", "GOOG", 1234.5678f),
+                stock("2023-02-30 10:00:00", "NVDA", 1f),
+                stock("not a timestamp", "\u00c4\u00d6\u00dc", Float.MIN_VALUE),
+                stock(null, "AMZN", 3f),
+                stock("2023-05-01 10:00:00", null, 3f),
+                stock(null, null, 0f),
+                enriched(stock("2023-05-01 10:00:00", "AMZN", 42.17f), "XNAS", "USD", "Consumer Discretionary"),
+                enriched(stock("2023-05-01T10:00:00.123", "SAP", 1f), "XETR", "EUR", null),
+                enriched(stock("not a timestamp", null, 2f), null, null, "Technology"),
+                enriched(stock(null, null, 0f), "XNYS", null, null),
+        };
+    }
+
+    private static Stock enriched(Stock stock, String exchange, String currency, String sector) {
+        stock.setExchange(exchange);
+        stock.setCurrency(currency);
+        stock.setSector(sector);
+        return stock;
+    }
+
+    private static Stock stock(String eventTime, String ticker, float price) {
+        Stock stock = new Stock();
+        stock.setEvent_time(eventTime);
+        stock.setTicker(ticker);
+        stock.setPrice(price);
+        return stock;
+    }
+}
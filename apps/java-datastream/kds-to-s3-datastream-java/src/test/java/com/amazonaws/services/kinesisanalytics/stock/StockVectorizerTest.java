@@ -0,0 +1,153 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.stock;
+
+import org.apache.flink.api.common.serialization.BulkWriter;
+import org.apache.flink.core.fs.local.LocalDataOutputStream;
+import org.apache.flink.orc.writer.OrcBulkWriterFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.DoubleColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.orc.CompressionKind;
+import org.apache.orc.OrcFile;
+import org.apache.orc.Reader;
+import org.apache.orc.RecordReader;
+import org.apache.orc.TypeDescription;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+
+public class StockVectorizerTest {
+
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void roundTrip() throws Exception {
+        // More than one row batch
+        List<Stock> stocks = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            stocks.add(stock("2023-05-01 10:00:0" + (i % 10), i % 2 == 0 ? "AMZN" : "AAPL", i / 10f));
+        }
+        stocks.add(stock(null, "MSFT", 1.5f));
+        stocks.add(stock("2023-05-01 10:00:00", null, -2f));
+
+        File file = write(stocks, "ZLIB");
+
+        assertEquals(stocks, read(file));
+    }
+
+    @Test
+    public void roundTripWithReferenceData() throws Exception {
+        Stock enriched = stock("2023-05-01 10:00:00", "AMZN", 42.17f);
+        enriched.setExchange("XNAS");
+        enriched.setCurrency("USD");
+        enriched.setSector("Consumer Discretionary");
+        Stock partial = stock("2023-05-01 10:00:01", "SAP", 1f);
+        partial.setCurrency("EUR");
+        List<Stock> stocks = List.of(enriched, partial, stock("2023-05-01 10:00:02", "AAPL", 2f));
+
+        assertEquals(stocks, read(write(stocks, "ZLIB")));
+    }
+
+    @Test
+    public void roundTripWithEverySupportedCodec() throws Exception {
+        List<Stock> stocks = List.of(stock("2023-05-01 10:00:00", "AMZN", 42.17f), stock(null, null, 3f));
+
+        for (String codec : List.of("NONE", "ZLIB", "SNAPPY", "LZ4")) {
+            File file = write(stocks, codec);
+
+            Reader reader = OrcFile.createReader(new Path(file.toURI()), OrcFile.readerOptions(new Configuration()));
+            assertEquals(CompressionKind.valueOf(codec), reader.getCompressionKind());
+            assertEquals(codec, stocks, read(file));
+        }
+    }
+
+    @Test
+    public void writesFixedSchema() throws Exception {
+        File file = write(List.of(stock("2023-05-01 10:00:00", "AMZN", 42.17f)), "ZLIB");
+
+        Reader reader = OrcFile.createReader(new Path(file.toURI()), OrcFile.readerOptions(new Configuration()));
+        assertEquals(TypeDescription.fromString(StockVectorizer.SCHEMA), reader.getSchema());
+    }
+
+    private File write(List<Stock> stocks, String codec) throws Exception {
+        File file = tmp.newFile();
+        Properties writerProperties = new Properties();
+        writerProperties.setProperty("orc.compress", codec);
+        OrcBulkWriterFactory<Stock> factory =
+                new OrcBulkWriterFactory<>(new StockVectorizer(), writerProperties, new Configuration());
+
+        LocalDataOutputStream out = new LocalDataOutputStream(file);
+        BulkWriter<Stock> writer = factory.create(out);
+        for (Stock stock : stocks) {
+            writer.addElement(stock);
+        }
+        writer.finish();
+        out.close();
+        return file;
+    }
+
+    private static List<Stock> read(File file) throws Exception {
+        Reader reader = OrcFile.createReader(new Path(file.toURI()), OrcFile.readerOptions(new Configuration()));
+        VectorizedRowBatch batch = reader.getSchema().createRowBatch();
+
+        List<Stock> stocks = new ArrayList<>();
+        try (RecordReader rows = reader.rows()) {
+            while (rows.nextBatch(batch)) {
+                for (int row = 0; row < batch.size; row++) {
+                    Stock stock = new Stock();
+                    stock.setEvent_time(string(batch, 0, row));
+                    stock.setTicker(string(batch, 1, row));
+                    stock.setPrice((float) ((DoubleColumnVector) batch.cols[2]).vector[row]);
+                    stock.setExchange(string(batch, 3, row));
+                    stock.setCurrency(string(batch, 4, row));
+                    stock.setSector(string(batch, 5, row));
+                    stocks.add(stock);
+                }
+            }
+        }
+        return stocks;
+    }
+
+    private static String string(VectorizedRowBatch batch, int column, int row) {
+        BytesColumnVector vector = (BytesColumnVector) batch.cols[column];
+        if (vector.isRepeating) {
+            row = 0;
+        }
+        return !vector.noNulls && vector.isNull[row] ? null : vector.toString(row);
+    }
+
+    private static Stock stock(String eventTime, String ticker, float price) {
+        Stock stock = new Stock();
+        stock.setEvent_time(eventTime);
+        stock.setTicker(ticker);
+        stock.setPrice(price);
+        return stock;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.stock;
+
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.junit.Assert.assertEquals;
+
+public class StockWatermarksTest {
+
+    @Test
+    public void parsesEventTimes() {
+        assertEquals(1682935200000L, StockWatermarks.timestampOf("2023-05-01 10:00:00"));
+        assertEquals(1682935200123L, StockWatermarks.timestampOf("2023-05-01T10:00:00.123"));
+        assertEquals(1682935200000L, StockWatermarks.timestampOf("2023-05-01T10:00"));
+    }
+
+    @Test
+    public void missingOrInvalidEventTimesHaveNoTimestamp() {
+        assertEquals(StockWatermarks.NO_TIMESTAMP, StockWatermarks.timestampOf(null));
+        assertEquals(StockWatermarks.NO_TIMESTAMP, StockWatermarks.timestampOf("not a timestamp"));
+        assertEquals(StockWatermarks.NO_TIMESTAMP, StockWatermarks.timestampOf("2023-02-30 10:00:00"));
+    }
+
+    @Test
+    public void shardWatermarkTrailsMaxTimestamp() {
+        ShardWatermarkAssigner<Stock> assigner =
+                new ShardWatermarkAssigner<>(Duration.ofSeconds(5), Stock::getEvent_time);
+        assertEquals(Long.MIN_VALUE, assigner.getCurrentWatermark().getTimestamp());
+
+        assertEquals(1682935210000L, assigner.extractTimestamp(stock("2023-05-01 10:00:10"), 0L));
+        assigner.extractTimestamp(stock("2023-05-01 10:00:02"), 0L);
+        assertEquals(StockWatermarks.NO_TIMESTAMP, assigner.extractTimestamp(stock("garbage"), 0L));
+
+        assertEquals(1682935210000L - 5000L - 1, assigner.getCurrentWatermark().getTimestamp());
+    }
+
+    private static Stock stock(String eventTime) {
+        Stock stock = new Stock();
+        stock.setEvent_time(eventTime);
+        stock.setTicker("AMZN");
+        return stock;
+    }
+}
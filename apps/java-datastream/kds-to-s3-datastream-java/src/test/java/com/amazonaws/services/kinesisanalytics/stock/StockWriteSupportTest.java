@@ -0,0 +1,141 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.stock;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.hadoop.util.HadoopOutputFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public class StockWriteSupportTest {
+
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void roundTrip() throws Exception {
+        List<Stock> stocks = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            stocks.add(stock("2023-05-01 10:00:0" + (i % 10), i % 2 == 0 ? "AMZN" : "AAPL", i / 10f));
+        }
+        stocks.add(stock(null, "MSFT", 1.5f));
+        stocks.add(stock("2023-05-01 10:00:00", null, -2f));
+
+        Path path = write(stocks);
+
+        assertEquals(stocks, read(path));
+    }
+
+    @Test
+    public void roundTripWithReferenceData() throws Exception {
+        Stock enriched = stock("2023-05-01 10:00:00", "AMZN", 42.17f);
+        enriched.setExchange("XNAS");
+        enriched.setCurrency("USD");
+        enriched.setSector("Consumer Discretionary");
+        Stock partial = stock("2023-05-01 10:00:01", "SAP", 1f);
+        partial.setCurrency("EUR");
+
+        Path path = write(List.of(enriched, partial, stock("2023-05-01 10:00:02", "AAPL", 2f)));
+
+        assertEquals(List.of(enriched, partial, stock("2023-05-01 10:00:02", "AAPL", 2f)), read(path));
+    }
+
+    @Test
+    public void writesFixedSchema() throws Exception {
+        Path path = write(List.of(stock("2023-05-01 10:00:00", "AMZN", 42.17f)));
+
+        try (ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromPath(path, new Configuration()))) {
+            assertEquals(StockWriteSupport.SCHEMA, reader.getFileMetaData().getSchema());
+            assertFalse(reader.getFileMetaData().getKeyValueMetaData().containsKey("parquet.avro.schema"));
+        }
+    }
+
+    @Test
+    public void skipsMissingStrings() throws Exception {
+        Path path = write(List.of(stock(null, null, 3f)));
+
+        Stock stock = read(path).get(0);
+        assertNull(stock.getEvent_time());
+        assertNull(stock.getTicker());
+        assertEquals(3f, stock.getPrice(), 0f);
+    }
+
+    private Path write(List<Stock> stocks) throws Exception {
+        Path path = new Path(new File(tmp.getRoot(), "stocks.parquet").toURI());
+        HadoopOutputFile file = HadoopOutputFile.fromPath(path, new Configuration());
+
+        try (ParquetWriter<Stock> writer = StockWriteSupport.builder(file).build()) {
+            for (Stock stock : stocks) {
+                writer.write(stock);
+            }
+        }
+        return path;
+    }
+
+    private static List<Stock> read(Path path) throws Exception {
+        List<Stock> stocks = new ArrayList<>();
+        try (ParquetReader<Group> reader = ParquetReader.builder(new GroupReadSupport(), path).build()) {
+            for (Group group = reader.read(); group != null; group = reader.read()) {
+                Stock stock = new Stock();
+                if (group.getFieldRepetitionCount(StockWriteSupport.EVENT_TIME_COLUMN) > 0) {
+                    stock.setEvent_time(group.getString(StockWriteSupport.EVENT_TIME_COLUMN, 0));
+                }
+                if (group.getFieldRepetitionCount(StockWriteSupport.TICKER_COLUMN) > 0) {
+                    stock.setTicker(group.getString(StockWriteSupport.TICKER_COLUMN, 0));
+                }
+                stock.setPrice(group.getFloat(StockWriteSupport.PRICE_COLUMN, 0));
+                if (group.getFieldRepetitionCount(StockWriteSupport.EXCHANGE_COLUMN) > 0) {
+                    stock.setExchange(group.getString(StockWriteSupport.EXCHANGE_COLUMN, 0));
+                }
+                if (group.getFieldRepetitionCount(StockWriteSupport.CURRENCY_COLUMN) > 0) {
+                    stock.setCurrency(group.getString(StockWriteSupport.CURRENCY_COLUMN, 0));
+                }
+                if (group.getFieldRepetitionCount(StockWriteSupport.SECTOR_COLUMN) > 0) {
+                    stock.setSector(group.getString(StockWriteSupport.SECTOR_COLUMN, 0));
+                }
+                stocks.add(stock);
+            }
+        }
+        return stocks;
+    }
+
+    private static Stock stock(String eventTime, String ticker, float price) {
+        Stock stock = new Stock();
+        stock.setEvent_time(eventTime);
+        stock.setTicker(ticker);
+        stock.setPrice(price);
+        return stock;
+    }
+}
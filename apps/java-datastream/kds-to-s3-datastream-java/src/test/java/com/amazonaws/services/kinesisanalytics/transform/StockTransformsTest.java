@@ -0,0 +1,130 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.services.kinesisanalytics.transform;
+
+import com.amazonaws.services.kinesisanalytics.stock.Stock;
+import com.amazonaws.services.kinesisanalytics.stock.StockTypeInfo;
+import org.apache.flink.streaming.api.datastream.DataStream;
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.apache.flink.util.CloseableIterator;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class StockTransformsTest {
+
+    @Test
+    public void parsesStagesInOrder() throws Exception {
+        List<StockTransform> stages = StockTransforms.parse(" scale-price:0.01, round-price:1 ,, UPPER-TICKER");
+        assertEquals(3, stages.size());
+
+        Stock stock = stock("2023-05-01 10:00:00", "amzn", 12345f);
+        for (StockTransform stage : stages) {
+            stock = stage.apply(stock);
+        }
+        assertEquals(123.5f, stock.getPrice(), 0f);
+        assertEquals("AMZN", stock.getTicker());
+    }
+
+    @Test
+    public void parsesEmptyList() {
+        assertEquals(0, StockTransforms.parse("").size());
+        assertEquals(0, StockTransforms.parse(" , ").size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownStage() {
+        StockTransforms.parse("upper-ticker, lower-ticker");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMissingArgument() {
+        StockTransforms.parse("round-price");
+    }
+
+    @Test
+    public void changesRecordsInPlace() throws Exception {
+        Stock stock = stock("2023-05-01T10:00:00.1", "amzn", 1.005f);
+
+        assertSame(stock, StockTransforms.upperCaseTicker().apply(stock));
+        assertSame(stock, StockTransforms.canonicalEventTime().apply(stock));
+        assertSame(stock, StockTransforms.roundPrice(2).apply(stock));
+
+        assertEquals("AMZN", stock.getTicker());
+        assertEquals("2023-05-01 10:00:00.100", stock.getEvent_time());
+        assertEquals(1.01f, stock.getPrice(), 0f);
+    }
+
+    @Test
+    public void dropsInvalidRecords() throws Exception {
+        StockTransform dropInvalid = StockTransforms.dropInvalid();
+
+        assertNull(dropInvalid.apply(stock("2023-05-01 10:00:00", null, 1f)));
+        assertNull(dropInvalid.apply(stock("2023-05-01 10:00:00", "AMZN", Float.NaN)));
+        assertNull(dropInvalid.apply(stock("2023-05-01 10:00:00", "AMZN", -1f)));
+        assertNull(dropInvalid.apply(stock("yesterday", "AMZN", 1f)));
+        assertEquals("AMZN", dropInvalid.apply(stock("2023-05-01 10:00:00", "AMZN", 0f)).getTicker());
+    }
+
+    @Test
+    public void chainsStagesWithObjectReuse() throws Exception {
+        StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+        env.setParallelism(1);
+        env.getConfig().enableObjectReuse();
+
+        List<Stock> input = Arrays.asList(
+                stock("2023-05-01 10:00:00", "amzn", 10f),
+                stock("2023-05-01 10:00:01", null, 11f),
+                stock("2023-05-01 10:00:02", "msft", 12f));
+        DataStream<Stock> transformed = env.fromCollection(input, new StockTypeInfo())
+                .flatMap(new StockTransformFunction(StockTransforms.parse("drop-invalid, upper-ticker, scale-price:2")))
+                .returns(new StockTypeInfo());
+
+        // Both chained consumers see the same, fully transformed record
+        DataStream<Stock> prices = transformed.map(stock -> stock(stock.getEvent_time(), stock.getTicker(), stock.getPrice()))
+                .returns(new StockTypeInfo());
+        DataStream<Stock> tickers = transformed.filter(stock -> stock.getTicker().equals("AMZN"));
+
+        List<Stock> result = new ArrayList<>();
+        try (CloseableIterator<Stock> it = prices.union(tickers).executeAndCollect()) {
+            it.forEachRemaining(result::add);
+        }
+        result.sort(Comparator.comparing(Stock::getEvent_time));
+
+        assertEquals(Arrays.asList(
+                stock("2023-05-01 10:00:00", "AMZN", 20f),
+                stock("2023-05-01 10:00:00", "AMZN", 20f),
+                stock("2023-05-01 10:00:02", "MSFT", 24f)), result);
+    }
+
+    private static Stock stock(String eventTime, String ticker, float price) {
+        Stock stock = new Stock();
+        stock.setEvent_time(eventTime);
+        stock.setTicker(ticker);
+        stock.setPrice(price);
+        return stock;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.benchmark;
+
+import kafka.metrics.KafkaYammerMetrics;
+import kafka.server.KafkaServerStartable;
+import org.apache.zookeeper.server.ServerCnxnFactory;
+import org.apache.zookeeper.server.ZooKeeperServer;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * A single Kafka broker and its ZooKeeper in this JVM, with their data in a temporary directory.
+ */
+class EmbeddedKafka implements AutoCloseable {
+    private final Path dataDir;
+    private final ServerCnxnFactory zooKeeper;
+    private final KafkaServerStartable broker;
+    private final String bootstrapServers;
+
+    EmbeddedKafka() throws Exception {
+        this.dataDir = Files.createTempDirectory("embedded-kafka");
+
+        File zooKeeperDir = dataDir.resolve("zookeeper").toFile();
+        this.zooKeeper = ServerCnxnFactory.createFactory(new InetSocketAddress("localhost", 0), 64);
+        this.zooKeeper.startup(new ZooKeeperServer(zooKeeperDir, zooKeeperDir, 500));
+
+        int port = freePort();
+        Properties props = new Properties();
+        props.put("broker.id", "0");
+        props.put("zookeeper.connect", "localhost:" + zooKeeper.getLocalPort());
+        props.put("listeners", "PLAINTEXT://localhost:" + port);
+        props.put("log.dirs", dataDir.resolve("kafka").toString());
+        // A single broker can only keep one copy of the internal topics
+        props.put("offsets.topic.replication.factor", "1");
+        props.put("transaction.state.log.replication.factor", "1");
+        props.put("transaction.state.log.min.isr", "1");
+        props.put("group.initial.rebalance.delay.ms", "0");
+        this.broker = KafkaServerStartable.fromProps(props);
+        this.broker.startup();
+
+        this.bootstrapServers = "localhost:" + port;
+    }
+
+    String getBootstrapServers() {
+        return bootstrapServers;
+    }
+
+    @Override
+    public void close() throws IOException {
+        broker.shutdown();
+        broker.awaitShutdown();
+        // The broker leaves the tick threads of its metrics running, which keeps exec:java waiting
+        KafkaYammerMetrics.defaultRegistry().shutdown();
+        zooKeeper.shutdown();
+
+        try (Stream<Path> paths = Files.walk(dataDir)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
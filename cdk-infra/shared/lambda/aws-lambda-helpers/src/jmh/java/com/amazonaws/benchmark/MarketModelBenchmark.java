@@ -0,0 +1,80 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.benchmark;
+
+import com.amazonaws.EventTimeClock;
+import com.amazonaws.MarketModel;
+import com.amazonaws.MarketSimulation;
+import com.amazonaws.Stock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU per event of the market models. The skewed model should cost the same however many symbols
+ * it trades; {@code 0} symbols is the uniform model with its five tickers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MarketModelBenchmark {
+    @Param({"0", "100", "10000", "100000"})
+    public int symbols;
+
+    @Param({"GBM", "RANDOM_WALK"})
+    public String priceProcess;
+
+    private MarketModel model;
+    private final Stock stock = new Stock();
+
+    @Setup
+    public void setup() throws Exception {
+        Map<String, String> options = new HashMap<>();
+        if (symbols > 0) {
+            options.put("market.model", "SKEWED");
+            options.put("market.symbols", String.valueOf(symbols));
+            options.put("market.price-process", priceProcess);
+            options.put("market.out-of-order-fraction", "0.05");
+            options.put("market.late-fraction", "0.01");
+        }
+        model = MarketSimulation.fromOptions(options).createModel(new EventTimeClock());
+    }
+
+    @Benchmark
+    public Stock next() {
+        model.next(stock, ThreadLocalRandom.current());
+        return stock;
+    }
+}
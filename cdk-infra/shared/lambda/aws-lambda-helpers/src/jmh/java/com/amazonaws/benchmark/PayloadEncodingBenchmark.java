@@ -0,0 +1,100 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.benchmark;
+
+import com.amazonaws.EventTimeClock;
+import com.amazonaws.PayloadFormat;
+import com.amazonaws.Stock;
+import com.amazonaws.StockRecordGenerator;
+import com.google.gson.Gson;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generator CPU per message, from picking the values to the key and value bytes the producer
+ * sends. {@code gson} is the former path: a new Stock, two Randoms, a SimpleDateFormat and
+ * UUID.randomUUID() per record, serialized with Gson and then encoded again by the
+ * StringSerializer. {@code JSON} and {@code BINARY} are the {@link StockRecordGenerator} with the
+ * given {@link PayloadFormat}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadEncodingBenchmark {
+    private static final List<String> TICKERS = Arrays.asList("AAPL", "AMZN", "MSFT", "INTC", "TBV");
+
+    @Param({"gson", "JSON", "BINARY"})
+    public String format;
+
+    private Gson gson;
+    private StringSerializer stringSerializer;
+    private StockRecordGenerator generator;
+
+    @Setup
+    public void setup() {
+        if (format.equals("gson")) {
+            gson = new Gson();
+            stringSerializer = new StringSerializer();
+        } else {
+            generator = new StockRecordGenerator("topic", PayloadFormat.valueOf(format).createEncoder(),
+                    new EventTimeClock());
+        }
+    }
+
+    @Benchmark
+    public Object message() {
+        if (generator != null) {
+            return generator.next();
+        }
+
+        Stock stock = new Stock();
+        stock.setEvent_time(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date()));
+        stock.setTicker(TICKERS.get(new Random().nextInt(TICKERS.size())));
+        stock.setPrice(new Random().nextFloat() * (100));
+
+        ProducerRecord<String, String> record =
+                new ProducerRecord<>("topic", UUID.randomUUID().toString(), gson.toJson(stock));
+        return new byte[][] {
+                stringSerializer.serialize(record.topic(), record.key()),
+                stringSerializer.serialize(record.topic(), record.value())
+        };
+    }
+}
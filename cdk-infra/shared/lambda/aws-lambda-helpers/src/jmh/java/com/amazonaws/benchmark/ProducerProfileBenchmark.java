@@ -0,0 +1,204 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.benchmark;
+
+import com.amazonaws.EventTimeClock;
+import com.amazonaws.MSKDataGen;
+import com.amazonaws.PayloadFormat;
+import com.amazonaws.ProducerProfile;
+import com.amazonaws.RateLimiter;
+import com.amazonaws.StockRecordGenerator;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends the same records with each {@link ProducerProfile} and reports throughput and the latency
+ * from {@code send} to the broker ack. Starts an embedded single broker unless
+ * {@code --bootstrap-servers} is given, e.g.
+ * {@code --messages 2000000 --partitions 3 --rate 50000 --profiles DEFAULT,LOW_LATENCY}.
+ *
+ * <p>Without {@code --rate} the producer is driven as fast as it accepts records, so latencies
+ * include the time records wait for buffer space; with a rate below the throughput of a profile
+ * they show the latency of that profile at that load. Latencies on an embedded broker leave out
+ * replication and the network, so compare profiles with each other rather than with MSK.
+ */
+public class ProducerProfileBenchmark {
+    private static final EventTimeClock EVENT_TIME_CLOCK = new EventTimeClock();
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int messages = Integer.parseInt(options.getOrDefault("messages", "1000000"));
+        int partitions = Integer.parseInt(options.getOrDefault("partitions", "3"));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "0"));
+        PayloadFormat format = PayloadFormat.of(options.getOrDefault("format", "JSON"));
+        List<ProducerProfile> profiles = new ArrayList<>();
+        if (options.containsKey("profiles")) {
+            for (String name : options.get("profiles").split(",")) {
+                profiles.add(ProducerProfile.of(name));
+            }
+        } else {
+            profiles.addAll(Arrays.asList(ProducerProfile.values()));
+        }
+
+        EmbeddedKafka embeddedKafka = options.containsKey("bootstrap-servers") ? null : new EmbeddedKafka();
+        try {
+            String bootstrapServers = embeddedKafka == null
+                    ? options.get("bootstrap-servers")
+                    : embeddedKafka.getBootstrapServers();
+
+            System.out.printf("%-20s %12s %10s %10s %10s %10s %10s %8s%n",
+                    "profile", "records/s", "MB/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+            for (ProducerProfile profile : profiles) {
+                String topic = "profile-benchmark-" + profile.name().toLowerCase(Locale.ROOT).replace('_', '-');
+                createTopic(bootstrapServers, topic, partitions);
+
+                MSKDataGen dataGen = new MSKDataGen(bootstrapServers, topic);
+                dataGen.setIamAuthEnabled(false);
+                dataGen.setProducerProfile(profile);
+
+                Run run = new Run(dataGen.getProperties(), new StockRecordGenerator(topic, format.createEncoder(),
+                        EVENT_TIME_CLOCK), rate);
+                // Warms up the JIT, the connections and the metadata of the topic
+                run.send(Math.max(messages / 10, 1));
+                Result result = run.send(messages);
+                run.close();
+
+                System.out.printf("%-20s %12.0f %10.1f %10.2f %10.2f %10.2f %10.2f %8d%n",
+                        profile,
+                        result.records / result.seconds,
+                        result.bytes / result.seconds / (1024 * 1024),
+                        result.percentile(0.5),
+                        result.percentile(0.99),
+                        result.percentile(0.999),
+                        result.percentile(1.0),
+                        result.errors);
+            }
+        } finally {
+            if (embeddedKafka != null) {
+                embeddedKafka.close();
+            }
+        }
+    }
+
+    private static void createTopic(String bootstrapServers, String topic, int partitions) throws Exception {
+        Properties props = new Properties();
+        props.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        try (AdminClient client = AdminClient.create(props)) {
+            // Replication factor 1, so the same benchmark runs against the single embedded broker
+            client.createTopics(Collections.singletonList(new NewTopic(topic, partitions, (short) 1))).all().get();
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i += 2) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value pairs but got " + String.join(" ", args));
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    private static class Run {
+        private final KafkaProducer<byte[], byte[]> producer;
+        private final StockRecordGenerator generator;
+        private final RateLimiter rateLimiter;
+
+        Run(Properties producerProperties, StockRecordGenerator generator, double rate) {
+            this.producer = new KafkaProducer<>(producerProperties);
+            this.generator = generator;
+            // A millisecond of permits makes up for parking longer than the few microseconds between
+            // two records, which would otherwise lower the rate
+            this.rateLimiter = rate > 0 ? new RateLimiter(rate, 0.001) : null;
+        }
+
+        Result send(int records) throws InterruptedException {
+            long[] latencies = new long[records];
+            AtomicLong errors = new AtomicLong();
+            long bytes = 0;
+
+            long start = System.nanoTime();
+            for (int i = 0; i < records; i++) {
+                if (rateLimiter != null) {
+                    rateLimiter.acquire(1);
+                }
+
+                ProducerRecord<byte[], byte[]> record = generator.next();
+                bytes += record.key().length + record.value().length;
+
+                int index = i;
+                long sendTime = System.nanoTime();
+                producer.send(record, (metadata, exception) -> {
+                    latencies[index] = System.nanoTime() - sendTime;
+                    if (exception != null) {
+                        errors.incrementAndGet();
+                    }
+                });
+            }
+            // Waits for the acks of all records; the callbacks have run once flush returns
+            producer.flush();
+            long elapsed = System.nanoTime() - start;
+
+            return new Result(records, bytes, elapsed / 1e9, latencies, errors.get());
+        }
+
+        void close() {
+            producer.close();
+        }
+    }
+
+    private static class Result {
+        private final int records;
+        private final long bytes;
+        private final double seconds;
+        private final long[] latencies;
+        private final long errors;
+
+        Result(int records, long bytes, double seconds, long[] latencies, long errors) {
+            this.records = records;
+            this.bytes = bytes;
+            this.seconds = seconds;
+            this.latencies = latencies;
+            this.errors = errors;
+            Arrays.sort(this.latencies);
+        }
+
+        /**
+         * @return the latency in milliseconds below which the given fraction of records was acked
+         */
+        double percentile(double fraction) {
+            int index = (int) Math.ceil(fraction * latencies.length) - 1;
+            return latencies[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
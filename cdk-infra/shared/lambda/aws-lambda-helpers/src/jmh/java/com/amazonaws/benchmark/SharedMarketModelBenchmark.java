@@ -0,0 +1,103 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws.benchmark;
+
+import com.amazonaws.EventTimeClock;
+import com.amazonaws.MarketModel;
+import com.amazonaws.MarketSimulation;
+import com.amazonaws.Stock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU per event of the skewed model when generator threads share one simulation, as they do in
+ * the generator, and so update the prices of the same hot symbols.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SharedMarketModelBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Simulation {
+        @Param({"5000", "100000"})
+        public int symbols;
+
+        private MarketSimulation simulation;
+
+        @Setup
+        public void setup() throws Exception {
+            Map<String, String> options = new HashMap<>();
+            options.put("market.model", "SKEWED");
+            options.put("market.symbols", String.valueOf(symbols));
+            simulation = MarketSimulation.fromOptions(options);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Generator {
+        private MarketModel model;
+        private final Stock stock = new Stock();
+
+        @Setup
+        public void setup(Simulation simulation) {
+            model = simulation.simulation.createModel(new EventTimeClock());
+        }
+
+        Stock next() {
+            model.next(stock, ThreadLocalRandom.current());
+            return stock;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Stock oneThread(Generator generator) {
+        return generator.next();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Stock fourThreads(Generator generator) {
+        return generator.next();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Stock eightThreads(Generator generator) {
+        return generator.next();
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Samples indexes from a fixed discrete distribution in constant time, with Vose's alias method:
+ * every slot holds its own index with probability {@code probability[slot]} and otherwise
+ * {@code alias[slot]}.
+ */
+public class AliasTable {
+    private final double[] probability;
+    private final int[] alias;
+
+    /**
+     * @param weights non-negative weights with a positive sum; they do not have to sum up to 1
+     */
+    public AliasTable(double[] weights) {
+        int n = weights.length;
+        if (n == 0) {
+            throw new IllegalArgumentException("weights must not be empty");
+        }
+        double sum = 0;
+        for (double weight : weights) {
+            if (weight < 0 || Double.isNaN(weight)) {
+                throw new IllegalArgumentException("weights must not be negative but got " + weight);
+            }
+            sum += weight;
+        }
+        if (sum <= 0) {
+            throw new IllegalArgumentException("weights must have a positive sum");
+        }
+
+        this.probability = new double[n];
+        this.alias = new int[n];
+
+        // Scaled so that the average slot has weight 1
+        double[] scaled = new double[n];
+        Deque<Integer> small = new ArrayDeque<>();
+        Deque<Integer> large = new ArrayDeque<>();
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / sum;
+            (scaled[i] < 1 ? small : large).push(i);
+        }
+        while (!small.isEmpty() && !large.isEmpty()) {
+            int less = small.pop();
+            int more = large.pop();
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1;
+            (scaled[more] < 1 ? small : large).push(more);
+        }
+        // What is left is 1 up to rounding errors
+        while (!large.isEmpty()) {
+            probability[large.pop()] = 1;
+        }
+        while (!small.isEmpty()) {
+            probability[small.pop()] = 1;
+        }
+    }
+
+    /**
+     * Weights {@code 1 / rank^exponent} for ranks 1 to {@code n}; exponent 0 is uniform.
+     */
+    public static AliasTable zipf(int n, double exponent) {
+        double[] weights = new double[n];
+        for (int i = 0; i < n; i++) {
+            weights[i] = Math.pow(i + 1, -exponent);
+        }
+        return new AliasTable(weights);
+    }
+
+    public int sample(ThreadLocalRandom random) {
+        // One random number picks both the slot and the side of it
+        double u = random.nextDouble() * probability.length;
+        // nextDouble() is below 1, but the product may still round up to the length
+        int slot = Math.min((int) u, probability.length - 1);
+        return u - slot < probability[slot] ? slot : alias[slot];
+    }
+
+    public int size() {
+        return probability.length;
+    }
+}
@@ -18,13 +18,47 @@
 
 package com.amazonaws;
 
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Runs the data generator from the command line, e.g.
+ * {@code java -jar aws-lambda-helpers-1.0.jar --bootstrap-servers localhost:9092 --topic sourceTopic
+ * --iam false --messages 10000000 --threads 4 --rate 200000 --profile max-throughput}. Producer settings
+ * can be overridden with {@code --producer.<setting> value}, e.g. {@code --producer.linger.ms 20}, and the
+ * market is simulated as set by {@code --market.<option> value}, see {@link MarketSimulation}.
+ */
 public class App {
     public static void main(String[] args) throws Exception {
         System.out.println("Starting program...");
 
-        String bootstrapServers = "boot-8vkw6qcx.c1.kafka-serverless.us-east-1.amazonaws.com:9098";
-        String topic = "sourceTopic";
-        MSKDataGen mskDataGen = new MSKDataGen(bootstrapServers, topic, 100);
+        Map<String, String> options = parseOptions(args);
+        String bootstrapServers = options.getOrDefault("bootstrap-servers",
+                "boot-8vkw6qcx.c1.kafka-serverless.us-east-1.amazonaws.com:9098");
+        String topic = options.getOrDefault("topic", "sourceTopic");
+        int numMessages = Integer.parseInt(options.getOrDefault("messages", "100"));
+
+        MSKDataGen mskDataGen = new MSKDataGen(bootstrapServers, topic, numMessages);
+        mskDataGen.setNumThreads(Integer.parseInt(options.getOrDefault("threads", "1")));
+        mskDataGen.setRecordsPerSecond(Double.parseDouble(options.getOrDefault("rate", "0")));
+        mskDataGen.setMaxInFlight(Integer.parseInt(options.getOrDefault("max-in-flight", "10000")));
+        mskDataGen.setReportIntervalInSeconds(Integer.parseInt(options.getOrDefault("report-interval", "10")));
+        mskDataGen.setIamAuthEnabled(Boolean.parseBoolean(options.getOrDefault("iam", "true")));
+        mskDataGen.setPayloadFormat(PayloadFormat.of(options.getOrDefault("format", "JSON")));
+        mskDataGen.setProducerProfile(ProducerProfile.of(options.getOrDefault("profile", "DEFAULT")));
+        mskDataGen.setProducerOverrides(ProducerProfile.overrides(options));
+        mskDataGen.setMarketSimulation(MarketSimulation.fromOptions(options));
         mskDataGen.run();
     }
-}
\ No newline at end of file
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i += 2) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value pairs but got " + String.join(" ", args));
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+}
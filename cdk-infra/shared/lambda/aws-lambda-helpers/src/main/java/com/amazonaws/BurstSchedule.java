@@ -0,0 +1,49 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws;
+
+import java.time.Duration;
+
+/**
+ * Alternates quiet phases at the target rate with bursts at a multiple of it, starting quiet.
+ */
+public class BurstSchedule {
+    private final double burstFactor;
+    private final long quietNanos;
+    private final long cycleNanos;
+
+    public BurstSchedule(double burstFactor, Duration burst, Duration quiet) {
+        if (burstFactor <= 0) {
+            throw new IllegalArgumentException("burstFactor must be positive but was " + burstFactor);
+        }
+        if (burst.isNegative() || quiet.isNegative() || burst.plus(quiet).isZero()) {
+            throw new IllegalArgumentException("Burst and quiet phases must not be negative or both empty");
+        }
+        this.burstFactor = burstFactor;
+        this.quietNanos = quiet.toNanos();
+        this.cycleNanos = quiet.toNanos() + burst.toNanos();
+    }
+
+    /**
+     * @return the factor of the target rate {@code elapsedNanos} after the start
+     */
+    public double rateFactor(long elapsedNanos) {
+        return elapsedNanos % cycleNanos < quietNanos ? 1 : burstFactor;
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws;
+
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Sends generated records from several threads through one shared producer, optionally at a fixed
+ * rate, and logs the achieved rate while it runs.
+ *
+ * <p>A KafkaProducer is thread safe and batches records from all threads together, so more
+ * threads only add generation capacity, not connections.
+ *
+ * <p>Every send has a callback that counts the record as acked or failed and records its ack
+ * latency. At most {@code maxInFlight} records are sent but not yet acked; senders wait for acks
+ * beyond that instead of flushing the producer, which would stop all threads until every batch
+ * is acked.
+ */
+public class DataGenEngine<K, V> {
+    // Records a thread claims and paces at once; small enough to keep the rate smooth
+    private static final int MAX_CHUNK_SIZE = 256;
+
+    private final Producer<K, V> producer;
+    private final int numThreads;
+    private final double recordsPerSecond;
+    private final int maxInFlight;
+    private final Duration reportInterval;
+    private final Consumer<String> log;
+    private final RateLimiter.Clock clock;
+    private BurstSchedule burstSchedule;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong acked = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicReference<String> firstError = new AtomicReference<>();
+    private final LatencyHistogram ackLatency = new LatencyHistogram();
+    private final Semaphore inFlight;
+
+    /**
+     * @param recordsPerSecond target rate over all threads; 0 sends as fast as possible
+     * @param maxInFlight records that may be sent but not yet acked or failed
+     */
+    public DataGenEngine(Producer<K, V> producer,
+            int numThreads,
+            double recordsPerSecond,
+            int maxInFlight,
+            Duration reportInterval,
+            Consumer<String> log) {
+        this(producer, numThreads, recordsPerSecond, maxInFlight, reportInterval, log, RateLimiter.SYSTEM_CLOCK);
+    }
+
+    DataGenEngine(Producer<K, V> producer,
+            int numThreads,
+            double recordsPerSecond,
+            int maxInFlight,
+            Duration reportInterval,
+            Consumer<String> log,
+            RateLimiter.Clock clock) {
+        if (numThreads < 1) {
+            throw new IllegalArgumentException("numThreads must be at least 1 but was " + numThreads);
+        }
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1 but was " + maxInFlight);
+        }
+        this.producer = producer;
+        this.numThreads = numThreads;
+        this.recordsPerSecond = recordsPerSecond;
+        this.maxInFlight = maxInFlight;
+        this.reportInterval = reportInterval;
+        this.log = log;
+        this.clock = clock;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Varies the target rate over time; ignored when sending as fast as possible.
+     */
+    public void setBurstSchedule(BurstSchedule burstSchedule) {
+        this.burstSchedule = burstSchedule;
+    }
+
+    /**
+     * Sends {@code numRecords} records and waits until all of them are acked or failed. Records
+     * that fail are counted in the result, they do not fail the run.
+     *
+     * @param records creates the next record; called from all threads at once
+     */
+    public Result run(long numRecords, Supplier<ProducerRecord<K, V>> records) throws Exception {
+        RateLimiter rateLimiter = recordsPerSecond > 0 ? new RateLimiter(recordsPerSecond, 0, clock) : null;
+        int chunkSize = chunkSize();
+        AtomicLong unclaimed = new AtomicLong(numRecords);
+
+        ExecutorService workers = Executors.newFixedThreadPool(numThreads, daemon("datagen-worker"));
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(daemon("datagen-reporter"));
+        long start = clock.nanoTime();
+        reporter.scheduleAtFixedRate(new Reporter(start), reportInterval.toMillis(), reportInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < numThreads; i++) {
+                futures.add(workers.submit(() -> {
+                    send(start, unclaimed, chunkSize, rateLimiter, records);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            // Sends lingering batches right away; all permits are back once every callback ran
+            producer.flush();
+            inFlight.acquire(maxInFlight);
+            inFlight.release(maxInFlight);
+        } catch (ExecutionException e) {
+            workers.shutdownNow();
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        } finally {
+            workers.shutdownNow();
+            reporter.shutdownNow();
+        }
+
+        Result result = new Result(sent.get(),
+                acked.get(),
+                failed.get(),
+                (long) producerMetric("record-retry-total"),
+                firstError.get(),
+                clock.nanoTime() - start,
+                recordsPerSecond,
+                ackLatency);
+        log.accept("Done: " + result);
+        return result;
+    }
+
+    private void send(long start,
+            AtomicLong unclaimed,
+            int chunkSize,
+            RateLimiter rateLimiter,
+            Supplier<ProducerRecord<K, V>> records) throws Exception {
+        while (!Thread.currentThread().isInterrupted()) {
+            long left = unclaimed.getAndAdd(-chunkSize);
+            if (left <= 0) {
+                return;
+            }
+            int chunk = (int) Math.min(chunkSize, left);
+
+            if (rateLimiter != null) {
+                if (burstSchedule != null) {
+                    rateLimiter.setRate(recordsPerSecond * burstSchedule.rateFactor(clock.nanoTime() - start));
+                }
+                rateLimiter.acquire(chunk);
+            }
+            // Permits for the whole chunk at once; the callbacks return them one by one
+            inFlight.acquire(chunk);
+            for (int i = 0; i < chunk; i++) {
+                producer.send(records.get(), new Completion(clock.nanoTime()));
+            }
+
+            sent.addAndGet(chunk);
+        }
+    }
+
+    private int chunkSize() {
+        int chunkSize = MAX_CHUNK_SIZE;
+        if (recordsPerSecond > 0) {
+            // About a millisecond worth of records per thread
+            chunkSize = (int) Math.max(1, Math.min(MAX_CHUNK_SIZE, recordsPerSecond / 1000 / numThreads));
+        }
+        // A thread must be able to take a whole chunk out of the window
+        return Math.min(chunkSize, maxInFlight);
+    }
+
+    private double producerMetric(String name) {
+        Map<MetricName, ? extends Metric> metrics = producer.metrics();
+        for (Map.Entry<MetricName, ? extends Metric> metric : metrics.entrySet()) {
+            if (metric.getKey().group().equals("producer-metrics") && metric.getKey().name().equals(name)) {
+                Object value = metric.getValue().metricValue();
+                return value instanceof Number ? ((Number) value).doubleValue() : 0;
+            }
+        }
+        // e.g. a MockProducer, which has no metrics
+        return 0;
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicLong ids = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + ids.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private class Completion implements Callback {
+        private final long sendNanos;
+
+        Completion(long sendNanos) {
+            this.sendNanos = sendNanos;
+        }
+
+        @Override
+        public void onCompletion(RecordMetadata metadata, Exception exception) {
+            ackLatency.record(clock.nanoTime() - sendNanos);
+            if (exception == null) {
+                acked.incrementAndGet();
+            } else {
+                failed.incrementAndGet();
+                firstError.compareAndSet(null, exception.toString());
+            }
+            inFlight.release();
+        }
+    }
+
+    private class Reporter implements Runnable {
+        private long lastNanos;
+        private long lastSent;
+
+        Reporter(long startNanos) {
+            this.lastNanos = startNanos;
+        }
+
+        @Override
+        public void run() {
+            long now = clock.nanoTime();
+            long total = sent.get();
+            double rate = (total - lastSent) * 1e9 / Math.max(1, now - lastNanos);
+            log.accept(String.format("Sent %d records, %.0f records/s%s, %d acked, %d failed", total, rate,
+                    recordsPerSecond > 0 ? String.format(" (target %.0f)", recordsPerSecond) : "",
+                    acked.get(), failed.get()));
+            lastNanos = now;
+            lastSent = total;
+        }
+    }
+
+    /**
+     * Delivery report of a run. Ack latencies run from handing a record to the producer until its
+     * callback, for acked and failed records alike.
+     */
+    public static class Result {
+        public final long sentRecords;
+        public final long ackedRecords;
+        public final long failedRecords;
+        // Produce requests the producer retried, from its record-retry-total metric
+        public final long retries;
+        // null if no record failed
+        public final String firstError;
+        public final long elapsedNanos;
+        public final double targetRecordsPerSecond;
+        public final double ackLatencyP50Millis;
+        public final double ackLatencyP99Millis;
+        public final double ackLatencyMaxMillis;
+
+        Result(long sentRecords,
+                long ackedRecords,
+                long failedRecords,
+                long retries,
+                String firstError,
+                long elapsedNanos,
+                double targetRecordsPerSecond,
+                LatencyHistogram ackLatency) {
+            this.sentRecords = sentRecords;
+            this.ackedRecords = ackedRecords;
+            this.failedRecords = failedRecords;
+            this.retries = retries;
+            this.firstError = firstError;
+            this.elapsedNanos = elapsedNanos;
+            this.targetRecordsPerSecond = targetRecordsPerSecond;
+            this.ackLatencyP50Millis = ackLatency.getPercentileMillis(0.5);
+            this.ackLatencyP99Millis = ackLatency.getPercentileMillis(0.99);
+            this.ackLatencyMaxMillis = ackLatency.getMaxMillis();
+        }
+
+        public double getRecordsPerSecond() {
+            return sentRecords * 1e9 / Math.max(1, elapsedNanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("sent %d records in %.1f s, %.0f records/s; %d acked, %d failed, %d retries; "
+                            + "ack latency p50 %.1f ms, p99 %.1f ms, max %.1f ms%s",
+                    sentRecords, elapsedNanos / 1e9, getRecordsPerSecond(),
+                    ackedRecords, failedRecords, retries,
+                    ackLatencyP50Millis, ackLatencyP99Millis, ackLatencyMaxMillis,
+                    firstError == null ? "" : "; first error: " + firstError);
+        }
+    }
+}
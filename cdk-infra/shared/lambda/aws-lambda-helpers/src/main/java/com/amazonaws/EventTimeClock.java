@@ -0,0 +1,78 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Current time as an event_time string ({@code yyyy-MM-dd HH:mm:ss}). The string only changes
+ * once per second, so it is formatted once per second and shared by all threads.
+ */
+public class EventTimeClock {
+    private static final DateTimeFormatter FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    // Past seconds handed out by secondsAgo, by epoch second modulo the size
+    private static final int PAST_SECONDS = 4096;
+
+    private volatile Second current = new Second(Long.MIN_VALUE, null);
+    private final Second[] past = new Second[PAST_SECONDS];
+
+    public String now() {
+        long epochSecond = Math.floorDiv(System.currentTimeMillis(), 1000L);
+        Second second = current;
+        if (second.epochSecond != epochSecond) {
+            // Racing threads format the same second; whichever wins, the string is the same
+            second = new Second(epochSecond, FORMAT.format(Instant.ofEpochSecond(epochSecond)));
+            current = second;
+        }
+        return second.formatted;
+    }
+
+    /**
+     * The time {@code seconds} ago, for out-of-order and late events. Each of the last
+     * 4096 seconds is only formatted once; older ones are formatted on every call.
+     */
+    public String secondsAgo(int seconds) {
+        if (seconds == 0) {
+            return now();
+        }
+        long epochSecond = Math.floorDiv(System.currentTimeMillis(), 1000L) - seconds;
+        int slot = (int) Math.floorMod(epochSecond, (long) PAST_SECONDS);
+        // Seconds are immutable, so a racy read sees either a complete one or null
+        Second second = past[slot];
+        if (second == null || second.epochSecond != epochSecond) {
+            second = new Second(epochSecond, FORMAT.format(Instant.ofEpochSecond(epochSecond)));
+            past[slot] = second;
+        }
+        return second.formatted;
+    }
+
+    private static class Second {
+        final long epochSecond;
+        final String formatted;
+
+        Second(long epochSecond, String formatted) {
+            this.epochSecond = epochSecond;
+            this.formatted = formatted;
+        }
+    }
+}
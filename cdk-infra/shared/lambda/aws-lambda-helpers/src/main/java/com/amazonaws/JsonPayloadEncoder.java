@@ -0,0 +1,175 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes stock records as JSON straight into a reused byte buffer. The field order is fixed, so
+ * the names and punctuation are copied from pre-encoded templates, and the price is formatted in
+ * place with a fixed number of decimals instead of going through a String.
+ */
+public class JsonPayloadEncoder implements PayloadEncoder {
+    private static final int DEFAULT_PRICE_DECIMALS = 2;
+
+    private static final byte[] EVENT_TIME = ascii("{\"event_time\":");
+    private static final byte[] TICKER = ascii(",\"ticker\":");
+    private static final byte[] PRICE = ascii(",\"price\":");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] HEX = ascii("0123456789abcdef");
+
+    // Larger prices do not fit a long once scaled, and are printed as Float.toString does
+    private static final double MAX_SCALED_PRICE = 1e15;
+
+    private final int priceDecimals;
+    private final double priceScale;
+
+    private byte[] buffer = new byte[128];
+    private int position;
+
+    public JsonPayloadEncoder(int priceDecimals) {
+        if (priceDecimals < 0 || priceDecimals > 6) {
+            throw new IllegalArgumentException("priceDecimals must be between 0 and 6 but was " + priceDecimals);
+        }
+        this.priceDecimals = priceDecimals;
+        this.priceScale = Math.pow(10, priceDecimals);
+    }
+
+    public JsonPayloadEncoder() {
+        this(DEFAULT_PRICE_DECIMALS);
+    }
+
+    @Override
+    public byte[] encode(Stock stock) {
+        position = 0;
+        write(EVENT_TIME);
+        writeString(stock.getEvent_time());
+        write(TICKER);
+        writeString(stock.getTicker());
+        write(PRICE);
+        writePrice(stock.getPrice());
+        writeByte('}');
+
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private void writeString(String value) {
+        if (value == null) {
+            write(NULL);
+            return;
+        }
+
+        // Worst case: every char a six byte \\u escape
+        ensureCapacity(value.length() * 6 + 2);
+        buffer[position++] = '"';
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                buffer[position++] = (byte) c;
+            } else if (c == '"' || c == '\\') {
+                buffer[position++] = '\\';
+                buffer[position++] = (byte) c;
+            } else if (c < 0x20) {
+                buffer[position++] = '\\';
+                buffer[position++] = 'u';
+                buffer[position++] = '0';
+                buffer[position++] = '0';
+                buffer[position++] = HEX[c >> 4];
+                buffer[position++] = HEX[c & 0xF];
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | c >> 6);
+                buffer[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | codePoint >> 18);
+                buffer[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                buffer[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                buffer[position++] = (byte) (0x80 | codePoint & 0x3F);
+            } else {
+                buffer[position++] = (byte) (0xE0 | c >> 12);
+                buffer[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                buffer[position++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        buffer[position++] = '"';
+    }
+
+    private void writePrice(float price) {
+        if (Float.isNaN(price) || Float.isInfinite(price)) {
+            // Not representable in JSON
+            write(NULL);
+            return;
+        }
+        double scaled = Math.abs(price * priceScale);
+        if (scaled >= MAX_SCALED_PRICE) {
+            write(ascii(Float.toString(price)));
+            return;
+        }
+
+        long units = Math.round(scaled);
+        ensureCapacity(24);
+        if (price < 0 && units != 0) {
+            buffer[position++] = '-';
+        }
+
+        // Digits right to left: fraction first, then at least one integer digit
+        int digits = 1;
+        for (long rest = units / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        digits = Math.max(digits, priceDecimals + 1);
+        int end = position + digits + (priceDecimals > 0 ? 1 : 0);
+        int i = end;
+        for (int d = 0; d < priceDecimals; d++) {
+            buffer[--i] = (byte) ('0' + units % 10);
+            units /= 10;
+        }
+        if (priceDecimals > 0) {
+            buffer[--i] = '.';
+        }
+        do {
+            buffer[--i] = (byte) ('0' + units % 10);
+            units /= 10;
+        } while (units > 0);
+        position = end;
+    }
+
+    private void write(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void writeByte(char c) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) c;
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (position + bytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -18,31 +18,39 @@
 
 package com.amazonaws;
 
-import com.google.gson.Gson;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerConfig;
-import org.apache.kafka.clients.producer.ProducerRecord;
-import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 
+import java.time.Duration;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.text.SimpleDateFormat;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 
 public class MSKDataGen {
     private static final Integer DEFAULT_NUM_MSGS_TO_SEND = 10000;
-    private static final Integer DEFAULT_FLUSH_BATCH_SIZE = 1000;
-    private static final Boolean DEFAULT_THREAD_SLEEP_SETTING = false;
-    private static final Integer DEFAULT_THREAD_SLEEP_INTERVAL_IN_MS = 100;
-    private KafkaProducer<String, String> kafkaProducer = null;
+    private static final Integer DEFAULT_MAX_IN_FLIGHT = 10000;
+    private static final Integer DEFAULT_NUM_THREADS = 1;
+    private static final Double DEFAULT_RECORDS_PER_SECOND = 0.0;
+    private static final Integer DEFAULT_REPORT_INTERVAL_IN_SECONDS = 10;
+    private KafkaProducer<byte[], byte[]> kafkaProducer = null;
 
     private String bootstrapServers;
     private String topicName;
     private Integer numMessagesToSend;
-    private Integer flushBatchSize;
-    private Boolean threadSleepSetting;
-    private Integer threadSleepIntervalInMs;
-
-    private static Gson gson = new Gson();
-    private static List<String> tickerList = Arrays.asList(new String[] { "AAPL", "AMZN", "MSFT", "INTC", "TBV" });
+    private Integer maxInFlight;
+    private Integer numThreads;
+    private Double recordsPerSecond;
+    private Integer reportIntervalInSeconds;
+    private Consumer<String> log;
+    private Boolean iamAuthEnabled;
+    private PayloadFormat payloadFormat;
+    private ProducerProfile producerProfile;
+    private Map<String, String> producerOverrides;
+    private MarketSimulation marketSimulation;
+
+    private static EventTimeClock eventTimeClock = new EventTimeClock();
 
     public MSKDataGen(String bootstrapServers,
             String topicName,
@@ -50,9 +58,16 @@ public class MSKDataGen {
         this.bootstrapServers = bootstrapServers;
         this.topicName = topicName;
         this.numMessagesToSend = numMsgsToSend;
-        this.flushBatchSize = DEFAULT_FLUSH_BATCH_SIZE;
-        this.threadSleepSetting = DEFAULT_THREAD_SLEEP_SETTING;
-        this.threadSleepIntervalInMs = DEFAULT_THREAD_SLEEP_INTERVAL_IN_MS;
+        this.maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+        this.numThreads = DEFAULT_NUM_THREADS;
+        this.recordsPerSecond = DEFAULT_RECORDS_PER_SECOND;
+        this.reportIntervalInSeconds = DEFAULT_REPORT_INTERVAL_IN_SECONDS;
+        this.log = System.out::println;
+        this.iamAuthEnabled = true;
+        this.payloadFormat = PayloadFormat.JSON;
+        this.producerProfile = ProducerProfile.DEFAULT;
+        this.producerOverrides = Collections.emptyMap();
+        this.marketSimulation = new MarketSimulation();
     }
 
     public MSKDataGen(String bootstrapServers,
@@ -60,9 +75,77 @@ public class MSKDataGen {
         this.bootstrapServers = bootstrapServers;
         this.topicName = topicName;
         this.numMessagesToSend = DEFAULT_NUM_MSGS_TO_SEND;
-        this.flushBatchSize = DEFAULT_FLUSH_BATCH_SIZE;
-        this.threadSleepSetting = DEFAULT_THREAD_SLEEP_SETTING;
-        this.threadSleepIntervalInMs = DEFAULT_THREAD_SLEEP_INTERVAL_IN_MS;
+        this.maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+        this.numThreads = DEFAULT_NUM_THREADS;
+        this.recordsPerSecond = DEFAULT_RECORDS_PER_SECOND;
+        this.reportIntervalInSeconds = DEFAULT_REPORT_INTERVAL_IN_SECONDS;
+        this.log = System.out::println;
+        this.iamAuthEnabled = true;
+        this.payloadFormat = PayloadFormat.JSON;
+        this.producerProfile = ProducerProfile.DEFAULT;
+        this.producerOverrides = Collections.emptyMap();
+        this.marketSimulation = new MarketSimulation();
+    }
+
+    /**
+     * Threads generating and sending records; they share one producer.
+     */
+    public void setNumThreads(Integer numThreads) {
+        this.numThreads = numThreads;
+    }
+
+    /**
+     * Target rate over all threads; 0 sends as fast as possible.
+     */
+    public void setRecordsPerSecond(Double recordsPerSecond) {
+        this.recordsPerSecond = recordsPerSecond;
+    }
+
+    /**
+     * Records sent but not yet acked, over all threads; senders wait when there are more.
+     */
+    public void setMaxInFlight(Integer maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public void setReportIntervalInSeconds(Integer reportIntervalInSeconds) {
+        this.reportIntervalInSeconds = reportIntervalInSeconds;
+    }
+
+    /**
+     * Where progress and the achieved rate are reported, e.g. the Lambda logger.
+     */
+    public void setLog(Consumer<String> log) {
+        this.log = log;
+    }
+
+    /**
+     * MSK IAM authentication over TLS; disable it for local brokers without authentication.
+     */
+    public void setIamAuthEnabled(Boolean iamAuthEnabled) {
+        this.iamAuthEnabled = iamAuthEnabled;
+    }
+
+    public void setPayloadFormat(PayloadFormat payloadFormat) {
+        this.payloadFormat = payloadFormat;
+    }
+
+    public void setProducerProfile(ProducerProfile producerProfile) {
+        this.producerProfile = producerProfile;
+    }
+
+    /**
+     * Producer settings applied on top of the profile, e.g. {@code linger.ms}.
+     */
+    public void setProducerOverrides(Map<String, String> producerOverrides) {
+        this.producerOverrides = producerOverrides;
+    }
+
+    /**
+     * Symbols, prices, event times and bursts of the generated records.
+     */
+    public void setMarketSimulation(MarketSimulation marketSimulation) {
+        this.marketSimulation = marketSimulation;
     }
 
     public Properties getProperties() {
@@ -71,48 +154,45 @@ public class MSKDataGen {
         // Failed to generate data Missing required configuration "key.serializer" which
         // has no default value.
         properties.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, this.bootstrapServers);
-        properties.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
-        properties.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
-        properties.put(ProducerConfig.LINGER_MS_CONFIG, 100);
+        // Keys and values are generated as bytes, so the producer passes them on as they are
+        properties.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName());
+        properties.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName());
         properties.put("client.id", "lambda-client-datagen");
-        properties.put("security.protocol", "SASL_SSL");
-        properties.put("sasl.mechanism", "AWS_MSK_IAM");
-        properties.put("sasl.jaas.config", "software.amazon.msk.auth.iam.IAMLoginModule required;");
-        properties.put("sasl.client.callback.handler.class",
-                "software.amazon.msk.auth.iam.IAMClientCallbackHandler");
+        this.producerProfile.applyTo(properties);
+        properties.putAll(this.producerOverrides);
+        if (this.iamAuthEnabled) {
+            properties.put("security.protocol", "SASL_SSL");
+            properties.put("sasl.mechanism", "AWS_MSK_IAM");
+            properties.put("sasl.jaas.config", "software.amazon.msk.auth.iam.IAMLoginModule required;");
+            properties.put("sasl.client.callback.handler.class",
+                    "software.amazon.msk.auth.iam.IAMClientCallbackHandler");
+        }
 
         return properties;
     }
 
-    public void run() throws Exception {
+    public DataGenEngine.Result run() throws Exception {
         try {
-            int trackerForFlush = 0;
-            for (int i = 0; i < numMessagesToSend; i++, trackerForFlush++) {
-                String key = UUID.randomUUID().toString();
-                String message = generateStockTickerData();
-
-                sendMsg(topicName, key, message);
-
-                if (trackerForFlush >= flushBatchSize) {
-                    getKafkaProducer().flush();
-                    trackerForFlush = 0;
-                }
-            } // for
+            // One generator per thread, as generators reuse their record and buffers
+            ThreadLocal<StockRecordGenerator> generators = ThreadLocal.withInitial(
+                    () -> new StockRecordGenerator(topicName, payloadFormat.createEncoder(),
+                            marketSimulation.createModel(eventTimeClock)));
+
+            DataGenEngine<byte[], byte[]> engine = new DataGenEngine<>(getKafkaProducer(),
+                    numThreads,
+                    recordsPerSecond,
+                    maxInFlight,
+                    Duration.ofSeconds(reportIntervalInSeconds),
+                    log);
+            engine.setBurstSchedule(marketSimulation.getBurstSchedule());
+
+            return engine.run(numMessagesToSend, () -> generators.get().next());
         } finally {
             close();
         }
     }
 
-    protected void sendMsg(String topicName, String key, String message) throws Exception {
-        ProducerRecord<String, String> producerRecord = new ProducerRecord<>(topicName, key, message);
-
-        getKafkaProducer().send(producerRecord);
-        if (this.threadSleepSetting) {
-            Thread.sleep(threadSleepIntervalInMs);
-        }
-    }
-
-    private KafkaProducer<String, String> getKafkaProducer() throws Exception {
+    private KafkaProducer<byte[], byte[]> getKafkaProducer() throws Exception {
         if (this.kafkaProducer == null) {
             Properties props = getProperties();
             this.kafkaProducer = new KafkaProducer<>(props);
@@ -128,30 +208,11 @@ public class MSKDataGen {
         }
     }
 
-    private static String generateStockTickerData() {
-
-        Stock stock = new Stock();
-
-        // current date
-        Date date = new Date();
-        SimpleDateFormat DateFor = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-        String stringDate = DateFor.format(date);
-
-        // get random ticker symbol
-        String randomTickerSymbol = tickerList.get(new Random().nextInt(tickerList.size()));
-
-        stock.setEvent_time(stringDate);
-        stock.setTicker(randomTickerSymbol);
-        stock.setPrice(new Random().nextFloat() * (100));
-
-        String jsonString = gson.toJson(stock);
-
-        return jsonString;
-    }
-
     public static void main(String[] args) {
+        StockRecordGenerator generator =
+                new StockRecordGenerator("sample", PayloadFormat.JSON.createEncoder(), eventTimeClock);
         for (int i = 0; i < 100; i++) {
-            System.out.println(generateStockTickerData());
+            System.out.println(new String(generator.nextPayload(ThreadLocalRandom.current()), StandardCharsets.UTF_8));
         }
     }
 }
\ No newline at end of file
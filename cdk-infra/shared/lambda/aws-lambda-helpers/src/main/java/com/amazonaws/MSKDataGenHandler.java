@@ -50,10 +50,32 @@ public class MSKDataGenHandler implements RequestHandler<Map<String, String>, St
             logger.log("Broker: " + broker + "\n");
             logger.log("Topic: " + topic + "\n");
 
-            MSKDataGen dataGen = new MSKDataGen(broker, topic);
-            dataGen.run();
+            // Optional: how many records to send, from how many threads and at what rate
+            MSKDataGen dataGen = event.containsKey("NumMessages")
+                    ? new MSKDataGen(broker, topic, Integer.parseInt(event.get("NumMessages")))
+                    : new MSKDataGen(broker, topic);
+            if (event.containsKey("NumThreads")) {
+                dataGen.setNumThreads(Integer.parseInt(event.get("NumThreads")));
+            }
+            if (event.containsKey("RecordsPerSecond")) {
+                dataGen.setRecordsPerSecond(Double.parseDouble(event.get("RecordsPerSecond")));
+            }
+            if (event.containsKey("MaxInFlight")) {
+                dataGen.setMaxInFlight(Integer.parseInt(event.get("MaxInFlight")));
+            }
+            if (event.containsKey("PayloadFormat")) {
+                dataGen.setPayloadFormat(PayloadFormat.of(event.get("PayloadFormat")));
+            }
+            if (event.containsKey("ProducerProfile")) {
+                dataGen.setProducerProfile(ProducerProfile.of(event.get("ProducerProfile")));
+            }
+            dataGen.setProducerOverrides(ProducerProfile.overrides(event));
+            dataGen.setMarketSimulation(MarketSimulation.fromOptions(event));
+            dataGen.setLog(message -> logger.log(message + "\n"));
+            DataGenEngine.Result result = dataGen.run();
 
-            return new String("Success");
+            // The delivery report: sent, acked and failed records, retries and ack latencies
+            return gson.toJson(result);
         } catch (Exception ex) {
             logger.log(ex.getMessage());
             return new String("Failed");
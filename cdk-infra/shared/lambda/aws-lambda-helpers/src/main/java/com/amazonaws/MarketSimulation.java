@@ -0,0 +1,140 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * What the generated market looks like, read from {@code market.*} options, e.g.
+ * {@code market.model=SKEWED market.symbols=5000 market.late-fraction=0.01}.
+ *
+ * <p>The {@code UNIFORM} model is what the generator always sent: five tickers and uniform
+ * prices. The {@code SKEWED} model trades a larger universe with Zipf distributed popularity, see
+ * {@link SkewedMarketModel}. Bursts apply to either model, but only when a target rate is set.
+ */
+public class MarketSimulation {
+    public static final String OPTION_PREFIX = "market.";
+
+    public enum Model {
+        UNIFORM,
+        SKEWED
+    }
+
+    private Model model = Model.UNIFORM;
+    private SymbolUniverse universe;
+    private AliasTable popularity;
+    private AtomicLongArray prices;
+    private PriceProcess priceProcess = PriceProcess.GBM;
+    private double volatility = 0.001;
+    private double outOfOrderFraction = 0;
+    private int maxOutOfOrderSeconds = 5;
+    private double lateFraction = 0;
+    private int maxLatenessSeconds = 300;
+    private BurstSchedule burstSchedule;
+
+    /**
+     * Options without the {@code market.} prefix; everything but {@code model} is optional:
+     * <ul>
+     *     <li>{@code symbols}: number of generated symbols, 5000 by default</li>
+     *     <li>{@code symbols-file}: symbols to load instead, see {@link SymbolUniverse#load}</li>
+     *     <li>{@code seed}: seed of generated symbols and prices</li>
+     *     <li>{@code zipf-exponent}: skew of the popularity; 0 is uniform, 1 by default</li>
+     *     <li>{@code price-process}: {@code GBM} or {@code RANDOM_WALK}</li>
+     *     <li>{@code volatility}: standard deviation of a price move relative to the price</li>
+     *     <li>{@code out-of-order-fraction}, {@code max-out-of-order-seconds}</li>
+     *     <li>{@code late-fraction}, {@code max-lateness-seconds}</li>
+     *     <li>{@code burst-factor}, {@code burst-seconds}, {@code quiet-seconds}</li>
+     * </ul>
+     *
+     * @param options any options; those without the prefix are ignored
+     */
+    public static MarketSimulation fromOptions(Map<String, ?> options) throws IOException {
+        MarketSimulation simulation = new MarketSimulation();
+        simulation.model = Model.valueOf(option(options, "model", Model.UNIFORM.name()).toUpperCase(Locale.ROOT));
+
+        if (simulation.model == Model.SKEWED) {
+            long seed = Long.parseLong(option(options, "seed", "42"));
+            String symbolsFile = option(options, "symbols-file", null);
+            simulation.universe = symbolsFile != null
+                    ? SymbolUniverse.load(Paths.get(symbolsFile), seed)
+                    : SymbolUniverse.generate(Integer.parseInt(option(options, "symbols", "5000")), seed);
+            simulation.popularity = AliasTable.zipf(simulation.universe.size(),
+                    Double.parseDouble(option(options, "zipf-exponent", "1")));
+            simulation.prices = SkewedMarketModel.openingPrices(simulation.universe);
+            simulation.priceProcess = PriceProcess.of(option(options, "price-process", PriceProcess.GBM.name()));
+            simulation.volatility = Double.parseDouble(option(options, "volatility", "0.001"));
+            simulation.outOfOrderFraction = Double.parseDouble(option(options, "out-of-order-fraction", "0"));
+            simulation.maxOutOfOrderSeconds = Integer.parseInt(option(options, "max-out-of-order-seconds", "5"));
+            simulation.lateFraction = Double.parseDouble(option(options, "late-fraction", "0"));
+            simulation.maxLatenessSeconds = Integer.parseInt(option(options, "max-lateness-seconds", "300"));
+        }
+
+        double burstFactor = Double.parseDouble(option(options, "burst-factor", "1"));
+        if (burstFactor != 1) {
+            simulation.burstSchedule = new BurstSchedule(burstFactor,
+                    Duration.ofSeconds(Long.parseLong(option(options, "burst-seconds", "10"))),
+                    Duration.ofSeconds(Long.parseLong(option(options, "quiet-seconds", "50"))));
+        }
+
+        // Fails on inconsistent settings here rather than in the generator threads
+        simulation.createModel(new EventTimeClock());
+
+        return simulation;
+    }
+
+    /**
+     * A model for one generator thread; models of a simulation share its price paths.
+     */
+    public MarketModel createModel(EventTimeClock eventTimeClock) {
+        if (model == Model.UNIFORM) {
+            return new UniformMarketModel(eventTimeClock);
+        }
+        return new SkewedMarketModel(universe,
+                popularity,
+                prices,
+                priceProcess,
+                volatility,
+                eventTimeClock,
+                outOfOrderFraction,
+                maxOutOfOrderSeconds,
+                lateFraction,
+                maxLatenessSeconds);
+    }
+
+    public Model getModel() {
+        return model;
+    }
+
+    /**
+     * @return null without bursts
+     */
+    public BurstSchedule getBurstSchedule() {
+        return burstSchedule;
+    }
+
+    private static String option(Map<String, ?> options, String name, String defaultValue) {
+        Object value = options.get(OPTION_PREFIX + name);
+        return value == null ? defaultValue : value.toString().trim();
+    }
+}
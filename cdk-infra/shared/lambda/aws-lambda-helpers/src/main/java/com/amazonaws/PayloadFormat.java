@@ -0,0 +1,43 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+public enum PayloadFormat {
+    /** JSON as the Flink applications read it, e.g. {"event_time":"2023-05-01 10:00:00","ticker":"AMZN","price":12.34} */
+    JSON(JsonPayloadEncoder::new),
+    /** Length prefixed fields without names, see {@link BinaryPayloadEncoder} */
+    BINARY(BinaryPayloadEncoder::new);
+
+    private final Supplier<PayloadEncoder> encoders;
+
+    PayloadFormat(Supplier<PayloadEncoder> encoders) {
+        this.encoders = encoders;
+    }
+
+    public PayloadEncoder createEncoder() {
+        return encoders.get();
+    }
+
+    public static PayloadFormat of(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How a price moves from one trade of a symbol to the next. {@code volatility} is the standard
+ * deviation of a single move relative to the price, e.g. 0.001 for 0.1%.
+ */
+public enum PriceProcess {
+    /** Geometric Brownian motion without drift: log returns are normal, so prices stay positive */
+    GBM {
+        @Override
+        double next(double price, double openingPrice, double volatility, ThreadLocalRandom random) {
+            return price * Math.exp(volatility * random.nextGaussian() - 0.5 * volatility * volatility);
+        }
+    },
+
+    /** Normal steps of a fixed size relative to the opening price, floored at one cent */
+    RANDOM_WALK {
+        @Override
+        double next(double price, double openingPrice, double volatility, ThreadLocalRandom random) {
+            return Math.max(0.01, price + openingPrice * volatility * random.nextGaussian());
+        }
+    };
+
+    abstract double next(double price, double openingPrice, double volatility, ThreadLocalRandom random);
+
+    public static PriceProcess of(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Named producer settings for the data generator. Profiles only set what they change; everything
+ * else stays at the kafka-clients defaults (acks=1, no compression, 16 KB batches).
+ */
+public enum ProducerProfile {
+    /** What the generator always used: a short linger so that records are batched */
+    DEFAULT(settings(
+            ProducerConfig.LINGER_MS_CONFIG, "100")),
+
+    /** Large, lz4 compressed batches; one broker ack per batch */
+    MAX_THROUGHPUT(settings(
+            ProducerConfig.LINGER_MS_CONFIG, "50",
+            ProducerConfig.BATCH_SIZE_CONFIG, String.valueOf(512 * 1024),
+            ProducerConfig.BUFFER_MEMORY_CONFIG, String.valueOf(256L * 1024 * 1024),
+            ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4",
+            ProducerConfig.ACKS_CONFIG, "1",
+            ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, "5")),
+
+    /** As MAX_THROUGHPUT, but zstd compresses the JSON payloads further at more CPU per batch */
+    MAX_THROUGHPUT_ZSTD(settings(
+            ProducerConfig.LINGER_MS_CONFIG, "50",
+            ProducerConfig.BATCH_SIZE_CONFIG, String.valueOf(512 * 1024),
+            ProducerConfig.BUFFER_MEMORY_CONFIG, String.valueOf(256L * 1024 * 1024),
+            ProducerConfig.COMPRESSION_TYPE_CONFIG, "zstd",
+            ProducerConfig.ACKS_CONFIG, "1",
+            ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, "5")),
+
+    /** Sends every record right away */
+    LOW_LATENCY(settings(
+            ProducerConfig.LINGER_MS_CONFIG, "0",
+            ProducerConfig.COMPRESSION_TYPE_CONFIG, "none",
+            ProducerConfig.ACKS_CONFIG, "1")),
+
+    /**
+     * Idempotent producer: retries do not duplicate or reorder records within a partition. Not
+     * transactional, so records are still duplicated if the generator itself is run again.
+     */
+    IDEMPOTENT(settings(
+            ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, "true",
+            ProducerConfig.ACKS_CONFIG, "all",
+            ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, "5",
+            ProducerConfig.RETRIES_CONFIG, String.valueOf(Integer.MAX_VALUE),
+            ProducerConfig.LINGER_MS_CONFIG, "20",
+            ProducerConfig.BATCH_SIZE_CONFIG, String.valueOf(128 * 1024),
+            ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4"));
+
+    /** Prefix of properties that are passed to the producer as they are, e.g. producer.linger.ms */
+    public static final String OVERRIDE_PREFIX = "producer.";
+
+    private final Map<String, String> settings;
+
+    ProducerProfile(Map<String, String> settings) {
+        this.settings = settings;
+    }
+
+    public void applyTo(Properties properties) {
+        properties.putAll(settings);
+    }
+
+    public Map<String, String> getSettings() {
+        return settings;
+    }
+
+    /**
+     * Accepts names in any case and with dashes, e.g. {@code max-throughput}.
+     */
+    public static ProducerProfile of(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+
+    /**
+     * @return the producer settings among {@code properties}, without {@link #OVERRIDE_PREFIX}
+     */
+    public static Map<String, String> overrides(Map<String, ?> properties) {
+        Map<String, String> overrides = new HashMap<>();
+        for (Map.Entry<String, ?> property : properties.entrySet()) {
+            if (property.getKey().startsWith(OVERRIDE_PREFIX) && property.getValue() != null) {
+                overrides.put(property.getKey().substring(OVERRIDE_PREFIX.length()), property.getValue().toString());
+            }
+        }
+        return overrides;
+    }
+
+    private static Map<String, String> settings(String... keysAndValues) {
+        Map<String, String> settings = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            settings.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return settings;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Token bucket shared by all generator threads. Permits may be taken ahead of time, in which case
+ * the caller waits until the bucket has refilled them, so the long-run rate is exactly
+ * {@code permitsPerSecond} no matter how the permits are spread over threads.
+ */
+public class RateLimiter {
+    /**
+     * Time source of a rate limiter and the way it waits; tests substitute simulated time.
+     */
+    interface Clock {
+        long nanoTime();
+
+        /**
+         * Returns once {@link #nanoTime()} has reached {@code deadlineNanos}.
+         */
+        void sleepUntil(long deadlineNanos) throws InterruptedException;
+    }
+
+    static final Clock SYSTEM_CLOCK = new Clock() {
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+
+        @Override
+        public void sleepUntil(long deadlineNanos) throws InterruptedException {
+            // Thread.sleep rounds up to whole milliseconds, which is far too coarse at high rates
+            for (long wait = deadlineNanos - System.nanoTime(); wait > 0; wait = deadlineNanos - System.nanoTime()) {
+                LockSupport.parkNanos(wait);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        }
+    };
+
+    private final Clock clock;
+    private final double burstSeconds;
+
+    private double permitsPerNano;
+    private double capacity;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    /**
+     * @param burstSeconds how many seconds worth of permits may be taken at once after an idle phase
+     */
+    public RateLimiter(double permitsPerSecond, double burstSeconds) {
+        this(permitsPerSecond, burstSeconds, SYSTEM_CLOCK);
+    }
+
+    RateLimiter(double permitsPerSecond, double burstSeconds, Clock clock) {
+        this.clock = clock;
+        this.burstSeconds = burstSeconds;
+        this.tokens = 0;
+        this.lastRefillNanos = clock.nanoTime();
+        setRate(permitsPerSecond);
+    }
+
+    public RateLimiter(double permitsPerSecond) {
+        this(permitsPerSecond, 0);
+    }
+
+    /**
+     * Changes the rate from now on; permits taken ahead of time are paid back at the new rate.
+     */
+    public synchronized void setRate(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive but was " + permitsPerSecond);
+        }
+        double newPermitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        if (newPermitsPerNano == permitsPerNano) {
+            return;
+        }
+
+        // Tokens up to now still accrue at the old rate
+        long now = clock.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * permitsPerNano);
+        lastRefillNanos = now;
+
+        permitsPerNano = newPermitsPerNano;
+        // At least one permit, so that single acquires never wait for more than one interval
+        capacity = Math.max(1, permitsPerSecond * burstSeconds);
+        tokens = Math.min(capacity, tokens);
+    }
+
+    public void acquire(int permits) throws InterruptedException {
+        long deadline;
+        synchronized (this) {
+            long now = clock.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * permitsPerNano);
+            lastRefillNanos = now;
+
+            tokens -= permits;
+            deadline = tokens >= 0 ? now : now + (long) Math.ceil(-tokens / permitsPerNano);
+        }
+        clock.sleepUntil(deadline);
+    }
+}
@@ -30,6 +30,11 @@ public class ResourceProperties {
 
     public short ReplicationFactor;
 
+    // Optional: settings of the producer that generates the initial data, from ProducerProfile
+    public ProducerProfile Profile;
+
+    public Map<String, String> ProducerOverrides;
+
     public static ResourceProperties fromMap(Map<String, Object> resourceProperties) {
         ResourceProperties retVal = new ResourceProperties();
 
@@ -37,6 +42,10 @@ public class ResourceProperties {
         retVal.Topic = resourceProperties.get("Topic").toString();
         retVal.NumPartitions = Integer.parseInt(resourceProperties.get("NumPartitions").toString());
         retVal.ReplicationFactor = Short.parseShort(resourceProperties.get("ReplicationFactor").toString());
+        retVal.Profile = resourceProperties.containsKey("ProducerProfile")
+                ? ProducerProfile.of(resourceProperties.get("ProducerProfile").toString())
+                : ProducerProfile.DEFAULT;
+        retVal.ProducerOverrides = ProducerProfile.overrides(resourceProperties);
 
         return retVal;
     }
@@ -0,0 +1,144 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Symbols picked with a skewed popularity, each with its own price path, and optionally event
+ * times in the past. Every record costs a constant amount of work, however many symbols there are.
+ *
+ * <p>Each generator thread has its own model, but all models share the universe, the popularity
+ * table and the prices, so every symbol follows a single price path whichever thread trades it.
+ * A price move replaces the last price with a compare-and-set on its bits, so concurrent moves
+ * of a symbol are applied one after the other rather than lost.
+ *
+ * <p>Ranks are ordered by popularity, so the hot symbols would share a few cache lines that every
+ * thread writes to. Each of the hottest symbols therefore has its price on lines of its own; the
+ * rest are packed, as they are rarely moved by two threads at once.
+ */
+public class SkewedMarketModel implements MarketModel {
+    // About half of the records at the default Zipf exponent of 1 over 5000 symbols
+    private static final int PADDED_RANKS = 64;
+    // Two cache lines, as the CPU may fetch lines in adjacent pairs
+    private static final int PADDED_STRIDE = 16;
+
+    private final SymbolUniverse universe;
+    private final AliasTable popularity;
+    private final PriceProcess priceProcess;
+    private final double volatility;
+    private final EventTimeClock eventTimeClock;
+    private final double outOfOrderFraction;
+    private final int maxOutOfOrderSeconds;
+    private final double lateFraction;
+    private final int maxLatenessSeconds;
+
+    private final AtomicLongArray prices;
+
+    /**
+     * @param prices last price of every symbol as {@link Double#doubleToLongBits}, shared by all
+     *               models; see {@link #openingPrices} for the layout
+     * @param outOfOrderFraction share of records stamped 1 to {@code maxOutOfOrderSeconds} seconds ago
+     * @param lateFraction share of records stamped more than {@code maxOutOfOrderSeconds} and up to
+     *                     {@code maxLatenessSeconds} seconds ago
+     */
+    public SkewedMarketModel(SymbolUniverse universe,
+            AliasTable popularity,
+            AtomicLongArray prices,
+            PriceProcess priceProcess,
+            double volatility,
+            EventTimeClock eventTimeClock,
+            double outOfOrderFraction,
+            int maxOutOfOrderSeconds,
+            double lateFraction,
+            int maxLatenessSeconds) {
+        if (popularity.size() != universe.size()) {
+            throw new IllegalArgumentException("Popularity of " + popularity.size() + " symbols does not match "
+                    + universe.size() + " symbols");
+        }
+        if (prices.length() != index(universe.size() - 1) + 1) {
+            throw new IllegalArgumentException("Prices of length " + prices.length() + " do not match "
+                    + universe.size() + " symbols");
+        }
+        if (outOfOrderFraction > 0 && maxOutOfOrderSeconds < 1) {
+            throw new IllegalArgumentException("maxOutOfOrderSeconds must be at least 1");
+        }
+        if (lateFraction > 0 && maxLatenessSeconds <= maxOutOfOrderSeconds) {
+            throw new IllegalArgumentException("maxLatenessSeconds must be larger than maxOutOfOrderSeconds");
+        }
+        this.universe = universe;
+        this.popularity = popularity;
+        this.priceProcess = priceProcess;
+        this.volatility = volatility;
+        this.eventTimeClock = eventTimeClock;
+        this.outOfOrderFraction = outOfOrderFraction;
+        this.maxOutOfOrderSeconds = maxOutOfOrderSeconds;
+        this.lateFraction = lateFraction;
+        this.maxLatenessSeconds = maxLatenessSeconds;
+        this.prices = prices;
+    }
+
+    /**
+     * @return the opening price of every symbol, for the models to share
+     */
+    public static AtomicLongArray openingPrices(SymbolUniverse universe) {
+        AtomicLongArray prices = new AtomicLongArray(index(universe.size() - 1) + 1);
+        for (int rank = 0; rank < universe.size(); rank++) {
+            prices.set(index(rank), Double.doubleToLongBits(universe.getOpeningPrice(rank)));
+        }
+        return prices;
+    }
+
+    private static int index(int rank) {
+        return rank < PADDED_RANKS
+                ? rank * PADDED_STRIDE
+                : PADDED_RANKS * PADDED_STRIDE + rank - PADDED_RANKS;
+    }
+
+    @Override
+    public void next(Stock stock, ThreadLocalRandom random) {
+        int rank = popularity.sample(random);
+        int index = index(rank);
+        double price;
+        long last;
+        do {
+            last = prices.get(index);
+            price = priceProcess.next(Double.longBitsToDouble(last), universe.getOpeningPrice(rank), volatility, random);
+        } while (!prices.compareAndSet(index, last, Double.doubleToLongBits(price)));
+
+        stock.setTicker(universe.getSymbol(rank));
+        stock.setPrice((float) price);
+        stock.setEvent_time(eventTimeClock.secondsAgo(delaySeconds(random)));
+    }
+
+    private int delaySeconds(ThreadLocalRandom random) {
+        if (outOfOrderFraction <= 0 && lateFraction <= 0) {
+            return 0;
+        }
+        double u = random.nextDouble();
+        if (u < outOfOrderFraction) {
+            return 1 + random.nextInt(maxOutOfOrderSeconds);
+        }
+        if (u < outOfOrderFraction + lateFraction) {
+            return maxOutOfOrderSeconds + 1 + random.nextInt(maxLatenessSeconds - maxOutOfOrderSeconds);
+        }
+        return 0;
+    }
+}
@@ -28,12 +28,24 @@ public class Stock {
         this.event_time = event_time;
     }
 
+    public String getEvent_time() {
+        return event_time;
+    }
+
     public void setTicker(String ticker) {
         this.ticker = ticker;
     }
 
+    public String getTicker() {
+        return ticker;
+    }
+
     public void setPrice(float price) {
         this.price = price;
     }
 
+    public float getPrice() {
+        return price;
+    }
+
 }
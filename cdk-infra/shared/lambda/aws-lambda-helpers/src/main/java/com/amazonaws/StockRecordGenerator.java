@@ -0,0 +1,83 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Creates random stock ticker records, ready to send as bytes. Reuses its {@link Stock} and the
+ * buffers of its encoder, so every generator thread needs its own instance.
+ */
+public class StockRecordGenerator {
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final String topic;
+    private final PayloadEncoder encoder;
+    private final MarketModel marketModel;
+    private final Stock stock = new Stock();
+
+    public StockRecordGenerator(String topic, PayloadEncoder encoder, MarketModel marketModel) {
+        this.topic = topic;
+        this.encoder = encoder;
+        this.marketModel = marketModel;
+    }
+
+    public StockRecordGenerator(String topic, PayloadEncoder encoder, EventTimeClock eventTimeClock) {
+        this(topic, encoder, new UniformMarketModel(eventTimeClock));
+    }
+
+    public ProducerRecord<byte[], byte[]> next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new ProducerRecord<>(topic, randomKey(random), nextPayload(random));
+    }
+
+    public byte[] nextPayload(ThreadLocalRandom random) {
+        marketModel.next(stock, random);
+
+        return encoder.encode(stock);
+    }
+
+    /**
+     * A random (version 4) UUID in its usual text form, written as ASCII bytes without going
+     * through UUID and String, and without the SecureRandom that UUID.randomUUID() locks.
+     */
+    static byte[] randomKey(ThreadLocalRandom random) {
+        long mostSigBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long leastSigBits = (random.nextLong() & ~(0x3L << 62)) | (0x2L << 62);
+
+        byte[] key = new byte[36];
+        int position = 0;
+        for (int nibble = 15; nibble >= 0; nibble--) {
+            key[position++] = HEX[(int) (mostSigBits >>> (nibble * 4)) & 0xF];
+            if (nibble == 8 || nibble == 4 || nibble == 0) {
+                key[position++] = '-';
+            }
+        }
+        for (int nibble = 15; nibble >= 0; nibble--) {
+            key[position++] = HEX[(int) (leastSigBits >>> (nibble * 4)) & 0xF];
+            if (nibble == 12) {
+                key[position++] = '-';
+            }
+        }
+        return key;
+    }
+}
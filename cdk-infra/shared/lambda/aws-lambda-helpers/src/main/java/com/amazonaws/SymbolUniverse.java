@@ -0,0 +1,132 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * Apache-2.0
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this
+ * software and associated documentation files (the "Software"), to deal in the Software
+ * without restriction, including without limitation the rights to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE
+ * SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.amazonaws;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * The symbols a market model trades and their opening prices, ordered by popularity: the first
+ * symbol is the most traded one.
+ */
+public class SymbolUniverse {
+    // Opening prices are log-normal around this, roughly like listed shares
+    private static final double MEDIAN_OPENING_PRICE = 50;
+    // Well below the 475254 symbols of 3 and 4 letters, so that random picks rarely collide
+    private static final int MAX_GENERATED_SYMBOLS = 100_000;
+
+    private final String[] symbols;
+    private final double[] openingPrices;
+
+    SymbolUniverse(String[] symbols, double[] openingPrices) {
+        this.symbols = symbols;
+        this.openingPrices = openingPrices;
+    }
+
+    /**
+     * Generates {@code count} distinct symbols of 3 or 4 letters. The same seed gives the same
+     * symbols and prices.
+     */
+    public static SymbolUniverse generate(int count, long seed) {
+        if (count < 1 || count > MAX_GENERATED_SYMBOLS) {
+            throw new IllegalArgumentException("Can generate between 1 and " + MAX_GENERATED_SYMBOLS
+                    + " symbols but got " + count);
+        }
+        Random random = new Random(seed);
+
+        Set<String> symbols = new LinkedHashSet<>();
+        char[] letters = new char[4];
+        while (symbols.size() < count) {
+            // Three letter symbols run out first, so fall back to four letters when they get scarce
+            int length = symbols.size() < 26 * 26 * 26 / 2 && random.nextBoolean() ? 3 : 4;
+            for (int i = 0; i < length; i++) {
+                letters[i] = (char) ('A' + random.nextInt(26));
+            }
+            symbols.add(new String(letters, 0, length));
+        }
+
+        double[] openingPrices = new double[count];
+        for (int i = 0; i < count; i++) {
+            openingPrices[i] = openingPrice(random);
+        }
+        return new SymbolUniverse(symbols.toArray(new String[0]), openingPrices);
+    }
+
+    /**
+     * Reads one symbol per line, most traded first, optionally followed by a comma and its opening
+     * price, e.g. {@code AMZN,128.5}. Blank lines and lines starting with # are skipped; symbols
+     * without a price get a random one from {@code seed}.
+     */
+    public static SymbolUniverse load(Path file, long seed) throws IOException {
+        Random random = new Random(seed);
+        List<String> symbols = new ArrayList<>();
+        List<Double> openingPrices = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            String[] fields = line.split("\\s*,\\s*");
+            if (!seen.add(fields[0])) {
+                throw new IllegalArgumentException(file + ":" + lineNumber + ": duplicate symbol " + fields[0]);
+            }
+            double price = fields.length > 1 ? Double.parseDouble(fields[1]) : openingPrice(random);
+            if (!(price > 0)) {
+                throw new IllegalArgumentException(file + ":" + lineNumber + ": price must be positive but was " + price);
+            }
+            symbols.add(fields[0]);
+            openingPrices.add(price);
+        }
+        if (symbols.isEmpty()) {
+            throw new IllegalArgumentException(file + " does not contain any symbols");
+        }
+
+        return new SymbolUniverse(symbols.toArray(new String[0]),
+                openingPrices.stream().mapToDouble(Double::doubleValue).toArray());
+    }
+
+    public int size() {
+        return symbols.length;
+    }
+
+    public String getSymbol(int rank) {
+        return symbols[rank];
+    }
+
+    public double getOpeningPrice(int rank) {
+        return openingPrices[rank];
+    }
+
+    private static double openingPrice(Random random) {
+        return Math.max(1, Math.round(MEDIAN_OPENING_PRICE * Math.exp(random.nextGaussian()) * 100) / 100.0);
+    }
+}
@@ -170,11 +170,14 @@ public class TopicGenHandler extends AbstractCustomResourceHandler {
         LambdaLogger logger = context.getLogger();
 
         MSKDataGen mskDataGen = new MSKDataGen(rp.Broker, rp.Topic, 1001);
+        mskDataGen.setProducerProfile(rp.Profile);
+        mskDataGen.setProducerOverrides(rp.ProducerOverrides);
 
         try {
-            mskDataGen.run();
+            DataGenEngine.Result result = mskDataGen.run();
+            logger.log("Datagen delivery: " + result);
 
-            return true;
+            return result.failedRecords == 0;
         } catch (Exception ex) {
             String msg = "Failed to generate data " + ex.getMessage();
             logger.log(msg);
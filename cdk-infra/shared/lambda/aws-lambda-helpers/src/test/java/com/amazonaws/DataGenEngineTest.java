@@ -0,0 +1,140 @@
+package com.amazonaws;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.Test;
+
+public class DataGenEngineTest {
+
+    @Test
+    public void sendsExactlyTheRequestedRecordsFromAllThreads() throws Exception {
+        MockProducer<String, String> producer = new MockProducer<>(true, new StringSerializer(), new StringSerializer());
+        Set<String> threads = Collections.synchronizedSet(new HashSet<>());
+        // Every thread holds its first record back until all of them have one, so none can take all the work
+        CyclicBarrier allThreadsSending = new CyclicBarrier(4);
+
+        // Room in the window for a chunk of every thread
+        DataGenEngine<String, String> engine = new DataGenEngine<>(producer, 4, 0, 10_000, Duration.ofSeconds(10), message -> { });
+        DataGenEngine.Result result = engine.run(100_001, () -> {
+            if (threads.add(Thread.currentThread().getName())) {
+                try {
+                    allThreadsSending.await(10, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return new ProducerRecord<>("topic", "key", "value");
+        });
+
+        assertEquals(100_001, result.sentRecords);
+        assertEquals(100_001, result.ackedRecords);
+        assertEquals(100_001, producer.history().size());
+        assertEquals(4, threads.size());
+    }
+
+    @Test
+    public void keepsTheTargetRate() throws Exception {
+        MockProducer<String, String> producer = new MockProducer<>(true, new StringSerializer(), new StringSerializer());
+
+        DataGenEngine<String, String> engine = new DataGenEngine<>(producer, 2, 4000, 1000, Duration.ofSeconds(10), message -> { },
+                new SimulatedClock());
+        DataGenEngine.Result result = engine.run(2000, () -> new ProducerRecord<>("topic", "key", "value"));
+
+        // 2000 records at 4000 records/s take half a second
+        assertEquals(2000, result.sentRecords);
+        assertEquals(result.toString(), 500_000_000L, result.elapsedNanos, 1_000);
+    }
+
+    @Test
+    public void appliesTheBurstRate() throws Exception {
+        MockProducer<String, String> producer = new MockProducer<>(true, new StringSerializer(), new StringSerializer());
+
+        DataGenEngine<String, String> engine = new DataGenEngine<>(producer, 2, 1000, 1000, Duration.ofSeconds(10), message -> { },
+                new SimulatedClock());
+        // A quiet second at the target rate, then a burst second at three times the target rate
+        engine.setBurstSchedule(new BurstSchedule(3, Duration.ofSeconds(1), Duration.ofSeconds(1)));
+        DataGenEngine.Result result = engine.run(4000, () -> new ProducerRecord<>("topic", "key", "value"));
+
+        // 1000 records in the quiet second and 3000 in the burst; the rate changes with the next record
+        // a thread takes, so a record per thread may still go out at the quiet rate
+        assertEquals(4000, result.sentRecords);
+        assertEquals(result.toString(), 2_000_000_000L, result.elapsedNanos, 2_000_000);
+    }
+
+    @Test
+    public void boundsRecordsInFlightAndReportsDelivery() throws Exception {
+        // Records stay in flight until the test completes or fails them; MockProducer.flush() would
+        // complete them all, while the real one only sends them
+        MockProducer<String, String> producer = new MockProducer<String, String>(false, new StringSerializer(), new StringSerializer()) {
+            @Override
+            public synchronized void flush() {
+            }
+        };
+        DataGenEngine<String, String> engine = new DataGenEngine<>(producer, 4, 0, 100, Duration.ofSeconds(10), message -> { });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<DataGenEngine.Result> run = executor.submit(
+                    () -> engine.run(1000, () -> new ProducerRecord<>("topic", "key", "value")));
+
+            int completed = 0;
+            while (completed < 1000) {
+                int inFlight = producer.history().size() - completed;
+                assertTrue("in flight " + inFlight, inFlight <= 100);
+                if (inFlight == 0) {
+                    Thread.sleep(1);
+                    continue;
+                }
+                // Every tenth record fails
+                if (completed % 10 == 0) {
+                    producer.errorNext(new RuntimeException("broker unavailable"));
+                } else {
+                    producer.completeNext();
+                }
+                completed++;
+            }
+            DataGenEngine.Result result = run.get();
+
+            assertEquals(1000, result.sentRecords);
+            assertEquals(900, result.ackedRecords);
+            assertEquals(100, result.failedRecords);
+            assertEquals("java.lang.RuntimeException: broker unavailable", result.firstError);
+            assertTrue(result.ackLatencyP99Millis >= result.ackLatencyP50Millis);
+            assertTrue(result.ackLatencyMaxMillis >= result.ackLatencyP99Millis);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Time that only moves when a thread sleeps, straight to the deadline it sleeps until.
+     */
+    private static class SimulatedClock implements RateLimiter.Clock {
+        private final AtomicLong now = new AtomicLong();
+
+        @Override
+        public long nanoTime() {
+            return now.get();
+        }
+
+        @Override
+        public void sleepUntil(long deadlineNanos) {
+            now.accumulateAndGet(deadlineNanos, Math::max);
+        }
+    }
+}
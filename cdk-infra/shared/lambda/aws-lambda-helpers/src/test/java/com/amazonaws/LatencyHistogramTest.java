@@ -0,0 +1,39 @@
+package com.amazonaws;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketsAreContiguousAndNarrow() {
+        long[] values = { 0, 1, 31, 32, 33, 47, 48, 1000, 123_456_789L, Long.MAX_VALUE };
+        for (long value : values) {
+            int bucket = LatencyHistogram.bucket(value);
+            long upper = LatencyHistogram.upperBound(bucket);
+            long lower = bucket == 0 ? 0 : LatencyHistogram.upperBound(bucket - 1) + 1;
+
+            assertTrue(value + " in [" + lower + ", " + upper + "]", lower <= value && value <= upper);
+            assertTrue("bucket of " + value + " is too wide", upper - lower <= Math.max(0, value / 16));
+        }
+    }
+
+    @Test
+    public void reportsPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 100; millis++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(50, histogram.getPercentileMillis(0.5), 50 / 16.0);
+        assertEquals(99, histogram.getPercentileMillis(0.99), 99 / 16.0);
+        assertEquals(100, histogram.getPercentileMillis(1), 0);
+        assertEquals(100, histogram.getMaxMillis(), 0);
+        assertEquals(0, new LatencyHistogram().getPercentileMillis(0.99), 0);
+    }
+}
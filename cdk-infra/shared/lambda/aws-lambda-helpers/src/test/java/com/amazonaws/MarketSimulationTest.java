@@ -0,0 +1,166 @@
+package com.amazonaws;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.Test;
+
+public class MarketSimulationTest {
+
+    @Test
+    public void aliasTableFollowsTheWeights() {
+        AliasTable table = AliasTable.zipf(100, 1.0);
+        int[] counts = new int[100];
+        int samples = 1_000_000;
+        for (int i = 0; i < samples; i++) {
+            counts[table.sample(ThreadLocalRandom.current())]++;
+        }
+
+        double harmonic = 0;
+        for (int rank = 1; rank <= 100; rank++) {
+            harmonic += 1.0 / rank;
+        }
+        for (int rank : new int[] { 1, 2, 10, 100 }) {
+            double expected = samples / (rank * harmonic);
+            assertEquals("rank " + rank, expected, counts[rank - 1], 6 * Math.sqrt(expected));
+        }
+    }
+
+    @Test
+    public void generatesDistinctSymbolsFromTheSeed() {
+        SymbolUniverse universe = SymbolUniverse.generate(20_000, 7);
+
+        HashSet<String> symbols = new HashSet<>();
+        for (int i = 0; i < universe.size(); i++) {
+            symbols.add(universe.getSymbol(i));
+            assertTrue(universe.getOpeningPrice(i) >= 1);
+        }
+        assertEquals(20_000, symbols.size());
+        assertEquals(universe.getSymbol(123), SymbolUniverse.generate(20_000, 7).getSymbol(123));
+    }
+
+    @Test
+    public void loadsSymbolsFromFile() throws Exception {
+        Path file = Files.createTempFile("symbols", ".csv");
+        try {
+            Files.write(file, Arrays.asList("# most traded first", "AMZN, 128.5", "", "MSFT"), StandardCharsets.UTF_8);
+
+            SymbolUniverse universe = SymbolUniverse.load(file, 42);
+
+            assertEquals(2, universe.size());
+            assertEquals("AMZN", universe.getSymbol(0));
+            assertEquals(128.5, universe.getOpeningPrice(0), 0);
+            assertEquals("MSFT", universe.getSymbol(1));
+            assertTrue(universe.getOpeningPrice(1) > 0);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void skewedModelPrefersPopularSymbolsAndKeepsPricesPositive() throws Exception {
+        Map<String, String> options = new HashMap<>();
+        options.put("market.model", "skewed");
+        options.put("market.symbols", "1000");
+        options.put("market.volatility", "0.05");
+        MarketSimulation simulation = MarketSimulation.fromOptions(options);
+        SymbolUniverse universe = SymbolUniverse.generate(1000, 42);
+        MarketModel model = simulation.createModel(new EventTimeClock());
+
+        Stock stock = new Stock();
+        int mostPopular = 0;
+        for (int i = 0; i < 100_000; i++) {
+            model.next(stock, ThreadLocalRandom.current());
+            assertTrue(stock.getPrice() > 0);
+            if (stock.getTicker().equals(universe.getSymbol(0))) {
+                mostPopular++;
+            }
+        }
+
+        // 1 / H(1000) of the records, about 13%
+        assertEquals(13_400, mostPopular, 1000);
+    }
+
+    @Test
+    public void modelsShareOnePricePathPerSymbol() throws Exception {
+        Map<String, String> options = new HashMap<>();
+        options.put("market.model", "SKEWED");
+        options.put("market.symbols", "1");
+        options.put("market.volatility", "0.01");
+        MarketSimulation simulation = MarketSimulation.fromOptions(options);
+        MarketModel[] models = { simulation.createModel(new EventTimeClock()), simulation.createModel(new EventTimeClock()) };
+
+        // Every move starts from the last price, whichever model made it; a step is 1% of the price
+        // while separate paths would drift apart by far more
+        Stock stock = new Stock();
+        models[0].next(stock, ThreadLocalRandom.current());
+        float last = stock.getPrice();
+        for (int i = 1; i < 10_000; i++) {
+            models[i % 2].next(stock, ThreadLocalRandom.current());
+            assertEquals("move " + i, last, stock.getPrice(), 0.1 * last);
+            last = stock.getPrice();
+        }
+    }
+
+    @Test
+    public void stampsOutOfOrderAndLateEvents() throws Exception {
+        Map<String, String> options = new HashMap<>();
+        options.put("market.model", "SKEWED");
+        options.put("market.symbols", "10");
+        options.put("market.out-of-order-fraction", "0.2");
+        options.put("market.max-out-of-order-seconds", "5");
+        options.put("market.late-fraction", "0.1");
+        options.put("market.max-lateness-seconds", "60");
+        MarketModel model = MarketSimulation.fromOptions(options).createModel(new EventTimeClock());
+        DateTimeFormatter format = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+        Stock stock = new Stock();
+        int onTime = 0;
+        int outOfOrder = 0;
+        int late = 0;
+        for (int i = 0; i < 10_000; i++) {
+            LocalDateTime before = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+            model.next(stock, ThreadLocalRandom.current());
+            long delay = ChronoUnit.SECONDS.between(LocalDateTime.parse(stock.getEvent_time(), format), before);
+
+            assertTrue("delay " + delay, delay <= 60);
+            if (delay <= 0) {
+                onTime++;
+            } else if (delay <= 5) {
+                outOfOrder++;
+            } else {
+                late++;
+            }
+        }
+
+        assertEquals(7000, onTime, 500);
+        assertEquals(2000, outOfOrder, 500);
+        assertEquals(1000, late, 500);
+    }
+
+    @Test
+    public void alternatesQuietAndBurstPhases() throws Exception {
+        BurstSchedule schedule = new BurstSchedule(4, Duration.ofSeconds(1), Duration.ofSeconds(3));
+
+        assertEquals(1, schedule.rateFactor(0), 0);
+        assertEquals(1, schedule.rateFactor(Duration.ofMillis(2999).toNanos()), 0);
+        assertEquals(4, schedule.rateFactor(Duration.ofMillis(3000).toNanos()), 0);
+        assertEquals(1, schedule.rateFactor(Duration.ofMillis(4000).toNanos()), 0);
+
+        assertNull(MarketSimulation.fromOptions(new HashMap<>()).getBurstSchedule());
+    }
+}
@@ -0,0 +1,87 @@
+package com.amazonaws;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Test;
+
+public class PayloadEncoderTest {
+
+    @Test
+    public void encodesJsonWithFixedFieldOrder() {
+        String json = json(new JsonPayloadEncoder(), stock("2023-05-01 10:00:00", "AMZN", 12.345f));
+
+        assertEquals("{\"event_time\":\"2023-05-01 10:00:00\",\"ticker\":\"AMZN\",\"price\":12.35}", json);
+    }
+
+    @Test
+    public void formatsPricesInPlace() {
+        JsonPayloadEncoder encoder = new JsonPayloadEncoder(2);
+
+        assertEquals("0.00", price(encoder, 0f));
+        assertEquals("0.05", price(encoder, 0.05f));
+        assertEquals("-3.10", price(encoder, -3.1f));
+        assertEquals("100.00", price(encoder, 99.999f));
+        assertEquals("7", price(new JsonPayloadEncoder(0), 7.2f));
+        assertEquals("1.0E20", price(encoder, 1e20f));
+        assertEquals("null", price(encoder, Float.NaN));
+    }
+
+    @Test
+    public void escapesStrings() {
+        String json = json(new JsonPayloadEncoder(), stock(null, "A\"B\\C\u0001é€😀", 1f));
+
+        JsonObject parsed = JsonParser.parseString(json).getAsJsonObject();
+        assertTrue(parsed.get("event_time").isJsonNull());
+        assertEquals("A\"B\\C\u0001é€😀", parsed.get("ticker").getAsString());
+    }
+
+    @Test
+    public void encodesBinaryLayout() {
+        byte[] payload = new BinaryPayloadEncoder().encode(stock("2023-05-01 10:00:00", null, 12.5f));
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+
+        assertEquals(19, buffer.getShort());
+        byte[] eventTime = new byte[19];
+        buffer.get(eventTime);
+        assertEquals("2023-05-01 10:00:00", new String(eventTime, StandardCharsets.UTF_8));
+        assertEquals(-1, buffer.getShort());
+        assertEquals(12.5f, buffer.getFloat(), 0f);
+        assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    public void generatesRandomUuidKeys() {
+        UUID key = UUID.fromString(new String(StockRecordGenerator.randomKey(ThreadLocalRandom.current()),
+                StandardCharsets.US_ASCII));
+
+        assertEquals(4, key.version());
+        assertEquals(2, key.variant());
+    }
+
+    private static String price(JsonPayloadEncoder encoder, float price) {
+        String json = json(encoder, stock("t", "T", price));
+        // Still valid JSON
+        assertTrue(JsonParser.parseString(json).getAsJsonObject().has("price"));
+        return json.substring(json.indexOf("\"price\":") + 8, json.length() - 1);
+    }
+
+    private static String json(PayloadEncoder encoder, Stock stock) {
+        return new String(encoder.encode(stock), StandardCharsets.UTF_8);
+    }
+
+    private static Stock stock(String eventTime, String ticker, float price) {
+        Stock stock = new Stock();
+        stock.setEvent_time(eventTime);
+        stock.setTicker(ticker);
+        stock.setPrice(price);
+        return stock;
+    }
+}
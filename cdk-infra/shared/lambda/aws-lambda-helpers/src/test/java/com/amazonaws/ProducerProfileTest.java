@@ -0,0 +1,78 @@
+package com.amazonaws;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.junit.Test;
+
+public class ProducerProfileTest {
+
+    @Test
+    public void defaultProfileKeepsTheFormerSettings() {
+        Properties properties = new MSKDataGen("localhost:9092", "topic").getProperties();
+
+        assertEquals("100", properties.get(ProducerConfig.LINGER_MS_CONFIG));
+        assertFalse(properties.containsKey(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+        assertFalse(properties.containsKey(ProducerConfig.ACKS_CONFIG));
+    }
+
+    @Test
+    public void parsesProfileNames() {
+        assertEquals(ProducerProfile.MAX_THROUGHPUT, ProducerProfile.of("max-throughput"));
+        assertEquals(ProducerProfile.MAX_THROUGHPUT_ZSTD, ProducerProfile.of(" Max_Throughput_Zstd "));
+        assertEquals(ProducerProfile.IDEMPOTENT, ProducerProfile.of("idempotent"));
+    }
+
+    @Test
+    public void overridesApplyOnTopOfTheProfile() {
+        MSKDataGen dataGen = new MSKDataGen("localhost:9092", "topic");
+        dataGen.setProducerProfile(ProducerProfile.IDEMPOTENT);
+        Map<String, String> event = new HashMap<>();
+        event.put("Broker", "localhost:9092");
+        event.put("producer.linger.ms", "5");
+        dataGen.setProducerOverrides(ProducerProfile.overrides(event));
+
+        Properties properties = dataGen.getProperties();
+
+        assertEquals("true", properties.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
+        assertEquals("all", properties.get(ProducerConfig.ACKS_CONFIG));
+        assertEquals("5", properties.get(ProducerConfig.LINGER_MS_CONFIG));
+        assertFalse(properties.containsKey("Broker"));
+    }
+
+    @Test
+    public void readsProfileFromResourceProperties() {
+        Map<String, Object> resourceProperties = new HashMap<>();
+        resourceProperties.put("Broker", "localhost:9092");
+        resourceProperties.put("Topic", "topic");
+        resourceProperties.put("NumPartitions", 3);
+        resourceProperties.put("ReplicationFactor", 2);
+        resourceProperties.put("ProducerProfile", "low-latency");
+        resourceProperties.put("producer.batch.size", "32768");
+
+        ResourceProperties rp = ResourceProperties.fromMap(resourceProperties);
+
+        assertEquals(ProducerProfile.LOW_LATENCY, rp.Profile);
+        assertEquals("32768", rp.ProducerOverrides.get(ProducerConfig.BATCH_SIZE_CONFIG));
+        assertEquals(1, rp.ProducerOverrides.size());
+    }
+
+    @Test
+    public void profileIsOptionalInResourceProperties() {
+        Map<String, Object> resourceProperties = new HashMap<>();
+        resourceProperties.put("Broker", "localhost:9092");
+        resourceProperties.put("Topic", "topic");
+        resourceProperties.put("NumPartitions", "3");
+        resourceProperties.put("ReplicationFactor", "2");
+
+        ResourceProperties rp = ResourceProperties.fromMap(resourceProperties);
+
+        assertEquals(ProducerProfile.DEFAULT, rp.Profile);
+        assertEquals(0, rp.ProducerOverrides.size());
+    }
+}